@@ -22,6 +22,9 @@ package myra;
 import static myra.Config.CONFIG;
 
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
 import myra.Config.ConfigKey;
 
@@ -232,7 +235,7 @@ public interface Archive<E extends Weighable<E>> {
 
         @Override
         public void sort() {
-            Arrays.sort(solutions, (o1, o2) -> -o1.compareTo(o2));
+            Arrays.sort(solutions, 0, size, (o1, o2) -> -o1.compareTo(o2));
         }
 
         @Override
@@ -243,7 +246,7 @@ public interface Archive<E extends Weighable<E>> {
                         + "expected " + size + ", actual " + n);
             }
 
-            E[] top = (E[]) new Comparable[n];
+            E[] top = (E[]) new Weighable[n];
             System.arraycopy(solutions, 0, top, 0, n);
             return top;
         }
@@ -353,4 +356,220 @@ public interface Archive<E extends Weighable<E>> {
             this.archive.update();
         }
     }
+
+    /**
+     * Solution archive for concurrent writers. The archive is divided in
+     * stripes, each of them an archive with its own lock, and each thread
+     * always adds its solutions to the same stripe, so threads adding
+     * solutions at the same time do not wait for each other (unless there are
+     * more threads than stripes). The remaining operations hold the locks of
+     * all stripes and first merge the stripes, so they see the top solutions
+     * added by all threads.
+     * 
+     * @author Fernando Esteban Barril Otero
+     */
+    public class ConcurrentArchive<E extends Weighable<E>>
+            implements Archive<E> {
+        /**
+         * The stripes of the archive. After a merge, all solutions are in the
+         * first stripe.
+         */
+        private final DefaultArchive<E>[] stripes;
+
+        /**
+         * The lock of each stripe.
+         */
+        private final ReentrantLock[] locks;
+
+        /**
+         * The number of solutions added to each stripe since the archive was
+         * last drained (see {@link #drain(Archive)}).
+         */
+        private final int[] added;
+
+        /**
+         * The stripe of the current thread.
+         */
+        private final ThreadLocal<Integer> stripe;
+
+        /**
+         * Creates a new <code>ConcurrentArchive</code>.
+         * 
+         * @param capacity
+         *            the size of the solution archive.
+         * @param concurrency
+         *            the number of stripes, usually the number of threads
+         *            adding solutions.
+         */
+        @SuppressWarnings("unchecked")
+        public ConcurrentArchive(int capacity, int concurrency) {
+            if (concurrency < 1) {
+                throw new IllegalArgumentException("Invalid concurrency for archive: "
+                        + concurrency);
+            }
+
+            stripes = new DefaultArchive[concurrency];
+            locks = new ReentrantLock[concurrency];
+            added = new int[concurrency];
+
+            for (int i = 0; i < concurrency; i++) {
+                stripes[i] = new DefaultArchive<>(capacity);
+                locks[i] = new ReentrantLock();
+            }
+
+            // threads are assigned to stripes in a round-robin fashion
+            final AtomicInteger next = new AtomicInteger();
+            stripe = ThreadLocal
+                    .withInitial(() -> next.getAndIncrement() % concurrency);
+        }
+
+        /**
+         * Adds a new solution to the stripe of the current thread.
+         * 
+         * @param e
+         *            the solution to add.
+         * 
+         * @return <code>true</code> if the solution is added to the stripe of
+         *         the current thread; <code>false</code> otherwise. A solution
+         *         added to the stripe can still be discarded when the stripes
+         *         are merged.
+         */
+        @Override
+        public boolean add(E e) {
+            int i = stripe.get();
+            locks[i].lock();
+
+            try {
+                added[i]++;
+                return stripes[i].add(e);
+            } finally {
+                locks[i].unlock();
+            }
+        }
+
+        /**
+         * Moves all solutions of the archive to the specified archive, leaving
+         * this archive empty. Solutions added while the archive is drained are
+         * either moved or kept for the next drain.
+         * 
+         * @param target
+         *            the archive to receive the solutions.
+         * 
+         * @return the number of solutions added to this archive since it was
+         *         last drained, including the solutions discarded for not
+         *         being among the top solutions.
+         */
+        public int drain(Archive<E> target) {
+            return merged(archive -> {
+                E[] solutions = archive.solutions();
+
+                for (int i = 0; i < archive.size(); i++) {
+                    target.add(solutions[i]);
+                }
+
+                archive.clear();
+                int count = added[0];
+                added[0] = 0;
+
+                return count;
+            });
+        }
+
+        /**
+         * Applies the specified operation to the merged stripes, holding the
+         * locks of all stripes.
+         * 
+         * @param operation
+         *            the operation to apply.
+         * 
+         * @return the value returned by the operation.
+         */
+        private <R> R merged(Function<DefaultArchive<E>, R> operation) {
+            // locks are always acquired in the same order
+            for (ReentrantLock lock : locks) {
+                lock.lock();
+            }
+
+            try {
+                DefaultArchive<E> archive = stripes[0];
+
+                for (int i = 1; i < stripes.length; i++) {
+                    E[] solutions = stripes[i].solutions();
+
+                    for (int j = 0; j < stripes[i].size(); j++) {
+                        // solutions are in decreasing order, so the remaining
+                        // ones will not be added either
+                        if (!archive.add(solutions[j])) {
+                            break;
+                        }
+                    }
+
+                    stripes[i].clear();
+                    added[0] += added[i];
+                    added[i] = 0;
+                }
+
+                return operation.apply(archive);
+            } finally {
+                for (int i = locks.length - 1; i >= 0; i--) {
+                    locks[i].unlock();
+                }
+            }
+        }
+
+        @Override
+        public int capacity() {
+            return stripes[0].capacity();
+        }
+
+        @Override
+        public int size() {
+            return merged(archive -> archive.size());
+        }
+
+        @Override
+        public void clear() {
+            merged(archive -> {
+                archive.clear();
+                added[0] = 0;
+                return null;
+            });
+        }
+
+        @Override
+        public E lowest() {
+            return merged(archive -> archive.lowest());
+        }
+
+        @Override
+        public E highest() {
+            return merged(archive -> archive.highest());
+        }
+
+        @Override
+        public void sort() {
+            merged(archive -> {
+                archive.sort();
+                return null;
+            });
+        }
+
+        @Override
+        public E[] topN(int n) {
+            return merged(archive -> archive.topN(n));
+        }
+
+        @Override
+        public boolean isFull() {
+            return merged(archive -> archive.isFull());
+        }
+
+        @Override
+        public void update() {
+            merged(archive -> {
+                archive.update();
+                return null;
+            });
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,359 @@
+/*
+ * AsynchronousScheduler.java
+ * (this file is part of MYRA)
+ * 
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra;
+
+import static myra.Config.CONFIG;
+import static myra.ParallelScheduler.DISPATCH_STATISTICS;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import myra.Archive.ConcurrentArchive;
+import myra.Config.ConfigKey;
+import myra.util.StreamRandom;
+
+/**
+ * Steady-state (asynchronous) implementation of a <code>Scheduler</code>.
+ * There is no barrier between iterations: each worker thread keeps creating
+ * solutions, and the local search and pheromone update are applied once
+ * {@link #STEADY_STATE} solutions arrived.
+ * 
+ * <p>
+ * Updates are applied one at a time by the worker that delivers the last
+ * solution of a batch; the steps are the same as the generational scheduler
+ * (search, update and termination test). Workers add their solutions to a
+ * {@link ConcurrentArchive} without holding a lock of the scheduler, and the
+ * update moves the solutions to the archive of the scheduler before
+ * applying the steps. Solutions that arrive during an
+ * update are used by the next update, so a batch has more than
+ * {@link #STEADY_STATE} solutions when the update takes longer than the
+ * creation of the solutions. Each update is an iteration of the activity,
+ * therefore a batch smaller than the colony creates fewer solutions than the
+ * generational scheduler for the same maximum number of iterations.
+ * </p>
+ * 
+ * <p>
+ * If the activity implements {@link ConcurrentActivity}, solutions are
+ * created while the update is applied, since the update does not modify the
+ * state used by the ants. Otherwise, solutions are created holding the read
+ * lock of the scheduler and the update holds its write lock: the update waits
+ * for the solutions being created, and new solutions wait for the update.
+ * </p>
+ * 
+ * <p>
+ * The solutions used in an update depend on the order in which the ants
+ * finish, so the results are not reproducible across executions even with
+ * the same seed.
+ * </p>
+ * 
+ * @author Fernando Esteban Barril Otero
+ */
+public class AsynchronousScheduler<T extends Weighable<T>>
+        extends Scheduler<T> {
+    /**
+     * The config key for the number of solutions of each pheromone update in
+     * steady-state mode. A value of <code>0</code> uses the colony size.
+     */
+    public final static ConfigKey<Integer> STEADY_STATE = new ConfigKey<>();
+
+    /**
+     * Used to measure the CPU time of the workers.
+     */
+    private static final ThreadMXBean THREADS =
+            ManagementFactory.getThreadMXBean();
+
+    /**
+     * The lock that separates the creation of solutions (read) from the
+     * update of the activity (write), used when the activity does not
+     * implement {@link ConcurrentActivity}. The lock is fair, so new ants do
+     * not delay a pending update.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock(true);
+
+    /**
+     * Indicates whether solutions are created while the activity is updated.
+     */
+    private boolean concurrent;
+
+    /**
+     * The archive that receives the solutions of the workers. Its solutions
+     * are moved to the {@link #archive} at the start of an update.
+     */
+    private ConcurrentArchive<T> arrivals;
+
+    /**
+     * Indicates whether a worker is applying an update.
+     */
+    private final AtomicBoolean updating = new AtomicBoolean();
+
+    /**
+     * The number of solutions of each update.
+     */
+    private int granularity;
+
+    /**
+     * The number of solutions started.
+     */
+    private final AtomicInteger started = new AtomicInteger();
+
+    /**
+     * The number of solutions that arrived since the last update.
+     */
+    private final AtomicInteger arrived = new AtomicInteger();
+
+    /**
+     * The number of updates performed. It is only modified by the worker
+     * applying an update.
+     */
+    private int updates;
+
+    /**
+     * Indicates whether the workers should stop.
+     */
+    private volatile boolean stop;
+
+    /**
+     * Creates a new <code>AsynchronousScheduler</code>.
+     */
+    public AsynchronousScheduler() {
+        this(null, CONFIG.get(COLONY_SIZE));
+    }
+
+    /**
+     * Creates a new <code>AsynchronousScheduler</code>.
+     * 
+     * @param activity
+     *            the (wrapped) activity.
+     * @param capacity
+     *            number of candidate solutions stored at each update.
+     */
+    public AsynchronousScheduler(Activity<T> activity, int capacity) {
+        super(activity, capacity);
+    }
+
+    @Override
+    protected void initialise() {
+        super.initialise();
+
+        granularity = CONFIG.isPresent(STEADY_STATE)
+                && CONFIG.get(STEADY_STATE) > 0 ? CONFIG.get(STEADY_STATE)
+                        : CONFIG.get(COLONY_SIZE);
+        started.set(0);
+        arrived.set(0);
+        updates = 0;
+        updating.set(false);
+        stop = false;
+    }
+
+    @Override
+    public void run() {
+        initialise();
+
+        if (terminate()) {
+            return;
+        }
+
+        concurrent = activity instanceof ConcurrentActivity;
+        ForkJoinPool pool = ParallelScheduler.pool(CONFIG.get(PARALLEL));
+        arrivals = new ConcurrentArchive<>(archive.capacity(),
+                                           pool.getParallelism());
+        final Config config = Config.current();
+        List<Callable<Long>> workers = new ArrayList<>();
+
+        for (int i = 0; i < pool.getParallelism(); i++) {
+            workers.add(() -> {
+                Config previous = Config.bind(config);
+
+                try {
+                    return work();
+                } catch (RuntimeException | Error e) {
+                    // stops the remaining workers
+                    stop = true;
+
+                    throw e;
+                } finally {
+                    Config.bind(previous);
+                }
+            });
+        }
+
+        setConcurrent(true);
+
+        long start = System.nanoTime();
+        long work = 0;
+
+        try {
+            for (Future<Long> future : pool.invokeAll(workers)) {
+                try {
+                    work += future.get();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+
+                    throw new RuntimeException(e.getCause());
+                }
+            }
+        } finally {
+            setConcurrent(false);
+        }
+
+        if (CONFIG.isPresent(DISPATCH_STATISTICS)) {
+            CONFIG.get(DISPATCH_STATISTICS)
+                    .steady(started.get(), updates, System.nanoTime() - start, work);
+        }
+    }
+
+    /**
+     * Enables or disables the concurrent mode of the activity, if the activity
+     * implements {@link ConcurrentActivity}.
+     * 
+     * @param enabled
+     *            <code>true</code> to enable the concurrent mode;
+     *            <code>false</code> otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    private void setConcurrent(boolean enabled) {
+        if (concurrent) {
+            ((ConcurrentActivity<T>) activity).setConcurrent(enabled);
+        }
+    }
+
+    /**
+     * Creates solutions until the activity terminates.
+     * 
+     * @return the CPU time spent by the worker, in nanoseconds.
+     */
+    private long work() {
+        long cpu = THREADS.getCurrentThreadCpuTime();
+
+        while (!stop) {
+            int ant = started.getAndIncrement();
+            T solution;
+
+            if (concurrent) {
+                solution = create(ant / granularity, ant % granularity);
+            } else {
+                lock.readLock().lock();
+
+                try {
+                    solution = create(ant / granularity, ant % granularity);
+                } finally {
+                    lock.readLock().unlock();
+                }
+            }
+
+            if (stop) {
+                break;
+            }
+
+            // the solution is counted after being added, so an update always
+            // finds the solutions counted
+            arrivals.add(solution);
+            arrived.incrementAndGet();
+
+            // the flag is checked after being released, so a batch completed
+            // while this worker was updating is not missed
+            while (!stop && arrived.get() >= granularity
+                    && updating.compareAndSet(false, true)) {
+                try {
+                    arrived.addAndGet(-arrivals.drain(archive));
+                    apply(archive);
+                    updates++;
+                } finally {
+                    updating.set(false);
+                }
+            }
+        }
+
+        return THREADS.getCurrentThreadCpuTime() - cpu;
+    }
+
+    /**
+     * Applies the search, update and termination test of the activity to the
+     * specified solutions. Unless the activity is concurrent, these steps
+     * hold the write lock, so they wait for the solutions being created.
+     * 
+     * @param batch
+     *            the solutions of the update.
+     */
+    private void apply(Archive<T> batch) {
+        boolean terminate;
+
+        if (!concurrent) {
+            lock.writeLock().lock();
+        }
+
+        try {
+            if (activity.search(batch)) {
+                batch.sort();
+            }
+
+            activity.update(batch);
+            batch.clear();
+            terminate = activity.terminate();
+        } finally {
+            if (!concurrent) {
+                lock.writeLock().unlock();
+            }
+        }
+
+        if (terminate) {
+            stop = true;
+        }
+    }
+
+    /**
+     * Creates the candidate solution of the specified ant, using the random
+     * stream of the ant.
+     * 
+     * @param batch
+     *            the index of the batch of the ant.
+     * @param ant
+     *            the index of the ant in the batch.
+     * 
+     * @return the candidate solution.
+     */
+    private T create(int batch, int ant) {
+        SplittableRandom previous =
+                StreamRandom.bind(StreamRandom.stream(seed, batch, ant));
+
+        try {
+            T solution = activity.create();
+            Budget.evaluated();
+            return solution;
+        } finally {
+            StreamRandom.bind(previous);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Budget.java
+ * (this file is part of MYRA)
+ * 
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra;
+
+import static myra.Config.CONFIG;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.atomic.LongAdder;
+
+import myra.Config.ConfigKey;
+
+/**
+ * The computational budget of a run: a wall-clock limit, a maximum number of
+ * solution evaluations and a CPU time limit. When any of the limits is
+ * reached, {@link IterativeActivity} instances terminate at the end of the
+ * current iteration and the best solution found so far is used, so a run
+ * always produces a model.
+ * 
+ * <p>
+ * The budget is created at the start of training (see
+ * {@link myra.datamining.Algorithm#train(Config, myra.datamining.Dataset)})
+ * and shared by all threads of the run.
+ * </p>
+ * 
+ * @author Fernando Esteban Barril Otero
+ */
+public final class Budget {
+    /**
+     * The config key for the wall-clock limit (in seconds).
+     */
+    public final static ConfigKey<Double> TIME_LIMIT = new ConfigKey<>();
+
+    /**
+     * The config key for the maximum number of solution evaluations.
+     */
+    public final static ConfigKey<Integer> MAX_EVALUATIONS = new ConfigKey<>();
+
+    /**
+     * The config key for the CPU time limit (in seconds), summed over all
+     * threads of the process.
+     */
+    public final static ConfigKey<Double> CPU_LIMIT = new ConfigKey<>();
+
+    /**
+     * The config key for the budget of the current run.
+     */
+    public final static ConfigKey<Budget> BUDGET = new ConfigKey<>();
+
+    /**
+     * The wall-clock limit, in nanoseconds; <code>Long.MAX_VALUE</code> if
+     * there is no limit.
+     */
+    private final long time;
+
+    /**
+     * The maximum number of evaluations; <code>Long.MAX_VALUE</code> if there
+     * is no limit.
+     */
+    private final long evaluations;
+
+    /**
+     * The CPU time limit, in nanoseconds; <code>Long.MAX_VALUE</code> if there
+     * is no limit.
+     */
+    private final long cpu;
+
+    /**
+     * The start time (wall-clock) of the run.
+     */
+    private final long start;
+
+    /**
+     * The CPU time of the process at the start of the run.
+     */
+    private final long startCpu;
+
+    /**
+     * The number of evaluations performed.
+     */
+    private final LongAdder evaluated = new LongAdder();
+
+    /**
+     * The reason why the budget expired; <code>null</code> while the budget
+     * has not expired.
+     */
+    private volatile String reason;
+
+    /**
+     * Creates a new <code>Budget</code>.
+     * 
+     * @param time
+     *            the wall-clock limit (in seconds); <code>null</code> if there
+     *            is no limit.
+     * @param evaluations
+     *            the maximum number of evaluations; <code>null</code> if there
+     *            is no limit.
+     * @param cpu
+     *            the CPU time limit (in seconds); <code>null</code> if there is
+     *            no limit.
+     */
+    public Budget(Double time, Integer evaluations, Double cpu) {
+        this.time = time == null ? Long.MAX_VALUE : (long) (time * 1e9);
+        this.evaluations = evaluations == null ? Long.MAX_VALUE : evaluations;
+        this.cpu = cpu == null ? Long.MAX_VALUE : (long) (cpu * 1e9);
+
+        // the first call may load the management beans, so it is done
+        // before the wall-clock starts
+        startCpu = cpuTime();
+        start = System.nanoTime();
+    }
+
+    /**
+     * Returns a new budget using the limits of the current configuration.
+     * 
+     * @param config
+     *            the configuration of the run.
+     * 
+     * @return a new budget; <code>null</code> if no limit is set.
+     */
+    public static Budget of(Config config) {
+        if (config.isPresent(TIME_LIMIT) || config.isPresent(MAX_EVALUATIONS)
+                || config.isPresent(CPU_LIMIT)) {
+            return new Budget(config.isPresent(TIME_LIMIT)
+                    ? config.get(TIME_LIMIT) : null,
+                              config.isPresent(MAX_EVALUATIONS)
+                                      ? config.get(MAX_EVALUATIONS) : null,
+                              config.isPresent(CPU_LIMIT)
+                                      ? config.get(CPU_LIMIT) : null);
+        }
+
+        return null;
+    }
+
+    /**
+     * Records a solution evaluation against the budget of the current run.
+     */
+    public static void evaluated() {
+        if (CONFIG.isPresent(BUDGET)) {
+            CONFIG.get(BUDGET).evaluated.increment();
+        }
+    }
+
+    /**
+     * Checks whether the budget of the current run has expired.
+     * 
+     * @return <code>true</code> if the budget of the current run has expired;
+     *         <code>false</code> otherwise (or if there is no budget).
+     */
+    public static boolean expired() {
+        return CONFIG.isPresent(BUDGET) && CONFIG.get(BUDGET).isExpired();
+    }
+
+    /**
+     * Checks whether any of the limits has been reached. Once expired, the
+     * budget stays expired.
+     * 
+     * @return <code>true</code> if any of the limits has been reached;
+     *         <code>false</code> otherwise.
+     */
+    public boolean isExpired() {
+        if (reason == null) {
+            if (evaluated.sum() >= evaluations) {
+                reason = "evaluations";
+            } else if (System.nanoTime() - start >= time) {
+                reason = "time";
+            } else if (cpu != Long.MAX_VALUE && cpuTime() - startCpu >= cpu) {
+                reason = "CPU time";
+            }
+        }
+
+        return reason != null;
+    }
+
+    /**
+     * Returns the CPU time used by the process. If the JVM does not provide
+     * it, the wall-clock time is used instead.
+     * 
+     * @return the CPU time used by the process, in nanoseconds.
+     */
+    private static long cpuTime() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            long time = ((com.sun.management.OperatingSystemMXBean) os)
+                    .getProcessCpuTime();
+
+            if (time >= 0) {
+                return time;
+            }
+        }
+
+        return System.nanoTime();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s after %d evaluations, %.2f seconds",
+                             reason == null ? "not expired"
+                                     : (reason + " limit reached"),
+                             evaluated.sum(),
+                             (System.nanoTime() - start) / 1e9);
+    }
+}
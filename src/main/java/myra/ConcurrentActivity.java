@@ -0,0 +1,49 @@
+/*
+ * ConcurrentActivity.java
+ * (this file is part of MYRA)
+ * 
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra;
+
+/**
+ * An <code>Activity</code> that can be updated while solutions are being
+ * created. In concurrent mode, the state read by {@link Activity#create()}
+ * (e.g., the pheromone values) is not modified by the other steps: they
+ * modify a copy of the state and then replace the state by the copy.
+ * Solutions being created when the state is replaced carry on using the
+ * previous state.
+ * 
+ * @author Fernando Esteban Barril Otero
+ * 
+ * @see AsynchronousScheduler
+ * 
+ * @param <T>
+ *            the type of solution created by the activity.
+ */
+public interface ConcurrentActivity<T extends Weighable<T>>
+        extends Activity<T> {
+    /**
+     * Enables or disables the concurrent mode. The concurrent mode is only
+     * enabled by the scheduler while solutions are created in parallel with
+     * the other steps, since copying the state has a cost.
+     * 
+     * @param concurrent
+     *            <code>true</code> to enable the concurrent mode;
+     *            <code>false</code> otherwise.
+     */
+    public void setConcurrent(boolean concurrent);
+}
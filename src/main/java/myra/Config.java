@@ -25,23 +25,167 @@ import java.util.HashMap;
  * The <code>Config</code> holds all configuration parameters for the execution
  * of an algorithm.
  * 
+ * <p>
+ * Each run of an algorithm uses its own <code>Config</code> object, bound to
+ * the threads executing the run (see {@link #bind(Config)}). Components read
+ * their parameters through the {@link #CONFIG} instance, which resolves every
+ * lookup against the configuration bound to the current thread; when no
+ * configuration is bound, a process-wide default configuration is used. This
+ * allows independent runs to execute concurrently in the same process.
+ * </p>
+ * 
+ * <p>
+ * Updates are copy-on-write, so a configuration can be read by many threads
+ * while it is being set up. A {@link #snapshot()} of a configuration is
+ * immutable.
+ * </p>
+ * 
  * @author Fernando Esteban Barril Otero
  */
 public final class Config {
     /**
-     * The singleton instance.
+     * The configuration shared by the threads that have no bound
+     * configuration.
+     */
+    private static final Config GLOBAL = new Config();
+
+    /**
+     * The configuration bound to each thread.
+     */
+    private static final ThreadLocal<Config> BOUND = new ThreadLocal<>();
+
+    /**
+     * The configuration of the current thread. Lookups using this instance
+     * are delegated to the configuration bound to the current thread.
+     */
+    public static final Config CONFIG = new Config(true);
+
+    /**
+     * Mapping of <code>ConfigKey</code> object and values. The map is never
+     * modified once assigned.
+     */
+    private volatile HashMap<ConfigKey<?>, Object> mapping = new HashMap<>();
+
+    /**
+     * Indicates whether this configuration delegates to the configuration
+     * of the current thread.
+     */
+    private final boolean delegate;
+
+    /**
+     * Indicates whether this configuration is immutable.
+     */
+    private boolean frozen;
+
+    /**
+     * Creates a new (empty) configuration.
+     */
+    public Config() {
+        this(false);
+    }
+
+    /**
+     * Creates a new configuration with the same values as the specified
+     * configuration.
+     * 
+     * @param source
+     *            the configuration to copy the values from.
+     */
+    public Config(Config source) {
+        this(false);
+        mapping = new HashMap<>(source.resolve().mapping);
+    }
+
+    /**
+     * Creates a new configuration.
+     * 
+     * @param delegate
+     *            <code>true</code> if the configuration delegates to the
+     *            configuration of the current thread.
+     */
+    private Config(boolean delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Returns the configuration bound to the current thread, or the
+     * process-wide default configuration if none is bound.
+     * 
+     * @return the configuration of the current thread.
+     */
+    public static Config current() {
+        Config bound = BOUND.get();
+        return bound == null ? GLOBAL : bound;
+    }
+
+    /**
+     * Binds the specified configuration to the current thread. The previous
+     * binding is returned, so that it can be restored when the run finishes:
+     * 
+     * <pre>
+     * Config previous = Config.bind(config);
+     * 
+     * try {
+     *     ...
+     * } finally {
+     *     Config.bind(previous);
+     * }
+     * </pre>
+     * 
+     * @param config
+     *            the configuration to bind; <code>null</code> removes the
+     *            binding.
+     * 
+     * @return the configuration previously bound to the current thread;
+     *         <code>null</code> if there was none.
+     */
+    public static Config bind(Config config) {
+        if (config != null && config.delegate) {
+            config = current();
+        }
+
+        Config previous = BOUND.get();
+
+        if (config == null) {
+            BOUND.remove();
+        } else {
+            BOUND.set(config);
+        }
+
+        return previous;
+    }
+
+    /**
+     * Returns the configuration that holds the values: the configuration
+     * bound to the current thread for the {@link #CONFIG} instance, this
+     * configuration otherwise.
+     * 
+     * @return the configuration that holds the values.
      */
-    public static final Config CONFIG = new Config();
+    private Config resolve() {
+        return delegate ? current() : this;
+    }
 
     /**
-     * Mapping of <code>ConfigKey</code> object and values.
+     * Returns an immutable copy of this configuration.
+     * 
+     * @return an immutable copy of this configuration.
      */
-    private HashMap<ConfigKey<?>, Object> mapping = new HashMap<>();
+    public Config snapshot() {
+        Config snapshot = new Config(this);
+        snapshot.frozen = true;
+
+        return snapshot;
+    }
 
     /**
-     * Private constructor.
+     * Returns <code>true</code> if this configuration is immutable.
+     * 
+     * @return <code>true</code> if this configuration is immutable;
+     *         <code>false</code> otherwise.
      */
-    private Config() {
+    public boolean isFrozen() {
+        return resolve().frozen;
     }
 
     /**
@@ -55,12 +199,23 @@ public final class Config {
      *            the value to set.
      */
     public <T> void set(ConfigKey<T> key, T value) {
-        mapping.put(key, value);
+        Config config = resolve();
+
+        if (config.frozen) {
+            throw new IllegalStateException("Configuration is immutable: "
+                    + key + " cannot be set.");
+        }
+
+        synchronized (config) {
+            HashMap<ConfigKey<?>, Object> copy = new HashMap<>(config.mapping);
+            copy.put(key, value);
+            config.mapping = copy;
+        }
     }
 
     /**
      * Returns the value associated with the specified <code>ConfigKey</code>
-     * object.
+     * object, or the default value of the key if it has not been set.
      * 
      * @param <T>
      *            the type of the key.
@@ -72,12 +227,18 @@ public final class Config {
      */
     @SuppressWarnings("unchecked")
     public <T> T get(ConfigKey<T> key) {
-        if (!isPresent(key)) {
+        HashMap<ConfigKey<?>, Object> values = resolve().mapping;
+
+        if (!values.containsKey(key)) {
+            if (key.defaultValue != null) {
+                return key.defaultValue;
+            }
+
             throw new IllegalStateException("ConfigKey " + key
                     + " has not been set.");
         }
 
-        return (T) mapping.get(key);
+        return (T) values.get(key);
     }
 
     /**
@@ -90,18 +251,43 @@ public final class Config {
      *            the <code>ConfigKey</code> object.
      * 
      * @return <code>true</code> if the specified <code>ConfigKey</code> object
-     *         has been set; <code>false</code> otherwise.
+     *         has been set or has a default value; <code>false</code>
+     *         otherwise.
      */
     public <T> boolean isPresent(ConfigKey<T> key) {
-        return mapping.containsKey(key);
+        return key.defaultValue != null || resolve().mapping.containsKey(key);
     }
 
     /**
-     * Struct-like class to represent a configuration key.
+     * Struct-like class to represent a configuration key. A key can have a
+     * default value, which is used by configurations where the key has not
+     * been set.
      * 
      * @param <T>
      *            The type of objects that can be associated with the key.
      */
     public static final class ConfigKey<T> {
+        /**
+         * The default value of the key; <code>null</code> if the key has no
+         * default value.
+         */
+        private final T defaultValue;
+
+        /**
+         * Creates a new key without a default value.
+         */
+        public ConfigKey() {
+            this(null);
+        }
+
+        /**
+         * Creates a new key.
+         * 
+         * @param defaultValue
+         *            the default value of the key.
+         */
+        public ConfigKey(T defaultValue) {
+            this.defaultValue = defaultValue;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,355 @@
+/*
+ * IslandScheduler.java
+ * (this file is part of MYRA)
+ * 
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra;
+
+import static myra.Config.CONFIG;
+import static myra.datamining.Algorithm.RANDOM_GENERATOR;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import myra.Config.ConfigKey;
+import myra.util.StreamRandom;
+
+/**
+ * Island model scheduler: runs several independent colonies (islands), each
+ * with its own activity &mdash; and therefore its own construction graph and
+ * pheromone values &mdash; on separate threads. Every
+ * {@link #MIGRATION_INTERVAL} iterations, an island sends its best-so-far
+ * solution to its neighbours in the {@link #MIGRATION_TOPOLOGY}; immigrants
+ * take part in the next pheromone update of the receiving island as if they
+ * had been created by one of its ants.
+ * 
+ * <p>
+ * Migration is asynchronous: islands do not wait for each other, so each
+ * island runs at the speed of its own colony. Each island uses its own random
+ * stream, derived from the seed and the island index, but the iteration at
+ * which an immigrant arrives depends on the relative speed of the islands.
+ * </p>
+ * 
+ * <p>
+ * Each island is a sequential colony running on its own thread, therefore the
+ * {@link Scheduler#PARALLEL} configuration is not supported. If an island
+ * fails, the remaining islands stop at the end of their current iteration and
+ * the failure is propagated by {@link #run()}.
+ * </p>
+ * 
+ * @param <T>
+ *            type of the solution created by the activities.
+ * 
+ * @author Fernando Esteban Barril Otero
+ */
+public class IslandScheduler<T extends Weighable<T>> {
+    /**
+     * The config key for the number of islands.
+     */
+    public final static ConfigKey<Integer> ISLANDS = new ConfigKey<>();
+
+    /**
+     * The config key for the number of iterations between migrations. If not
+     * set, {@link #DEFAULT_MIGRATION_INTERVAL} is used.
+     */
+    public final static ConfigKey<Integer> MIGRATION_INTERVAL =
+            new ConfigKey<>();
+
+    /**
+     * The config key for the migration topology. If not set,
+     * {@link Topology#RING} is used.
+     */
+    public final static ConfigKey<Topology> MIGRATION_TOPOLOGY =
+            new ConfigKey<>();
+
+    /**
+     * The default number of iterations between migrations.
+     */
+    public final static int DEFAULT_MIGRATION_INTERVAL = 10;
+
+    /**
+     * Migration topologies.
+     */
+    public static enum Topology {
+        /**
+         * Each island sends its best solution to the next island.
+         */
+        RING,
+
+        /**
+         * Each island sends its best solution to all other islands.
+         */
+        ALL;
+    }
+
+    /**
+     * The islands.
+     */
+    private final List<Island> islands;
+
+    /**
+     * The best solution over all islands.
+     */
+    private T best;
+
+    /**
+     * Indicates whether the islands should stop, set when an island fails.
+     */
+    private volatile boolean stop;
+
+    /**
+     * Creates a new <code>IslandScheduler</code> with {@link #ISLANDS}
+     * islands.
+     * 
+     * @param factory
+     *            creates the activity of each island.
+     * @param capacity
+     *            number of candidate solutions stored at each iteration.
+     */
+    public IslandScheduler(Supplier<? extends IterativeActivity<T>> factory,
+                           int capacity) {
+        this(factory, capacity, CONFIG.get(ISLANDS));
+    }
+
+    /**
+     * Creates a new <code>IslandScheduler</code>.
+     * 
+     * @param factory
+     *            creates the activity of each island.
+     * @param capacity
+     *            number of candidate solutions stored at each iteration.
+     * @param size
+     *            the number of islands.
+     */
+    public IslandScheduler(Supplier<? extends IterativeActivity<T>> factory,
+                           int capacity,
+                           int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Invalid number of islands: "
+                    + size);
+        }
+
+        if (CONFIG.isPresent(Scheduler.PARALLEL)) {
+            throw new IllegalArgumentException("Parallel colonies are not"
+                    + " supported by the island model: each island runs on"
+                    + " its own thread");
+        }
+
+        islands = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            islands.add(new Island(i, factory.get(), capacity));
+        }
+    }
+
+    /**
+     * Runs all islands until each of them terminates.
+     */
+    public void run() {
+        final long seed = CONFIG.isPresent(RANDOM_GENERATOR)
+                ? CONFIG.get(RANDOM_GENERATOR).nextLong() : 0;
+        final Config config = Config.current();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        stop = false;
+
+        for (final Island island : islands) {
+            tasks.add(() -> {
+                Config previous = Config.bind(config);
+                SplittableRandom stream = StreamRandom
+                        .bind(StreamRandom.stream(seed, 0, island.index));
+
+                try {
+                    island.run();
+                } catch (RuntimeException | Error e) {
+                    // stops the remaining islands
+                    stop = true;
+                    throw e;
+                } finally {
+                    StreamRandom.bind(stream);
+                    Config.bind(previous);
+                }
+
+                return null;
+            });
+        }
+
+        ForkJoinPool pool = ParallelScheduler.pool(islands.size());
+
+        for (Future<Void> future : pool.invokeAll(tasks)) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+
+                throw new RuntimeException(e.getCause());
+            }
+        }
+
+        best = null;
+
+        for (Island island : islands) {
+            T candidate = island.activity().getBest();
+
+            if (best == null
+                    || (candidate != null && candidate.compareTo(best) > 0)) {
+                best = candidate;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of iterations between migrations.
+     * 
+     * @return the number of iterations between migrations.
+     */
+    static int interval() {
+        return CONFIG.isPresent(MIGRATION_INTERVAL)
+                ? CONFIG.get(MIGRATION_INTERVAL) : DEFAULT_MIGRATION_INTERVAL;
+    }
+
+    /**
+     * Returns the migration topology.
+     * 
+     * @return the migration topology.
+     */
+    static Topology topology() {
+        return CONFIG.isPresent(MIGRATION_TOPOLOGY)
+                ? CONFIG.get(MIGRATION_TOPOLOGY) : Topology.RING;
+    }
+
+    /**
+     * Returns the best solution found over all islands.
+     * 
+     * @return the best solution found over all islands.
+     */
+    public T getBest() {
+        return best;
+    }
+
+    /**
+     * Sends the specified solution from an island to its neighbours.
+     * 
+     * @param from
+     *            the index of the island sending the solution.
+     * @param solution
+     *            the solution to send.
+     */
+    private void migrate(int from, T solution) {
+        switch (topology()) {
+        case RING:
+            if (islands.size() > 1) {
+                islands.get((from + 1) % islands.size()).mailbox.add(solution);
+            }
+            break;
+
+        case ALL:
+            for (Island island : islands) {
+                if (island.index != from) {
+                    island.mailbox.add(solution);
+                }
+            }
+            break;
+        }
+    }
+
+    /**
+     * A single colony. It is a sequential scheduler that receives immigrants
+     * before each update and sends its best solution at the end of each
+     * migration interval.
+     */
+    private final class Island extends Scheduler<T> {
+        /**
+         * The index of the island.
+         */
+        private final int index;
+
+        /**
+         * The solutions sent by other islands.
+         */
+        private final ConcurrentLinkedQueue<T> mailbox =
+                new ConcurrentLinkedQueue<>();
+
+        /**
+         * The number of updates performed.
+         */
+        private int updates;
+
+        /**
+         * Creates a new island.
+         * 
+         * @param index
+         *            the index of the island.
+         * @param activity
+         *            the activity of the island.
+         * @param capacity
+         *            number of candidate solutions stored at each iteration.
+         */
+        Island(int index, IterativeActivity<T> activity, int capacity) {
+            super(activity, capacity);
+            this.index = index;
+        }
+
+        /**
+         * Returns the activity of the island.
+         * 
+         * @return the activity of the island.
+         */
+        @SuppressWarnings("unchecked")
+        IterativeActivity<T> activity() {
+            return (IterativeActivity<T>) activity;
+        }
+
+        @Override
+        protected void initialise() {
+            super.initialise();
+            updates = 0;
+        }
+
+        @Override
+        protected boolean terminate() {
+            return stop || super.terminate();
+        }
+
+        @Override
+        protected void update() {
+            // immigrants compete with the solutions of the colony
+            for (T immigrant = mailbox.poll(); immigrant != null; immigrant =
+                    mailbox.poll()) {
+                archive.add(immigrant);
+            }
+
+            super.update();
+            updates++;
+
+            if (updates % interval() == 0
+                    && activity().getBest() != null) {
+                migrate(index, activity().getBest());
+            }
+        }
+    }
+}
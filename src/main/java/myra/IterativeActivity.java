@@ -71,11 +71,15 @@ public abstract class IterativeActivity<T extends Weighable<T>>
     }
 
     /**
-     * Checks whether the maximum number of iterations has been reached.
+     * Checks whether the maximum number of iterations has been reached or
+     * the {@link Budget} of the run has expired. The budget is only checked
+     * once a solution has been found, so the activity always has a best
+     * solution.
      */
     @Override
     public boolean terminate() {
-        return iteration >= CONFIG.get(MAX_ITERATIONS);
+        return iteration >= CONFIG.get(MAX_ITERATIONS)
+                || (globalBest != null && Budget.expired());
     }
 
     @Override
@@ -21,24 +21,67 @@ package myra;
 
 import static myra.Config.CONFIG;
 
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
 
-import myra.Archive.SynchronizedArchive;
+import myra.Config.ConfigKey;
 
 /**
  * Parallel implementation of a <code>Scheduler</code>. Activites executed by
  * this scheduler need to be thread-safe.
  * 
+ * <p>
+ * Ants are executed by a work-stealing pool shared by all schedulers with the
+ * same number of threads, so threads are created once per process rather than
+ * once per run (e.g., once per rule in a sequential covering). At each
+ * iteration, the colony is split into one batch of ants per thread; idle
+ * threads steal (halves of) the batches of busy threads.
+ * </p>
+ * 
+ * <p>
+ * The update step can use {@link #forEach(int, IntConsumer)} to run its loops
+ * in parallel (e.g., the evaporation of the pheromone matrix).
+ * </p>
+ * 
  * @author Fernando Esteban Barril Otero
  */
 public class ParallelScheduler<T extends Weighable<T>> extends Scheduler<T> {
+    /**
+     * The config key for the dispatch statistics of the run.
+     */
+    public final static ConfigKey<Statistics> DISPATCH_STATISTICS =
+            new ConfigKey<>();
+
+    /**
+     * The shared pools, indexed by the number of threads.
+     */
+    private static final ConcurrentHashMap<Integer, ForkJoinPool> POOLS =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The CPU time spent in parallel sections by the threads of the pool minus
+     * the elapsed time of the sections, for each calling thread, in
+     * nanoseconds.
+     */
+    private static final ThreadLocal<long[]> SECTIONS =
+            ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * Used to measure the CPU time of the tasks.
+     */
+    private static final ThreadMXBean THREADS =
+            ManagementFactory.getThreadMXBean();
+
     /**
      * Tasks executor service.
      */
-    private ExecutorService executor;
+    private ForkJoinPool executor;
 
     /**
      * Creates a new <code>ParallelScheduler</code>.
@@ -79,50 +122,541 @@ public class ParallelScheduler<T extends Weighable<T>> extends Scheduler<T> {
         super(activity, capacity);
     }
 
+    /**
+     * Returns the shared pool with the specified number of threads. The pool
+     * is created on first use; its threads are daemon threads, so they do
+     * not need to be shut down.
+     * 
+     * @param parallelism
+     *            the number of threads.
+     * 
+     * @return the shared pool with the specified number of threads.
+     */
+    static ForkJoinPool pool(int parallelism) {
+        return POOLS.computeIfAbsent(parallelism, p -> {
+            ForkJoinWorkerThreadFactory factory = new ForkJoinWorkerThreadFactory() {
+                private int id = 0;
+
+                @Override
+                public synchronized ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                    ForkJoinWorkerThread thread =
+                            ForkJoinPool.defaultForkJoinWorkerThreadFactory
+                                    .newThread(pool);
+                    thread.setName("ParallelScheduler::worker" + (id++));
+                    return thread;
+                }
+            };
+
+            return new ForkJoinPool(p, factory, null, false);
+        });
+    }
+
     @Override
     protected void initialise() {
         super.initialise();
-        // initialises the thread pool
-        executor = Executors.newFixedThreadPool(CONFIG.get(PARALLEL),
-                                                new ThreadFactory() {
-                                                    private int id = 0;
-
-                                                    public Thread newThread(Runnable r) {
-                                                        return new Thread(r,
-                                                                          "ParallelScheduler::worker"
-                                                                                  + (id++));
-                                                    }
-                                                });
+        // uses the shared pool
+        executor = pool(CONFIG.get(PARALLEL));
     }
 
     @Override
     protected void create() {
-        final CountDownLatch latch =
-                new CountDownLatch(CONFIG.get(COLONY_SIZE));
-        final Archive<T> pool = new SynchronizedArchive<>(archive);
+        final int size = CONFIG.get(COLONY_SIZE);
+        final Batch batch =
+                new Batch(Config.current(),
+                          new Object[size],
+                          0,
+                          size,
+                          Math.max(1, size / executor.getParallelism()));
 
-        for (int i = 0; i < CONFIG.get(COLONY_SIZE); i++) {
-            executor.execute(new Runnable() {
-                @Override
-                public void run() {
-                    pool.add(activity.create());
-                    latch.countDown();
-                }
-            });
+        long start = System.nanoTime();
+        executor.invoke(batch);
+        long elapsed = System.nanoTime() - start;
+
+        if (CONFIG.isPresent(DISPATCH_STATISTICS)) {
+            CONFIG.get(DISPATCH_STATISTICS)
+                    .create(size, elapsed, batch.work, batch.longest);
         }
 
-        try {
-            // waits for the creation of trails
-            latch.await();
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+        // solutions are added in ant order, so that the archive does not
+        // depend on the order in which the threads finish
+        for (int i = 0; i < size; i++) {
+            @SuppressWarnings("unchecked")
+            T solution = (T) batch.solutions[i];
+            archive.add(solution);
         }
+
+        iteration++;
     }
 
     @Override
-    public void run() {
-        super.run();
-        // finilizes the executor threads
-        executor.shutdown();
+    protected void update() {
+        long[] work = SECTIONS.get();
+        long previous = work[0];
+
+        long start = System.nanoTime();
+        super.update();
+        long elapsed = System.nanoTime() - start;
+
+        if (CONFIG.isPresent(DISPATCH_STATISTICS)) {
+            // the sequential time plus the time of the parallel sections
+            CONFIG.get(DISPATCH_STATISTICS).add(Statistics.UPDATE,
+                                                elapsed,
+                                                elapsed + work[0]
+                                                        - previous);
+        }
+    }
+
+    /**
+     * Executes the specified action for each index in the range
+     * <code>[0, size)</code>. When the {@link #PARALLEL} configuration is set,
+     * the range is split in batches executed by the shared pool; otherwise,
+     * the indexes are processed sequentially. The action must be thread-safe
+     * for different indexes.
+     * 
+     * @param size
+     *            the number of indexes.
+     * @param action
+     *            the action to execute for each index.
+     */
+    public static void forEach(int size, IntConsumer action) {
+        forEach(size, 1, action);
+    }
+
+    /**
+     * Executes the specified action for each index in the range
+     * <code>[0, size)</code>. When the {@link #PARALLEL} configuration is set,
+     * the range is split in batches of at least <code>grain</code> indexes
+     * executed by the shared pool; ranges with less than two batches are
+     * processed sequentially by the calling thread, since splitting them
+     * would cost more than it saves. The action must be thread-safe for
+     * different indexes.
+     * 
+     * @param size
+     *            the number of indexes.
+     * @param grain
+     *            the minimum number of indexes of a batch.
+     * @param action
+     *            the action to execute for each index.
+     */
+    public static void forEach(int size, int grain, IntConsumer action) {
+        forEach(CONFIG.isPresent(PARALLEL) ? CONFIG.get(PARALLEL) : 1,
+                size,
+                grain,
+                action);
+    }
+
+    /**
+     * Executes the specified action for each index in the range
+     * <code>[0, size)</code> using the shared pool of the specified
+     * parallelism. A parallelism of <code>1</code> (or less) processes the
+     * range sequentially by the calling thread.
+     * 
+     * @param parallelism
+     *            the number of threads.
+     * @param size
+     *            the number of indexes.
+     * @param grain
+     *            the minimum number of indexes of a batch.
+     * @param action
+     *            the action to execute for each index.
+     * 
+     * @see #forEach(int, int, IntConsumer)
+     */
+    public static void forEach(int parallelism,
+                               int size,
+                               int grain,
+                               IntConsumer action) {
+        if (parallelism < 2 || size < 2 * grain) {
+            for (int i = 0; i < size; i++) {
+                action.accept(i);
+            }
+        } else {
+            ForkJoinPool pool = pool(parallelism);
+            Range range = new Range(Config.current(),
+                                    action,
+                                    0,
+                                    size,
+                                    Math.max(grain,
+                                             size / pool.getParallelism()));
+
+            long start = System.nanoTime();
+            pool.invoke(range);
+
+            SECTIONS.get()[0] += range.work - (System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns the CPU time of the current thread.
+     * 
+     * @return the CPU time of the current thread, in nanoseconds.
+     */
+    private static long cpuTime() {
+        return THREADS.getCurrentThreadCpuTime();
+    }
+
+    /**
+     * Batch of ants. A batch larger than the threshold is split in two halves,
+     * which can be stolen by idle threads.
+     */
+    private final class Batch extends RecursiveAction {
+        /**
+         * Serialization UID.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The configuration of the run.
+         */
+        private final Config config;
+
+        /**
+         * The solutions created, indexed by ant.
+         */
+        private final Object[] solutions;
+
+        /**
+         * The index of the first ant of the batch.
+         */
+        private final int from;
+
+        /**
+         * The index after the last ant of the batch.
+         */
+        private final int to;
+
+        /**
+         * The maximum number of ants executed without splitting the batch.
+         */
+        private final int threshold;
+
+        /**
+         * The longest time taken by a (non-split) batch, in nanoseconds.
+         */
+        private long longest;
+
+        /**
+         * The CPU time taken by all ants of the batch, in nanoseconds.
+         */
+        private long work;
+
+        /**
+         * Creates a new batch.
+         * 
+         * @param config
+         *            the configuration of the run.
+         * @param solutions
+         *            the solutions created, indexed by ant.
+         * @param from
+         *            the index of the first ant of the batch.
+         * @param to
+         *            the index after the last ant of the batch.
+         * @param threshold
+         *            the maximum number of ants executed without splitting
+         *            the batch.
+         */
+        Batch(Config config,
+              Object[] solutions,
+              int from,
+              int to,
+              int threshold) {
+            this.config = config;
+            this.solutions = solutions;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > threshold) {
+                int middle = (from + to) >>> 1;
+                Batch left =
+                        new Batch(config, solutions, from, middle, threshold);
+                Batch right =
+                        new Batch(config, solutions, middle, to, threshold);
+                invokeAll(left, right);
+
+                longest = Math.max(left.longest, right.longest);
+                work = left.work + right.work;
+            } else {
+                // the workers use the configuration of the run
+                Config previous = Config.bind(config);
+                long start = System.nanoTime();
+                long cpu = cpuTime();
+
+                try {
+                    for (int i = from; i < to; i++) {
+                        solutions[i] = create(i);
+                    }
+                } finally {
+                    longest = System.nanoTime() - start;
+                    work = cpuTime() - cpu;
+                    Config.bind(previous);
+                }
+            }
+        }
+    }
+
+    /**
+     * Range of indexes processed by {@link ParallelScheduler#forEach(int,
+     * IntConsumer)}. A range larger than the threshold is split in two halves.
+     */
+    private static final class Range extends RecursiveAction {
+        /**
+         * Serialization UID.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The configuration of the run.
+         */
+        private final Config config;
+
+        /**
+         * The action to execute for each index.
+         */
+        private final IntConsumer action;
+
+        /**
+         * The first index of the range.
+         */
+        private final int from;
+
+        /**
+         * The index after the last index of the range.
+         */
+        private final int to;
+
+        /**
+         * The maximum number of indexes processed without splitting.
+         */
+        private final int threshold;
+
+        /**
+         * The CPU time taken by all indexes of the range, in nanoseconds.
+         */
+        private long work;
+
+        /**
+         * Creates a new range.
+         * 
+         * @param config
+         *            the configuration of the run.
+         * @param action
+         *            the action to execute for each index.
+         * @param from
+         *            the first index of the range.
+         * @param to
+         *            the index after the last index of the range.
+         * @param threshold
+         *            the maximum number of indexes processed without
+         *            splitting.
+         */
+        Range(Config config, IntConsumer action, int from, int to, int threshold) {
+            this.config = config;
+            this.action = action;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > threshold) {
+                int middle = (from + to) >>> 1;
+                Range left = new Range(config, action, from, middle, threshold);
+                Range right = new Range(config, action, middle, to, threshold);
+                invokeAll(left, right);
+
+                work = left.work + right.work;
+            } else {
+                Config previous = Config.bind(config);
+                long cpu = cpuTime();
+
+                try {
+                    for (int i = from; i < to; i++) {
+                        action.accept(i);
+                    }
+                } finally {
+                    work = cpuTime() - cpu;
+                    Config.bind(previous);
+                }
+            }
+        }
+    }
+
+    /**
+     * Statistics of the parallel schedulers of a run. For each phase of the
+     * scheduler (create and update), it records the elapsed time and
+     * the work, i.e., the time the phase would take on a single thread (the
+     * CPU time of the parallel tasks plus the sequential time); their ratio is
+     * the speedup of the phase.
+     * 
+     * <p>
+     * The dispatch overhead of the create phase is the time taken to create
+     * the colony minus the time taken by the slowest batch of ants, i.e., the
+     * time spent splitting, queuing and joining the batches.
+     * </p>
+     */
+    public static final class Statistics {
+        /**
+         * Index of the create phase.
+         */
+        static final int CREATE = 0;
+
+        /**
+         * Index of the update phase.
+         */
+        static final int UPDATE = 1;
+
+        /**
+         * The name of the phases.
+         */
+        private static final String[] PHASES = { "create", "update" };
+
+        /**
+         * The number of iterations of each phase.
+         */
+        private final long[] iterations = new long[PHASES.length];
+
+        /**
+         * The elapsed time of each phase, in nanoseconds.
+         */
+        private final long[] elapsed = new long[PHASES.length];
+
+        /**
+         * The work of each phase, in nanoseconds.
+         */
+        private final long[] work = new long[PHASES.length];
+
+        /**
+         * The number of ants.
+         */
+        private long ants;
+
+        /**
+         * The total dispatch overhead of the create phase, in nanoseconds.
+         */
+        private long overhead;
+
+        /**
+         * Adds the statistics of an iteration of the create phase.
+         * 
+         * @param size
+         *            the number of ants.
+         * @param elapsed
+         *            the time taken to create the colony, in nanoseconds.
+         * @param work
+         *            the CPU time taken by all ants, in nanoseconds.
+         * @param longest
+         *            the time taken by the slowest batch, in nanoseconds.
+         */
+        synchronized void create(int size,
+                                 long elapsed,
+                                 long work,
+                                 long longest) {
+            add(CREATE, elapsed, work);
+            ants += size;
+            overhead += Math.max(0, elapsed - longest);
+        }
+
+        /**
+         * Adds the statistics of a steady-state run, where solutions are
+         * created continuously.
+         * 
+         * @param size
+         *            the number of ants.
+         * @param updates
+         *            the number of updates.
+         * @param elapsed
+         *            the elapsed time of the run, in nanoseconds.
+         * @param work
+         *            the CPU time of the workers, in nanoseconds.
+         */
+        synchronized void steady(int size,
+                                 int updates,
+                                 long elapsed,
+                                 long work) {
+            iterations[CREATE] += updates;
+            ants += size;
+            this.elapsed[CREATE] += elapsed;
+            this.work[CREATE] += work;
+        }
+
+        /**
+         * Adds the statistics of an iteration of a phase.
+         * 
+         * @param phase
+         *            the index of the phase.
+         * @param elapsed
+         *            the elapsed time of the phase, in nanoseconds.
+         * @param work
+         *            the work of the phase, in nanoseconds.
+         */
+        synchronized void add(int phase, long elapsed, long work) {
+            iterations[phase]++;
+            this.elapsed[phase] += elapsed;
+            this.work[phase] += work;
+        }
+
+        /**
+         * Returns the number of iterations.
+         * 
+         * @return the number of iterations.
+         */
+        public synchronized long iterations() {
+            return iterations[CREATE];
+        }
+
+        /**
+         * Returns the average dispatch overhead per iteration.
+         * 
+         * @return the average dispatch overhead per iteration, in
+         *         nanoseconds.
+         */
+        public synchronized double overhead() {
+            return iterations[CREATE] == 0 ? 0
+                    : overhead / (double) iterations[CREATE];
+        }
+
+        /**
+         * Returns the speedup of the specified phase.
+         * 
+         * @param phase
+         *            the index of the phase.
+         * 
+         * @return the speedup of the phase.
+         */
+        synchronized double speedup(int phase) {
+            return elapsed[phase] == 0 ? 1.0
+                    : work[phase] / (double) elapsed[phase];
+        }
+
+        @Override
+        public synchronized String toString() {
+            StringBuilder buffer = new StringBuilder();
+            buffer.append(String.format("%d iterations, %d ants",
+                                        iterations[CREATE],
+                                        ants));
+
+            for (int i = 0; i < PHASES.length; i++) {
+                if (iterations[i] > 0) {
+                    buffer.append(String.format("; %s %.1f us per iteration"
+                            + " (%.2fx speedup)",
+                                                PHASES[i],
+                                                elapsed[i] / 1e3
+                                                        / iterations[i],
+                                                speedup(i)));
+                }
+            }
+
+            if (overhead > 0) {
+                buffer.append(String.format("; %.1f us dispatch overhead per"
+                        + " iteration", overhead() / 1e3));
+            }
+
+            return buffer.toString();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,406 @@
+/*
+ * PeerScheduler.java
+ * (this file is part of MYRA)
+ * 
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra;
+
+import static myra.Config.CONFIG;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import myra.Archive.DefaultArchive;
+import myra.Archive.SynchronizedArchive;
+import myra.Config.ConfigKey;
+import myra.util.Logger;
+
+/**
+ * Scheduler of a colony that exchanges solutions with colonies running in
+ * other processes (possibly on other hosts) over TCP. This is the
+ * multi-process counterpart of the {@link IslandScheduler}: every
+ * {@link IslandScheduler#MIGRATION_INTERVAL} iterations, the best-so-far
+ * solution is sent to each of the {@link #PEERS}; solutions received on the
+ * {@link #LISTEN} port take part in the next update of the colony. The colony
+ * runs on a single thread, so it cannot be combined with
+ * {@link Scheduler#PARALLEL} or {@link AsynchronousScheduler#STEADY_STATE}.
+ * 
+ * <p>
+ * Solutions are sent using a {@link Codec}, so that peers only exchange the
+ * content of a solution and evaluate it on their own copy of the dataset. The
+ * colony never waits for its peers: solutions are sent by a background
+ * thread and a peer that cannot be reached (or sends an invalid message) is
+ * skipped, therefore the failure of a node only reduces the number of
+ * solutions exchanged.
+ * </p>
+ * 
+ * @param <T>
+ *            type of the solution created by the activity.
+ * 
+ * @author Fernando Esteban Barril Otero
+ */
+public class PeerScheduler<T extends Weighable<T>> extends Scheduler<T> {
+    /**
+     * The config key for the port to receive solutions from peers.
+     */
+    public final static ConfigKey<Integer> LISTEN = new ConfigKey<>();
+
+    /**
+     * The config key for the address of the interface to receive solutions
+     * from peers. If not present, only connections from the local host
+     * (loopback address) are accepted.
+     */
+    public final static ConfigKey<String> BIND = new ConfigKey<>();
+
+    /**
+     * The config key for the peers addresses, in the format
+     * <code>host:port[,host:port]*</code>.
+     */
+    public final static ConfigKey<String> PEERS = new ConfigKey<>();
+
+    /**
+     * Magic number of the messages.
+     */
+    private static final int MAGIC = 0x4d595241;
+
+    /**
+     * Timeout (in milliseconds) to connect to a peer and to read a message.
+     */
+    private static final int TIMEOUT = 2000;
+
+    /**
+     * The solution codec.
+     */
+    private final Codec<T> codec;
+
+    /**
+     * The solutions received from peers. Only the best solutions are kept
+     * (as many as the capacity of the colony's archive), since the remaining
+     * would not survive the next update anyway.
+     */
+    private final Archive<T> mailbox;
+
+    /**
+     * The latest solution waiting to be sent to the peers. Only the latest
+     * solution is kept, so a slow or unreachable peer does not accumulate
+     * stale solutions.
+     */
+    private final AtomicReference<T> pending = new AtomicReference<>();
+
+    /**
+     * The peers addresses.
+     */
+    private final List<InetSocketAddress> peers = new ArrayList<>();
+
+    /**
+     * The peers that could not be reached (used to report each failure once).
+     */
+    private final Set<InetSocketAddress> unavailable = new HashSet<>();
+
+    /**
+     * The number of updates performed.
+     */
+    private int updates;
+
+    /**
+     * The number of solutions received.
+     */
+    private volatile int received;
+
+    /**
+     * The number of solutions sent.
+     */
+    private volatile int sent;
+
+    /**
+     * Creates a new <code>PeerScheduler</code>.
+     * 
+     * @param activity
+     *            the activity of the colony.
+     * @param capacity
+     *            number of candidate solutions stored at each iteration.
+     * @param codec
+     *            the codec to exchange solutions.
+     */
+    public PeerScheduler(Activity<T> activity, int capacity, Codec<T> codec) {
+        super(activity, capacity);
+        this.codec = codec;
+
+        if (CONFIG.isPresent(Scheduler.PARALLEL)) {
+            throw new IllegalArgumentException("Parallel colonies are not"
+                    + " supported by peer migration: the colony runs on a"
+                    + " single thread");
+        }
+
+        if (CONFIG.isPresent(AsynchronousScheduler.STEADY_STATE)) {
+            throw new IllegalArgumentException("Steady-state colonies are not"
+                    + " supported by peer migration: the colony runs on a"
+                    + " single thread");
+        }
+
+        mailbox = new SynchronizedArchive<>(new DefaultArchive<T>(capacity));
+
+        if (CONFIG.isPresent(PEERS)) {
+            for (String peer : CONFIG.get(PEERS).split(",")) {
+                int colon = peer.lastIndexOf(':');
+
+                if (colon == -1) {
+                    throw new IllegalArgumentException("Invalid peer address: "
+                            + peer);
+                }
+
+                peers.add(InetSocketAddress
+                        .createUnresolved(peer.substring(0, colon).trim(),
+                                          Integer.parseInt(peer
+                                                  .substring(colon + 1)
+                                                  .trim())));
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        ServerSocket server = null;
+        ExecutorService sender = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "PeerScheduler::sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            if (CONFIG.isPresent(LISTEN)) {
+                InetAddress address = CONFIG.isPresent(BIND)
+                        ? InetAddress.getByName(CONFIG.get(BIND))
+                        : InetAddress.getLoopbackAddress();
+                server = new ServerSocket(CONFIG.get(LISTEN), 0, address);
+                listen(server);
+            }
+
+            initialise();
+
+            while (!terminate()) {
+                create();
+
+                search();
+
+                update();
+
+                if (updates % IslandScheduler.interval() == 0) {
+                    T best = best();
+
+                    // a drain task is only submitted if there was no
+                    // solution pending, otherwise the pending solution is
+                    // replaced by the latest one
+                    if (best != null && pending.getAndSet(best) == null) {
+                        sender.execute(this::drain);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            sender.shutdownNow();
+
+            if (server != null) {
+                try {
+                    server.close();
+                } catch (IOException e) {
+                    // nothing to do, the run is finished
+                }
+            }
+        }
+
+        Logger.log("Peer migration: %d solutions sent, %d received%n",
+                   sent,
+                   received);
+    }
+
+    @Override
+    protected void initialise() {
+        super.initialise();
+        updates = 0;
+        pending.set(null);
+    }
+
+    @Override
+    protected void update() {
+        // solutions from peers compete with the solutions of the colony
+        T[] solutions;
+
+        synchronized (mailbox) {
+            solutions = mailbox.topN(mailbox.size());
+            mailbox.clear();
+        }
+
+        for (T solution : solutions) {
+            archive.add(solution);
+        }
+
+        super.update();
+        updates++;
+    }
+
+    /**
+     * Returns the best-so-far solution of the colony.
+     * 
+     * @return the best-so-far solution of the colony; <code>null</code> if the
+     *         activity does not keep track of it.
+     */
+    @SuppressWarnings("unchecked")
+    private T best() {
+        if (activity instanceof IterativeActivity) {
+            return ((IterativeActivity<T>) activity).getBest();
+        }
+
+        return null;
+    }
+
+    /**
+     * Starts the thread that accepts connections from peers. Each connection
+     * carries a single solution.
+     * 
+     * @param server
+     *            the server socket.
+     */
+    private void listen(final ServerSocket server) {
+        final Config config = Config.current();
+
+        Thread listener = new Thread(() -> {
+            Config.bind(config);
+
+            while (!server.isClosed()) {
+                try (Socket socket = server.accept()) {
+                    socket.setSoTimeout(TIMEOUT);
+                    DataInputStream in = new DataInputStream(
+                            new BufferedInputStream(socket.getInputStream()));
+
+                    if (in.readInt() != MAGIC) {
+                        throw new IOException("invalid message");
+                    }
+
+                    mailbox.add(codec.read(in));
+                    received++;
+                } catch (IOException | RuntimeException e) {
+                    if (!server.isClosed()) {
+                        Logger.log("Peer migration: message discarded (%s)%n",
+                                   e.getMessage());
+                    }
+                }
+            }
+        }, "PeerScheduler::listener");
+
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    /**
+     * Sends the pending solution to all peers, until there is no solution
+     * pending.
+     */
+    private void drain() {
+        for (T solution = pending.getAndSet(null); solution != null; solution =
+                pending.getAndSet(null)) {
+            send(solution);
+        }
+    }
+
+    /**
+     * Sends the specified solution to all peers.
+     * 
+     * @param solution
+     *            the solution to send.
+     */
+    private void send(T solution) {
+        for (InetSocketAddress peer : peers) {
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress(peer.getHostString(),
+                                                     peer.getPort()),
+                               TIMEOUT);
+                DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(socket.getOutputStream()));
+                out.writeInt(MAGIC);
+                codec.write(solution, out);
+                out.flush();
+
+                sent++;
+
+                if (unavailable.remove(peer)) {
+                    Logger.log("Peer migration: %s:%d available%n",
+                               peer.getHostString(),
+                               peer.getPort());
+                }
+            } catch (IOException e) {
+                if (unavailable.add(peer)) {
+                    Logger.log("Peer migration: %s:%d unavailable (%s)%n",
+                               peer.getHostString(),
+                               peer.getPort(),
+                               e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Encodes and decodes solutions exchanged between peers.
+     * 
+     * @param <T>
+     *            type of the solution.
+     */
+    public static interface Codec<T> {
+        /**
+         * Writes the specified solution.
+         * 
+         * @param solution
+         *            the solution to write.
+         * @param out
+         *            the output stream.
+         * 
+         * @throws IOException
+         *             if an I/O error occurs.
+         */
+        public void write(T solution, DataOutput out) throws IOException;
+
+        /**
+         * Reads a solution.
+         * 
+         * @param in
+         *            the input stream.
+         * 
+         * @return the solution read.
+         * 
+         * @throws IOException
+         *             if an I/O error occurs or the message is invalid.
+         */
+        public T read(DataInput in) throws IOException;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Roulette.java
+ * (this file is part of MYRA)
+ * 
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra;
+
+import java.util.Arrays;
+
+/**
+ * Roulette wheel selection over a set of weighted items. Weights are kept in a
+ * binary sum tree, so an item is selected in <code>O(log n)</code> time and the
+ * weight of an item can be changed (e.g., set to zero when the item becomes
+ * incompatible) in <code>O(log n)</code> time, without rebuilding the roulette.
+ * 
+ * <p>
+ * The sum of an internal node is always recomputed from its children, so
+ * removing all weights of a subtree makes its sum exactly zero and items with
+ * zero weight are never selected.
+ * </p>
+ * 
+ * @author Fernando Esteban Barril Otero
+ */
+public class Roulette {
+    /**
+     * The binary sum tree: node <code>k</code> has children <code>2k</code>
+     * and <code>2k + 1</code>; the weights of the items are stored in the
+     * leaves, starting at index <code>capacity</code>.
+     */
+    private final double[] tree;
+
+    /**
+     * The number of leaves of the tree.
+     */
+    private final int capacity;
+
+    /**
+     * The number of items.
+     */
+    private final int size;
+
+    /**
+     * Creates a new roulette.
+     * 
+     * @param size
+     *            the number of items.
+     */
+    public Roulette(int size) {
+        int capacity = 1;
+
+        while (capacity < size) {
+            capacity <<= 1;
+        }
+
+        this.capacity = capacity;
+        this.size = size;
+        tree = new double[2 * capacity];
+    }
+
+    /**
+     * Returns the number of items.
+     * 
+     * @return the number of items.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sets the weight of all items to zero.
+     */
+    public void clear() {
+        Arrays.fill(tree, 0.0);
+    }
+
+    /**
+     * Sets the weight of an item without updating the sum tree. This is used
+     * to set multiple weights at once, followed by a call to {@link #build()}.
+     * 
+     * @param index
+     *            the index of the item.
+     * @param weight
+     *            the weight of the item.
+     */
+    public void put(int index, double weight) {
+        tree[capacity + index] = weight;
+    }
+
+    /**
+     * Computes the sum tree after a sequence of {@link #put(int, double)}
+     * calls.
+     */
+    public void build() {
+        for (int k = capacity - 1; k > 0; k--) {
+            tree[k] = tree[2 * k] + tree[2 * k + 1];
+        }
+    }
+
+    /**
+     * Changes the weight of an item.
+     * 
+     * @param index
+     *            the index of the item.
+     * @param weight
+     *            the weight of the item.
+     */
+    public void set(int index, double weight) {
+        int k = capacity + index;
+        tree[k] = weight;
+
+        for (k >>= 1; k > 0; k >>= 1) {
+            tree[k] = tree[2 * k] + tree[2 * k + 1];
+        }
+    }
+
+    /**
+     * Returns the weight of an item.
+     * 
+     * @param index
+     *            the index of the item.
+     * 
+     * @return the weight of an item.
+     */
+    public double weight(int index) {
+        return tree[capacity + index];
+    }
+
+    /**
+     * Returns the sum of the weights of all items.
+     * 
+     * @return the sum of the weights of all items.
+     */
+    public double total() {
+        return tree[1];
+    }
+
+    /**
+     * Selects an item with probability proportional to its weight.
+     * 
+     * @param slot
+     *            a random value in the range <code>[0, 1)</code>.
+     * 
+     * @return the index of the selected item; <code>-1</code> if all weights
+     *         are zero.
+     */
+    public int select(double slot) {
+        if (tree[1] <= 0.0) {
+            return -1;
+        }
+
+        double target = slot * tree[1];
+        int k = 1;
+
+        while (k < capacity) {
+            int left = 2 * k;
+            // only moves to a subtree with a positive sum
+            if (target < tree[left] || tree[left + 1] <= 0.0) {
+                k = left;
+            } else {
+                target -= tree[left];
+                k = left + 1;
+            }
+        }
+
+        return k - capacity;
+    }
+}
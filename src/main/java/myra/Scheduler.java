@@ -20,9 +20,13 @@
 package myra;
 
 import static myra.Config.CONFIG;
+import static myra.datamining.Algorithm.RANDOM_GENERATOR;
+
+import java.util.SplittableRandom;
 
 import myra.Archive.DefaultArchive;
 import myra.Config.ConfigKey;
+import myra.util.StreamRandom;
 
 /**
  * This class is responsible to execute an <code>Activity</code>. It provides
@@ -49,6 +53,13 @@ import myra.Config.ConfigKey;
  * All solutions are created sequentially.
  * </p>
  * 
+ * <p>
+ * Each ant uses its own random stream, derived from a seed drawn at the start
+ * of the run, the iteration and the index of the ant (see
+ * {@link StreamRandom}). Therefore the solutions created do not depend on the
+ * order in which the ants are executed.
+ * </p>
+ * 
  * @param <T>
  *            type of the solution created by the <code>Activity</code>.
  * 
@@ -77,6 +88,16 @@ public class Scheduler<T extends Weighable<T>> {
      */
     protected Archive<T> archive;
 
+    /**
+     * The seed of the ant streams of the current run.
+     */
+    protected long seed;
+
+    /**
+     * The current iteration.
+     */
+    protected int iteration;
+
     /**
      * Creates a new <code>Scheduler</code>.
      */
@@ -168,6 +189,12 @@ public class Scheduler<T extends Weighable<T>> {
     protected void initialise() {
         activity.initialise();
         archive.clear();
+
+        iteration = 0;
+
+        if (CONFIG.isPresent(RANDOM_GENERATOR)) {
+            seed = CONFIG.get(RANDOM_GENERATOR).nextLong();
+        }
     }
 
     /**
@@ -177,7 +204,31 @@ public class Scheduler<T extends Weighable<T>> {
      */
     protected void create() {
         for (int i = 0; i < CONFIG.get(COLONY_SIZE); i++) {
-            archive.add(activity.create());
+            archive.add(create(i));
+        }
+
+        iteration++;
+    }
+
+    /**
+     * Creates the candidate solution of the specified ant, using the random
+     * stream of the ant.
+     * 
+     * @param ant
+     *            the index of the ant in the colony.
+     * 
+     * @return the candidate solution.
+     */
+    protected T create(int ant) {
+        SplittableRandom previous =
+                StreamRandom.bind(StreamRandom.stream(seed, iteration, ant));
+
+        try {
+            T solution = activity.create();
+            Budget.evaluated();
+            return solution;
+        } finally {
+            StreamRandom.bind(previous);
         }
     }
 
@@ -202,7 +253,7 @@ public class Scheduler<T extends Weighable<T>> {
 
     /**
      * Performs the local search of the activity. If the quality of the
-     * candidates solutions are updated, a new solution archive is created.
+     * candidates solutions are updated, the solution archive is sorted.
      */
     protected void search() {
         if (activity.search(archive)) {
@@ -217,12 +268,18 @@ public class Scheduler<T extends Weighable<T>> {
      * @param <V>
      *            type of the solution created by the <code>Activity</code>.
      * 
-     * @return a <code>ParallelScheduler</code> instance if the
-     *         {@link #PARALLEL} configuration is set; otherwise a (sequential)
-     *         <code>Scheduler</code> instance.
+     * @return an <code>AsynchronousScheduler</code> instance if both the
+     *         {@link #PARALLEL} and {@link AsynchronousScheduler#STEADY_STATE}
+     *         configurations are set; a <code>ParallelScheduler</code>
+     *         instance if the {@link #PARALLEL} configuration is set;
+     *         otherwise a (sequential) <code>Scheduler</code> instance.
      */
     public static <V extends Weighable<V>> Scheduler<V> newInstance() {
         if (CONFIG.isPresent(PARALLEL)) {
+            if (CONFIG.isPresent(AsynchronousScheduler.STEADY_STATE)) {
+                return new AsynchronousScheduler<V>();
+            }
+
             return new ParallelScheduler<V>();
         }
 
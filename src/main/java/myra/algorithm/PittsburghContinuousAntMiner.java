@@ -20,8 +20,14 @@
 package myra.algorithm;
 
 import static myra.Config.CONFIG;
+import static myra.IslandScheduler.ISLANDS;
+import static myra.IslandScheduler.MIGRATION_INTERVAL;
+import static myra.IslandScheduler.MIGRATION_TOPOLOGY;
 import static myra.IterativeActivity.MAX_ITERATIONS;
 import static myra.IterativeActivity.STAGNATION;
+import static myra.PeerScheduler.BIND;
+import static myra.PeerScheduler.LISTEN;
+import static myra.PeerScheduler.PEERS;
 import static myra.Scheduler.COLONY_SIZE;
 import static myra.Scheduler.PARALLEL;
 import static myra.classification.rule.unordered.ConflictResolution.QUALITY;
@@ -40,6 +46,7 @@ import static myra.rule.RuleSet.CONFLICT_RESOLUTION;
 import static myra.rule.pittsburgh.FindRuleListActivity.UNCOVERED;
 import static myra.rule.pittsburgh.FindRuleSetActivity.UNORDERED;
 import static myra.rule.pittsburgh.LevelPheromonePolicy.EVAPORATION_FACTOR;
+import static myra.rule.pittsburgh.LevelPheromonePolicy.LAZY_EVAPORATION;
 import static myra.rule.pittsburgh.LevelPheromonePolicy.P_BEST;
 
 import java.util.ArrayList;
@@ -49,11 +56,14 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Map;
 
+import myra.IslandScheduler;
+import myra.IslandScheduler.Topology;
 import myra.IterativeActivity;
 import myra.Option;
 import myra.Option.BooleanOption;
 import myra.Option.DoubleOption;
 import myra.Option.IntegerOption;
+import myra.PeerScheduler;
 import myra.Scheduler;
 import myra.classification.ClassificationModel;
 import myra.classification.attribute.BoundarySplit;
@@ -81,6 +91,7 @@ import myra.rule.Pruner;
 import myra.rule.Rule;
 import myra.rule.RuleFunction;
 import myra.rule.RuleList;
+import myra.rule.RuleListCodec;
 import myra.rule.TopDownListPruner;
 import myra.rule.pittsburgh.FindRuleListActivity;
 import myra.rule.pittsburgh.FindRuleSetActivity;
@@ -149,15 +160,49 @@ public class PittsburghContinuousAntMiner extends RuleClassifier {
 
     @Override
     protected ClassificationModel train(Dataset dataset) {
-        IterativeActivity<RuleList> activity = CONFIG.isPresent(UNORDERED)
-                ? new FindRuleSetActivity(new Graph(dataset), dataset)
-                : new FindRuleListActivity(new Graph(dataset), dataset);
+        RuleList list;
+
+        if (CONFIG.isPresent(ISLANDS)
+                && (CONFIG.isPresent(LISTEN) || CONFIG.isPresent(PEERS))) {
+            throw new IllegalArgumentException("Peer migration cannot be"
+                    + " combined with the island model");
+        }
+
+        if (CONFIG.isPresent(ISLANDS)) {
+            // each island has its own construction graph and pheromone values
+            IslandScheduler<RuleList> scheduler =
+                    new IslandScheduler<>(() -> create(dataset), 1);
+            scheduler.run();
+
+            list = scheduler.getBest();
+        } else if (CONFIG.isPresent(LISTEN) || CONFIG.isPresent(PEERS)) {
+            if (CONFIG.isPresent(UNORDERED)) {
+                throw new IllegalArgumentException("Peer migration is only"
+                        + " supported for ordered lists of rules");
+            }
 
-        Scheduler<RuleList> scheduler = Scheduler.newInstance(1);
-        scheduler.setActivity(activity);
-        scheduler.run();
+            // the colony exchanges lists of rules with other processes; the
+            // lists received are validated against the graph of the colony
+            Graph graph = new Graph(dataset);
+            IterativeActivity<RuleList> activity =
+                    new FindRuleListActivity(graph, dataset);
 
-        RuleList list = activity.getBest();
+            PeerScheduler<RuleList> scheduler =
+                    new PeerScheduler<>(activity,
+                                        1,
+                                        new RuleListCodec(graph, dataset));
+            scheduler.run();
+
+            list = activity.getBest();
+        } else {
+            IterativeActivity<RuleList> activity = create(dataset);
+
+            Scheduler<RuleList> scheduler = Scheduler.newInstance(1);
+            scheduler.setActivity(activity);
+            scheduler.run();
+
+            list = activity.getBest();
+        }
 
         // if the list of rules was created in an unordered fashion, rules are
         // ordered
@@ -191,6 +236,20 @@ public class PittsburghContinuousAntMiner extends RuleClassifier {
         return new ClassificationModel(list);
     }
 
+    /**
+     * Returns a new activity to create a list of rules.
+     * 
+     * @param dataset
+     *            the current dataset.
+     * 
+     * @return a new activity to create a list of rules.
+     */
+    private IterativeActivity<RuleList> create(Dataset dataset) {
+        return CONFIG.isPresent(UNORDERED)
+                ? new FindRuleSetActivity(new Graph(dataset), dataset)
+                : new FindRuleListActivity(new Graph(dataset), dataset);
+    }
+
     @Override
     protected Map<String, String> processCommandLine(String[] args,
                                                      Collection<Option<?>> options) {
@@ -253,6 +312,60 @@ public class PittsburghContinuousAntMiner extends RuleClassifier {
             }
         });
 
+        // island model
+        options.add(new IntegerOption(ISLANDS,
+                                      "-islands",
+                                      "run %s independent colonies in parallel,"
+                                              + " exchanging their best list of"
+                                              + " rules; each colony runs on a"
+                                              + " single thread, so it cannot be"
+                                              + " combined with --parallel",
+                                      "number"));
+
+        options.add(new IntegerOption(MIGRATION_INTERVAL,
+                                      "-migration",
+                                      "set the number of %s between migrations"
+                                              + " of the island model",
+                                      "iterations"));
+
+        Option<Topology> topology = new Option<Topology>(MIGRATION_TOPOLOGY,
+                                                         "-topology",
+                                                         "specify the migration"
+                                                                 + " %s of the"
+                                                                 + " island model",
+                                                         true,
+                                                         "topology");
+        topology.add("ring", Topology.RING);
+        topology.add("all", Topology.ALL);
+        options.add(topology);
+
+        // multi-process island model
+        options.add(new IntegerOption(LISTEN,
+                                      "-listen",
+                                      "receive lists of rules from other"
+                                              + " processes on the specified %s;"
+                                              + " the colony runs on a single"
+                                              + " thread, so it cannot be"
+                                              + " combined with --parallel,"
+                                              + " --steady-state or --islands",
+                                      "port"));
+
+        options.add(new Option<String>(BIND,
+                                       "-bind",
+                                       "receive lists of rules on the interface"
+                                               + " with the specified %s"
+                                               + " (default loopback)",
+                                       false,
+                                       "address"));
+
+        options.add(new Option<String>(PEERS,
+                                       "-peers",
+                                       "send the best list of rules to the"
+                                               + " processes at %s"
+                                               + " (host:port[,host:port]*)",
+                                       false,
+                                       "addresses"));
+
         // minimum number of covered examples
         options.add(new IntegerOption(IntervalBuilder.MINIMUM_CASES,
                                       "m",
@@ -277,6 +390,11 @@ public class PittsburghContinuousAntMiner extends RuleClassifier {
                                      "set the MAX-MIN evaporation %s",
                                      "factor"));
 
+        // lazy evaporation
+        options.add(new BooleanOption(LAZY_EVAPORATION,
+                                      "-lazy-evaporation",
+                                      "enables the lazy pheromone evaporation"));
+
         // rule pruner
         Option<Pruner> pruner = new Option<Pruner>(DEFAULT_PRUNER,
                                                    "p",
@@ -21,12 +21,11 @@ package myra.classification.attribute;
 
 import static myra.datamining.Dataset.RULE_COVERED;
 
-import java.util.Arrays;
-
 import myra.datamining.Dataset;
 import myra.datamining.IntervalBuilder;
+import myra.datamining.SortedIndex;
 import myra.datamining.Attribute.Condition;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * Base class for entropy-based <code>IntervalBuilder</code> implementations.
@@ -35,10 +34,16 @@ import myra.datamining.Dataset.Instance;
  */
 public abstract class AbstractEntropySplit extends IntervalBuilder {
     /**
-     * Returns an array of conditions representing discrete intervals.
+     * Returns an array of conditions representing discrete intervals. The
+     * candidate values are represented by parallel arrays, sorted in
+     * ascending order of value.
      * 
-     * @param candidates
+     * @param values
      *            the candidate values.
+     * @param classes
+     *            the class value of each candidate.
+     * @param weights
+     *            the weight of each candidate.
      * @param start
      *            the start index of the values to consider.
      * @param end
@@ -52,7 +57,9 @@ public abstract class AbstractEntropySplit extends IntervalBuilder {
      * 
      * @return an array of conditions representing discrete intervals.
      */
-    protected abstract Condition[] create(Pair[] candidates,
+    protected abstract Condition[] create(double[] values,
+                                          int[] classes,
+                                          double[] weights,
                                           int start,
                                           int end,
                                           double[] frequency,
@@ -61,47 +68,49 @@ public abstract class AbstractEntropySplit extends IntervalBuilder {
 
     @Override
     public Condition[] multiple(Dataset dataset,
-                                Instance[] instances,
+                                Coverage instances,
                                 int attribute) {
-        Pair[] candidates = new Pair[dataset.size()];
+        // the instances are visited in ascending order of value, so the
+        // candidates are created already sorted
+        SortedIndex sorted = dataset.sortedIndex(attribute);
+        final int length = covered(sorted, instances);
+
+        if (length == 0) {
+            // there are no candidate threshold values
+            return null;
+        }
+
+        double[] values = new double[length];
+        int[] classes = new int[length];
+        double[] weights = new double[length];
         double[] frequency = new double[dataset.classLength()];
 
         int index = 0;
         double size = 0;
 
-        for (int i = 0; i < dataset.size(); i++) {
+        for (int k = 0; k < sorted.size(); k++) {
+            int i = sorted.instances[k];
+
             // the dynamc discretisation only considers the instances covered
             // by the current rule
-            if (instances[i].flag == RULE_COVERED) {
-                double v = dataset.value(i, attribute);
+            if (instances.flag(i) == RULE_COVERED) {
+                values[index] = sorted.values[k];
+                classes[index] = (int) dataset.value(i, dataset.classIndex());
+                weights[index] = instances.weight(i);
 
-                if (!Double.isNaN(v)) {
-                    Pair pair = new Pair();
-                    pair.value = v;
-                    pair.classValue = dataset.value(i, dataset.classIndex());
-                    pair.weight = instances[i].weight;
-                    candidates[index] = pair;
+                frequency[classes[index]] += weights[index];
+                size += weights[index];
 
-                    frequency[(int) pair.classValue] += pair.weight;
-                    size += pair.weight;
-
-                    index++;
-                }
+                index++;
             }
         }
 
-        if (index == 0) {
-            // there are no candidate threshold values
-            return null;
-        }
-
-        candidates = Arrays.copyOf(candidates, index);
-        Arrays.sort(candidates);
-
         Condition[] conditions =
-                create(candidates,
+                create(values,
+                       classes,
+                       weights,
                        0,
-                       candidates.length,
+                       length,
                        frequency,
                        size,
                        IntervalBuilder.minimumCases(dataset, size));
@@ -121,7 +130,7 @@ public abstract class AbstractEntropySplit extends IntervalBuilder {
     /**
      * Returns a single discrete interval for the specified attribute. This
      * method uses the conditions created by
-     * {@link #multiple(Dataset, Dataset.Instance[], int)} to choose the best
+     * {@link #multiple(Dataset, Coverage, int)} to choose the best
      * interval. The interval returned is the interval with the lowest entropy,
      * or when there are more than two intervals with the same entropy value,
      * the one that has more instances.
@@ -138,7 +147,7 @@ public abstract class AbstractEntropySplit extends IntervalBuilder {
      */
     @Override
     public Condition single(Dataset dataset,
-                            Instance[] instances,
+                            Coverage instances,
                             int attribute) {
         Condition[] conditions = multiple(dataset, instances, attribute);
         Condition best = null;
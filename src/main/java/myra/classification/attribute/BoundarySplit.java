@@ -35,7 +35,9 @@ import myra.datamining.Attribute.Condition;
  */
 public class BoundarySplit extends C45Split {
     @Override
-    protected Condition[] create(Pair[] candidates,
+    protected Condition[] create(double[] values,
+                                 int[] classes,
+                                 double[] weights,
                                  int start,
                                  int end,
                                  double[] frequency,
@@ -70,19 +72,19 @@ public class BoundarySplit extends C45Split {
         double intervalSize = 0;
         double total = size;
         int tries = 0;
-        boolean[] evaluated = new boolean[candidates.length];
+        boolean[] evaluated = new boolean[values.length];
 
         for (int i = (start + 1); i < end; i++) {
-            double weight = candidates[i - 1].weight;
+            double weight = weights[i - 1];
 
             intervalSize += weight;
-            intervalFrequency[(int) candidates[i - 1].classValue] += weight;
+            intervalFrequency[classes[i - 1]] += weight;
 
             size -= weight;
-            frequency[(int) candidates[i - 1].classValue] -= weight;
+            frequency[classes[i - 1]] -= weight;
 
-            if (candidates[i - 1].classValue != candidates[i].classValue) {
-                if (candidates[i - 1].value == candidates[i].value) {
+            if (classes[i - 1] != classes[i]) {
+                if (values[i - 1] == values[i]) {
                     // skip backwards
 
                     double[] lowerFrequency = new double[frequency.length];
@@ -103,10 +105,10 @@ public class BoundarySplit extends C45Split {
 
                     int threshold = i;
 
-                    while ((threshold > 1) && (candidates[threshold
-                            - 1].value == candidates[threshold].value)) {
-                        weight = candidates[threshold - 1].weight;
-                        int c = (int) candidates[threshold - 1].classValue;
+                    while ((threshold > 1)
+                            && (values[threshold - 1] == values[threshold])) {
+                        weight = weights[threshold - 1];
+                        int c = classes[threshold - 1];
 
                         lowerSize -= weight;
                         lowerFrequency[c] -= weight;
@@ -123,7 +125,7 @@ public class BoundarySplit extends C45Split {
                         evaluated[threshold - 1] = true;
                         tries++;
 
-                        gain = entropy(candidates,
+                        gain = entropy(values,
                                        threshold,
                                        entropy,
                                        gain,
@@ -153,12 +155,11 @@ public class BoundarySplit extends C45Split {
 
                     threshold = i;
 
-                    while ((threshold < candidates.length)
-                            && (candidates[threshold
-                                    - 1].value == candidates[threshold].value)) {
+                    while ((threshold < values.length)
+                            && (values[threshold - 1] == values[threshold])) {
                         threshold++;
-                        weight = candidates[threshold - 1].weight;
-                        int c = (int) candidates[threshold - 1].classValue;
+                        weight = weights[threshold - 1];
+                        int c = classes[threshold - 1];
 
                         lowerSize += weight;
                         lowerFrequency[c] += weight;
@@ -173,7 +174,7 @@ public class BoundarySplit extends C45Split {
                         evaluated[threshold - 1] = true;
                         tries++;
 
-                        gain = entropy(candidates,
+                        gain = entropy(values,
                                        threshold,
                                        entropy,
                                        gain,
@@ -192,7 +193,7 @@ public class BoundarySplit extends C45Split {
                     evaluated[i - 1] = true;
                     tries++;
 
-                    gain = entropy(candidates,
+                    gain = entropy(values,
                                    i,
                                    entropy,
                                    gain,
@@ -221,7 +222,7 @@ public class BoundarySplit extends C45Split {
      * Computes the entropy of the intervals. This method updates the conditions
      * array if any of the intervals has a higher gain than the current best.
      * 
-     * @param candidates
+     * @param values
      *            the cadidate values.
      * @param index
      *            the index of the threshold value.
@@ -244,7 +245,7 @@ public class BoundarySplit extends C45Split {
      * 
      * @return the gain value of the interval.
      */
-    protected double entropy(Pair[] candidates,
+    protected double entropy(double[] values,
                              int index,
                              double entropy,
                              double gain,
@@ -289,10 +290,8 @@ public class BoundarySplit extends C45Split {
             conditions[0].entropy = lowerEntropy;
             conditions[0].diversity = lowerDiversity;
             conditions[0].index = index - 1;
-            conditions[0].threshold[0] = candidates[index - 1].value;
-            conditions[0].value[0] =
-                    (candidates[index - 1].value + candidates[index].value)
-                            / 2.0;
+            conditions[0].threshold[0] = values[index - 1];
+            conditions[0].value[0] = (values[index - 1] + values[index]) / 2.0;
             // copies the distribution frequency
             System.arraycopy(lowerFrequency,
                              0,
@@ -305,10 +304,8 @@ public class BoundarySplit extends C45Split {
             conditions[1].entropy = upperEntropy;
             conditions[1].diversity = upperDiversity;
             conditions[1].index = index - 1;
-            conditions[1].threshold[0] = candidates[index - 1].value;
-            conditions[1].value[0] =
-                    (candidates[index - 1].value + candidates[index].value)
-                            / 2.0;
+            conditions[1].threshold[0] = values[index - 1];
+            conditions[1].value[0] = (values[index - 1] + values[index]) / 2.0;
             // copies the distribution frequency
             System.arraycopy(upperFrequency,
                              0,
@@ -62,12 +62,16 @@ public class C45Split extends AbstractEntropySplit {
      * specified attribute that have provide the higher entropy gain in relation
      * to the distribution of values.
      * 
-     * @param candidates
+     * @param values
      *            the array of candidate values.
+     * @param classes
+     *            the class value of each candidate.
+     * @param weights
+     *            the weight of each candidate.
      * @param start
-     *            the start index on the candidates array.
+     *            the start index on the candidate arrays.
      * @param end
-     *            the end index on the candidates array.
+     *            the end index on the candidate arrays.
      * @param frequency
      *            the class values frequency.
      * @param size
@@ -79,7 +83,9 @@ public class C45Split extends AbstractEntropySplit {
      *         specified attribute.
      */
     @Override
-    protected Condition[] create(Pair[] candidates,
+    protected Condition[] create(double[] values,
+                                 int[] classes,
+                                 double[] weights,
                                  int start,
                                  int end,
                                  double[] frequency,
@@ -116,15 +122,15 @@ public class C45Split extends AbstractEntropySplit {
         int tries = 0;
 
         for (int i = (start + 1); i < end; i++) {
-            double weight = candidates[i - 1].weight;
+            double weight = weights[i - 1];
 
             intervalSize += weight;
-            intervalFrequency[(int) candidates[i - 1].classValue] += weight;
+            intervalFrequency[classes[i - 1]] += weight;
 
             size -= weight;
-            frequency[(int) candidates[i - 1].classValue] -= weight;
+            frequency[classes[i - 1]] -= weight;
 
-            if (candidates[i - 1].value + DELTA < candidates[i].value) {
+            if (values[i - 1] + DELTA < values[i]) {
                 if ((intervalSize + PRECISION_10 >= minimum)
                         && (size + PRECISION_10 >= minimum)) {
                     tries++;
@@ -164,10 +170,9 @@ public class C45Split extends AbstractEntropySplit {
                         conditions[0].entropy = lowerEntropy;
                         conditions[0].diversity = lowerDiversity;
                         conditions[0].index = i - 1;
-                        conditions[0].threshold[0] = candidates[i - 1].value;
+                        conditions[0].threshold[0] = values[i - 1];
                         conditions[0].value[0] =
-                                (candidates[i - 1].value + candidates[i].value)
-                                        / 2.0;
+                                (values[i - 1] + values[i]) / 2.0;
                         // copies the distribution frequency
                         System.arraycopy(intervalFrequency,
                                          0,
@@ -180,10 +185,9 @@ public class C45Split extends AbstractEntropySplit {
                         conditions[1].entropy = upperEntropy;
                         conditions[1].diversity = upperDiversity;
                         conditions[1].index = i - 1;
-                        conditions[1].threshold[0] = candidates[i - 1].value;
+                        conditions[1].threshold[0] = values[i - 1];
                         conditions[1].value[0] =
-                                (candidates[i - 1].value + candidates[i].value)
-                                        / 2.0;
+                                (values[i - 1] + values[i]) / 2.0;
                         // copies the distribution frequency
                         System.arraycopy(frequency,
                                          0,
@@ -88,7 +88,9 @@ public class MDLSplit extends AbstractEntropySplit {
     }
 
     @Override
-    protected Condition[] create(Pair[] candidates,
+    protected Condition[] create(double[] values,
+                                 int[] classes,
+                                 double[] weights,
                                  int start,
                                  int end,
                                  double[] frequency,
@@ -97,7 +99,9 @@ public class MDLSplit extends AbstractEntropySplit {
         LinkedList<Condition> conditions = new LinkedList<>();
 
         int created = mdl(conditions,
-                          candidates,
+                          values,
+                          classes,
+                          weights,
                           start,
                           end,
                           frequency,
@@ -150,9 +154,8 @@ public class MDLSplit extends AbstractEntropySplit {
                 c.relation = LESS_THAN_OR_EQUAL_TO;
 
                 int t = (int) c.threshold[1];
-                c.threshold[0] = candidates[t].value;
-                c.value[0] =
-                        (candidates[t].value + candidates[t + 1].value) / 2.0;
+                c.threshold[0] = values[t];
+                c.value[0] = (values[t] + values[t + 1]) / 2.0;
 
                 c.threshold[1] = 0;
                 c.value[1] = 0;
@@ -160,9 +163,8 @@ public class MDLSplit extends AbstractEntropySplit {
                 c.relation = GREATER_THAN;
 
                 int t = (int) c.threshold[0];
-                c.threshold[0] = candidates[t].value;
-                c.value[0] =
-                        (candidates[t].value + candidates[t + 1].value) / 2.0;
+                c.threshold[0] = values[t];
+                c.value[0] = (values[t] + values[t + 1]) / 2.0;
 
                 c.threshold[1] = 0;
                 c.value[1] = 0;
@@ -170,14 +172,12 @@ public class MDLSplit extends AbstractEntropySplit {
                 c.relation = IN_RANGE;
 
                 int t = (int) c.threshold[0];
-                c.threshold[0] = candidates[t].value;
-                c.value[0] =
-                        (candidates[t].value + candidates[t + 1].value) / 2.0;
+                c.threshold[0] = values[t];
+                c.value[0] = (values[t] + values[t + 1]) / 2.0;
 
                 t = (int) c.threshold[1];
-                c.threshold[1] = candidates[t].value;
-                c.value[1] =
-                        (candidates[t].value + candidates[t + 1].value) / 2.0;
+                c.threshold[1] = values[t];
+                c.value[1] = (values[t] + values[t + 1]) / 2.0;
             }
         }
 
@@ -185,14 +185,18 @@ public class MDLSplit extends AbstractEntropySplit {
     }
 
     private int mdl(LinkedList<Condition> conditions,
-                    Pair[] candidates,
+                    double[] values,
+                    int[] classes,
+                    double[] weights,
                     int start,
                     int end,
                     double[] frequency,
                     double size,
                     double minimum,
                     boolean first) {
-        Condition[] split = builder.create(candidates,
+        Condition[] split = builder.create(values,
+                                           classes,
+                                           weights,
                                            start,
                                            end,
                                            frequency.clone(),
@@ -230,7 +234,9 @@ public class MDLSplit extends AbstractEntropySplit {
 
                 if (split[0].entropy > 0 && split[0].length >= limit) {
                     lowerCreated += mdl(conditions,
-                                        candidates,
+                                        values,
+                                        classes,
+                                        weights,
                                         start,
                                         (int) split[0].index + 1,
                                         split[0].frequency,
@@ -241,7 +247,9 @@ public class MDLSplit extends AbstractEntropySplit {
 
                 if (split[1].entropy > 0 && split[1].length >= limit) {
                     upperCreated += mdl(conditions,
-                                        candidates,
+                                        values,
+                                        classes,
+                                        weights,
                                         (int) split[1].index + 1,
                                         end,
                                         split[1].frequency,
@@ -39,7 +39,9 @@ import myra.datamining.Attribute.Condition;
  */
 public class MinimalSplit extends C45Split {
     @Override
-    protected Condition[] create(Pair[] candidates,
+    protected Condition[] create(double[] values,
+                                 int[] classes,
+                                 double[] weights,
                                  int start,
                                  int end,
                                  double[] frequency,
@@ -64,15 +66,15 @@ public class MinimalSplit extends C45Split {
         int tries = 0;
 
         for (int i = (start + 1); i < end; i++) {
-            double weight = candidates[i - 1].weight;
+            double weight = weights[i - 1];
 
             intervalSize += weight;
-            intervalFrequency[(int) candidates[i - 1].classValue] += weight;
+            intervalFrequency[classes[i - 1]] += weight;
 
             size -= weight;
-            frequency[(int) candidates[i - 1].classValue] -= weight;
+            frequency[classes[i - 1]] -= weight;
 
-            if (candidates[i - 1].value + DELTA < candidates[i].value) {
+            if (values[i - 1] + DELTA < values[i]) {
                 if ((intervalSize >= minimum) || (size >= minimum)
                         && (intervalSize > 0) && (size > 0)) {
                     tries++;
@@ -126,10 +128,9 @@ public class MinimalSplit extends C45Split {
                         conditions[0].entropy = lowerEntropy;
                         conditions[0].diversity = lowerDiversity;
                         conditions[0].index = i - 1;
-                        conditions[0].threshold[0] = candidates[i - 1].value;
+                        conditions[0].threshold[0] = values[i - 1];
                         conditions[0].value[0] =
-                                (candidates[i - 1].value + candidates[i].value)
-                                        / 2.0;
+                                (values[i - 1] + values[i]) / 2.0;
                         // copies the distribution frequency
                         System.arraycopy(intervalFrequency,
                                          0,
@@ -142,10 +143,9 @@ public class MinimalSplit extends C45Split {
                         conditions[1].entropy = upperEntropy;
                         conditions[1].diversity = upperDiversity;
                         conditions[1].index = i - 1;
-                        conditions[1].threshold[0] = candidates[i - 1].value;
+                        conditions[1].threshold[0] = values[i - 1];
                         conditions[1].value[0] =
-                                (candidates[i - 1].value + candidates[i].value)
-                                        / 2.0;
+                                (values[i - 1] + values[i]) / 2.0;
                         // copies the distribution frequency
                         System.arraycopy(frequency,
                                          0,
@@ -23,13 +23,14 @@ import static myra.datamining.Attribute.Type.CONTINUOUS;
 import static myra.datamining.Attribute.Type.NOMINAL;
 import static myra.datamining.Dataset.RULE_COVERED;
 import static myra.rule.Graph.START_INDEX;
+import static myra.rule.Heuristic.forEachAttribute;
 
 import java.util.Arrays;
 
 import myra.datamining.Attribute;
 import myra.datamining.Attribute.Condition;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.datamining.IntervalBuilder;
 import myra.rule.Graph;
 import myra.rule.Graph.Entry;
@@ -42,14 +43,14 @@ import myra.rule.Heuristic;
  */
 public class VarianceHeuristic implements Heuristic {
     @Override
-    public Entry[] compute(Graph graph, Dataset dataset, Instance[] instances) {
+    public Entry[] compute(Graph graph, Dataset dataset, Coverage instances) {
         return compute(graph, dataset, instances, new boolean[0]);
     }
 
     @Override
     public Entry[] compute(Graph graph,
                            Dataset dataset,
-                           Instance[] instances,
+                           Coverage instances,
                            boolean[] used) {
         double[] weight = new double[dataset.getHierarchy().size()];
         Attribute target = dataset.getTarget();
@@ -107,7 +108,9 @@ public class VarianceHeuristic implements Heuristic {
                 }
             }
         } else {
-            for (int i = 0; i < available.length; i++) {
+            // attributes are independent, so they can be processed in
+            // parallel
+            forEachAttribute(available.length, i -> {
                 if (available[i]) {
                     Attribute attribute = dataset.attributes()[i];
 
@@ -121,7 +124,7 @@ public class VarianceHeuristic implements Heuristic {
                         // values for each value of the attribute
 
                         for (int j = 0; j < dataset.size(); j++) {
-                            if (instances[j].flag == RULE_COVERED) {
+                            if (instances.flag(j) == RULE_COVERED) {
                                 double v =
                                         dataset.value(j, attribute.getIndex());
 
@@ -131,11 +134,11 @@ public class VarianceHeuristic implements Heuristic {
 
                                     for (int k = 0; k < active.length; k++) {
                                         average[(int) v][k] +=
-                                                active[k] ? instances[i].weight
+                                                active[k] ? instances.weight(i)
                                                         : 0;
                                     }
 
-                                    counter[(int) v] += instances[i].weight;
+                                    counter[(int) v] += instances.weight(i);
                                 }
                             }
                         }
@@ -152,7 +155,7 @@ public class VarianceHeuristic implements Heuristic {
                         double[] variance = new double[attribute.size()];
 
                         for (int j = 0; j < dataset.size(); j++) {
-                            if (instances[j].flag == RULE_COVERED) {
+                            if (instances.flag(j) == RULE_COVERED) {
                                 double v =
                                         dataset.value(j, attribute.getIndex());
 
@@ -163,7 +166,7 @@ public class VarianceHeuristic implements Heuristic {
 
                                     for (int k = 0; k < active.length; k++) {
                                         double value =
-                                                (active[k] ? instances[j].weight
+                                                (active[k] ? instances.weight(j)
                                                         : 0)
                                                         - average[(int) v][k];
                                         distance += weight[k] * (value * value);
@@ -213,7 +216,7 @@ public class VarianceHeuristic implements Heuristic {
                         }
                     }
                 }
-            }
+            });
         }
 
         return heuristic;
@@ -222,7 +225,7 @@ public class VarianceHeuristic implements Heuristic {
     @Override
     public Entry[] compute(Graph graph,
                            Dataset dataset,
-                           Instance[] instances,
+                           Coverage instances,
                            int target) {
         return compute(graph, dataset, instances, new boolean[0], target);
     }
@@ -230,7 +233,7 @@ public class VarianceHeuristic implements Heuristic {
     @Override
     public Entry[] compute(Graph graph,
                            Dataset dataset,
-                           Instance[] instances,
+                           Coverage instances,
                            boolean[] used,
                            int target) {
         return compute(graph, dataset, instances, used);
@@ -248,20 +251,20 @@ public class VarianceHeuristic implements Heuristic {
      * @return the total variance of the dataset.
      */
     private double total(Dataset dataset,
-                         Instance[] instances,
+                         Coverage instances,
                          double[] weight) {
         double[] frequency = new double[weight.length];
         double size = 0.0;
 
         for (int i = 0; i < dataset.size(); i++) {
-            if (instances[i].flag == RULE_COVERED) {
+            if (instances.flag(i) == RULE_COVERED) {
                 boolean[] active = dataset.label(i).active();
 
                 for (int j = 0; j < active.length; j++) {
-                    frequency[j] += active[j] ? instances[i].weight : 0;
+                    frequency[j] += active[j] ? instances.weight(i) : 0;
                 }
 
-                size += instances[i].weight;
+                size += instances.weight(i);
             }
         }
 
@@ -272,12 +275,12 @@ public class VarianceHeuristic implements Heuristic {
         double variance = 0.0;
 
         for (int i = 0; i < dataset.size(); i++) {
-            if (instances[i].flag == RULE_COVERED) {
+            if (instances.flag(i) == RULE_COVERED) {
                 boolean[] active = dataset.label(i).active();
                 double distance = 0.0;
 
                 for (int j = 0; j < active.length; j++) {
-                    double value = (active[j] ? instances[i].weight : 0)
+                    double value = (active[j] ? instances.weight(i) : 0)
                             - frequency[j];
                     distance += weight[j] * (value * value);
                 }
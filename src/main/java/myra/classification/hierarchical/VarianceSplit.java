@@ -26,14 +26,13 @@ import static myra.datamining.Attribute.GREATER_THAN;
 import static myra.datamining.Attribute.LESS_THAN_OR_EQUAL_TO;
 import static myra.datamining.Dataset.RULE_COVERED;
 
-import java.util.Arrays;
-
 import myra.datamining.Attribute;
 import myra.datamining.Attribute.Condition;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.datamining.Hierarchy;
 import myra.datamining.IntervalBuilder;
+import myra.datamining.SortedIndex;
 
 /**
  * This class creates discrete intervals based on variance of the class labels.
@@ -43,7 +42,7 @@ import myra.datamining.IntervalBuilder;
 public class VarianceSplit extends IntervalBuilder {
     @Override
     public Condition[] multiple(Dataset dataset,
-                                Instance[] instances,
+                                Coverage instances,
                                 int attribute) {
         // (1) determines the weight of the labels
 
@@ -62,52 +61,53 @@ public class VarianceSplit extends IntervalBuilder {
 
         // (2) creates the candidate threshold values
 
-        Pair[] candidates = new Pair[dataset.size()];
+        // the instances are visited in ascending order of value, so the
+        // candidates are created already sorted
+        SortedIndex sorted = dataset.sortedIndex(attribute);
+        final int length = covered(sorted, instances);
+
+        if (length == 0) {
+            // there are no candidate threshold values
+            return null;
+        }
+
+        double[] values = new double[length];
+        double[] weights = new double[length];
+        boolean[][] active = new boolean[length][];
         double[] frequency = new double[target.size()];
 
         int index = 0;
         double size = 0;
 
-        for (int i = 0; i < dataset.size(); i++) {
+        for (int k = 0; k < sorted.size(); k++) {
+            int i = sorted.instances[k];
+
             // the dynamic discretisation only considers the instances covered
             // by the current rule
-            if (instances[i].flag == RULE_COVERED) {
-                double v = dataset.value(i, attribute);
-
-                if (!Double.isNaN(v)) {
-                    Pair pair = new Pair();
-                    pair.value = v;
-                    pair.weight = instances[i].weight;
-                    pair.active = dataset.label(i).active();
-
-                    candidates[index] = pair;
-
-                    for (int j = 0; j < pair.active.length; j++) {
-                        if (pair.active[j]) {
-                            frequency[j] += pair.weight;
-                        }
+            if (instances.flag(i) == RULE_COVERED) {
+                values[index] = sorted.values[k];
+                weights[index] = instances.weight(i);
+                active[index] = dataset.label(i).active();
+
+                for (int j = 0; j < active[index].length; j++) {
+                    if (active[index][j]) {
+                        frequency[j] += weights[index];
                     }
-
-                    size += pair.weight;
-                    index++;
                 }
-            }
-        }
 
-        if (index == 0) {
-            // there are no candidate threshold values
-            return null;
+                size += weights[index];
+                index++;
+            }
         }
 
-        candidates = Arrays.copyOf(candidates, index);
-        Arrays.sort(candidates);
-
         // (3)
 
         Condition[] conditions =
-                create(candidates,
+                create(values,
+                       weights,
+                       active,
                        0,
-                       candidates.length,
+                       length,
                        frequency,
                        weight,
                        size,
@@ -127,7 +127,7 @@ public class VarianceSplit extends IntervalBuilder {
 
     @Override
     public Condition single(Dataset dataset,
-                            Instance[] instances,
+                            Coverage instances,
                             int attribute) {
         Condition[] conditions = multiple(dataset, instances, attribute);
         Condition best = null;
@@ -149,12 +149,16 @@ public class VarianceSplit extends IntervalBuilder {
      * Returns an attribute condition representing the best interval according
      * to the variance of the class labels.
      * 
-     * @param candidates
-     *            the array of candidate values.
+     * @param values
+     *            the array of candidate values, in ascending order.
+     * @param weights
+     *            the weight of each candidate.
+     * @param active
+     *            the active labels of each candidate.
      * @param start
-     *            the start index on the candidates array.
+     *            the start index on the candidate arrays.
      * @param end
-     *            the end index on the candidates array.
+     *            the end index on the candidate arrays.
      * @param frequency
      *            the class values frequency.
      * @param weight
@@ -167,7 +171,9 @@ public class VarianceSplit extends IntervalBuilder {
      * @return an attribute condition representing the best interval according
      *         to the variance of the class labels.
      */
-    protected Condition[] create(Pair[] candidates,
+    protected Condition[] create(double[] values,
+                                 double[] weights,
+                                 boolean[][] active,
                                  int start,
                                  int end,
                                  double[] frequency,
@@ -176,8 +182,14 @@ public class VarianceSplit extends IntervalBuilder {
                                  double minimum) {
         // calculates the variance of the distribution
 
-        double variance =
-                variance(candidates, start, end, frequency, weight, size);
+        double variance = variance(values,
+                                   weights,
+                                   active,
+                                   start,
+                                   end,
+                                   frequency,
+                                   weight,
+                                   size);
 
         // determines the best threshold value
 
@@ -199,36 +211,40 @@ public class VarianceSplit extends IntervalBuilder {
         int tries = 0;
 
         for (int i = (start + 1); i < end; i++) {
-            double w = candidates[i - 1].weight;
+            double w = weights[i - 1];
 
             // adjusts the intervals' statistics
 
             intervalSize += w;
             size -= w;
 
-            boolean[] active = candidates[i - 1].active;
+            boolean[] labels = active[i - 1];
 
-            for (int j = 0; j < active.length; j++) {
-                double value = candidates[i - 1].active[j] ? w : 0;
+            for (int j = 0; j < labels.length; j++) {
+                double value = labels[j] ? w : 0;
                 intervalFrequency[j] += value;
                 frequency[j] -= value;
             }
 
-            if (candidates[i - 1].value + DELTA < candidates[i].value) {
+            if (values[i - 1] + DELTA < values[i]) {
                 if ((intervalSize + PRECISION_10 >= minimum)
                         && (size + PRECISION_10 >= minimum)) {
                     tries++;
 
                     // compute the variance of the intervals
 
-                    double lowerVariance = variance(candidates,
+                    double lowerVariance = variance(values,
+                                                    weights,
+                                                    active,
                                                     start,
                                                     i,
                                                     intervalFrequency,
                                                     weight,
                                                     intervalSize);
 
-                    double upperVariance = variance(candidates,
+                    double upperVariance = variance(values,
+                                                    weights,
+                                                    active,
                                                     i,
                                                     end,
                                                     frequency,
@@ -250,19 +266,17 @@ public class VarianceSplit extends IntervalBuilder {
                         conditions[0].relation = LESS_THAN_OR_EQUAL_TO;
                         conditions[0].entropy = lowerVariance;
                         conditions[0].index = i - 1;
-                        conditions[0].threshold[0] = candidates[i - 1].value;
+                        conditions[0].threshold[0] = values[i - 1];
                         conditions[0].value[0] =
-                                (candidates[i - 1].value + candidates[i].value)
-                                        / 2.0;
+                                (values[i - 1] + values[i]) / 2.0;
 
                         conditions[1].length = size;
                         conditions[1].relation = GREATER_THAN;
                         conditions[1].entropy = upperVariance;
                         conditions[1].index = i - 1;
-                        conditions[1].threshold[0] = candidates[i - 1].value;
+                        conditions[1].threshold[0] = values[i - 1];
                         conditions[1].value[0] =
-                                (candidates[i - 1].value + candidates[i].value)
-                                        / 2.0;
+                                (values[i - 1] + values[i]) / 2.0;
                     }
                 }
             }
@@ -283,12 +297,16 @@ public class VarianceSplit extends IntervalBuilder {
      * Returns the variance of the values between <code>start</code> and
      * <code>end</code>.
      * 
-     * @param candidates
-     *            the array of candidate values.
+     * @param values
+     *            the array of candidate values, in ascending order.
+     * @param weights
+     *            the weight of each candidate.
+     * @param active
+     *            the active labels of each candidate.
      * @param start
-     *            the start index on the candidates array.
+     *            the start index on the candidate arrays.
      * @param end
-     *            the end index on the candidates array.
+     *            the end index on the candidate arrays.
      * @param frequency
      *            the class values frequency.
      * @param weight
@@ -299,7 +317,9 @@ public class VarianceSplit extends IntervalBuilder {
      * @return the variance of the values between <code>start</code> and
      *         <code>end</code>.
      */
-    private double variance(Pair[] candidates,
+    private double variance(double[] values,
+                            double[] weights,
+                            boolean[][] active,
                             int start,
                             int end,
                             double[] frequency,
@@ -316,10 +336,8 @@ public class VarianceSplit extends IntervalBuilder {
         for (int i = start; i < end; i++) {
             double distance = 0.0;
 
-            for (int j = 0; j < candidates[i].active.length; j++) {
-                double value =
-                        (candidates[i].active[j] ? candidates[i].weight : 0)
-                                - average[j];
+            for (int j = 0; j < active[i].length; j++) {
+                double value = (active[i][j] ? weights[i] : 0) - average[j];
                 distance += weight[j] * (value * value);
             }
             // the sqrt of the distance function cancels out the sq of the
@@ -329,14 +347,4 @@ public class VarianceSplit extends IntervalBuilder {
 
         return variance / size;
     }
-
-    /**
-     * This class represents a (value,labels) pair.
-     */
-    public static class Pair extends IntervalBuilder.Pair {
-        /**
-         * Active labels information.
-         */
-        public boolean[] active;
-    }
 }
\ No newline at end of file
@@ -19,16 +19,13 @@
 
 package myra.classification.rule;
 
-import static myra.datamining.Dataset.COVERED;
-import static myra.datamining.Dataset.NOT_COVERED;
-import static myra.datamining.Dataset.RULE_COVERED;
-
 import java.util.Arrays;
 
 import myra.classification.Label;
+import myra.datamining.Bitset;
 import myra.datamining.Dataset;
 import myra.datamining.Prediction;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Rule;
 
 /**
@@ -85,29 +82,27 @@ public class ClassificationRule extends Rule {
      *            the current dataset.
      * @param instances
      *            the covered instances flag.
+     * @param rule
+     *            the bitset of the instances that satisfy the antecedent of
+     *            the rule.
      * 
      * @return the number of covered instances by the rule.
      */
-    public int apply(Dataset dataset, Instance[] instances) {
-        int total = 0;
-
+    @Override
+    protected int apply(Dataset dataset, Coverage instances, long[] rule) {
         covered = Arrays.copyOf(covered, dataset.classLength());
-        Arrays.fill(covered, 0);
-
         uncovered = Arrays.copyOf(uncovered, dataset.classLength());
-        Arrays.fill(uncovered, 0);
-
-        for (int i = 0; i < dataset.size(); i++) {
-            if (instances[i].flag != COVERED) {
-                if (covers(dataset, i)) {
-                    total++;
-                    covered[(int) dataset.value(i, dataset.classIndex())]++;
-                    instances[i].flag = RULE_COVERED;
-                } else {
-                    uncovered[(int) dataset.value(i, dataset.classIndex())]++;
-                    instances[i].flag = NOT_COVERED;
-                }
-            }
+
+        int total = instances.apply(rule);
+        // class counts are computed from the per-class bitsets: the rule
+        // bitset only contains the instances that are now RULE_COVERED
+        long[] previous = instances.coveredBitset();
+
+        for (int i = 0; i < covered.length; i++) {
+            long[] members = dataset.classBitset(i);
+            covered[i] = Bitset.andCardinality(rule, members);
+            uncovered[i] =
+                    Bitset.andNotCardinality(members, previous) - covered[i];
         }
 
         return total;
@@ -23,6 +23,7 @@ import static myra.datamining.Attribute.Type.CONTINUOUS;
 import static myra.datamining.Attribute.Type.NOMINAL;
 import static myra.datamining.Dataset.RULE_COVERED;
 import static myra.rule.Graph.START_INDEX;
+import static myra.rule.Heuristic.forEachAttribute;
 
 import java.util.Arrays;
 
@@ -30,7 +31,7 @@ import myra.datamining.Attribute;
 import myra.datamining.Dataset;
 import myra.datamining.IntervalBuilder;
 import myra.datamining.Attribute.Condition;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Graph;
 import myra.rule.Heuristic;
 import myra.rule.Graph.Entry;
@@ -48,24 +49,24 @@ public class EntropyHeuristic implements Heuristic {
     private static final double ZERO = 1E-15;
 
     @Override
-    public Entry[] compute(Graph graph, Dataset dataset, Instance[] instances) {
+    public Entry[] compute(Graph graph, Dataset dataset, Coverage instances) {
         return compute(graph, dataset, instances, new boolean[0]);
     }
 
     @Override
     public Entry[] compute(Graph graph,
                            Dataset dataset,
-                           Instance[] instances,
+                           Coverage instances,
                            boolean[] used) {
         final double log_k = Math.log(dataset.classLength()) / Math.log(2.0);
-        Entry[] heuristic = Entry.initialise(new Entry[graph.size()]);
+        final Entry[] heuristic = Entry.initialise(new Entry[graph.size()]);
 
         if (graph.vertices()[START_INDEX].attribute == -1) {
             // we are dealing with a virtual starting vertex
             heuristic[START_INDEX].set(0, 0.0);
         }
 
-        boolean[] available = new boolean[dataset.attributes().length];
+        final boolean[] available = new boolean[dataset.attributes().length];
         Arrays.fill(available, true);
 
         // determines the available attributes
@@ -82,87 +83,194 @@ public class EntropyHeuristic implements Heuristic {
             }
         }
 
+        // class distribution of the covered instances (only used for sparse
+        // datasets)
+        final int[] covered = isSparse(dataset, available)
+                ? distribution(dataset, instances) : null;
+
         // computes the heuristic of the vertices which the attribute is
-        // available
+        // available (attributes are independent, so they can be processed
+        // in parallel)
 
-        for (int i = 0; i < available.length; i++) {
+        forEachAttribute(available.length, i -> {
             if (available[i]) {
-                Attribute attribute = dataset.attributes()[i];
-
-                // nominal attributes
-                if (attribute.getType() == NOMINAL
-                        && i != dataset.classIndex()) {
-                    // (1) calculates the class distribution for each value of
-                    // the attribute
-
-                    int[] terms =
-                            new int[attribute.size() * dataset.classLength()];
-                    int[] counter = new int[attribute.size()];
-
-                    for (int j = 0; j < dataset.size(); j++) {
-                        if (instances[j].flag == RULE_COVERED) {
-                            double v = dataset.value(j, attribute.getIndex());
-
-                            if (v != Dataset.MISSING_VALUE_INDEX) {
-                                terms[(int) ((v * dataset.classLength())
-                                        + dataset
-                                                .value(j,
-                                                       dataset.classIndex()))]++;
-                                counter[(int) v]++;
-                            }
+                compute(graph,
+                        dataset,
+                        instances,
+                        dataset.attributes()[i],
+                        log_k,
+                        covered,
+                        heuristic);
+            }
+        });
+
+        return heuristic;
+    }
+
+    /**
+     * Computes the heuristic information of the vertices of the specified
+     * attribute.
+     * 
+     * @param graph
+     *            the construction graph.
+     * @param dataset
+     *            the current dataset.
+     * @param instances
+     *            the covered instances flags.
+     * @param attribute
+     *            the attribute.
+     * @param log_k
+     *            the maximum entropy value.
+     * @param covered
+     *            the class distribution of the covered instances (only used
+     *            for sparse datasets).
+     * @param heuristic
+     *            the heuristic values for each vertex of the graph.
+     */
+    private void compute(Graph graph,
+                         Dataset dataset,
+                         Coverage instances,
+                         Attribute attribute,
+                         double log_k,
+                         int[] covered,
+                         Entry[] heuristic) {
+        // nominal attributes
+        if (attribute.getType() == NOMINAL
+                && attribute.getIndex() != dataset.classIndex()) {
+            // (1) calculates the class distribution for each value of the
+            // attribute
+
+            int[] terms = new int[attribute.size() * dataset.classLength()];
+            int[] counter = new int[attribute.size()];
+            int[] nonZero = dataset.nonZero(attribute.getIndex());
+
+            if (nonZero == null) {
+                for (int j = 0; j < dataset.size(); j++) {
+                    if (instances.flag(j) == RULE_COVERED) {
+                        double v = dataset.value(j, attribute.getIndex());
+
+                        if (v != Dataset.MISSING_VALUE_INDEX) {
+                            terms[(int) ((v * dataset.classLength())
+                                    + dataset.value(j, dataset.classIndex()))]++;
+                            counter[(int) v]++;
                         }
                     }
+                }
+            } else {
+                // sparse dataset: only the non-zero values are visited, the
+                // remaining covered instances have the first value of the
+                // attribute
+                int[] zero = covered.clone();
+
+                for (int j : nonZero) {
+                    if (instances.flag(j) == RULE_COVERED) {
+                        double v = dataset.value(j, attribute.getIndex());
+                        int c = (int) dataset.value(j, dataset.classIndex());
+                        zero[c]--;
 
-                    // (2) calculates the entropy of each term (attribute,
-                    // value)
-
-                    for (int j = 0; j < attribute.size(); j++) {
-                        int vertex = graph.indexOf(attribute.getIndex(), j);
-
-                        if (counter[j] > 0) {
-                            int index = j * dataset.classLength();
-                            double entropy = 0.0;
-
-                            for (int k = 0; k < dataset.classLength(); k++) {
-                                if (terms[index + k] > 0) {
-                                    double p = terms[index + k]
-                                            / (double) counter[j];
-                                    entropy -=
-                                            (p * (Math.log(p) / Math.log(2.0)));
-                                }
-                            }
-
-                            double value = log_k - entropy;
-                            heuristic[vertex].set(0,
-                                                  (value < ZERO) ? 0.0 : value);
-                        } else {
-                            heuristic[vertex].set(0, 0.0);
+                        if (v != Dataset.MISSING_VALUE_INDEX) {
+                            terms[(int) (v * dataset.classLength()) + c]++;
+                            counter[(int) v]++;
                         }
                     }
                 }
-                // continuous attributes
-                else if (attribute.getType() == CONTINUOUS) {
-                    Condition condition = IntervalBuilder.singleton()
-                            .single(dataset, instances, attribute.getIndex());
-                    double value = 0.0;
-
-                    if (condition != null) {
-                        value = log_k - condition.entropy;
+
+                for (int c = 0; c < zero.length; c++) {
+                    terms[c] += zero[c];
+                    counter[0] += zero[c];
+                }
+            }
+
+            // (2) calculates the entropy of each term (attribute, value)
+
+            for (int j = 0; j < attribute.size(); j++) {
+                int vertex = graph.indexOf(attribute.getIndex(), j);
+
+                if (counter[j] > 0) {
+                    int index = j * dataset.classLength();
+                    double entropy = 0.0;
+
+                    for (int k = 0; k < dataset.classLength(); k++) {
+                        if (terms[index + k] > 0) {
+                            double p = terms[index + k] / (double) counter[j];
+                            entropy -= (p * (Math.log(p) / Math.log(2.0)));
+                        }
                     }
 
-                    int vertex = graph.indexOf(attribute.getIndex(), -1);
+                    double value = log_k - entropy;
                     heuristic[vertex].set(0, (value < ZERO) ? 0.0 : value);
+                } else {
+                    heuristic[vertex].set(0, 0.0);
                 }
             }
         }
+        // continuous attributes
+        else if (attribute.getType() == CONTINUOUS) {
+            Condition condition = IntervalBuilder.singleton()
+                    .single(dataset, instances, attribute.getIndex());
+            double value = 0.0;
 
-        return heuristic;
+            if (condition != null) {
+                value = log_k - condition.entropy;
+            }
+
+            int vertex = graph.indexOf(attribute.getIndex(), -1);
+            heuristic[vertex].set(0, (value < ZERO) ? 0.0 : value);
+        }
+    }
+
+    /**
+     * Checks whether the heuristic of any of the available nominal attributes
+     * is computed from its non-zero values.
+     * 
+     * @param dataset
+     *            the current dataset.
+     * @param available
+     *            indicates the available attributes.
+     * 
+     * @return <code>true</code> if the dataset uses a sparse storage;
+     *         <code>false</code> otherwise.
+     */
+    private boolean isSparse(Dataset dataset, boolean[] available) {
+        for (int i = 0; i < available.length; i++) {
+            if (available[i] && i != dataset.classIndex()
+                    && dataset.attributes()[i].getType() == NOMINAL
+                    && dataset.nonZero(i) != null) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the class distribution of the instances covered by the current
+     * rule.
+     * 
+     * @param dataset
+     *            the current dataset.
+     * @param instances
+     *            the covered instances flags.
+     * 
+     * @return the class distribution of the instances covered by the current
+     *         rule.
+     */
+    private int[] distribution(Dataset dataset, Coverage instances) {
+        int[] distribution = new int[dataset.classLength()];
+
+        for (int j = 0; j < dataset.size(); j++) {
+            if (instances.flag(j) == RULE_COVERED) {
+                distribution[(int) dataset.value(j, dataset.classIndex())]++;
+            }
+        }
+
+        return distribution;
     }
 
     @Override
     public Entry[] compute(Graph graph,
                            Dataset dataset,
-                           Instance[] instances,
+                           Coverage instances,
                            int target) {
         return compute(graph, dataset, instances, new boolean[0], target);
     }
@@ -173,7 +281,7 @@ public class EntropyHeuristic implements Heuristic {
     @Override
     public Entry[] compute(Graph graph,
                            Dataset dataset,
-                           Instance[] instances,
+                           Coverage instances,
                            boolean[] used,
                            int target) {
         return compute(graph, dataset, instances, used);
@@ -26,7 +26,7 @@ import java.util.Arrays;
 
 import myra.classification.Label;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Assignator;
 import myra.rule.Rule;
 
@@ -38,7 +38,7 @@ import myra.rule.Rule;
  */
 public class MajorityAssignator implements Assignator {
     @Override
-    public int assign(Dataset dataset, Rule rule, Instance[] instances) {
+    public int assign(Dataset dataset, Rule rule, Coverage instances) {
         if (!(rule instanceof ClassificationRule)) {
             throw new IllegalArgumentException("Expecting a classification rule: "
                     + rule.getClass().getName());
@@ -20,7 +20,7 @@
 package myra.classification.rule;
 
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Assignator;
 import myra.rule.Rule;
 
@@ -39,7 +39,7 @@ public class NoClassAssignator implements Assignator {
      *         the rule.
      */
     @Override
-    public int assign(Dataset dataset, Rule rule, Instance[] instances) {
+    public int assign(Dataset dataset, Rule rule, Coverage instances) {
         if (!(rule instanceof ClassificationRule)) {
             throw new IllegalArgumentException("Expecting a classification rule: "
                     + rule.getClass().getName());
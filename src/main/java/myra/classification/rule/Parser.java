@@ -46,7 +46,7 @@ import myra.datamining.ARFFReader;
 import myra.datamining.Attribute;
 import myra.datamining.Attribute.Condition;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.PredictionExplanationSize;
 import myra.rule.Rule;
 import myra.rule.RuleList;
@@ -95,14 +95,20 @@ public class Parser {
 
             if (consequent) {
                 Attribute target = dataset.attributes()[dataset.classIndex()];
+                int index = target.find(token);
 
-                for (int i = 0; i < target.values().length; i++) {
+                // the class value is matched ignoring case, so the exact
+                // lookup might fail
+                for (int i = 0; i < target.values().length && index == -1; i++) {
                     if (target.value(i).equalsIgnoreCase(token)) {
-                        rule.setConsequent(new Label(dataset.getTarget(), i));
-                        break;
+                        index = i;
                     }
                 }
 
+                if (index != -1) {
+                    rule.setConsequent(new Label(dataset.getTarget(), index));
+                }
+
                 break;
             }
             if (token.equals(BEGIN)) {
@@ -128,14 +134,11 @@ public class Parser {
                     if (attribute.getType() == NOMINAL) {
                         if ("=".equals(operator)) {
                             condition.relation = EQUAL_TO;
-                            String value = slices.get(2).trim();
+                            int index =
+                                    attribute.find(slices.get(2).trim());
 
-                            for (int i =
-                                    0; i < attribute.values().length; i++) {
-                                if (attribute.value(i).equals(value)) {
-                                    condition.value[0] = i;
-                                    break;
-                                }
+                            if (index != -1) {
+                                condition.value[0] = index;
                             }
                         } else if ("IN".equals(operator)) {
                             String slice = slices.get(2).trim();
@@ -256,7 +259,7 @@ public class Parser {
      */
     public static RuleList parseList(Dataset dataset, ArrayList<String> rules) {
         RuleList list = new RuleList();
-        Instance[] instances = Instance.newArray(dataset.size());
+        Coverage instances = new Coverage(dataset.size());
 
         for (String text : rules) {
             Rule rule = parse(dataset, text);
@@ -1072,9 +1075,9 @@ public class Parser {
                     RuleList list = Parser.parseList(training, rules);
 
                     if (!list.hasDefault()) {
-                        Instance[] instances =
-                                Instance.newArray(training.size());
-                        Instance.markAll(instances, RULE_COVERED);
+                        Coverage instances =
+                                new Coverage(training.size());
+                        instances.markAll(RULE_COVERED);
 
                         int v = training.findMajority(instances, RULE_COVERED);
                         Rule rule = new ClassificationRule();
@@ -1274,9 +1277,9 @@ public class Parser {
                     RuleList list = Parser.parseList(training, rules);
 
                     if (!list.hasDefault()) {
-                        Instance[] instances =
-                                Instance.newArray(training.size());
-                        Instance.markAll(instances, RULE_COVERED);
+                        Coverage instances =
+                                new Coverage(training.size());
+                        instances.markAll(RULE_COVERED);
 
                         int v = training.findMajority(instances, RULE_COVERED);
                         Rule rule = new ClassificationRule();
@@ -28,7 +28,7 @@ import myra.datamining.Attribute;
 import myra.datamining.Dataset;
 import myra.datamining.IntervalBuilder;
 import myra.datamining.Attribute.Condition;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Rule;
 import myra.rule.RuleList;
 
@@ -77,8 +77,8 @@ public class SiftRules {
         attributeBits = new double[attributes.length];
         double total = 0;
         // intances array used for the discretisation process
-        Instance[] instances = Instance.newArray(dataset.size());
-        Instance.markAll(instances, RULE_COVERED);
+        Coverage instances = new Coverage(dataset.size());
+        instances.markAll(RULE_COVERED);
 
         for (int i = 0; i < attributes.length; i++) {
             if (attributes[i].getType() == NOMINAL) {
@@ -20,20 +20,14 @@
 package myra.classification.rule;
 
 import static myra.Config.CONFIG;
-import static myra.datamining.Algorithm.RANDOM_SEED;
-import static myra.datamining.Dataset.COVERED;
-import static myra.datamining.Dataset.NOT_COVERED;
-import static myra.datamining.Dataset.RULE_COVERED;
 import static myra.datamining.IntervalBuilder.MINIMUM_CASES;
 import static myra.rule.Assignator.ASSIGNATOR;
 
-import java.util.ArrayList;
-
 import myra.Cost;
-import myra.datamining.Attribute.Condition;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Assignator;
+import myra.rule.PrefixCoverage;
 import myra.rule.Pruner;
 import myra.rule.Rule;
 import myra.rule.Rule.Term;
@@ -59,62 +53,27 @@ public class SinglePassPruner extends Pruner {
     @Override
     public int prune(Dataset dataset,
                      Rule rule,
-                     Instance[] instances,
+                     Coverage instances,
                      RuleFunction function) {
         Term[] terms = rule.terms();
-        Coverage[] coverage = new Coverage[terms.length];
-        // number of class labels (only used for non-hierarchical problems
-        // to store each value class frequency)
-        final int length = dataset.isHierarchical() ? 0 : dataset.classLength();
+        PrefixCoverage prefixes = PrefixCoverage.get();
+        final int minimum = CONFIG.get(MINIMUM_CASES);
 
-        for (int j = 0; j < coverage.length; j++) {
-            coverage[j] = new Coverage(length);
-        }
-
-        // (1) determines the coverage of each term. this includes the indexes
-        // of the covered instances and their class frequency
+        // (1) determines the coverage of each term, following the order
+        // that they appear in the antecedent of the rule
 
         int start = 0;
 
-        while (start < coverage.length) {
-            for (int i = 0; i < dataset.size(); i++) {
-                // only considers instances not covered
-                if (instances[i].flag != COVERED) {
-                    int c = (int) dataset.value(i, dataset.classIndex());
-
-                    for (int j = start; j < terms.length; j++) {
-                        if (terms[j].isEnabeld()) {
-                            Condition condition = terms[j].condition();
-                            double v = dataset.value(i, condition.attribute);
-
-                            if (condition.satisfies(v)) {
-                                coverage[j].instances.add(i);
-
-                                if (!dataset.isHierarchical()) {
-                                    coverage[j].covered[c]++;
-                                }
-                            } else {
-                                if (!dataset.isHierarchical()) {
-                                    coverage[j].uncovered[c]++;
-                                }
-                                // stops checking the remaining terms
-                                break;
-                            }
-                        }
-                    }
-                }
-            }
+        while (start < terms.length) {
+            prefixes.compute(dataset, rule, instances, start);
 
             // checks that the first term of the rule cover the minimum
             // number of cases, otherwise disables it and repeat the
             // coverage of the rule
-            if (coverage[start].total() < CONFIG.get(MINIMUM_CASES)) {
+            if (!terms[start].isEnabeld()
+                    || prefixes.total(start) < minimum) {
                 terms[start].setEnabeld(false);
                 start++;
-                // reset coverage for all terms
-                for (int j = 0; j < coverage.length; j++) {
-                    coverage[j] = new Coverage(length);
-                }
             } else {
                 // when the rule covers the minimum number of cases, stop the
                 // coverage test
@@ -127,12 +86,16 @@ public class SinglePassPruner extends Pruner {
         Assignator assignator = CONFIG.get(ASSIGNATOR);
         int selected = -1;
         Cost best = null;
+        // class frequencies (only used for non-hierarchical problems)
+        final int length = dataset.isHierarchical() ? 0 : dataset.classLength();
+        int[] covered = new int[length];
+        int[] uncovered = new int[length];
 
-        for (int i = start; i < coverage.length; i++) {
+        for (int i = start; i < terms.length; i++) {
             // the rule must cover a minimum number of cases, therefore
             // only terms that cover more than the limit are considered
-            if (coverage[i].total() >= CONFIG.get(MINIMUM_CASES)) {
-                reset(dataset, instances, coverage[i], rule);
+            if (terms[i].isEnabeld() && prefixes.total(i) >= minimum) {
+                reset(dataset, instances, prefixes, i, rule, covered, uncovered);
                 assignator.assign(dataset, rule, instances);
 
                 Cost current = function.evaluate(dataset, rule, instances);
@@ -158,7 +121,13 @@ public class SinglePassPruner extends Pruner {
         rule.compact();
 
         if (selected != -1) {
-            reset(dataset, instances, coverage[selected], rule);
+            reset(dataset,
+                  instances,
+                  prefixes,
+                  selected,
+                  rule,
+                  covered,
+                  uncovered);
         } else if (rule.isEmpty()) {
             rule.apply(dataset, instances);
         }
@@ -167,77 +136,49 @@ public class SinglePassPruner extends Pruner {
     }
 
     /**
-     * Resets the coverage of a rule using the <code>Coverage</code> object of
+     * Resets the coverage of a rule using the coverage of the antecedent up to
      * the current term.
      * 
      * @param dataset
      *            the current dataset.
      * @param instances
      *            the instaces flag array.
-     * @param coverage
-     *            the coverage of the term.
+     * @param prefixes
+     *            the coverage of the prefixes of the rule.
+     * @param index
+     *            the index of the current term.
      * @param rule
      *            the rule being pruned.
+     * @param covered
+     *            the array to store the class frequency of the covered
+     *            instances.
+     * @param uncovered
+     *            the array to store the class frequency of the instances that
+     *            are not covered by the current term.
      */
     private void reset(Dataset dataset,
-                       Instance[] instances,
-                       Coverage coverage,
-                       Rule rule) {
+                       Coverage instances,
+                       PrefixCoverage prefixes,
+                       int index,
+                       Rule rule,
+                       int[] covered,
+                       int[] uncovered) {
         // reset the covered instances
-        Instance.mark(instances, RULE_COVERED, NOT_COVERED);
-      
-            for (int index : coverage.instances) {
-        	instances[index].flag = RULE_COVERED;
-            }
-       
+        prefixes.mark(rule, instances, index);
 
         if (!dataset.isHierarchical()) {
-            ClassificationRule r = (ClassificationRule) rule;
-            r.covered(coverage.covered);
-            r.uncovered(coverage.uncovered);
-        }
-    }
+            // instances covered by the previous terms and not covered by the
+            // current term
+            prefixes.distribution(dataset, index, covered);
+            prefixes.distribution(dataset, index - 1, uncovered);
 
-    /**
-     * Class to store the coverage information of a term.
-     * 
-     * @author Fernando Esteban Barril Otero
-     */
-    private static class Coverage {
-        /**
-         * Covered instances information.
-         */
-        ArrayList<Integer> instances;
-
-        /**
-         * Covered instances information.
-         */
-        int[] covered;
-
-        /**
-         * Uncovered instances information.
-         */
-        int[] uncovered;
-
-        /**
-         * Default constructor.
-         * 
-         * @param length
-         *            the number of classes.
-         */
-        Coverage(int length) {
-            covered = new int[length];
-            uncovered = new int[length];
-            instances = new ArrayList<>();
-        }
+            for (int i = 0; i < uncovered.length; i++) {
+                uncovered[i] -= covered[i];
+            }
 
-        /**
-         * Returns the total number of covered examples.
-         * 
-         * @return the total number of covered examples.
-         */
-        int total() {
-            return instances.size();
+            ClassificationRule r = (ClassificationRule) rule;
+            r.covered(covered);
+            r.uncovered(uncovered);
         }
     }
 }
\ No newline at end of file
@@ -22,7 +22,7 @@ package myra.classification.rule.function;
 import myra.Cost;
 import myra.classification.rule.ClassificationRule;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Rule;
 import myra.rule.RuleFunction;
 
@@ -37,7 +37,7 @@ public abstract class ClassificationRuleFunction extends RuleFunction {
     @Override
     public final Cost evaluate(Dataset dataset,
                                Rule rule,
-                               Instance[] instances) {
+                               Coverage instances) {
         return evaluate(dataset, (ClassificationRule) rule, instances);
     }
 
@@ -55,7 +55,7 @@ public abstract class ClassificationRuleFunction extends RuleFunction {
      */
     public abstract Cost evaluate(Dataset dataset,
                                   ClassificationRule rule,
-                                  Instance[] instances);
+                                  Coverage instances);
 
     /**
      * Returns a confusion matrix based on the covered/uncovered instances
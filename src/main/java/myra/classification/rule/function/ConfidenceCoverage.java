@@ -22,7 +22,7 @@ package myra.classification.rule.function;
 import myra.Cost.Maximise;
 import myra.classification.rule.ClassificationRule;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * The <code>ConfidenceCoverage</code> class represents a rule quality function
@@ -35,7 +35,7 @@ public class ConfidenceCoverage extends ClassificationRuleFunction {
     @Override
     public Maximise evaluate(Dataset dataset,
                              ClassificationRule rule,
-                             Instance[] instances) {
+                             Coverage instances) {
         int[] cFrequency = rule.covered();
         int[] uFrequency = rule.uncovered();
 
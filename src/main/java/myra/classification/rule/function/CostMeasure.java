@@ -25,7 +25,7 @@ import myra.Config.ConfigKey;
 import myra.Cost.Maximise;
 import myra.classification.rule.ClassificationRule;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * The <code>CostMeasure</code> class represents a rule quality function that
@@ -35,21 +35,16 @@ import myra.datamining.Dataset.Instance;
  */
 public class CostMeasure extends ClassificationRuleFunction {
     /**
-     * The config key for the c parameter.
+     * The config key for the c parameter. The default value is taken from
+     * F. Janssen and J. Furnkranz, "On the quest for optimal rule
+     * learning heuristics", Machine Learning 78, pp. 343-379, 2010.
      */
-    public static final ConfigKey<Double> C = new ConfigKey<Double>();
-
-    static {
-        // default c value
-        // see F. Janssen and J. Furnkranz, "On the quest for optimal rule
-        // learning heuristics", Machine Learning 78, pp. 343-379, 2010.
-        CONFIG.set(C, 0.437);
-    }
+    public static final ConfigKey<Double> C = new ConfigKey<Double>(0.437);
 
     @Override
     public Maximise evaluate(Dataset dataset,
                              ClassificationRule rule,
-                             Instance[] instances) {
+                             Coverage instances) {
         final double c = CONFIG.get(C);
 
         int[] frequency = rule.covered();
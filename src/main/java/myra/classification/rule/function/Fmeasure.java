@@ -25,7 +25,7 @@ import myra.Config.ConfigKey;
 import myra.Cost.Maximise;
 import myra.classification.rule.ClassificationRule;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * The <code>Fmeasure</code> class represents a rule quality function based on
@@ -35,21 +35,16 @@ import myra.datamining.Dataset.Instance;
  */
 public class Fmeasure extends ClassificationRuleFunction {
     /**
-     * The config key for the <i>beta</i> parameter.
+     * The config key for the <i>beta</i> parameter. The default value is taken from
+     * F. Janssen and J. Furnkranz, "On the quest for optimal rule
+     * learning heuristics", Machine Learning 78, pp. 343-379, 2010.
      */
-    public static final ConfigKey<Double> BETA = new ConfigKey<Double>();
-
-    static {
-        // default beta value
-        // see F. Janssen and J. Furnkranz, "On the quest for optimal rule
-        // learning heuristics", Machine Learning 78, pp. 343-379, 2010.
-        CONFIG.set(BETA, 0.5);
-    }
+    public static final ConfigKey<Double> BETA = new ConfigKey<Double>(0.5);
 
     @Override
     public Maximise evaluate(Dataset dataset,
                              ClassificationRule rule,
-                             Instance[] instances) {
+                             Coverage instances) {
         BinaryConfusionMatrix m = fill(rule);
         final double beta = CONFIG.get(BETA);
 
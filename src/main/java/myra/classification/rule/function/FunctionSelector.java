@@ -24,6 +24,7 @@ import static myra.datamining.Algorithm.RANDOM_GENERATOR;
 import static myra.rule.pittsburgh.LevelPheromonePolicy.EVAPORATION_FACTOR;
 import static myra.rule.pittsburgh.LevelPheromonePolicy.INITIAL_PHEROMONE;
 
+import myra.Roulette;
 import myra.rule.Graph.Entry;
 import myra.rule.irl.PheromonePolicy;
 import myra.rule.Rule;
@@ -80,41 +81,15 @@ public class FunctionSelector {
      * @return the index of the selected function for the specified level.
      */
     public int select(int level) {
-        double[] roulette = new double[pheromone.length];
-        double total = 0.0;
+        Roulette roulette = new Roulette(pheromone.length);
 
         for (int i = 0; i < pheromone.length; i++) {
-            roulette[i] = pheromone[i].value(level);
-            total += pheromone[i].value(level);
+            roulette.put(i, pheromone[i].value(level));
         }
 
-        double cumulative = 0.0;
+        roulette.build();
 
-        for (int i = 0; i < pheromone.length; i++) {
-            if (roulette[i] > 0) {
-                roulette[i] = cumulative + (roulette[i] / total);
-                cumulative = roulette[i];
-            }
-        }
-
-        for (int i = (roulette.length - 1); i >= 0; i--) {
-            if (roulette[i] > 0) {
-                roulette[i] = 1.0;
-                break;
-            }
-        }
-
-        double slot = CONFIG.get(RANDOM_GENERATOR).nextDouble();
-        int selected = -1;
-
-        for (int i = 0; i < roulette.length; i++) {
-            if (slot < roulette[i]) {
-                selected = i;
-                break;
-            }
-        }
-
-        return selected;
+        return roulette.select(CONFIG.get(RANDOM_GENERATOR).nextDouble());
     }
 
     /**
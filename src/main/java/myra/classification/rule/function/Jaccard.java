@@ -22,7 +22,7 @@ package myra.classification.rule.function;
 import myra.Cost.Maximise;
 import myra.classification.rule.ClassificationRule;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * The <code>Jaccard</code> class represents a rule quality function based on
@@ -34,7 +34,7 @@ public class Jaccard extends ClassificationRuleFunction {
     @Override
     public Maximise evaluate(Dataset dataset,
                              ClassificationRule rule,
-                             Instance[] instances) {
+                             Coverage instances) {
         BinaryConfusionMatrix m = fill(rule);
         return new Maximise(m.TP / (m.TP + m.FP + m.FN));
     }
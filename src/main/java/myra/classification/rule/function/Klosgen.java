@@ -25,7 +25,7 @@ import myra.Config.ConfigKey;
 import myra.Cost.Maximise;
 import myra.classification.rule.ClassificationRule;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * The <code>Klosgen</code> class represents a rule quality function that allows
@@ -35,21 +35,16 @@ import myra.datamining.Dataset.Instance;
  */
 public class Klosgen extends ClassificationRuleFunction {
     /**
-     * The config key for the w parameter.
+     * The config key for the w parameter. The default value is taken from
+     * F. Janssen and J. Furnkranz, "On the quest for optimal rule
+     * learning heuristics", Machine Learning 78, pp. 343-379, 2010.
      */
-    public static final ConfigKey<Double> W = new ConfigKey<Double>();
-
-    static {
-        // default w value
-        // see F. Janssen and J. Furnkranz, "On the quest for optimal rule
-        // learning heuristics", Machine Learning 78, pp. 343-379, 2010.
-        CONFIG.set(W, 0.4323);
-    }
+    public static final ConfigKey<Double> W = new ConfigKey<Double>(0.4323);
 
     @Override
     public Maximise evaluate(Dataset dataset,
                              ClassificationRule rule,
-                             Instance[] instances) {
+                             Coverage instances) {
         BinaryConfusionMatrix m = fill(rule);
 
         double total = m.TP + m.FP + m.FN + m.TN;
@@ -22,7 +22,7 @@ package myra.classification.rule.function;
 import myra.Cost.Maximise;
 import myra.classification.rule.ClassificationRule;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * The <code>Laplace</code> class represents a rule quality function based on
@@ -34,7 +34,7 @@ public class Laplace extends ClassificationRuleFunction {
     @Override
     public Maximise evaluate(Dataset dataset,
                              ClassificationRule rule,
-                             Instance[] instances) {
+                             Coverage instances) {
         int[] frequency = rule.covered();
         int predicted = rule.getConsequent().value();
         int total = 0;
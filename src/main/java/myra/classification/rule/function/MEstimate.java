@@ -25,7 +25,7 @@ import myra.Config.ConfigKey;
 import myra.Cost.Maximise;
 import myra.classification.rule.ClassificationRule;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * The <code>MEstimate</code> class represents a rule quality function that
@@ -35,21 +35,16 @@ import myra.datamining.Dataset.Instance;
  */
 public class MEstimate extends ClassificationRuleFunction {
     /**
-     * The config key for the <i>m</i> parameter.
+     * The config key for the <i>m</i> parameter. The default value is taken from
+     * F. Janssen and J. Furnkranz, "On the quest for optimal rule
+     * learning heuristics", Machine Learning 78, pp. 343-379, 2010.
      */
-    public static final ConfigKey<Double> M = new ConfigKey<Double>();
-
-    static {
-        // default m value
-        // see F. Janssen and J. Furnkranz, "On the quest for optimal rule
-        // learning heuristics", Machine Learning 78, pp. 343-379, 2010.
-        CONFIG.set(M, 22.466);
-    }
+    public static final ConfigKey<Double> M = new ConfigKey<Double>(22.466);
 
     @Override
     public Maximise evaluate(Dataset dataset,
                              ClassificationRule rule,
-                             Instance[] instances) {
+                             Coverage instances) {
         BinaryConfusionMatrix m = fill(rule);
 
         final double mValue = CONFIG.get(M);
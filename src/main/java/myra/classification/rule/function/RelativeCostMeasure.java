@@ -25,7 +25,7 @@ import myra.Config.ConfigKey;
 import myra.Cost.Maximise;
 import myra.classification.rule.ClassificationRule;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * The <code>RelativeCostMeasure</code> class represents a rule quality function
@@ -35,21 +35,16 @@ import myra.datamining.Dataset.Instance;
  */
 public class RelativeCostMeasure extends ClassificationRuleFunction {
     /**
-     * The config key for the <i>cr</i> parameter.
+     * The config key for the <i>cr</i> parameter. The default value is taken from
+     * F. Janssen and J. Furnkranz, "On the quest for optimal rule
+     * learning heuristics", Machine Learning 78, pp. 343-379, 2010.
      */
-    public static final ConfigKey<Double> CR = new ConfigKey<Double>();
-
-    static {
-        // default cr value
-        // see F. Janssen and J. Furnkranz, "On the quest for optimal rule
-        // learning heuristics", Machine Learning 78, pp. 343-379, 2010.
-        CONFIG.set(CR, 0.342);
-    }
+    public static final ConfigKey<Double> CR = new ConfigKey<Double>(0.342);
 
     @Override
     public Maximise evaluate(Dataset dataset,
                              ClassificationRule rule,
-                             Instance[] instances) {
+                             Coverage instances) {
         BinaryConfusionMatrix m = fill(rule);
         final double cr = CONFIG.get(CR);
 
@@ -29,7 +29,7 @@ import myra.Cost.Maximise;
 import myra.classification.rule.ClassificationRule;
 import myra.classification.rule.function.ClassificationRuleFunction;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.datamining.Hierarchy;
 
 /**
@@ -49,7 +49,7 @@ public class HierarchicalFmeasure extends ClassificationRuleFunction {
     @Override
     public Cost evaluate(Dataset dataset,
                          ClassificationRule rule,
-                         Instance[] instances) {
+                         Coverage instances) {
 
         // indexes of the labels to ignore
         boolean[] ignore = CONFIG.get(IGNORE);
@@ -59,8 +59,8 @@ public class HierarchicalFmeasure extends ClassificationRuleFunction {
 
         boolean[] pLabel = rule.getConsequent().active();
 
-        for (int i = 0; i < instances.length; i++) {
-            if (instances[i].flag == RULE_COVERED) {
+        for (int i = 0; i < instances.size(); i++) {
+            if (instances.flag(i) == RULE_COVERED) {
                 boolean[] tLabel = dataset.label(i).active();
 
                 for (int j = 0; j < ignore.length; j++) {
@@ -25,7 +25,7 @@ import static myra.datamining.Dataset.RULE_COVERED;
 
 import myra.classification.Label;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Assignator;
 import myra.rule.Rule;
 
@@ -38,23 +38,23 @@ import myra.rule.Rule;
  */
 public class ProbabilisticAssignator implements Assignator {
     @Override
-    public int assign(Dataset dataset, Rule rule, Instance[] instances) {
+    public int assign(Dataset dataset, Rule rule, Coverage instances) {
         double[] frequencies = new double[dataset.getHierarchy().size()];
         double size = 0.0;
         double available = 0.0;
 
-        for (int i = 0; i < instances.length; i++) {
-            if (instances[i].flag != COVERED) {
-                if (instances[i].flag == RULE_COVERED) {
+        for (int i = 0; i < instances.size(); i++) {
+            if (instances.flag(i) != COVERED) {
+                if (instances.flag(i) == RULE_COVERED) {
                     boolean[] active = dataset.label(i).active();
 
                     for (int j = 0; j < active.length; j++) {
-                        frequencies[j] += active[j] ? instances[i].weight : 0;
+                        frequencies[j] += active[j] ? instances.weight(i) : 0;
                     }
 
-                    size += instances[i].weight;
-                } else if (instances[i].flag == NOT_COVERED) {
-                    available += instances[i].weight;
+                    size += instances.weight(i);
+                } else if (instances.flag(i) == NOT_COVERED) {
+                    available += instances.weight(i);
                 }
             }
         }
@@ -19,17 +19,13 @@
 
 package myra.classification.rule.hierarchical;
 
-import static myra.datamining.Dataset.COVERED;
-import static myra.datamining.Dataset.NOT_COVERED;
-import static myra.datamining.Dataset.RULE_COVERED;
-
 import java.util.TreeSet;
 
 import myra.classification.rule.ClassificationRule;
 import myra.datamining.Attribute;
 import myra.datamining.Attribute.Condition;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.datamining.Hierarchy;
 import myra.datamining.Hierarchy.Node;
 
@@ -55,21 +51,8 @@ public class ProbabilisticRule extends ClassificationRule {
     }
 
     @Override
-    public int apply(Dataset dataset, Instance[] instances) {
-        int total = 0;
-
-        for (int i = 0; i < dataset.size(); i++) {
-            if (instances[i].flag != COVERED) {
-                if (covers(dataset, i)) {
-                    total++;
-                    instances[i].flag = RULE_COVERED;
-                } else {
-                    instances[i].flag = NOT_COVERED;
-                }
-            }
-        }
-
-        return total;
+    protected int apply(Dataset dataset, Coverage instances, long[] coverage) {
+        return instances.apply(coverage);
     }
 
     /**
@@ -25,7 +25,7 @@ import myra.classification.Label;
 import myra.datamining.Attribute;
 import myra.datamining.Dataset;
 import myra.datamining.Hierarchy;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.datamining.Hierarchy.Node;
 import myra.rule.Rule;
 
@@ -38,7 +38,7 @@ import myra.rule.Rule;
  */
 public class SinglePathAssignator extends ProbabilisticAssignator {
     @Override
-    public int assign(Dataset dataset, Rule rule, Instance[] instances) {
+    public int assign(Dataset dataset, Rule rule, Coverage instances) {
         // determines the probabilities of each label
         int available = super.assign(dataset, rule, instances);
         Label label = (Label) rule.getConsequent();
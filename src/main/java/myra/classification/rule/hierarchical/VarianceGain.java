@@ -28,7 +28,7 @@ import myra.classification.rule.ClassificationRule;
 import myra.classification.rule.function.ClassificationRuleFunction;
 import myra.datamining.Attribute;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.datamining.Hierarchy;
 
 /**
@@ -38,7 +38,7 @@ public class VarianceGain extends ClassificationRuleFunction {
     @Override
     public Cost evaluate(Dataset dataset,
                          ClassificationRule rule,
-                         Instance[] instances) {
+                         Coverage instances) {
         // (1) determines the weight of the labels
 
         Hierarchy hierarchy = dataset.getHierarchy();
@@ -65,31 +65,31 @@ public class VarianceGain extends ClassificationRuleFunction {
         double[] uAverage = new double[dataset.getHierarchy().size()];
         double uSize = 0;
 
-        for (int i = 0; i < instances.length; i++) {
+        for (int i = 0; i < instances.size(); i++) {
             boolean[] active = dataset.label(i).active();
 
-            if (instances[i].flag == RULE_COVERED) {
+            if (instances.flag(i) == RULE_COVERED) {
                 for (int j = 0; j < active.length; j++) {
-                    double value = active[j] ? instances[i].weight : 0;
+                    double value = active[j] ? instances.weight(i) : 0;
                     cAverage[j] += value;
                     // overall frequency
                     tAverage[j] += value;
                 }
 
-                cSize += instances[i].weight;
+                cSize += instances.weight(i);
                 // overall size
-                tSize += instances[i].weight;
-            } else if (instances[i].flag == NOT_COVERED) {
+                tSize += instances.weight(i);
+            } else if (instances.flag(i) == NOT_COVERED) {
                 for (int j = 0; j < active.length; j++) {
-                    double value = active[j] ? instances[i].weight : 0;
+                    double value = active[j] ? instances.weight(i) : 0;
                     uAverage[j] += value;
                     // overall frequency
                     tAverage[j] += value;
                 }
 
-                uSize += instances[i].weight;
+                uSize += instances.weight(i);
                 // overall size
-                tSize += instances[i].weight;
+                tSize += instances.weight(i);
             }
         }
 
@@ -105,37 +105,37 @@ public class VarianceGain extends ClassificationRuleFunction {
         double cVariance = 0.0;
         double uVariance = 0.0;
 
-        for (int i = 0; i < instances.length; i++) {
+        for (int i = 0; i < instances.size(); i++) {
             boolean[] active = dataset.label(i).active();
 
-            if (instances[i].flag == RULE_COVERED) {
+            if (instances.flag(i) == RULE_COVERED) {
                 double tDistance = 0.0;
                 double cDistance = 0.0;
 
                 for (int j = 0; j < active.length; j++) {
                     double tValue =
-                            (active[j] ? instances[i].weight : 0) - tAverage[j];
+                            (active[j] ? instances.weight(i) : 0) - tAverage[j];
                     tDistance += weight[j] * (tValue * tValue);
 
                     double cValue =
-                            (active[j] ? instances[i].weight : 0) - cAverage[j];
+                            (active[j] ? instances.weight(i) : 0) - cAverage[j];
                     cDistance += weight[j] * (cValue * cValue);
                 }
                 // the sqrt of the distance function cancels out the sq of the
                 // variance
                 tVariance += tDistance;
                 cVariance += cDistance;
-            } else if (instances[i].flag == NOT_COVERED) {
+            } else if (instances.flag(i) == NOT_COVERED) {
                 double tDistance = 0.0;
                 double uDistance = 0.0;
 
                 for (int j = 0; j < active.length; j++) {
                     double tValue =
-                            (active[j] ? instances[i].weight : 0) - tAverage[j];
+                            (active[j] ? instances.weight(i) : 0) - tAverage[j];
                     tDistance += weight[j] * (tValue * tValue);
 
                     double uValue =
-                            (active[j] ? instances[i].weight : 0) - uAverage[j];
+                            (active[j] ? instances.weight(i) : 0) - uAverage[j];
                     uDistance += weight[j] * (uValue * uValue);
                 }
                 // the sqrt of the distance function cancels out the sq of the
@@ -32,7 +32,7 @@ import myra.classification.rule.unordered.attribute.ClassAwareSplit;
 import myra.datamining.Attribute;
 import myra.datamining.Dataset;
 import myra.datamining.Attribute.Condition;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Graph;
 import myra.rule.Graph.Entry;
 import myra.rule.Heuristic;
@@ -45,14 +45,14 @@ import myra.rule.Heuristic;
  */
 public class ClassFrequencyHeuristic implements Heuristic {
     @Override
-    public Entry[] compute(Graph graph, Dataset dataset, Instance[] instances) {
+    public Entry[] compute(Graph graph, Dataset dataset, Coverage instances) {
         throw new UnsupportedOperationException();
     }
 
     @Override
     public Entry[] compute(Graph graph,
                            Dataset dataset,
-                           Instance[] instances,
+                           Coverage instances,
                            boolean[] used) {
         throw new UnsupportedOperationException();
     }
@@ -60,7 +60,7 @@ public class ClassFrequencyHeuristic implements Heuristic {
     @Override
     public Entry[] compute(Graph graph,
                            Dataset dataset,
-                           Instance[] instances,
+                           Coverage instances,
                            int target) {
         return compute(graph, dataset, instances, new boolean[0], target);
     }
@@ -68,7 +68,7 @@ public class ClassFrequencyHeuristic implements Heuristic {
     @Override
     public Entry[] compute(Graph graph,
                            Dataset dataset,
-                           Instance[] instances,
+                           Coverage instances,
                            boolean[] used,
                            int target) {
         ClassAwareSplit builder = null;
@@ -115,7 +115,7 @@ public class ClassFrequencyHeuristic implements Heuristic {
                     int[] counter = new int[attribute.size()];
 
                     for (int j = 0; j < dataset.size(); j++) {
-                        if (instances[j].flag == RULE_COVERED) {
+                        if (instances.flag(j) == RULE_COVERED) {
                             double v = dataset.value(j, attribute.getIndex());
 
                             if (v != Dataset.MISSING_VALUE_INDEX) {
@@ -36,7 +36,7 @@ import myra.classification.rule.ClassificationRule;
 import myra.classification.rule.MajorityAssignator;
 import myra.classification.rule.function.FunctionSelector;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Graph;
 import myra.rule.Graph.Entry;
 import myra.rule.Rule;
@@ -96,14 +96,14 @@ public class FindRuleSetActivity extends IterativeActivity<RuleList> {
 
     @Override
     public RuleSet create() {
-        Instance[] instances = Instance.newArray(dataset.size());
+        Coverage instances = new Coverage(dataset.size());
         RuleSet ruleSet = new RuleSet();
         ruleSet.setIteration(iteration);
 
         // creates rules for each class
 
         for (int j = 0; j < dataset.classLength(); j++) {
-            Instance.markAll(instances, NOT_COVERED);
+            instances.markAll(NOT_COVERED);
 
             final int total = dataset.size(j);
             int available = total;
@@ -113,10 +113,10 @@ public class FindRuleSetActivity extends IterativeActivity<RuleList> {
             while (available > 0 && available >= uncovered) {
                 // the heuristic only takes into account the instances
                 // covered by a rule
-                Instance.mark(instances, NOT_COVERED, RULE_COVERED);
+                instances.mark(NOT_COVERED, RULE_COVERED);
                 Entry[] heuristic = CONFIG.get(DEFAULT_HEURISTIC)
                         .compute(graph, dataset, instances, j);
-                Instance.mark(instances, RULE_COVERED, NOT_COVERED);
+                instances.mark(RULE_COVERED, NOT_COVERED);
 
                 ClassificationRule rule = FixedClassRuleFactory
                         .create(ruleSet.size(),
@@ -156,7 +156,7 @@ public class FindRuleSetActivity extends IterativeActivity<RuleList> {
 
         // creates a default rule predicting the majority class
 
-        Instance.markAll(instances, NOT_COVERED);
+        instances.markAll(NOT_COVERED);
         Rule rule = Rule.newInstance();
         rule.apply(dataset, instances);
         new MajorityAssignator().assign(dataset, rule, instances);
@@ -21,13 +21,12 @@ package myra.classification.rule.unordered.attribute;
 
 import static myra.datamining.Dataset.RULE_COVERED;
 
-import java.util.Arrays;
-
 import myra.classification.attribute.MDLSplit;
 import myra.datamining.Dataset;
 import myra.datamining.IntervalBuilder;
+import myra.datamining.SortedIndex;
 import myra.datamining.Attribute.Condition;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * This class creates discrete intervals based on minimum description length
@@ -42,64 +41,66 @@ import myra.datamining.Dataset.Instance;
 public class BinaryMDLSplit extends MDLSplit implements ClassAwareSplit {
     @Override
     public Condition[] multiple(Dataset dataset,
-                                Instance[] instances,
+                                Coverage instances,
                                 int attribute) {
         throw new UnsupportedOperationException();
     }
 
     @Override
     public Condition single(Dataset dataset,
-                            Instance[] instances,
+                            Coverage instances,
                             int attribute) {
         throw new UnsupportedOperationException();
     }
 
     @Override
     public Condition[] multiple(Dataset dataset,
-                                Instance[] instances,
+                                Coverage instances,
                                 int attribute,
                                 int target) {
-        Pair[] candidates = new Pair[dataset.size()];
+        // the instances are visited in ascending order of value, so the
+        // candidates are created already sorted
+        SortedIndex sorted = dataset.sortedIndex(attribute);
+        final int length = covered(sorted, instances);
+
+        if (length == 0) {
+            // there are no candidate threshold values
+            return null;
+        }
+
+        double[] values = new double[length];
+        int[] classes = new int[length];
+        double[] weights = new double[length];
         double[] frequency = new double[dataset.classLength()];
 
         int index = 0;
         double size = 0;
 
-        for (int i = 0; i < dataset.size(); i++) {
+        for (int k = 0; k < sorted.size(); k++) {
+            int i = sorted.instances[k];
+
             // the dynamc discretisation only considers the instances covered
             // by the current rule
-            if (instances[i].flag == RULE_COVERED) {
-                double v = dataset.value(i, attribute);
-
-                if (!Double.isNaN(v)) {
-                    Pair pair = new Pair();
-                    pair.value = v;
-                    pair.classValue =
-                            (dataset.value(i, dataset.classIndex()) == target)
-                                    ? 1 // positive (target)
-                                    : 0; // negative
-                    pair.weight = instances[i].weight;
-                    candidates[index] = pair;
-
-                    size += pair.weight;
-
-                    index++;
-                }
-            }
-        }
+            if (instances.flag(i) == RULE_COVERED) {
+                values[index] = sorted.values[k];
+                classes[index] =
+                        (dataset.value(i, dataset.classIndex()) == target)
+                                ? 1 // positive (target)
+                                : 0; // negative
+                weights[index] = instances.weight(i);
 
-        if (index == 0) {
-            // there are no candidate threshold values
-            return null;
-        }
+                size += weights[index];
 
-        candidates = Arrays.copyOf(candidates, index);
-        Arrays.sort(candidates);
+                index++;
+            }
+        }
 
         Condition[] conditions =
-                create(candidates,
+                create(values,
+                       classes,
+                       weights,
                        0,
-                       candidates.length,
+                       length,
                        frequency,
                        size,
                        IntervalBuilder.minimumCases(dataset, size));
@@ -118,7 +119,7 @@ public class BinaryMDLSplit extends MDLSplit implements ClassAwareSplit {
 
     @Override
     public Condition single(Dataset dataset,
-                            Instance[] instances,
+                            Coverage instances,
                             int attribute,
                             int target) {
         Condition[] conditions =
@@ -24,12 +24,11 @@ import static myra.datamining.Attribute.GREATER_THAN;
 import static myra.datamining.Attribute.LESS_THAN_OR_EQUAL_TO;
 import static myra.datamining.Dataset.RULE_COVERED;
 
-import java.util.Arrays;
-
 import myra.datamining.Dataset;
 import myra.datamining.IntervalBuilder;
+import myra.datamining.SortedIndex;
 import myra.datamining.Attribute.Condition;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * This class creates discrete intervals based on the Laplace accuracy of the
@@ -57,46 +56,46 @@ public class BoundaryLaplaceSplit extends LaplaceSplit {
      */
     @Override
     public Condition[] multiple(Dataset dataset,
-                                Instance[] instances,
+                                Coverage instances,
                                 int attribute,
                                 int target) {
         // (1) creates the pairing (value,class) for the uncovered examples
 
-        Pair[] candidates = new Pair[dataset.size()];
+        // the instances are visited in ascending order of value, so the
+        // candidates are created already sorted
+        SortedIndex sorted = dataset.sortedIndex(attribute);
+        final int length = covered(sorted, instances);
+
+        if (length == 0) {
+            // there are no candidate threshold values
+            return null;
+        }
+
+        double[] values = new double[length];
+        int[] classes = new int[length];
+        double[] weights = new double[length];
         double[] frequency = new double[dataset.classLength()];
 
         int index = 0;
         double size = 0;
 
-        for (int i = 0; i < dataset.size(); i++) {
+        for (int k = 0; k < sorted.size(); k++) {
+            int i = sorted.instances[k];
+
             // the dynamc discretisation only considers the instances covered
             // by the current rule
-            if (instances[i].flag == RULE_COVERED) {
-                double v = dataset.value(i, attribute);
+            if (instances.flag(i) == RULE_COVERED) {
+                values[index] = sorted.values[k];
+                classes[index] = (int) dataset.value(i, dataset.classIndex());
+                weights[index] = instances.weight(i);
 
-                if (!Double.isNaN(v)) {
-                    Pair pair = new Pair();
-                    pair.value = v;
-                    pair.classValue = dataset.value(i, dataset.classIndex());
-                    pair.weight = instances[i].weight;
-                    candidates[index] = pair;
+                frequency[classes[index]] += weights[index];
+                size += weights[index];
 
-                    frequency[(int) pair.classValue] += pair.weight;
-                    size += pair.weight;
-
-                    index++;
-                }
+                index++;
             }
         }
 
-        if (index == 0) {
-            // there are no candidate threshold values
-            return null;
-        }
-
-        candidates = Arrays.copyOf(candidates, index);
-        Arrays.sort(candidates);
-
         // (2) determines the best threshold value
 
         final double minimum = IntervalBuilder.minimumCases(dataset, size);
@@ -116,19 +115,19 @@ public class BoundaryLaplaceSplit extends LaplaceSplit {
 
         double[] intervalFrequency = new double[dataset.classLength()];
         double intervalSize = 0;
-        boolean[] evaluated = new boolean[candidates.length];
+        boolean[] evaluated = new boolean[values.length];
 
-        for (int i = 1; i < candidates.length; i++) {
-            double weight = candidates[i - 1].weight;
+        for (int i = 1; i < values.length; i++) {
+            double weight = weights[i - 1];
 
             intervalSize += weight;
-            intervalFrequency[(int) candidates[i - 1].classValue] += weight;
+            intervalFrequency[classes[i - 1]] += weight;
 
             size -= weight;
-            frequency[(int) candidates[i - 1].classValue] -= weight;
+            frequency[classes[i - 1]] -= weight;
 
-            if (candidates[i - 1].classValue != candidates[i].classValue) {
-                if (candidates[i - 1].value == candidates[i].value) {
+            if (classes[i - 1] != classes[i]) {
+                if (values[i - 1] == values[i]) {
                     // skip backwards
 
                     double[] lowerFrequency = new double[dataset.classLength()];
@@ -149,17 +148,15 @@ public class BoundaryLaplaceSplit extends LaplaceSplit {
 
                     int threshold = i;
 
-                    while ((threshold > 1) && (candidates[threshold
-                            - 1].value == candidates[threshold].value)) {
-                        weight = candidates[threshold - 1].weight;
+                    while ((threshold > 1)
+                            && (values[threshold - 1] == values[threshold])) {
+                        weight = weights[threshold - 1];
 
                         lowerSize -= weight;
-                        lowerFrequency[(int) candidates[threshold
-                                - 1].classValue] -= weight;
+                        lowerFrequency[classes[threshold - 1]] -= weight;
 
                         upperSize += weight;
-                        upperFrequency[(int) candidates[threshold
-                                - 1].classValue] += weight;
+                        upperFrequency[classes[threshold - 1]] += weight;
 
                         threshold--;
                     }
@@ -173,7 +170,7 @@ public class BoundaryLaplaceSplit extends LaplaceSplit {
                                                    target,
                                                    dataset.classLength(),
                                                    threshold,
-                                                   candidates,
+                                                   values,
                                                    conditions,
                                                    lowerFrequency,
                                                    lowerSize,
@@ -199,19 +196,16 @@ public class BoundaryLaplaceSplit extends LaplaceSplit {
 
                     threshold = i;
 
-                    while ((threshold < candidates.length)
-                            && (candidates[threshold
-                                    - 1].value == candidates[threshold].value)) {
+                    while ((threshold < values.length)
+                            && (values[threshold - 1] == values[threshold])) {
                         threshold++;
-                        weight = candidates[threshold - 1].weight;
+                        weight = weights[threshold - 1];
 
                         lowerSize += weight;
-                        lowerFrequency[(int) candidates[threshold
-                                - 1].classValue] += weight;
+                        lowerFrequency[classes[threshold - 1]] += weight;
 
                         upperSize -= weight;
-                        upperFrequency[(int) candidates[threshold
-                                - 1].classValue] -= weight;
+                        upperFrequency[classes[threshold - 1]] -= weight;
                     }
 
                     if (!evaluated[threshold - 1]
@@ -223,7 +217,7 @@ public class BoundaryLaplaceSplit extends LaplaceSplit {
                                                    target,
                                                    dataset.classLength(),
                                                    threshold,
-                                                   candidates,
+                                                   values,
                                                    conditions,
                                                    lowerFrequency,
                                                    lowerSize,
@@ -241,7 +235,7 @@ public class BoundaryLaplaceSplit extends LaplaceSplit {
                                                target,
                                                dataset.classLength(),
                                                i,
-                                               candidates,
+                                               values,
                                                conditions,
                                                intervalFrequency,
                                                intervalSize,
@@ -273,7 +267,7 @@ public class BoundaryLaplaceSplit extends LaplaceSplit {
      *            the number of classes.
      * @param index
      *            the index of the threshold value.
-     * @param candidates
+     * @param values
      *            the candidate threshold values.
      * @param conditions
      *            the array of candidate conditions.
@@ -295,7 +289,7 @@ public class BoundaryLaplaceSplit extends LaplaceSplit {
                                    int target,
                                    int classLength,
                                    int index,
-                                   Pair[] candidates,
+                                   double[] values,
                                    Condition[] conditions,
                                    double[] lowerFrequency,
                                    double lowerSize,
@@ -321,10 +315,8 @@ public class BoundaryLaplaceSplit extends LaplaceSplit {
             conditions[0].length = lowerSize;
             conditions[0].relation = LESS_THAN_OR_EQUAL_TO;
             conditions[0].entropy = lower;
-            conditions[0].threshold[0] = candidates[index - 1].value;
-            conditions[0].value[0] =
-                    (candidates[index - 1].value + candidates[index].value)
-                            / 2.0;
+            conditions[0].threshold[0] = values[index - 1];
+            conditions[0].value[0] = (values[index - 1] + values[index]) / 2.0;
             System.arraycopy(lowerFrequency,
                              0,
                              conditions[0].frequency,
@@ -334,10 +326,8 @@ public class BoundaryLaplaceSplit extends LaplaceSplit {
             conditions[1].length = upperSize;
             conditions[1].relation = GREATER_THAN;
             conditions[1].entropy = upper;
-            conditions[1].threshold[0] = candidates[index - 1].value;
-            conditions[1].value[0] =
-                    (candidates[index - 1].value + candidates[index].value)
-                            / 2.0;
+            conditions[1].threshold[0] = values[index - 1];
+            conditions[1].value[0] = (values[index - 1] + values[index]) / 2.0;
             System.arraycopy(upperFrequency,
                              0,
                              conditions[1].frequency,
@@ -22,7 +22,7 @@ package myra.classification.rule.unordered.attribute;
 import myra.datamining.Dataset;
 import myra.datamining.IntervalBuilder;
 import myra.datamining.Attribute.Condition;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * The <code>ClassAwareSplit</code> interface specifies the methods to handle
@@ -52,7 +52,7 @@ public interface ClassAwareSplit {
      *         specified attribute
      */
     public Condition[] multiple(Dataset dataset,
-                                Instance[] instances,
+                                Coverage instances,
                                 int attribute,
                                 int target);
 
@@ -73,7 +73,7 @@ public interface ClassAwareSplit {
      *         specified attribute
      */
     public Condition single(Dataset dataset,
-                            Instance[] instances,
+                            Coverage instances,
                             int attribute,
                             int target);
 }
\ No newline at end of file
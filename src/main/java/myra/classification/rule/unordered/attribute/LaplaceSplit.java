@@ -26,12 +26,11 @@ import static myra.datamining.Attribute.GREATER_THAN;
 import static myra.datamining.Attribute.LESS_THAN_OR_EQUAL_TO;
 import static myra.datamining.Dataset.RULE_COVERED;
 
-import java.util.Arrays;
-
 import myra.datamining.Dataset;
 import myra.datamining.IntervalBuilder;
+import myra.datamining.SortedIndex;
 import myra.datamining.Attribute.Condition;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * This class creates discrete intervals based on the Laplace accuracy of the
@@ -43,60 +42,60 @@ import myra.datamining.Dataset.Instance;
 public class LaplaceSplit extends IntervalBuilder implements ClassAwareSplit {
     @Override
     public Condition[] multiple(Dataset dataset,
-                                Instance[] instances,
+                                Coverage instances,
                                 int attribute) {
         throw new UnsupportedOperationException();
     }
 
     @Override
     public Condition single(Dataset dataset,
-                            Instance[] instances,
+                            Coverage instances,
                             int attribute) {
         throw new UnsupportedOperationException();
     }
 
     @Override
     public Condition[] multiple(Dataset dataset,
-                                Instance[] instances,
+                                Coverage instances,
                                 int attribute,
                                 int target) {
         // (1) creates the pairing (value,class) for the uncovered examples
 
-        Pair[] candidates = new Pair[dataset.size()];
+        // the instances are visited in ascending order of value, so the
+        // candidates are created already sorted
+        SortedIndex sorted = dataset.sortedIndex(attribute);
+        final int length = covered(sorted, instances);
+
+        if (length == 0) {
+            // there are no candidate threshold values
+            return null;
+        }
+
+        double[] values = new double[length];
+        int[] classes = new int[length];
+        double[] weights = new double[length];
         double[] frequency = new double[dataset.classLength()];
 
         int index = 0;
         double size = 0;
 
-        for (int i = 0; i < dataset.size(); i++) {
+        for (int k = 0; k < sorted.size(); k++) {
+            int i = sorted.instances[k];
+
             // the dynamc discretisation only considers the instances covered
             // by the current rule
-            if (instances[i].flag == RULE_COVERED) {
-                double v = dataset.value(i, attribute);
+            if (instances.flag(i) == RULE_COVERED) {
+                values[index] = sorted.values[k];
+                classes[index] = (int) dataset.value(i, dataset.classIndex());
+                weights[index] = instances.weight(i);
 
-                if (!Double.isNaN(v)) {
-                    Pair pair = new Pair();
-                    pair.value = v;
-                    pair.classValue = dataset.value(i, dataset.classIndex());
-                    pair.weight = instances[i].weight;
-                    candidates[index] = pair;
+                frequency[classes[index]] += weights[index];
+                size += weights[index];
 
-                    frequency[(int) pair.classValue] += pair.weight;
-                    size += pair.weight;
-
-                    index++;
-                }
+                index++;
             }
         }
 
-        if (index == 0) {
-            // there are no candidate threshold values
-            return null;
-        }
-
-        candidates = Arrays.copyOf(candidates, index);
-        Arrays.sort(candidates);
-
         // (2) determines the best threshold value
 
         final double minimum = IntervalBuilder.minimumCases(dataset, size);
@@ -117,17 +116,17 @@ public class LaplaceSplit extends IntervalBuilder implements ClassAwareSplit {
         double[] intervalFrequency = new double[dataset.classLength()];
         double intervalSize = 0;
 
-        for (int i = 1; i < candidates.length; i++) {
-            double weight = candidates[i - 1].weight;
+        for (int i = 1; i < values.length; i++) {
+            double weight = weights[i - 1];
 
             intervalSize += weight;
-            intervalFrequency[(int) candidates[i - 1].classValue] += weight;
+            intervalFrequency[classes[i - 1]] += weight;
 
             size -= weight;
-            frequency[(int) candidates[i - 1].classValue] -= weight;
+            frequency[classes[i - 1]] -= weight;
 
             // + 1E-5 as it is used by C4.5
-            if (candidates[i - 1].value + DELTA < candidates[i].value) {
+            if (values[i - 1] + DELTA < values[i]) {
                 // CORRECTION is used to avoid imprecisions in the double
                 // number representation
                 if ((intervalSize + PRECISION_10 >= minimum)
@@ -157,10 +156,9 @@ public class LaplaceSplit extends IntervalBuilder implements ClassAwareSplit {
                         conditions[0].length = intervalSize;
                         conditions[0].relation = LESS_THAN_OR_EQUAL_TO;
                         conditions[0].entropy = lower;
-                        conditions[0].threshold[0] = candidates[i - 1].value;
+                        conditions[0].threshold[0] = values[i - 1];
                         conditions[0].value[0] =
-                                (candidates[i - 1].value + candidates[i].value)
-                                        / 2.0;
+                                (values[i - 1] + values[i]) / 2.0;
                         System.arraycopy(intervalFrequency,
                                          0,
                                          conditions[0].frequency,
@@ -170,10 +168,9 @@ public class LaplaceSplit extends IntervalBuilder implements ClassAwareSplit {
                         conditions[1].length = size;
                         conditions[1].relation = GREATER_THAN;
                         conditions[1].entropy = upper;
-                        conditions[1].threshold[0] = candidates[i - 1].value;
+                        conditions[1].threshold[0] = values[i - 1];
                         conditions[1].value[0] =
-                                (candidates[i - 1].value + candidates[i].value)
-                                        / 2.0;
+                                (values[i - 1] + values[i]) / 2.0;
                         System.arraycopy(frequency,
                                          0,
                                          conditions[1].frequency,
@@ -194,7 +191,7 @@ public class LaplaceSplit extends IntervalBuilder implements ClassAwareSplit {
 
     @Override
     public Condition single(Dataset dataset,
-                            Instance[] instances,
+                            Coverage instances,
                             int attribute,
                             int target) {
         Condition[] conditions =
@@ -41,7 +41,7 @@ import myra.classification.attribute.C45Split;
 import myra.classification.attribute.MDLSplit;
 import myra.datamining.Dataset;
 import myra.datamining.IntervalBuilder;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * This class represents <b>A</b>nother <b>J</b>ava implementation of
@@ -119,8 +119,8 @@ public class AJ48 extends Classifier {
     protected ClassificationModel train(Dataset dataset) {
         Graph graph = new Graph(dataset);
 
-        Instance[] covered = Instance.newArray(dataset.size());
-        Instance.markAll(covered, RULE_COVERED);
+        Coverage covered = new Coverage(dataset.size());
+        covered.markAll(RULE_COVERED);
 
         boolean[] used = new boolean[graph.size()];
         Arrays.fill(used, false);
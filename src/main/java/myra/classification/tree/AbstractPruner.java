@@ -26,7 +26,7 @@ import myra.Config.ConfigKey;
 import myra.classification.Label;
 import myra.datamining.Attribute;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * Base class for tree pruner procedures.
@@ -87,8 +87,8 @@ public abstract class AbstractPruner {
      *            the root node of the subtree.
      */
     protected void recalculate(Dataset dataset, InternalNode subtree) {
-        Instance[] instances = subtree.getCoverage();
-        Instance[][] split = new Instance[subtree.conditions.length][];
+        Coverage instances = subtree.getCoverage();
+        Coverage[] split = new Coverage[subtree.conditions.length];
 
         double[] count = new double[subtree.conditions.length];
         double[][] distribution =
@@ -98,7 +98,7 @@ public abstract class AbstractPruner {
             int index = subtree.conditions[i].attribute;
             Attribute attribute = dataset.attributes()[index];
 
-            split[i] = Instance.copyOf(instances);
+            split[i] = instances.copy();
             double total = 0.0;
 
             // determines the subset of instances that satisfy the branch
@@ -107,19 +107,19 @@ public abstract class AbstractPruner {
             // instances will be covered
 
             for (int j = 0; j < dataset.size(); j++) {
-                if (instances[j].flag == RULE_COVERED) {
+                if (instances.flag(j) == RULE_COVERED) {
                     double v = dataset.value(j, index);
 
                     if (subtree.conditions[i].satisfies(v)) {
-                        count[i] += instances[j].weight;
-                        total += instances[j].weight;
+                        count[i] += instances.weight(j);
+                        total += instances.weight(j);
 
                         distribution[i][(int) dataset
                                 .value(j, dataset.classIndex())] +=
-                                        instances[j].weight;
+                                        instances.weight(j);
                     } else if (!dataset.isMissing(attribute, v)) {
-                        split[i][j].flag = NOT_COVERED;
-                        total += instances[j].weight;
+                        split[i].flag(j, NOT_COVERED);
+                        total += instances.weight(j);
                     }
                 }
             }
@@ -127,14 +127,14 @@ public abstract class AbstractPruner {
             double missing = 0;
 
             for (int j = 0; j < dataset.size(); j++) {
-                if (instances[j].flag == RULE_COVERED) {
+                if (instances.flag(j) == RULE_COVERED) {
                     double v = dataset.value(j, attribute.getIndex());
 
                     if (dataset.isMissing(attribute, v)) {
-                        double weight = instances[j].weight
+                        double weight = instances.weight(j)
                                 * (Double.isNaN(count[i] / total) ? 0.0
                                         : (count[i] / total));
-                        split[i][j].weight = weight;
+                        split[i].weight(j, weight);
                         missing += weight;
 
                         distribution[i][(int) dataset
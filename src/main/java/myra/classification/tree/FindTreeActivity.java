@@ -28,7 +28,7 @@ import java.util.Arrays;
 import myra.Archive;
 import myra.Config.ConfigKey;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.IterativeActivity;
 
 /**
@@ -95,8 +95,8 @@ public class FindTreeActivity extends IterativeActivity<Tree> {
         policy = new PheromonePolicy();
         policy.initialise(graph);
 
-        Instance[] covered = Instance.newArray(dataset.size());
-        Instance.markAll(covered, RULE_COVERED);
+        Coverage covered = new Coverage(dataset.size());
+        covered.markAll(RULE_COVERED);
         boolean[] used = new boolean[graph.size()];
         Arrays.fill(used, false);
 
@@ -106,8 +106,8 @@ public class FindTreeActivity extends IterativeActivity<Tree> {
 
     @Override
     public Tree create() {
-        Instance[] covered = Instance.newArray(dataset.size());
-        Instance.markAll(covered, RULE_COVERED);
+        Coverage covered = new Coverage(dataset.size());
+        covered.markAll(RULE_COVERED);
 
         double[] heuristic = INITIAL_HEURISTIC.clone();
 
@@ -25,6 +25,7 @@ import static myra.datamining.Attribute.Type.CONTINUOUS;
 import static myra.datamining.Attribute.Type.NOMINAL;
 import static myra.datamining.Dataset.RULE_COVERED;
 import static myra.datamining.IntervalBuilder.MINIMUM_CASES;
+import static myra.rule.Heuristic.forEachAttribute;
 
 import java.util.Arrays;
 
@@ -32,7 +33,7 @@ import myra.datamining.Attribute;
 import myra.datamining.Dataset;
 import myra.datamining.IntervalBuilder;
 import myra.datamining.Attribute.Condition;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * This class is responsible to calculate the heuristic information based on the
@@ -52,12 +53,13 @@ public class GainHeuristic implements Heuristic {
      * @return the information gain of each attribute of the dataset.
      */
     public double[] compute(Dataset dataset,
-                            Instance[] instances,
+                            Coverage instances,
                             boolean[] used) {
         double[] gain = new double[dataset.attributes().length - 1];
         Arrays.fill(gain, -EPSILON);
 
-        for (int i = 0; i < gain.length; i++) {
+        // attributes are independent, so they can be processed in parallel
+        forEachAttribute(gain.length, i -> {
             if (!used[i]) {
                 Attribute attribute = dataset.attributes()[i];
 
@@ -71,7 +73,7 @@ public class GainHeuristic implements Heuristic {
                     processContinuous(dataset, instances, attribute, gain);
                 }
             }
-        }
+        });
 
         return gain;
     }
@@ -89,7 +91,7 @@ public class GainHeuristic implements Heuristic {
      *            the array of information gain values.
      */
     private void processContinuous(Dataset dataset,
-                                   Instance[] instances,
+                                   Coverage instances,
                                    Attribute attribute,
                                    double[] gain) {
         double[] distribution = new double[dataset.classLength()];
@@ -99,9 +101,9 @@ public class GainHeuristic implements Heuristic {
         double size = 0;
 
         for (int i = 0; i < dataset.size(); i++) {
-            double w = instances[i].weight;
+            double w = instances.weight(i);
 
-            if (instances[i].flag == RULE_COVERED) {
+            if (instances.flag(i) == RULE_COVERED) {
                 double v = dataset.value(i, attribute.getIndex());
 
                 if (!Double.isNaN(v)) {
@@ -162,7 +164,7 @@ public class GainHeuristic implements Heuristic {
      *            the array of information gain values.
      */
     private void processNominal(Dataset dataset,
-                                Instance[] instances,
+                                Coverage instances,
                                 Attribute attribute,
                                 double[] gain) {
         // class distribution for each value of the attribute
@@ -177,8 +179,8 @@ public class GainHeuristic implements Heuristic {
         double size = 0;
 
         for (int j = 0; j < dataset.size(); j++) {
-            if (instances[j].flag == RULE_COVERED) {
-                double w = instances[j].weight;
+            if (instances.flag(j) == RULE_COVERED) {
+                double w = instances.weight(j);
                 double v = dataset.value(j, attribute.getIndex());
                 double k = dataset.value(j, dataset.classIndex());
 
@@ -25,6 +25,7 @@ import static myra.datamining.Attribute.Type.CONTINUOUS;
 import static myra.datamining.Attribute.Type.NOMINAL;
 import static myra.datamining.Dataset.RULE_COVERED;
 import static myra.datamining.IntervalBuilder.MINIMUM_CASES;
+import static myra.rule.Heuristic.forEachAttribute;
 
 import java.util.Arrays;
 
@@ -34,7 +35,7 @@ import myra.datamining.Attribute;
 import myra.datamining.Dataset;
 import myra.datamining.IntervalBuilder;
 import myra.datamining.Attribute.Condition;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * This class is responsible to calculate the heuristic information based on the
@@ -63,14 +64,15 @@ public class GainRatioHeuristic implements Heuristic {
      * @return the information gain ratio of each attribute of the dataset.
      */
     public double[] compute(Dataset dataset,
-                            Instance[] instances,
+                            Coverage instances,
                             boolean[] used) {
         double[] gain = new double[dataset.attributes().length - 1];
         Arrays.fill(gain, -EPSILON);
         double[] ratio = new double[dataset.attributes().length - 1];
         Arrays.fill(ratio, -EPSILON);
 
-        for (int i = 0; i < ratio.length; i++) {
+        // attributes are independent, so they can be processed in parallel
+        forEachAttribute(ratio.length, i -> {
             if (!used[i]) {
                 Attribute attribute = dataset.attributes()[i];
 
@@ -88,7 +90,7 @@ public class GainRatioHeuristic implements Heuristic {
                                       ratio);
                 }
             }
-        }
+        });
 
         if (CONFIG.get(FILTER_GAIN)) {
             // we will only consider the gain ratio values of attributes
@@ -133,7 +135,7 @@ public class GainRatioHeuristic implements Heuristic {
      *            the array of information gain ratio values.
      */
     private void processContinuous(Dataset dataset,
-                                   Instance[] instances,
+                                   Coverage instances,
                                    Attribute attribute,
                                    double[] gain,
                                    double[] ratio) {
@@ -146,9 +148,9 @@ public class GainRatioHeuristic implements Heuristic {
         double missing = 0;
 
         for (int i = 0; i < dataset.size(); i++) {
-            if (instances[i].flag == RULE_COVERED) {
+            if (instances.flag(i) == RULE_COVERED) {
                 double v = dataset.value(i, attribute.getIndex());
-                double w = instances[i].weight;
+                double w = instances.weight(i);
 
                 if (!Double.isNaN(v)) {
                     int index = (int) dataset.value(i, dataset.classIndex());
@@ -226,7 +228,7 @@ public class GainRatioHeuristic implements Heuristic {
      *            the array of information gain ratio values.
      */
     private void processNominal(Dataset dataset,
-                                Instance[] instances,
+                                Coverage instances,
                                 Attribute attribute,
                                 double[] gain,
                                 double[] ratio) {
@@ -244,8 +246,8 @@ public class GainRatioHeuristic implements Heuristic {
         double missing = 0;
 
         for (int j = 0; j < dataset.size(); j++) {
-            if (instances[j].flag == RULE_COVERED) {
-                double w = instances[j].weight;
+            if (instances.flag(j) == RULE_COVERED) {
+                double w = instances.weight(j);
                 double v = dataset.value(j, attribute.getIndex());
                 double k = dataset.value(j, dataset.classIndex());
 
@@ -23,7 +23,7 @@ import java.util.Arrays;
 
 import myra.Config.ConfigKey;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * Interface to define heuristic information.
@@ -50,7 +50,7 @@ public interface Heuristic {
      * @return the heuristic value of each attribute of the dataset.
      */
     public double[] compute(Dataset dataset,
-                            Instance[] instances,
+                            Coverage instances,
                             boolean[] used);
 
     /**
@@ -62,7 +62,7 @@ public interface Heuristic {
     public static class None implements Heuristic {
         @Override
         public double[] compute(Dataset dataset,
-                                Instance[] instances,
+                                Coverage instances,
                                 boolean[] used) {
             double[] heuristic = new double[dataset.attributes().length - 1];
             Arrays.fill(heuristic, 1.0);
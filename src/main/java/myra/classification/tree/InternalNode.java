@@ -25,7 +25,7 @@ import myra.datamining.Attribute;
 import myra.datamining.Dataset;
 import myra.datamining.IntervalBuilder;
 import myra.datamining.Attribute.Condition;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * This class represent an internal node of the decision tree. Internal nodes
@@ -38,7 +38,7 @@ public final class InternalNode extends Node {
     /**
      * Instances reaching the node.
      */
-    private Instance[] coverage;
+    private Coverage coverage;
 
     /**
      * The index of the attribute represented by this node.
@@ -84,7 +84,7 @@ public final class InternalNode extends Node {
      * 
      * @return the information of the instances reaching this node.
      */
-    public Instance[] getCoverage() {
+    public Coverage getCoverage() {
         return coverage;
     }
 
@@ -94,7 +94,7 @@ public final class InternalNode extends Node {
      * @param coverage
      *            the information to set.
      */
-    public void setCoverage(Instance[] coverage) {
+    public void setCoverage(Coverage coverage) {
         this.coverage = coverage;
     }
 
@@ -206,7 +206,7 @@ public final class InternalNode extends Node {
     public static Condition[] branch(Graph graph,
                                      Dataset dataset,
                                      Attribute attribute,
-                                     Instance[] instances) {
+                                     Coverage instances) {
         if (attribute.getType() == Attribute.Type.NOMINAL) {
             return branchNominal(graph, attribute);
         } else {
@@ -260,7 +260,7 @@ public final class InternalNode extends Node {
     private static Condition[] branchContinuous(Graph graph,
                                                 Dataset dataset,
                                                 Attribute attribute,
-                                                Instance[] instances) {
+                                                Coverage instances) {
         return IntervalBuilder.singleton()
                 .multiple(dataset, instances, attribute.getIndex());
     }
@@ -27,7 +27,7 @@ import static myra.classification.tree.Heuristic.DEFAULT_HEURISTIC;
 import myra.Config.ConfigKey;
 import myra.datamining.Attribute;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * This class is responsible to probabilistically create a decision tree using
@@ -48,7 +48,7 @@ public class StochasticBuilder extends TreeBuilder {
                                double[] heuristic,
                                Dataset dataset,
                                boolean[] used,
-                               Instance[] instances,
+                               Coverage instances,
                                InternalNode parent,
                                final int index) {
         if (CONFIG.get(DYNAMIC_HEURISTIC)) {
@@ -32,7 +32,7 @@ import myra.datamining.Attribute;
 import myra.datamining.Attribute.Condition;
 import myra.datamining.Attribute.Type;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * This class represents a greedy decision tree builder similar to the C4.5
@@ -63,7 +63,7 @@ public class TreeBuilder {
     public Tree build(Graph graph,
                       double[] heuristic,
                       Dataset dataset,
-                      Instance[] instances) {
+                      Coverage instances) {
         boolean[] used = new boolean[graph.size()];
         Arrays.fill(used, false);
 
@@ -102,7 +102,7 @@ public class TreeBuilder {
     protected Node follow(Graph graph,
                           double[] heuristic,
                           Dataset dataset,
-                          Instance[] instances,
+                          Coverage instances,
                           boolean[] used,
                           int level,
                           InternalNode parent,
@@ -136,10 +136,10 @@ public class TreeBuilder {
             double[] distribution = new double[dataset.classLength()];
 
             for (int i = 0; i < dataset.size(); i++) {
-                if (instances[i].flag == RULE_COVERED) {
+                if (instances.flag(i) == RULE_COVERED) {
                     distribution[(int) dataset
                             .value(i, dataset.classIndex())] +=
-                                    instances[i].weight;
+                                    instances.weight(i);
                 }
             }
 
@@ -154,22 +154,22 @@ public class TreeBuilder {
         double[] overall = new double[dataset.classLength()];
 
         for (int i = 0; i < dataset.size(); i++) {
-            if (instances[i].flag == RULE_COVERED) {
+            if (instances.flag(i) == RULE_COVERED) {
                 overall[(int) dataset.value(i, dataset.classIndex())] +=
-                        instances[i].weight;
+                        instances.weight(i);
             }
         }
 
         internal.setDistribution(overall);
 
         double[] count = new double[internal.conditions.length];
-        Instance[][] split = new Instance[count.length][];
+        Coverage[] split = new Coverage[count.length];
         // the frequency of class values of each branch
         double[][] distribution =
                 new double[count.length][dataset.classLength()];
 
         for (int i = 0; i < count.length; i++) {
-            split[i] = Instance.copyOf(instances);
+            split[i] = instances.copy();
             double total = 0.0;
 
             // determines the subset of instances that satisfy the branch
@@ -178,19 +178,19 @@ public class TreeBuilder {
             // instances will be covered
 
             for (int j = 0; j < dataset.size(); j++) {
-                if (instances[j].flag == RULE_COVERED) {
+                if (instances.flag(j) == RULE_COVERED) {
                     double v = dataset.value(j, attribute.getIndex());
 
                     if (internal.conditions[i].satisfies(v)) {
-                        count[i] += instances[j].weight;
-                        total += instances[j].weight;
+                        count[i] += instances.weight(j);
+                        total += instances.weight(j);
 
                         distribution[i][(int) dataset
                                 .value(j, dataset.classIndex())] +=
-                                        instances[j].weight;
+                                        instances.weight(j);
                     } else if (!dataset.isMissing(attribute, v)) {
-                        split[i][j].flag = NOT_COVERED;
-                        total += instances[j].weight;
+                        split[i].flag(j, NOT_COVERED);
+                        total += instances.weight(j);
                     }
                 }
             }
@@ -198,13 +198,13 @@ public class TreeBuilder {
             double missing = 0;
 
             for (int j = 0; j < dataset.size(); j++) {
-                if (instances[j].flag == RULE_COVERED) {
+                if (instances.flag(j) == RULE_COVERED) {
                     double v = dataset.value(j, attribute.getIndex());
 
                     if (dataset.isMissing(attribute, v)) {
                         double weight =
-                                instances[j].weight * (count[i] / total);
-                        split[i][j].weight = weight;
+                                instances.weight(j) * (count[i] / total);
+                        split[i].weight(j, weight);
                         missing += weight;
 
                         distribution[i][(int) dataset
@@ -338,7 +338,7 @@ public class TreeBuilder {
                                double[] heuristic,
                                Dataset dataset,
                                boolean[] used,
-                               Instance[] instances,
+                               Coverage instances,
                                InternalNode parent,
                                final int index) {
         GainRatioHeuristic method = new GainRatioHeuristic();
@@ -367,11 +367,11 @@ public class TreeBuilder {
      * 
      * @return the number of different class values of the covered instances.
      */
-    protected int diversity(Dataset dataset, Instance[] instances) {
+    protected int diversity(Dataset dataset, Coverage instances) {
         int[] frequency = new int[dataset.classLength()];
 
         for (int i = 0; i < dataset.size(); i++) {
-            if (instances[i].flag == RULE_COVERED) {
+            if (instances.flag(i) == RULE_COVERED) {
                 frequency[(int) dataset.value(i, dataset.classIndex())]++;
             }
         }
@@ -0,0 +1,772 @@
+/*
+ * ARFFChunkParser.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.datamining;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+import static myra.datamining.Attribute.Type.CONTINUOUS;
+import static myra.datamining.Dataset.MISSING_VALUE_INDEX;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Parses the data section of an ARFF file in parallel. The header of the file
+ * is read sequentially (by an {@link ARFFReader}); the data section is then
+ * divided into byte-range chunks, aligned to line boundaries, which are
+ * tokenised by a pool of threads directly from their bytes into per-chunk
+ * column buffers. The chunks are merged in order, so the resulting dataset is
+ * the same as the one created by the sequential reader.
+ *
+ * <p>
+ * Hierarchical datasets are not supported by this parser and are read
+ * sequentially.
+ * </p>
+ *
+ * @author Fernando Esteban Barril Otero
+ */
+final class ARFFChunkParser {
+    /**
+     * The minimum size (in bytes) of a chunk.
+     */
+    private static final int MINIMUM_CHUNK = 1 << 20;
+
+    /**
+     * The maximum size (in bytes) of a chunk.
+     */
+    private static final int MAXIMUM_CHUNK = 1 << 26;
+
+    /**
+     * Number of chunks per thread, to balance the load among threads.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Powers of ten that are exactly representable as a <code>double</code>.
+     */
+    private static final double[] POWERS = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5,
+                                              1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+                                              1e12, 1e13, 1e14, 1e15, 1e16,
+                                              1e17, 1e18, 1e19, 1e20, 1e21,
+                                              1e22 };
+
+    /**
+     * The type of storage of the dataset.
+     */
+    private final Storage.Type storage;
+
+    /**
+     * The number of threads.
+     */
+    private final int threads;
+
+    /**
+     * The attributes of the dataset being read.
+     */
+    private Attribute[] attributes;
+
+    /**
+     * The value dictionary of each nominal attribute.
+     */
+    private Dictionary[] dictionaries;
+
+    /**
+     * Creates a new parser.
+     *
+     * @param storage
+     *            the type of storage of the dataset.
+     * @param threads
+     *            the number of threads.
+     */
+    ARFFChunkParser(Storage.Type storage, int threads) {
+        this.storage = storage;
+        this.threads = threads;
+    }
+
+    /**
+     * Reads the specified file.
+     *
+     * @param input
+     *            the dataset file.
+     *
+     * @return a <code>Dataset</code> instance contaning the contents of the
+     *         file.
+     *
+     * @exception IOException
+     *                if an I/O error occurs.
+     */
+    Dataset read(File input) throws IOException {
+        ARFFReader sequential = new ARFFReader(storage, 1);
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        long start = header(input, header);
+
+        if (start == -1) {
+            // no data section
+            return sequential.read(input);
+        }
+
+        Dataset dataset = sequential
+                .read(new StringReader(new String(header.toByteArray(),
+                                                  UTF_8)));
+
+        if (dataset.isHierarchical()) {
+            return sequential.read(input);
+        }
+
+        attributes = dataset.attributes();
+        dictionaries = new Dictionary[attributes.length];
+
+        for (int i = 0; i < attributes.length; i++) {
+            if (attributes[i].getType() != CONTINUOUS) {
+                dictionaries[i] = new Dictionary(attributes[i].values());
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try (FileChannel channel = FileChannel.open(input.toPath(), READ)) {
+            List<Future<Storage>> chunks = new ArrayList<>();
+
+            for (long[] range : split(channel, start)) {
+                final long position = range[0];
+                final int length = (int) (range[1] - range[0]);
+
+                chunks.add(executor.submit(new Callable<Storage>() {
+                    @Override
+                    public Storage call() throws Exception {
+                        byte[] bytes = new byte[length];
+                        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+                        while (buffer.hasRemaining()) {
+                            if (channel.read(buffer,
+                                             position + buffer.position()) == -1) {
+                                throw new IOException("Unexpected end of file");
+                            }
+                        }
+
+                        return parse(bytes);
+                    }
+                }));
+            }
+
+            // merges the chunks in order
+            List<Storage> parsed = new ArrayList<>(chunks.size());
+            int size = 0;
+
+            for (Future<Storage> chunk : chunks) {
+                Storage s = chunk.get();
+                parsed.add(s);
+                size += s.size();
+            }
+
+            DatasetBuilder builder = new DatasetBuilder(dataset, size);
+
+            for (Storage s : parsed) {
+                builder.addAll(s);
+            }
+
+            return builder.build();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Copies the header of the file (up to and including the
+     * <code>@data</code> line) to the specified output.
+     *
+     * @param input
+     *            the dataset file.
+     * @param header
+     *            the output for the header bytes.
+     *
+     * @return the position of the first byte of the data section;
+     *         <code>-1</code> if the file has no data section.
+     *
+     * @exception IOException
+     *                if an I/O error occurs.
+     */
+    private long header(File input, ByteArrayOutputStream header)
+            throws IOException {
+        try (InputStream in =
+                new BufferedInputStream(new FileInputStream(input))) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long position = 0;
+            int b;
+
+            while ((b = in.read()) != -1) {
+                position++;
+                line.write(b);
+
+                if (b == '\n') {
+                    line.writeTo(header);
+                    String text = new String(line.toByteArray(), UTF_8).trim();
+
+                    if (text.toLowerCase().startsWith("@data")) {
+                        return position;
+                    }
+
+                    line.reset();
+                }
+            }
+
+            return -1;
+        }
+    }
+
+    /**
+     * Divides the data section into byte ranges aligned to line boundaries.
+     *
+     * @param channel
+     *            the file channel.
+     * @param start
+     *            the position of the first byte of the data section.
+     *
+     * @return the list of <code>[start, end)</code> ranges.
+     *
+     * @exception IOException
+     *                if an I/O error occurs.
+     */
+    private List<long[]> split(FileChannel channel, long start)
+            throws IOException {
+        long total = channel.size() - start;
+        long target = Math.min(MAXIMUM_CHUNK,
+                               Math.max(MINIMUM_CHUNK,
+                                        total / (threads * CHUNKS_PER_THREAD)));
+
+        List<long[]> ranges = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long begin = start;
+
+        while (begin < channel.size()) {
+            long end = begin + target;
+
+            if (end >= channel.size()) {
+                end = channel.size();
+            } else {
+                // moves the end of the range to the next line break
+                boolean found = false;
+
+                while (!found && end < channel.size()) {
+                    buffer.clear();
+                    int read = channel.read(buffer, end);
+                    buffer.flip();
+
+                    for (int i = 0; i < read; i++) {
+                        if (buffer.get(i) == '\n') {
+                            end += i + 1;
+                            found = true;
+                            break;
+                        }
+                    }
+
+                    if (!found) {
+                        end += read;
+                    }
+                }
+
+                if (end - begin > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Line too long at byte "
+                            + begin);
+                }
+            }
+
+            ranges.add(new long[] { begin, end });
+            begin = end;
+        }
+
+        return ranges;
+    }
+
+    /**
+     * Parses the instances of a chunk.
+     *
+     * @param bytes
+     *            the chunk bytes.
+     *
+     * @return the storage holding the instances of the chunk.
+     */
+    private Storage parse(byte[] bytes) {
+        Storage chunk = new ColumnStorage(attributes);
+        double[] values = new double[attributes.length];
+        int position = 0;
+
+        while (position < bytes.length) {
+            int end = position;
+
+            while (end < bytes.length && bytes[end] != '\n') {
+                end++;
+            }
+
+            int first = skip(bytes, position, end);
+
+            if (first < end && bytes[first] != '%' && bytes[first] != '#') {
+                if (bytes[first] == '{') {
+                    sparse(bytes, first, end, values);
+                } else {
+                    instance(bytes, first, end, values);
+                }
+
+                chunk.add(values);
+            }
+
+            position = end + 1;
+        }
+
+        return chunk;
+    }
+
+    /**
+     * Parses the values of an instance.
+     *
+     * @param bytes
+     *            the chunk bytes.
+     * @param start
+     *            the index of the first byte of the line.
+     * @param end
+     *            the index after the last byte of the line.
+     * @param values
+     *            the array to hold the values of the instance.
+     */
+    private void instance(byte[] bytes, int start, int end, double[] values) {
+        int count = 0;
+        int position = start;
+
+        while (position < end) {
+            int next = position;
+
+            while (next < end && bytes[next] != ',') {
+                next++;
+            }
+
+            // empty tokens are ignored, as in the sequential reader
+            if (next > position) {
+                if (count < values.length) {
+                    values[count] = value(count, bytes, position, next);
+                }
+
+                count++;
+            }
+
+            position = next + 1;
+        }
+
+        if (count != values.length) {
+            throw new IllegalArgumentException("Invalid instance length: "
+                    + count + " (expected " + values.length + ")");
+        }
+    }
+
+    /**
+     * Parses the values of an instance in sparse form
+     * (<code>{index value, ...}</code>). The values of the attributes not
+     * listed are zero.
+     *
+     * @param bytes
+     *            the chunk bytes.
+     * @param start
+     *            the index of the first byte of the line (the opening brace).
+     * @param end
+     *            the index after the last byte of the line.
+     * @param values
+     *            the array to hold the values of the instance.
+     */
+    private void sparse(byte[] bytes, int start, int end, double[] values) {
+        Arrays.fill(values, 0);
+
+        while (end > start && (bytes[end - 1] & 0xFF) <= ' ') {
+            end--;
+        }
+
+        if (end - start < 2 || bytes[end - 1] != '}') {
+            throw new IllegalArgumentException("Invalid sparse instance: "
+                    + new String(bytes, start, end - start, UTF_8));
+        }
+
+        int close = end - 1;
+        int position = start + 1;
+
+        while (position < close) {
+            int next = position;
+
+            while (next < close && bytes[next] != ',') {
+                next++;
+            }
+
+            int i = skip(bytes, position, next);
+
+            if (i < next) {
+                int index = 0;
+                int digits = 0;
+
+                while (i < next && bytes[i] >= '0' && bytes[i] <= '9') {
+                    index = (index * 10) + (bytes[i] - '0');
+                    digits++;
+                    i++;
+                }
+
+                if (digits == 0 || digits > 9 || index >= values.length
+                        || i == next || (bytes[i] & 0xFF) > ' ') {
+                    throw new IllegalArgumentException("Invalid sparse value: "
+                            + new String(bytes,
+                                         position,
+                                         next - position,
+                                         UTF_8).trim());
+                }
+
+                values[index] = value(index, bytes, i, next);
+            }
+
+            position = next + 1;
+        }
+    }
+
+    /**
+     * Returns the (internal) value of a token.
+     *
+     * @param attribute
+     *            the attribute index.
+     * @param bytes
+     *            the chunk bytes.
+     * @param start
+     *            the index of the first byte of the token.
+     * @param end
+     *            the index after the last byte of the token.
+     *
+     * @return the (internal) value of a token.
+     */
+    private double value(int attribute, byte[] bytes, int start, int end) {
+        start = skip(bytes, start, end);
+
+        while (end > start && (bytes[end - 1] & 0xFF) <= ' ') {
+            end--;
+        }
+
+        boolean nominal = attributes[attribute].getType() != CONTINUOUS;
+
+        if (end - start == 1 && bytes[start] == '?') {
+            return nominal ? MISSING_VALUE_INDEX : Double.NaN;
+        }
+
+        if (nominal) {
+            int index = -1;
+
+            if (contains(bytes, start, end, (byte) '\\')) {
+                // escaped quotes: uses the same (string) processing as the
+                // sequential reader
+                String value = new String(bytes, start, end - start, UTF_8);
+                value = value.replace("'\\'", "\"").replace("\\''", "\"")
+                        .trim();
+                byte[] b = value.getBytes(UTF_8);
+                index = dictionaries[attribute].get(b, 0, b.length);
+            } else {
+                index = dictionaries[attribute].get(bytes, start, end);
+            }
+
+            if (index == -1) {
+                throw new IllegalArgumentException(String
+                        .format("Value for attribute %s not found: %s",
+                                attributes[attribute].getName(),
+                                new String(bytes,
+                                           start,
+                                           end - start,
+                                           UTF_8)));
+            }
+
+            return index;
+        }
+
+        return parseDouble(bytes, start, end);
+    }
+
+    /**
+     * Returns the index of the first non-whitespace byte in the specified
+     * range.
+     *
+     * @param bytes
+     *            the chunk bytes.
+     * @param start
+     *            the index of the first byte.
+     * @param end
+     *            the index after the last byte.
+     *
+     * @return the index of the first non-whitespace byte in the range.
+     */
+    private static int skip(byte[] bytes, int start, int end) {
+        while (start < end && (bytes[start] & 0xFF) <= ' ') {
+            start++;
+        }
+
+        return start;
+    }
+
+    /**
+     * Returns <code>true</code> if the specified range contains the byte.
+     *
+     * @param bytes
+     *            the chunk bytes.
+     * @param start
+     *            the index of the first byte.
+     * @param end
+     *            the index after the last byte.
+     * @param b
+     *            the byte to look for.
+     *
+     * @return <code>true</code> if the specified range contains the byte.
+     */
+    private static boolean contains(byte[] bytes, int start, int end, byte b) {
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == b) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Parses a decimal number. Simple decimal representations are parsed
+     * directly from the bytes, as long as the result is guaranteed to be the
+     * same as {@link Double#parseDouble(String)}: the digits fit in 53 bits and
+     * the power of ten is exactly representable, so a single (correctly
+     * rounded) multiplication or division is performed. Any other
+     * representation is delegated to <code>Double.parseDouble</code>.
+     *
+     * @param bytes
+     *            the chunk bytes.
+     * @param start
+     *            the index of the first byte of the number.
+     * @param end
+     *            the index after the last byte of the number.
+     *
+     * @return the value of the number.
+     */
+    static double parseDouble(byte[] bytes, int start, int end) {
+        int i = start;
+        boolean negative = false;
+
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int scale = 0;
+        int digits = 0;
+        boolean fraction = false;
+        boolean fast = true;
+
+        for (; i < end && fast; i++) {
+            byte b = bytes[i];
+
+            if (b >= '0' && b <= '9') {
+                if (mantissa > (Long.MAX_VALUE - 9) / 10) {
+                    fast = false;
+                } else {
+                    mantissa = (mantissa * 10) + (b - '0');
+                    digits++;
+
+                    if (fraction) {
+                        scale++;
+                    }
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+
+        if (fast && digits > 0 && i < end
+                && (bytes[i] == 'e' || bytes[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+
+            if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+                negativeExponent = bytes[i] == '-';
+                i++;
+            }
+
+            int exponent = 0;
+            int first = i;
+
+            for (; i < end && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+                if (exponent < 1000) {
+                    exponent = (exponent * 10) + (bytes[i] - '0');
+                }
+            }
+
+            if (i == first) {
+                fast = false;
+            }
+
+            scale -= negativeExponent ? -exponent : exponent;
+        }
+
+        if (fast && digits > 0 && i == end && mantissa < (1L << 53)
+                && scale >= -22 && scale <= 22) {
+            double value = (scale >= 0) ? mantissa / POWERS[scale]
+                    : mantissa * POWERS[-scale];
+            return negative ? -value : value;
+        }
+
+        return Double.parseDouble(new String(bytes, start, end - start, UTF_8));
+    }
+
+    /**
+     * Open-addressing dictionary mapping the (UTF-8) bytes of nominal values
+     * to their indexes. The dictionary is read-only once created, so it can be
+     * shared among threads.
+     */
+    private static final class Dictionary {
+        /**
+         * The encoded values.
+         */
+        private final byte[][] values;
+
+        /**
+         * The hash table, holding value indexes (<code>-1</code> for empty
+         * slots).
+         */
+        private final int[] table;
+
+        /**
+         * Creates a new dictionary.
+         *
+         * @param values
+         *            the attribute values.
+         */
+        Dictionary(String[] values) {
+            this.values = new byte[values.length][];
+            int capacity = Integer.highestOneBit(Math.max(values.length, 1)) << 2;
+            table = new int[capacity];
+
+            for (int i = 0; i < table.length; i++) {
+                table[i] = -1;
+            }
+
+            for (int i = 0; i < values.length; i++) {
+                byte[] encoded = values[i].getBytes(UTF_8);
+                this.values[i] = encoded;
+
+                if (get(encoded, 0, encoded.length) != -1) {
+                    // the first occurrence wins, as in a linear scan
+                    continue;
+                }
+
+                int slot = hash(encoded, 0, encoded.length) & (table.length - 1);
+
+                while (table[slot] != -1) {
+                    slot = (slot + 1) & (table.length - 1);
+                }
+
+                table[slot] = i;
+            }
+        }
+
+        /**
+         * Returns the index of the value represented by the specified bytes.
+         *
+         * @param bytes
+         *            the bytes array.
+         * @param start
+         *            the index of the first byte of the value.
+         * @param end
+         *            the index after the last byte of the value.
+         *
+         * @return the index of the value; <code>-1</code> if the value is not
+         *         found.
+         */
+        int get(byte[] bytes, int start, int end) {
+            int slot = hash(bytes, start, end) & (table.length - 1);
+
+            while (table[slot] != -1) {
+                byte[] candidate = values[table[slot]];
+
+                if (equals(candidate, bytes, start, end)) {
+                    return table[slot];
+                }
+
+                slot = (slot + 1) & (table.length - 1);
+            }
+
+            return -1;
+        }
+
+        /**
+         * Returns <code>true</code> if the candidate is equal to the specified
+         * byte range.
+         */
+        private static boolean equals(byte[] candidate,
+                                      byte[] bytes,
+                                      int start,
+                                      int end) {
+            if (candidate.length != end - start) {
+                return false;
+            }
+
+            for (int i = 0; i < candidate.length; i++) {
+                if (candidate[i] != bytes[start + i]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * Returns the hash code of the specified byte range.
+         */
+        private static int hash(byte[] bytes, int start, int end) {
+            int hash = 0x811C9DC5;
+
+            for (int i = start; i < end; i++) {
+                hash = (hash ^ bytes[i]) * 0x01000193;
+            }
+
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
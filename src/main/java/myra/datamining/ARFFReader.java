@@ -20,6 +20,7 @@
 package myra.datamining;
 
 import static myra.Config.CONFIG;
+import static myra.datamining.Dataset.STORAGE;
 import static myra.datamining.Hierarchy.DELIMITER;
 import static myra.datamining.Hierarchy.IGNORE;
 import static myra.datamining.Hierarchy.IGNORE_LIST;
@@ -41,6 +42,7 @@ import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.zip.ZipInputStream;
 
+import myra.Config.ConfigKey;
 import myra.datamining.Attribute.Type;
 
 /**
@@ -49,6 +51,12 @@ import myra.datamining.Attribute.Type;
  * @author Fernando Esteban Barril Otero
  */
 public class ARFFReader {
+    /**
+     * The config key for the number of threads used to parse the data section
+     * of ARFF files.
+     */
+    public final static ConfigKey<Integer> PARALLEL_READ = new ConfigKey<>();
+
     /**
      * Constant representing an attribute section.
      */
@@ -84,6 +92,16 @@ public class ARFFReader {
      */
     private static final String SEPARATOR = ",";
 
+    /**
+     * Constant representing the start of a sparse instance.
+     */
+    private static final String SPARSE_START = "{";
+
+    /**
+     * Constant representing the end of a sparse instance.
+     */
+    private static final String SPARSE_END = "}";
+
     /**
      * Constant representing a hierarchical attribute.
      */
@@ -94,6 +112,54 @@ public class ARFFReader {
      */
     private static final String HIERARCHY_RELATION = "@class";
 
+    /**
+     * The type of storage of the datasets created by the reader.
+     */
+    private Storage.Type storage;
+
+    /**
+     * The number of threads used to parse the data section of files.
+     */
+    private int threads;
+
+    /**
+     * Default constructor. The type of storage is determined by the
+     * {@link Dataset#STORAGE} configuration, if set; otherwise a row-major
+     * layout is used. The number of threads is determined by the
+     * {@link #PARALLEL_READ} configuration, if set; otherwise files are read
+     * sequentially.
+     */
+    public ARFFReader() {
+        this(CONFIG.isPresent(STORAGE) ? CONFIG.get(STORAGE)
+                : Storage.Type.ROW,
+             CONFIG.isPresent(PARALLEL_READ) ? CONFIG.get(PARALLEL_READ) : 1);
+    }
+
+    /**
+     * Creates a new reader that uses the specified storage type.
+     * 
+     * @param storage
+     *            the type of storage of the datasets created by the reader.
+     */
+    public ARFFReader(Storage.Type storage) {
+        this(storage, 1);
+    }
+
+    /**
+     * Creates a new reader that uses the specified storage type and number of
+     * threads. When more than one thread is used, the data section of
+     * (uncompressed) files is divided into chunks that are parsed in parallel.
+     * 
+     * @param storage
+     *            the type of storage of the datasets created by the reader.
+     * @param threads
+     *            the number of threads used to parse the data section.
+     */
+    public ARFFReader(Storage.Type storage, int threads) {
+        this.storage = storage;
+        this.threads = threads;
+    }
+
     /**
      * Reads the specified file.
      * 
@@ -139,7 +205,11 @@ public class ARFFReader {
                     + input.getAbsolutePath());
         }
 
-        return read(new FileReader(input));
+        if (threads > 1) {
+            return new ARFFChunkParser(storage, threads).read(input);
+        }
+
+        return read(new FileReader(input), input.length());
     }
 
     /**
@@ -156,8 +226,29 @@ public class ARFFReader {
      *                if an I/O error occurs.
      */
     public Dataset read(Reader input) throws IOException {
+        return read(input, -1);
+    }
+
+    /**
+     * Reads the specified input reader. The reader will be closed at the end of
+     * the method.
+     * 
+     * @param input
+     *            a reader.
+     * @param length
+     *            the length of the input in bytes, used to estimate the number
+     *            of instances (<code>-1</code> if unknown).
+     * 
+     * @return a <code>Dataset</code> instance contaning the contents of the
+     *         input reader.
+     * 
+     * @exception IOException
+     *                if an I/O error occurs.
+     */
+    private Dataset read(Reader input, long length) throws IOException {
         BufferedReader reader = new BufferedReader(input);
-        Dataset dataset = new Dataset();
+        Dataset dataset = new Dataset(storage);
+        DatasetBuilder builder = null;
         String line = null;
         boolean dataSection = false;
         // hierarchy relations (if present)
@@ -207,14 +298,28 @@ public class ARFFReader {
                 }
                 // we must be dealing with an instance
                 else if (dataSection) {
-                    processInstance(dataset, line);
+                    if (builder == null) {
+                        // estimates the number of instances from the length
+                        // of the first one
+                        int capacity = (int) Math
+                                .min(length / (line.length() + 1),
+                                     Integer.MAX_VALUE
+                                             / dataset.attributes().length);
+                        builder = new DatasetBuilder(dataset, capacity);
+                    }
+
+                    processInstance(builder, line);
                 }
             }
         }
 
         reader.close();
 
-        return dataset;
+        if (builder == null) {
+            builder = new DatasetBuilder(dataset);
+        }
+
+        return builder.build();
     }
 
     /**
@@ -339,14 +444,21 @@ public class ARFFReader {
     }
 
     /**
-     * Parses an instance and adds it to the current dataset.
+     * Parses an instance and adds it to the current dataset. Instances can be
+     * specified in dense form (<code>v1, v2, ..., vn</code>) or in sparse form
+     * (<code>{index value, ...}</code>).
      * 
-     * @param dataset
-     *            the dataset being read.
+     * @param builder
+     *            the builder of the dataset being read.
      * @param line
      *            the instance information.
      */
-    private void processInstance(Dataset dataset, String line) {
+    private void processInstance(DatasetBuilder builder, String line) {
+        if (line.trim().startsWith(SPARSE_START)) {
+            processSparseInstance(builder, line.trim());
+            return;
+        }
+
         StringTokenizer tokens = new StringTokenizer(line, SEPARATOR);
         String[] values = new String[tokens.countTokens()];
         int index = 0;
@@ -357,7 +469,49 @@ public class ARFFReader {
             index++;
         }
 
-        dataset.add(values);
+        builder.add(values);
+    }
+
+    /**
+     * Parses an instance in sparse form and adds it to the current dataset.
+     * 
+     * @param builder
+     *            the builder of the dataset being read.
+     * @param line
+     *            the (trimmed) instance information.
+     */
+    private void processSparseInstance(DatasetBuilder builder, String line) {
+        if (!line.endsWith(SPARSE_END)) {
+            throw new IllegalArgumentException("Invalid sparse instance: "
+                    + line);
+        }
+
+        StringTokenizer tokens = new StringTokenizer(line
+                .substring(1, line.length() - 1), SEPARATOR);
+        int[] indexes = new int[tokens.countTokens()];
+        String[] values = new String[indexes.length];
+        int index = 0;
+
+        while (tokens.hasMoreTokens()) {
+            String pair = tokens.nextToken().trim();
+            int space = 0;
+
+            while (space < pair.length()
+                    && !Character.isWhitespace(pair.charAt(space))) {
+                space++;
+            }
+
+            if (space == pair.length()) {
+                throw new IllegalArgumentException("Invalid sparse value: "
+                        + pair);
+            }
+
+            indexes[index] = Integer.parseInt(pair.substring(0, space));
+            values[index] = trim(pair.substring(space));
+            index++;
+        }
+
+        builder.add(indexes, values);
     }
 
     private void processHierarchy(Dataset dataset, String[] components) {
@@ -438,6 +592,17 @@ public class ARFFReader {
         // (4) determines the labels from the hierarchy to ignore (usually the
         // root label)
 
+        processIgnoreList(dataset);
+    }
+
+    /**
+     * Determines the labels from the hierarchy to ignore (usually the root
+     * label), setting the {@link Hierarchy#IGNORE} configuration.
+     * 
+     * @param dataset
+     *            the (hierarchical) dataset being read.
+     */
+    static void processIgnoreList(Dataset dataset) {
         boolean[] flags = new boolean[dataset.getTarget().size()];
         Arrays.fill(flags, false);
 
@@ -19,8 +19,20 @@
 
 package myra.datamining;
 
+import static myra.AsynchronousScheduler.STEADY_STATE;
+import static myra.Budget.BUDGET;
+import static myra.Budget.CPU_LIMIT;
+import static myra.Budget.MAX_EVALUATIONS;
+import static myra.Budget.TIME_LIMIT;
 import static myra.Config.CONFIG;
+import static myra.ParallelScheduler.DISPATCH_STATISTICS;
+import static myra.Scheduler.PARALLEL;
 import static myra.datamining.Attribute.Type.NOMINAL;
+import static myra.datamining.ARFFReader.PARALLEL_READ;
+import static myra.datamining.CoverageCache.CACHE_SIZE;
+import static myra.datamining.CoverageCache.COVERAGE_CACHE;
+import static myra.datamining.Dataset.STORAGE;
+import static myra.rule.Heuristic.PARALLEL_HEURISTIC;
 
 import java.io.File;
 import java.io.FileWriter;
@@ -38,10 +50,16 @@ import java.util.Properties;
 import java.util.Random;
 import java.util.TreeMap;
 
+import myra.Budget;
+import myra.Config;
 import myra.Config.ConfigKey;
 import myra.Option;
 import myra.Option.BooleanOption;
+import myra.Option.DoubleOption;
+import myra.Option.IntegerOption;
+import myra.ParallelScheduler.Statistics;
 import myra.util.Logger;
+import myra.util.StreamRandom;
 
 /**
  * Base class for implementing data mining algorithms.
@@ -66,6 +84,11 @@ public abstract class Algorithm {
      */
     public final static ConfigKey<String> EXPORT_FILE = new ConfigKey<>();
 
+    /**
+     * The config key for the binary file to convert the training file to.
+     */
+    public final static ConfigKey<String> CONVERT_FILE = new ConfigKey<>();
+
     /**
      * The config key for the random number generator.
      */
@@ -104,6 +127,109 @@ public abstract class Algorithm {
                                        false,
                                        "file"));
 
+        options.add(new Option<String>(CONVERT_FILE,
+                                       "-convert",
+                                       "Convert the training file to a binary "
+                                               + "%s (no model is created)",
+                                       false,
+                                       "file"));
+
+        // in-memory layout of the dataset
+        Option<Storage.Type> storage =
+                new Option<Storage.Type>(STORAGE,
+                                         "-storage",
+                                         "specify the in-memory %s of the data",
+                                         true,
+                                         "layout");
+        storage.add("row", Storage.Type.ROW);
+        storage.add("column", Storage.Type.COLUMN);
+        storage.add("sparse", Storage.Type.SPARSE);
+        options.add(storage);
+
+        // parallel parsing of the data section
+        options.add(new IntegerOption(PARALLEL_READ,
+                                      "-parallel-read",
+                                      "parse the data file using multiple %s;"
+                                              + " if no threads are specified,"
+                                              + " use all available cores",
+                                      "threads") {
+            @Override
+            public void set(String value) {
+                if (value == null) {
+                    value = String
+                            .format("%d",
+                                    Runtime.getRuntime().availableProcessors());
+                }
+
+                super.set(value);
+            }
+        });
+
+        // memory budget of the coverage cache
+        options.add(new IntegerOption(CACHE_SIZE,
+                                      "-coverage-cache",
+                                      "memory budget (in MB) for caching term"
+                                              + " coverage bitsets; 0 disables"
+                                              + " the cache",
+                                      "size"));
+
+        // steady-state parallel execution
+        options.add(new IntegerOption(STEADY_STATE,
+                                      "-steady-state",
+                                      "when running in parallel, keep creating"
+                                              + " solutions without waiting for"
+                                              + " the whole colony and update"
+                                              + " the pheromones every %s; if"
+                                              + " not specified, use the colony"
+                                              + " size",
+                                      "solutions") {
+            @Override
+            public void set(String value) {
+                super.set(value == null ? "0" : value);
+            }
+        });
+
+        // parallel heuristic computation
+        options.add(new IntegerOption(PARALLEL_HEURISTIC,
+                                      "-parallel-heuristic",
+                                      "compute the heuristic information of"
+                                              + " different attributes using"
+                                              + " multiple %s; if no threads"
+                                              + " are specified, use all"
+                                              + " available cores",
+                                      "threads") {
+            @Override
+            public void set(String value) {
+                if (value == null) {
+                    value = String
+                            .format("%d",
+                                    Runtime.getRuntime().availableProcessors());
+                }
+
+                super.set(value);
+            }
+        });
+
+        // computational budget
+        options.add(new DoubleOption(TIME_LIMIT,
+                                     "-time-limit",
+                                     "stop the search after the specified %s"
+                                             + " (wall-clock) and use the best"
+                                             + " model found so far",
+                                     "seconds"));
+
+        options.add(new IntegerOption(MAX_EVALUATIONS,
+                                      "-max-evaluations",
+                                      "stop the search after the specified"
+                                              + " %s of solution evaluations",
+                                      "number"));
+
+        options.add(new DoubleOption(CPU_LIMIT,
+                                     "-cpu-limit",
+                                     "stop the search after the specified %s"
+                                             + " of CPU time (all threads)",
+                                     "seconds"));
+
         // random seed
         options.add(new Option<Long>(RANDOM_SEED,
                                      "s",
@@ -115,7 +241,7 @@ public abstract class Algorithm {
                 Long seed = Long.parseLong(value);
 
                 CONFIG.set(RANDOM_SEED, seed);
-                CONFIG.set(RANDOM_GENERATOR, new Random(seed));
+                CONFIG.set(RANDOM_GENERATOR, new StreamRandom(seed));
             }
         });
 
@@ -182,6 +308,12 @@ public abstract class Algorithm {
      * <li>{@link #test(Dataset, Model)} (if a test file has been provided)</li>
      * </ul>
      * 
+     * <p>
+     * The execution uses its own configuration, which starts as a copy of the
+     * configuration of the calling thread; therefore several executions can
+     * run concurrently in the same process.
+     * </p>
+     * 
      * @param args
      *            command-line arguments.
      * 
@@ -189,6 +321,26 @@ public abstract class Algorithm {
      *             If an error occurs &mdash; e.g., I/O error.
      */
     public void run(String[] args) throws Exception {
+        Config previous = Config.bind(new Config(Config.current()));
+
+        try {
+            execute(args);
+        } finally {
+            Config.bind(previous);
+        }
+    }
+
+    /**
+     * Executes the algorithm using the configuration bound to the current
+     * thread.
+     * 
+     * @param args
+     *            command-line arguments.
+     * 
+     * @throws Exception
+     *             If an error occurs &mdash; e.g., I/O error.
+     */
+    private void execute(String[] args) throws Exception {
         // sets property defaults
         defaults();
         // retrieves the algorithm options
@@ -197,14 +349,38 @@ public abstract class Algorithm {
         Map<String, String> parameters = processCommandLine(args, options);
 
         if (CONFIG.isPresent(TRAINING_FILE)) {
-            ARFFReader reader = new ARFFReader();
-            Dataset dataset = reader.read(CONFIG.get(TRAINING_FILE));
+            Dataset dataset = read(CONFIG.get(TRAINING_FILE));
+
+            if (CONFIG.isPresent(CONVERT_FILE)) {
+                BinaryWriter writer = new BinaryWriter();
+                writer.write(dataset, CONFIG.get(CONVERT_FILE));
+
+                Logger.log("Binary file saved: %s%n",
+                           CONFIG.get(CONVERT_FILE));
+                return;
+            }
 
             logRuntime(dataset, parameters, options);
 
+            if (CONFIG.isPresent(CACHE_SIZE) && CONFIG.get(CACHE_SIZE) > 0) {
+                CONFIG.set(COVERAGE_CACHE,
+                           new CoverageCache(CONFIG.get(CACHE_SIZE) * 1024L
+                                   * 1024L));
+            }
+
+            if (CONFIG.isPresent(PARALLEL)) {
+                CONFIG.set(DISPATCH_STATISTICS, new Statistics());
+            }
+
+            Budget budget = Budget.of(Config.current());
+
+            if (budget != null) {
+                CONFIG.set(BUDGET, budget);
+            }
+
             long start = System.nanoTime();
 
-            Model model = train(dataset);
+            Model model = train(Config.current(), dataset);
 
             Logger.log("=== Discovered Model ===%n%n");
             Logger.log(model.toString(dataset));
@@ -218,7 +394,7 @@ public abstract class Algorithm {
             // data and logs the confusion matrix
 
             if (CONFIG.isPresent(TEST_FILE)) {
-                dataset = reader.read(CONFIG.get(TEST_FILE));
+                dataset = read(CONFIG.get(TEST_FILE));
 
                 Logger.log("%n=== Evaluation on test set ===%n%n");
 
@@ -227,6 +403,21 @@ public abstract class Algorithm {
 
             Logger.log("%nRunning time (seconds): %.2f%n", elapsed);
 
+            if (CONFIG.isPresent(COVERAGE_CACHE)
+                    && CONFIG.get(COVERAGE_CACHE).misses() > 0) {
+                Logger.log("Coverage cache: %s%n", CONFIG.get(COVERAGE_CACHE));
+            }
+
+            if (CONFIG.isPresent(DISPATCH_STATISTICS)
+                    && CONFIG.get(DISPATCH_STATISTICS).iterations() > 0) {
+                Logger.log("Parallel dispatch: %s%n",
+                           CONFIG.get(DISPATCH_STATISTICS));
+            }
+
+            if (CONFIG.isPresent(BUDGET)) {
+                Logger.log("Budget: %s%n", CONFIG.get(BUDGET));
+            }
+
             if (CONFIG.isPresent(EXPORT_FILE)) {
                 FileWriter writer = null;
                 try {
@@ -247,6 +438,103 @@ public abstract class Algorithm {
         }
     }
 
+    /**
+     * Creates the configuration of the algorithm for the specified
+     * command-line arguments: the default values overridden by the arguments.
+     * The configuration of the calling thread is not modified.
+     * 
+     * @param args
+     *            command-line arguments.
+     * 
+     * @return an immutable configuration.
+     */
+    public Config configure(String... args) {
+        Config previous = Config.bind(new Config());
+
+        try {
+            defaults();
+            processCommandLine(args, options());
+
+            return Config.current().snapshot();
+        } finally {
+            Config.bind(previous);
+        }
+    }
+
+    /**
+     * Trains the algorithm for the specified dataset using the specified
+     * configuration. Training runs against an immutable snapshot of the
+     * configuration, bound to the current thread (and to the worker threads
+     * of the run) for the duration of the training, so concurrent trainings
+     * with different configurations can share the same dataset.
+     * 
+     * <p>
+     * The snapshot uses its own random number generator (created from the
+     * {@link #RANDOM_SEED}, if present), its own coverage cache and its own
+     * {@link Budget} (if none is set), so they are not shared between
+     * concurrent trainings.
+     * </p>
+     * 
+     * @param config
+     *            the configuration of the training, e.g., created by
+     *            {@link #configure(String...)}.
+     * @param dataset
+     *            the current dataset.
+     * 
+     * @return the model created.
+     */
+    public Model train(Config config, Dataset dataset) {
+        Config run = new Config(config);
+
+        if (run.isPresent(RANDOM_SEED)) {
+            run.set(RANDOM_GENERATOR,
+                    new StreamRandom(run.get(RANDOM_SEED)));
+        }
+
+        if (!run.isPresent(COVERAGE_CACHE) && run.isPresent(CACHE_SIZE)
+                && run.get(CACHE_SIZE) > 0) {
+            run.set(COVERAGE_CACHE,
+                    new CoverageCache(run.get(CACHE_SIZE) * 1024L * 1024L));
+        }
+
+        if (!run.isPresent(BUDGET)) {
+            Budget budget = Budget.of(run);
+
+            if (budget != null) {
+                run.set(BUDGET, budget);
+            }
+        }
+
+        Config previous = Config.bind(run.snapshot());
+
+        try {
+            return train(dataset);
+        } finally {
+            Config.bind(previous);
+        }
+    }
+
+    /**
+     * Reads the specified dataset file. The file can either be an ARFF file or
+     * a binary file created using the <code>--convert</code> option.
+     * 
+     * @param filename
+     *            the file name.
+     * 
+     * @return a <code>Dataset</code> instance contaning the contents of the
+     *         file.
+     * 
+     * @exception IOException
+     *                if an I/O error occurs.
+     */
+    protected Dataset read(String filename) throws IOException {
+        if (BinaryReader.isBinary(filename)) {
+            return new BinaryReader().read(filename);
+        }
+
+        return new ARFFReader().read(filename);
+    }
+
     /**
      * Trains the algorithm for the current dataset.
      * 
@@ -292,7 +580,9 @@ public abstract class Algorithm {
         Long seed = System.currentTimeMillis();
 
         CONFIG.set(RANDOM_SEED, seed);
-        CONFIG.set(RANDOM_GENERATOR, new Random(seed));
+        CONFIG.set(RANDOM_GENERATOR, new StreamRandom(seed));
+        CONFIG.set(STORAGE, Storage.Type.ROW);
+        CONFIG.set(CACHE_SIZE, 64);
     }
 
     /**
@@ -68,6 +68,11 @@ public final class Attribute implements Cloneable {
      */
     public static final short ANY_OF = 7;
 
+    /**
+     * The minimum length of the values hash table.
+     */
+    private static final int MINIMUM_TABLE = 8;
+
     /**
      * The name of the attribute.
      */
@@ -78,6 +83,12 @@ public final class Attribute implements Cloneable {
      */
     private String[] values;
 
+    /**
+     * Open-addressing hash table mapping values to their indexes. Each slot
+     * holds the index of a value, or <code>-1</code> if the slot is empty.
+     */
+    private int[] table;
+
     /**
      * The type of the attribute.
      */
@@ -110,6 +121,8 @@ public final class Attribute implements Cloneable {
         this.type = type;
         this.name = name;
         values = new String[0];
+        table = new int[MINIMUM_TABLE];
+        Arrays.fill(table, -1);
         index = -1;
         lower = Double.MAX_VALUE;
         upper = Double.MIN_VALUE;
@@ -161,6 +174,12 @@ public final class Attribute implements Cloneable {
     public void add(String value) {
         values = Arrays.copyOf(values, values.length + 1);
         values[values.length - 1] = value;
+
+        if (values.length * 2 > table.length) {
+            rehash();
+        } else {
+            insert(values.length - 1);
+        }
     }
 
     /**
@@ -188,6 +207,7 @@ public final class Attribute implements Cloneable {
 
         System.arraycopy(values, source, v, target, values.length - source);
         values = v;
+        rehash();
     }
 
     /**
@@ -229,13 +249,93 @@ public final class Attribute implements Cloneable {
      * @return the index of the specified value.
      */
     public int indexOf(String value) {
+        int index = find(value);
+
+        if (index == -1) {
+            throw new IllegalArgumentException("Value not found: " + value);
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns the index of the specified value, or <code>-1</code> if the
+     * value is not in the domain of the attribute. When a value occurs more
+     * than once, the index of its first occurrence is returned.
+     * 
+     * @param value
+     *            the value to look up.
+     * 
+     * @return the index of the specified value; <code>-1</code> if the value
+     *         is not found.
+     */
+    public int find(String value) {
+        int mask = table.length - 1;
+        int slot = hash(value) & mask;
+
+        while (table[slot] != -1) {
+            if (value.equals(values[table[slot]])) {
+                return table[slot];
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Rebuilds the values hash table, keeping its load factor at most
+     * <code>0.5</code>.
+     */
+    private void rehash() {
+        int length = MINIMUM_TABLE;
+
+        while (length < values.length * 2) {
+            length <<= 1;
+        }
+
+        table = new int[length];
+        Arrays.fill(table, -1);
+
         for (int i = 0; i < values.length; i++) {
-            if (value.equals(values[i])) {
-                return i;
+            insert(i);
+        }
+    }
+
+    /**
+     * Adds the value at the specified index to the hash table. Duplicated
+     * values are not added, so that lookups return the first occurrence.
+     * 
+     * @param index
+     *            the index of the value.
+     */
+    private void insert(int index) {
+        int mask = table.length - 1;
+        int slot = hash(values[index]) & mask;
+
+        while (table[slot] != -1) {
+            if (values[index].equals(values[table[slot]])) {
+                return;
             }
+
+            slot = (slot + 1) & mask;
         }
 
-        throw new IllegalArgumentException("Value not found: " + value);
+        table[slot] = index;
+    }
+
+    /**
+     * Returns the (spread) hash code of the specified value.
+     * 
+     * @param value
+     *            the value.
+     * 
+     * @return the hash code of the specified value.
+     */
+    private static int hash(String value) {
+        int h = value.hashCode();
+        return h ^ (h >>> 16);
     }
 
     /**
@@ -257,6 +357,7 @@ public final class Attribute implements Cloneable {
         try {
             Attribute clone = (Attribute) super.clone();
             clone.values = values.clone();
+            clone.table = table.clone();
             return clone;
         } catch (CloneNotSupportedException e) {
             throw new InternalError(e.getMessage());
@@ -0,0 +1,233 @@
+/*
+ * BinaryReader.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.datamining;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.READ;
+import static myra.datamining.BinaryWriter.MAGIC;
+import static myra.datamining.BinaryWriter.PREAMBLE;
+import static myra.datamining.BinaryWriter.VERSION;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import myra.classification.Label;
+import myra.datamining.Attribute.Type;
+
+/**
+ * Reads a dataset from the binary format created by {@link BinaryWriter}. The
+ * values of the instances are not copied: the dataset is backed by buffers
+ * that are memory-mapped directly from the file, so the cost of loading a
+ * dataset is (mostly) independent of the number of instances. The dataset
+ * returned is frozen and its instances cannot be modified.
+ *
+ * @author Fernando Esteban Barril Otero
+ */
+public class BinaryReader {
+    /**
+     * Returns <code>true</code> if the specified file is a binary dataset
+     * file.
+     *
+     * @param filename
+     *            the file name.
+     *
+     * @return <code>true</code> if the specified file is a binary dataset
+     *         file; <code>false</code> otherwise.
+     *
+     * @exception IOException
+     *                if an I/O error occurs.
+     */
+    public static boolean isBinary(String filename) throws IOException {
+        File file = new File(filename);
+
+        if (!file.isFile() || file.length() < PREAMBLE) {
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+
+            while (magic.hasRemaining() && channel.read(magic) != -1) {
+                // keeps reading until the buffer is full
+            }
+
+            magic.flip();
+            return magic.remaining() == Integer.BYTES
+                    && magic.getInt() == MAGIC;
+        }
+    }
+
+    /**
+     * Reads the specified file.
+     *
+     * @param filename
+     *            the file name.
+     *
+     * @return a <code>Dataset</code> instance backed by the contents of the
+     *         file.
+     *
+     * @exception IOException
+     *                if an I/O error occurs.
+     */
+    public Dataset read(String filename) throws IOException {
+        try (FileChannel channel =
+                FileChannel.open(Paths.get(filename), READ)) {
+            ByteBuffer preamble = channel.map(READ_ONLY, 0, PREAMBLE);
+
+            if (preamble.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a binary dataset file: "
+                        + filename);
+            }
+
+            int version = preamble.getInt();
+
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported binary format version: "
+                        + version);
+            }
+
+            byte[] header = new byte[preamble.getInt()];
+            channel.map(READ_ONLY, PREAMBLE, header.length).get(header);
+
+            Dataset dataset = new Dataset(Storage.Type.COLUMN);
+            int size = header(dataset, header);
+            Attribute[] attributes = dataset.attributes();
+
+            // maps each column block
+            ByteBuffer[] columns = new ByteBuffer[attributes.length];
+            long offset = PREAMBLE + header.length;
+
+            for (int i = 0; i < attributes.length; i++) {
+                offset = align(offset);
+                long length = (long) size * Storage.width(attributes, i);
+                columns[i] = channel.map(READ_ONLY, offset, length);
+                offset += length;
+            }
+
+            Label[] labels = null;
+
+            if (dataset.isHierarchical()) {
+                offset = align(offset);
+                ByteBuffer buffer =
+                        channel.map(READ_ONLY, offset, channel.size() - offset);
+                labels = new Label[size];
+
+                for (int i = 0; i < size; i++) {
+                    boolean[] active = new boolean[dataset.getTarget().length()];
+                    int count = buffer.getInt();
+
+                    for (int j = 0; j < count; j++) {
+                        active[buffer.getInt()] = true;
+                    }
+
+                    labels[i] = Label.toLabel(dataset.getTarget(), active);
+                }
+            }
+
+            dataset.attach(new MappedStorage(attributes, size, columns), labels);
+
+            return dataset;
+        }
+    }
+
+    /**
+     * Reads the header information into the specified (empty) dataset.
+     *
+     * @param dataset
+     *            the dataset being read.
+     * @param header
+     *            the header information.
+     *
+     * @return the number of instances of the dataset.
+     *
+     * @exception IOException
+     *                if an I/O error occurs.
+     */
+    private int header(Dataset dataset, byte[] header) throws IOException {
+        DataInputStream in =
+                new DataInputStream(new ByteArrayInputStream(header));
+
+        if (in.readBoolean()) {
+            dataset.setName(in.readUTF());
+        }
+
+        int size = in.readInt();
+        int length = in.readInt();
+
+        for (int i = 0; i < length; i++) {
+            Type type = Type.values()[in.readByte()];
+            Attribute attribute = new Attribute(type, in.readUTF());
+            attribute.lower(in.readDouble());
+            attribute.upper(in.readDouble());
+
+            int values = in.readInt();
+
+            for (int j = 0; j < values; j++) {
+                attribute.add(in.readUTF());
+            }
+
+            dataset.add(attribute);
+        }
+
+        if (in.readBoolean()) {
+            Hierarchy hierarchy = new Hierarchy();
+            hierarchy.add(in.readUTF());
+            int links = in.readInt();
+
+            for (int i = 0; i < links; i++) {
+                String parent = in.readUTF();
+                String child = in.readUTF();
+
+                if (hierarchy.get(child) == null) {
+                    hierarchy.add(child);
+                }
+
+                hierarchy.link(parent, child);
+            }
+
+            hierarchy.validate(new LinkedHashSet<>(Arrays
+                    .asList(dataset.getTarget().values())));
+
+            dataset.setHierarchy(hierarchy);
+            ARFFReader.processIgnoreList(dataset);
+        }
+
+        return size;
+    }
+
+    /**
+     * Returns the specified position aligned to 8 bytes.
+     *
+     * @param position
+     *            the file position.
+     *
+     * @return the specified position aligned to 8 bytes.
+     */
+    static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+}
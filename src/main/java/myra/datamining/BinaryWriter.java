@@ -0,0 +1,285 @@
+/*
+ * BinaryWriter.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.datamining;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Set;
+
+import myra.classification.Label;
+import myra.datamining.Hierarchy.Node;
+
+/**
+ * Writes a dataset in the binary format read by {@link BinaryReader}. The file
+ * consists of:
+ *
+ * <ol>
+ * <li>a fixed preamble: the {@link #MAGIC} number, the format
+ * {@link #VERSION} and the length of the header;</li>
+ * <li>the header: dataset name, number of instances, attributes metadata
+ * (type, name, bounds, values) and the label hierarchy (if present);</li>
+ * <li>one block per attribute holding the values of all instances, using the
+ * same primitive types as the {@link Storage.Type#COLUMN} layout; each block
+ * starts at an offset aligned to 8 bytes;</li>
+ * <li>the active label indexes of each instance (only for hierarchical
+ * datasets).</li>
+ * </ol>
+ *
+ * @author Fernando Esteban Barril Otero
+ */
+public class BinaryWriter {
+    /**
+     * The magic number identifying a binary dataset file.
+     */
+    static final int MAGIC = 0x4D595241;
+
+    /**
+     * The version of the binary format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The length (in bytes) of the preamble.
+     */
+    static final int PREAMBLE = 12;
+
+    /**
+     * The size of the buffer used to write the column blocks.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Writes the specified dataset to a file.
+     *
+     * @param dataset
+     *            the dataset to write.
+     * @param filename
+     *            the file name.
+     *
+     * @exception IOException
+     *                if an I/O error occurs.
+     */
+    public void write(Dataset dataset, String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename),
+                                                    CREATE,
+                                                    TRUNCATE_EXISTING,
+                                                    WRITE)) {
+            byte[] header = header(dataset);
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(header.length);
+            flush(channel, buffer);
+
+            channel.write(ByteBuffer.wrap(header));
+
+            Attribute[] attributes = dataset.attributes();
+
+            for (int a = 0; a < attributes.length; a++) {
+                pad(channel, buffer);
+                int width = Storage.width(attributes, a);
+
+                for (int i = 0; i < dataset.size(); i++) {
+                    if (buffer.remaining() < width) {
+                        flush(channel, buffer);
+                    }
+
+                    double value = dataset.value(i, a);
+
+                    switch (width) {
+                    case Double.BYTES:
+                        buffer.putDouble(value);
+                        break;
+
+                    case Integer.BYTES:
+                        buffer.putInt((int) value);
+                        break;
+
+                    case Short.BYTES:
+                        buffer.putShort((short) value);
+                        break;
+
+                    default:
+                        buffer.put((byte) value);
+                        break;
+                    }
+                }
+
+                flush(channel, buffer);
+            }
+
+            if (dataset.isHierarchical()) {
+                pad(channel, buffer);
+
+                for (int i = 0; i < dataset.size(); i++) {
+                    Label label = dataset.label(i);
+                    int count = label.cardinality();
+
+                    if (buffer.remaining() < (count + 1) * Integer.BYTES) {
+                        flush(channel, buffer);
+                    }
+
+                    buffer.putInt(count);
+
+                    for (int j = 0; j < label.active().length; j++) {
+                        if (label.active(j)) {
+                            buffer.putInt(j);
+                        }
+                    }
+                }
+
+                flush(channel, buffer);
+            }
+        }
+    }
+
+    /**
+     * Returns the header information of the dataset.
+     *
+     * @param dataset
+     *            the dataset.
+     *
+     * @return the header information of the dataset.
+     *
+     * @exception IOException
+     *                if an I/O error occurs.
+     */
+    private byte[] header(Dataset dataset) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeBoolean(dataset.getName() != null);
+
+        if (dataset.getName() != null) {
+            out.writeUTF(dataset.getName());
+        }
+
+        out.writeInt(dataset.size());
+        out.writeInt(dataset.attributes().length);
+
+        for (Attribute attribute : dataset.attributes()) {
+            out.writeByte(attribute.getType().ordinal());
+            out.writeUTF(attribute.getName());
+            out.writeDouble(attribute.lower());
+            out.writeDouble(attribute.upper());
+            out.writeInt(attribute.length());
+
+            for (String value : attribute.values()) {
+                out.writeUTF(value);
+            }
+        }
+
+        out.writeBoolean(dataset.isHierarchical());
+
+        if (dataset.isHierarchical()) {
+            // the hierarchy is represented by its root and the list of
+            // parent-child links in breadth-first order
+            Node root = dataset.getHierarchy().root();
+            LinkedList<Node> toVisit = new LinkedList<>();
+            Set<String> visited = new HashSet<>();
+            ByteArrayOutputStream links = new ByteArrayOutputStream();
+            DataOutputStream linksOut = new DataOutputStream(links);
+            int count = 0;
+
+            toVisit.add(root);
+            visited.add(root.getLabel());
+
+            while (!toVisit.isEmpty()) {
+                Node node = toVisit.removeFirst();
+
+                for (Node child : node.getChildren()) {
+                    linksOut.writeUTF(node.getLabel());
+                    linksOut.writeUTF(child.getLabel());
+                    count++;
+
+                    if (visited.add(child.getLabel())) {
+                        toVisit.addLast(child);
+                    }
+                }
+            }
+
+            out.writeUTF(root.getLabel());
+            out.writeInt(count);
+            linksOut.flush();
+            links.writeTo(out);
+        }
+
+        out.flush();
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes zeros to the channel until its position is aligned to 8 bytes.
+     * The buffer must be empty.
+     *
+     * @param channel
+     *            the file channel.
+     * @param buffer
+     *            the (empty) write buffer.
+     *
+     * @exception IOException
+     *                if an I/O error occurs.
+     */
+    private void pad(FileChannel channel, ByteBuffer buffer)
+            throws IOException {
+        long padding = BinaryReader.align(channel.position())
+                - channel.position();
+
+        for (int i = 0; i < padding; i++) {
+            buffer.put((byte) 0);
+        }
+
+        flush(channel, buffer);
+    }
+
+    /**
+     * Writes the contents of the buffer to the channel and clears the buffer.
+     *
+     * @param channel
+     *            the file channel.
+     * @param buffer
+     *            the write buffer.
+     *
+     * @exception IOException
+     *                if an I/O error occurs.
+     */
+    private void flush(FileChannel channel, ByteBuffer buffer)
+            throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+}
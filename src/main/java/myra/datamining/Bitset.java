@@ -0,0 +1,267 @@
+/*
+ * Bitset.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.datamining;
+
+import java.util.Arrays;
+
+import myra.datamining.Attribute.Condition;
+
+/**
+ * Operations over bitsets of instances. A bitset is represented by a
+ * <code>long[]</code>, where bit <code>i</code> (bit <code>i % 64</code> of
+ * word <code>i / 64</code>) corresponds to the instance at index
+ * <code>i</code>. Bits beyond the number of instances are always zero, so
+ * cardinalities can be computed word-wise without masking.
+ *
+ * @author Fernando Esteban Barril Otero
+ */
+public final class Bitset {
+    /**
+     * No instances allowed.
+     */
+    private Bitset() {
+    }
+
+    /**
+     * Returns the number of words needed to represent the specified number of
+     * instances.
+     *
+     * @param size
+     *            the number of instances.
+     *
+     * @return the number of words needed to represent the instances.
+     */
+    public static int words(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    /**
+     * Returns a new (empty) bitset for the specified number of instances.
+     *
+     * @param size
+     *            the number of instances.
+     *
+     * @return a new (empty) bitset.
+     */
+    public static long[] create(int size) {
+        return new long[words(size)];
+    }
+
+    /**
+     * Sets the bits of all instances.
+     *
+     * @param bits
+     *            the bitset.
+     * @param size
+     *            the number of instances.
+     */
+    public static void fill(long[] bits, int size) {
+        int words = words(size);
+        Arrays.fill(bits, 0, words, -1L);
+
+        if ((size & 63) != 0) {
+            bits[words - 1] = -1L >>> (64 - (size & 63));
+        }
+    }
+
+    /**
+     * Sets the bit of an instance.
+     *
+     * @param bits
+     *            the bitset.
+     * @param index
+     *            the instance index.
+     */
+    public static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * Clears the bit of an instance.
+     *
+     * @param bits
+     *            the bitset.
+     * @param index
+     *            the instance index.
+     */
+    public static void clear(long[] bits, int index) {
+        bits[index >>> 6] &= ~(1L << index);
+    }
+
+    /**
+     * Returns <code>true</code> if the bit of an instance is set.
+     *
+     * @param bits
+     *            the bitset.
+     * @param index
+     *            the instance index.
+     *
+     * @return <code>true</code> if the bit of an instance is set;
+     *         <code>false</code> otherwise.
+     */
+    public static boolean get(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Intersects the <code>target</code> bitset with the specified bitset.
+     * The result is stored in the <code>target</code> bitset.
+     *
+     * @param target
+     *            the bitset to be modified.
+     * @param bits
+     *            the bitset to intersect with.
+     */
+    public static void and(long[] target, long[] bits) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= bits[i];
+        }
+    }
+
+    /**
+     * Returns the number of bits set.
+     *
+     * @param bits
+     *            the bitset.
+     *
+     * @return the number of bits set.
+     */
+    public static int cardinality(long[] bits) {
+        int count = 0;
+
+        for (int i = 0; i < bits.length; i++) {
+            count += Long.bitCount(bits[i]);
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the number of bits set in both bitsets, without computing their
+     * intersection.
+     *
+     * @param a
+     *            the first bitset.
+     * @param b
+     *            the second bitset.
+     *
+     * @return the number of bits set in both bitsets.
+     */
+    public static int andCardinality(long[] a, long[] b) {
+        int count = 0;
+
+        for (int i = 0; i < a.length; i++) {
+            count += Long.bitCount(a[i] & b[i]);
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the number of bits set in the first bitset and not set in the
+     * second bitset.
+     *
+     * @param a
+     *            the first bitset.
+     * @param b
+     *            the second bitset.
+     *
+     * @return the number of bits set in <code>a</code> and not set in
+     *         <code>b</code>.
+     */
+    public static int andNotCardinality(long[] a, long[] b) {
+        int count = 0;
+
+        for (int i = 0; i < a.length; i++) {
+            count += Long.bitCount(a[i] & ~b[i]);
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the bitset of the instances of the dataset that satisfy the
+     * specified condition.
+     *
+     * @param dataset
+     *            the current dataset.
+     * @param condition
+     *            the attribute condition.
+     *
+     * @return the bitset of the instances that satisfy the condition.
+     */
+    public static long[] of(Dataset dataset, Condition condition) {
+        long[] bits = create(dataset.size());
+
+        for (int i = 0; i < dataset.size(); i++) {
+            if (condition.satisfies(dataset.value(i, condition.attribute))) {
+                bits[i >>> 6] |= 1L << i;
+            }
+        }
+
+        return bits;
+    }
+
+    /**
+     * Stores in <code>result</code> the instances of the <code>candidates</code>
+     * bitset that satisfy the specified condition. Only the candidate
+     * instances are tested, so the cost is proportional to the number of
+     * candidates. The bitsets may be the same array.
+     *
+     * @param dataset
+     *            the current dataset.
+     * @param condition
+     *            the attribute condition.
+     * @param candidates
+     *            the bitset of the instances to test.
+     * @param result
+     *            the bitset to store the instances that satisfy the
+     *            condition.
+     *
+     * @return the number of instances that satisfy the condition.
+     */
+    public static int filter(Dataset dataset,
+                             Condition condition,
+                             long[] candidates,
+                             long[] result) {
+        int count = 0;
+
+        for (int w = 0; w < candidates.length; w++) {
+            long word = candidates[w];
+            long hit = 0;
+
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                double v = dataset.value((w << 6) + bit, condition.attribute);
+
+                if (condition.satisfies(v)) {
+                    hit |= 1L << bit;
+                }
+
+                word &= word - 1;
+            }
+
+            result[w] = hit;
+            count += Long.bitCount(hit);
+        }
+
+        return count;
+    }
+}
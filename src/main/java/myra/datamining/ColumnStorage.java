@@ -0,0 +1,490 @@
+/*
+ * ColumnStorage.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.datamining;
+
+import java.util.Arrays;
+
+/**
+ * Column-major storage: each attribute is stored in its own primitive array.
+ * Continuous attributes use a <code>double</code> array, nominal attributes
+ * use the narrowest integer array (<code>byte</code>, <code>short</code> or
+ * <code>int</code>) able to represent the indexes of their values, and the
+ * (nominal) class attribute uses an <code>int</code> array, since it might
+ * hold label codes of hierarchical problems.
+ *
+ * @author Fernando Esteban Barril Otero
+ */
+final class ColumnStorage extends Storage {
+    /**
+     * The attribute columns.
+     */
+    private Column[] columns;
+
+    /**
+     * The number of instances that the columns can hold without growing.
+     */
+    private int capacity;
+
+    /**
+     * Creates a new column-major storage.
+     *
+     * @param attributes
+     *            the attributes of the dataset.
+     */
+    ColumnStorage(Attribute[] attributes) {
+        super(attributes);
+        columns = new Column[attributes.length];
+
+        for (int i = 0; i < attributes.length; i++) {
+            switch (width(attributes, i)) {
+            case Double.BYTES:
+                columns[i] = new DoubleColumn(0);
+                break;
+
+            case Byte.BYTES:
+                columns[i] = new ByteColumn(0);
+                break;
+
+            case Short.BYTES:
+                columns[i] = new ShortColumn(0);
+                break;
+
+            default:
+                columns[i] = new IntColumn(0);
+                break;
+            }
+        }
+    }
+
+    @Override
+    public double value(int instance, int attribute) {
+        return columns[attribute].get(instance);
+    }
+
+    @Override
+    public void add(double[] values) {
+        if (size == capacity) {
+            ensureCapacity(grow(capacity, size + 1));
+        }
+
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = columns[i].set(size, values[i]);
+        }
+
+        size++;
+    }
+
+    @Override
+    public void add(Storage source, int index) {
+        if (size == capacity) {
+            ensureCapacity(grow(capacity, size + 1));
+        }
+
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = columns[i].set(size, source.value(index, i));
+        }
+
+        size++;
+    }
+
+    @Override
+    public void addAll(Storage source) {
+        if (source instanceof ColumnStorage) {
+            ensureCapacity(size + source.size());
+            Column[] other = ((ColumnStorage) source).columns;
+
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = columns[i].copy(other[i], size, source.size());
+            }
+
+            size += source.size();
+        } else {
+            super.addAll(source);
+        }
+    }
+
+    @Override
+    public void ensureCapacity(int capacity) {
+        if (capacity > this.capacity) {
+            for (Column column : columns) {
+                column.resize(capacity);
+            }
+
+            this.capacity = capacity;
+        }
+    }
+
+    @Override
+    public void trim() {
+        if (size < capacity) {
+            for (Column column : columns) {
+                column.resize(size);
+            }
+
+            capacity = size;
+        }
+    }
+
+    @Override
+    public void remove(int... indexes) {
+        int target = 0;
+        int next = 0;
+
+        for (int source = 0; source < size; source++) {
+            if (next < indexes.length && indexes[next] == source) {
+                next++;
+            } else {
+                if (target != source) {
+                    for (Column column : columns) {
+                        column.move(source, target);
+                    }
+                }
+
+                target++;
+            }
+        }
+
+        size = target;
+    }
+
+    @Override
+    public long footprint() {
+        long total = 0;
+
+        for (Column column : columns) {
+            total += column.footprint();
+        }
+
+        return total;
+    }
+
+    @Override
+    public Type type() {
+        return Type.COLUMN;
+    }
+
+    /**
+     * Base class for the primitive columns.
+     */
+    private static abstract class Column {
+        /**
+         * Returns the value at the specified index.
+         *
+         * @param index
+         *            the instance index.
+         *
+         * @return the value at the specified index.
+         */
+        abstract double get(int index);
+
+        /**
+         * Sets the value at the specified index. If the value cannot be
+         * represented by the column, a wider column is returned holding a copy
+         * of the values.
+         *
+         * @param index
+         *            the instance index.
+         * @param value
+         *            the value to set.
+         *
+         * @return the column holding the value.
+         */
+        abstract Column set(int index, double value);
+
+        /**
+         * Copies the first <code>length</code> values of another column,
+         * starting at the specified offset of this column. If the values
+         * cannot be represented by the column, a wider column is returned
+         * holding a copy of the values.
+         *
+         * @param source
+         *            the column to copy the values from.
+         * @param offset
+         *            the index of the first value to copy to.
+         * @param length
+         *            the number of values to copy.
+         *
+         * @return the column holding the values.
+         */
+        Column copy(Column source, int offset, int length) {
+            Column column = this;
+
+            for (int i = 0; i < length; i++) {
+                column = column.set(offset + i, source.get(i));
+            }
+
+            return column;
+        }
+
+        /**
+         * Copies the value at the <code>source</code> index to the
+         * <code>target</code> index.
+         *
+         * @param source
+         *            the source index.
+         * @param target
+         *            the target index.
+         */
+        abstract void move(int source, int target);
+
+        /**
+         * Changes the length of the column.
+         *
+         * @param length
+         *            the new length.
+         */
+        abstract void resize(int length);
+
+        /**
+         * Returns the number of bytes used by the column values.
+         *
+         * @return the number of bytes used by the column values.
+         */
+        abstract long footprint();
+    }
+
+    /**
+     * Column of continuous values.
+     */
+    private static final class DoubleColumn extends Column {
+        private double[] values;
+
+        DoubleColumn(int length) {
+            values = new double[length];
+        }
+
+        @Override
+        double get(int index) {
+            return values[index];
+        }
+
+        @Override
+        Column set(int index, double value) {
+            values[index] = value;
+            return this;
+        }
+
+        @Override
+        Column copy(Column source, int offset, int length) {
+            if (source instanceof DoubleColumn) {
+                System.arraycopy(((DoubleColumn) source).values,
+                                 0,
+                                 values,
+                                 offset,
+                                 length);
+                return this;
+            }
+
+            return super.copy(source, offset, length);
+        }
+
+        @Override
+        void move(int source, int target) {
+            values[target] = values[source];
+        }
+
+        @Override
+        void resize(int length) {
+            values = Arrays.copyOf(values, length);
+        }
+
+        @Override
+        long footprint() {
+            return (long) values.length * Double.BYTES;
+        }
+    }
+
+    /**
+     * Column of nominal value indexes that fit in a <code>byte</code>.
+     */
+    private static final class ByteColumn extends Column {
+        private byte[] values;
+
+        ByteColumn(int length) {
+            values = new byte[length];
+        }
+
+        @Override
+        double get(int index) {
+            return values[index];
+        }
+
+        @Override
+        Column set(int index, double value) {
+            int code = (int) value;
+
+            if (code != (byte) code) {
+                ShortColumn wider = new ShortColumn(values.length);
+
+                for (int i = 0; i < values.length; i++) {
+                    wider.values[i] = values[i];
+                }
+
+                return wider.set(index, value);
+            }
+
+            values[index] = (byte) code;
+            return this;
+        }
+
+        @Override
+        Column copy(Column source, int offset, int length) {
+            if (source instanceof ByteColumn) {
+                System.arraycopy(((ByteColumn) source).values,
+                                 0,
+                                 values,
+                                 offset,
+                                 length);
+                return this;
+            }
+
+            return super.copy(source, offset, length);
+        }
+
+        @Override
+        void move(int source, int target) {
+            values[target] = values[source];
+        }
+
+        @Override
+        void resize(int length) {
+            values = Arrays.copyOf(values, length);
+        }
+
+        @Override
+        long footprint() {
+            return values.length;
+        }
+    }
+
+    /**
+     * Column of nominal value indexes that fit in a <code>short</code>.
+     */
+    private static final class ShortColumn extends Column {
+        private short[] values;
+
+        ShortColumn(int length) {
+            values = new short[length];
+        }
+
+        @Override
+        double get(int index) {
+            return values[index];
+        }
+
+        @Override
+        Column set(int index, double value) {
+            int code = (int) value;
+
+            if (code != (short) code) {
+                IntColumn wider = new IntColumn(values.length);
+
+                for (int i = 0; i < values.length; i++) {
+                    wider.values[i] = values[i];
+                }
+
+                return wider.set(index, value);
+            }
+
+            values[index] = (short) code;
+            return this;
+        }
+
+        @Override
+        Column copy(Column source, int offset, int length) {
+            if (source instanceof ShortColumn) {
+                System.arraycopy(((ShortColumn) source).values,
+                                 0,
+                                 values,
+                                 offset,
+                                 length);
+                return this;
+            }
+
+            return super.copy(source, offset, length);
+        }
+
+        @Override
+        void move(int source, int target) {
+            values[target] = values[source];
+        }
+
+        @Override
+        void resize(int length) {
+            values = Arrays.copyOf(values, length);
+        }
+
+        @Override
+        long footprint() {
+            return (long) values.length * Short.BYTES;
+        }
+    }
+
+    /**
+     * Column of nominal value indexes (or class label codes).
+     */
+    private static final class IntColumn extends Column {
+        private int[] values;
+
+        IntColumn(int length) {
+            values = new int[length];
+        }
+
+        @Override
+        double get(int index) {
+            return values[index];
+        }
+
+        @Override
+        Column set(int index, double value) {
+            values[index] = (int) value;
+            return this;
+        }
+
+        @Override
+        Column copy(Column source, int offset, int length) {
+            if (source instanceof IntColumn) {
+                System.arraycopy(((IntColumn) source).values,
+                                 0,
+                                 values,
+                                 offset,
+                                 length);
+                return this;
+            }
+
+            return super.copy(source, offset, length);
+        }
+
+        @Override
+        void move(int source, int target) {
+            values[target] = values[source];
+        }
+
+        @Override
+        void resize(int length) {
+            values = Arrays.copyOf(values, length);
+        }
+
+        @Override
+        long footprint() {
+            return (long) values.length * Integer.BYTES;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * Coverage.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.datamining;
+
+import static myra.datamining.Dataset.COVERED;
+import static myra.datamining.Dataset.NOT_COVERED;
+import static myra.datamining.Dataset.RULE_COVERED;
+
+import java.util.Arrays;
+
+/**
+ * This class represents the coverage state of the instances of a dataset: a
+ * coverage flag and a weight for each instance. The state is held in primitive
+ * arrays (struct-of-arrays layout); the weights array is only allocated when an
+ * instance is given a weight different than <code>1.0</code>, since most of
+ * the time all instances have unit weight.
+ * 
+ * <p>
+ * The {@link Dataset#COVERED} flags are also kept in a bitset, so that the
+ * instances still available can be combined word-wise with term coverage
+ * bitsets (see {@link #apply(long[])}).
+ * </p>
+ *
+ * @see Dataset#NOT_COVERED
+ * @see Dataset#RULE_COVERED
+ * @see Dataset#COVERED
+ *
+ * @author Fernando Esteban Barril Otero
+ */
+public final class Coverage {
+    /**
+     * The coverage flag of each instance.
+     */
+    private byte[] flags;
+
+    /**
+     * The weight of each instance; <code>null</code> if all instances have
+     * unit weight.
+     */
+    private double[] weights;
+
+    /**
+     * The bitset of the instances flagged as {@link Dataset#COVERED}.
+     */
+    private long[] covered;
+
+    /**
+     * Creates a new coverage state for the specified number of instances. All
+     * instances are {@link Dataset#NOT_COVERED} and have unit weight.
+     *
+     * @param size
+     *            the number of instances.
+     */
+    public Coverage(int size) {
+        // NOT_COVERED is the default (zero) value of the array
+        flags = new byte[size];
+        covered = Bitset.create(size);
+    }
+
+    /**
+     * Returns the number of instances.
+     *
+     * @return the number of instances.
+     */
+    public int size() {
+        return flags.length;
+    }
+
+    /**
+     * Returns the coverage flag of an instance.
+     *
+     * @param index
+     *            the instance index.
+     *
+     * @return the coverage flag of the instance.
+     */
+    public byte flag(int index) {
+        return flags[index];
+    }
+
+    /**
+     * Sets the coverage flag of an instance.
+     *
+     * @param index
+     *            the instance index.
+     * @param flag
+     *            the flag to set.
+     */
+    public void flag(int index, byte flag) {
+        flags[index] = flag;
+
+        if (flag == COVERED) {
+            Bitset.set(covered, index);
+        } else {
+            Bitset.clear(covered, index);
+        }
+    }
+
+    /**
+     * Returns the weight of an instance.
+     *
+     * @param index
+     *            the instance index.
+     *
+     * @return the weight of the instance.
+     */
+    public double weight(int index) {
+        return weights == null ? 1.0 : weights[index];
+    }
+
+    /**
+     * Sets the weight of an instance.
+     *
+     * @param index
+     *            the instance index.
+     * @param weight
+     *            the weight to set.
+     */
+    public void weight(int index, double weight) {
+        if (weights == null) {
+            if (weight == 1.0) {
+                return;
+            }
+
+            weights = new double[flags.length];
+            Arrays.fill(weights, 1.0);
+        }
+
+        weights[index] = weight;
+    }
+
+    /**
+     * Returns <code>true</code> if any instance might have a weight different
+     * than <code>1.0</code>.
+     *
+     * @return <code>true</code> if any instance might have a weight different
+     *         than <code>1.0</code>; <code>false</code> if all instances have
+     *         unit weight.
+     */
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    /**
+     * Returns the number of instances with the specified flag.
+     *
+     * @param flag
+     *            the flag to look for.
+     *
+     * @return the number of instances with the specified flag.
+     */
+    public int count(byte flag) {
+        int count = 0;
+
+        for (int i = 0; i < flags.length; i++) {
+            if (flags[i] == flag) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Sets the flags of all instances to the specified flag.
+     *
+     * @param flag
+     *            the flag to set.
+     */
+    public void markAll(byte flag) {
+        Arrays.fill(flags, flag);
+
+        if (flag == COVERED) {
+            Bitset.fill(covered, flags.length);
+        } else {
+            Arrays.fill(covered, 0);
+        }
+    }
+
+    /**
+     * Sets the <code>from</code> flags to the specified <code>to</code> flag.
+     *
+     * @param from
+     *            the original flag.
+     * @param to
+     *            the flag to set.
+     */
+    public void mark(byte from, byte to) {
+        for (int i = 0; i < flags.length; i++) {
+            if (flags[i] == from) {
+                flag(i, to);
+            }
+        }
+    }
+
+    /**
+     * Returns the bitset of the instances flagged as {@link Dataset#COVERED}.
+     * The bitset is part of the coverage state and must not be modified.
+     * 
+     * @return the bitset of the instances flagged as {@link Dataset#COVERED}.
+     */
+    public long[] coveredBitset() {
+        return covered;
+    }
+
+    /**
+     * Flags the instances not previously {@link Dataset#COVERED} according to
+     * the specified rule coverage bitset: instances in the bitset are flagged
+     * as {@link Dataset#RULE_COVERED}, the remaining ones as
+     * {@link Dataset#NOT_COVERED}. On return, the bitset contains only the
+     * instances flagged as {@link Dataset#RULE_COVERED}.
+     * 
+     * @param rule
+     *            the bitset of the instances covered by a rule; it is
+     *            modified by this method.
+     * 
+     * @return the number of instances flagged as
+     *         {@link Dataset#RULE_COVERED}.
+     */
+    public int apply(long[] rule) {
+        int total = 0;
+
+        for (int w = 0; w < covered.length; w++) {
+            int offset = w << 6;
+            long available = ~covered[w];
+
+            if (offset + 64 > flags.length) {
+                available &= -1L >>> (64 - (flags.length - offset));
+            }
+
+            long hit = rule[w] & available;
+            rule[w] = hit;
+            total += Long.bitCount(hit);
+
+            while (available != 0) {
+                int bit = Long.numberOfTrailingZeros(available);
+                flags[offset + bit] =
+                        ((hit >>> bit) & 1L) != 0 ? RULE_COVERED : NOT_COVERED;
+                available &= available - 1;
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * Resets the coverage state: all instances are marked as
+     * {@link Dataset#NOT_COVERED} and have unit weight.
+     */
+    public void reset() {
+        Arrays.fill(flags, NOT_COVERED);
+        Arrays.fill(covered, 0);
+        weights = null;
+    }
+
+    /**
+     * Returns a copy of this coverage state.
+     *
+     * @return a copy of this coverage state.
+     */
+    public Coverage copy() {
+        Coverage copy = new Coverage(0);
+        copy.flags = flags.clone();
+        copy.covered = covered.clone();
+        copy.weights = (weights == null) ? null : weights.clone();
+
+        return copy;
+    }
+
+    /**
+     * Copies this coverage state into the specified coverage, reusing its
+     * arrays whenever possible. Both must have the same number of instances.
+     *
+     * @param target
+     *            the coverage to copy into.
+     *
+     * @return the target coverage.
+     */
+    public Coverage copyInto(Coverage target) {
+        if (target.flags.length != flags.length) {
+            throw new IllegalArgumentException("Invalid coverage size: "
+                    + target.flags.length + " (expected " + flags.length
+                    + ")");
+        }
+
+        System.arraycopy(flags, 0, target.flags, 0, flags.length);
+        System.arraycopy(covered, 0, target.covered, 0, covered.length);
+
+        if (weights == null) {
+            target.weights = null;
+        } else if (target.weights == null) {
+            target.weights = weights.clone();
+        } else {
+            System.arraycopy(weights, 0, target.weights, 0, weights.length);
+        }
+
+        return target;
+    }
+
+    /**
+     * Returns a string representation of the instances' flags.
+     *
+     * @return a string representation of the instances' flags.
+     */
+    @Override
+    public String toString() {
+        StringBuffer output = new StringBuffer();
+        output.append("[");
+
+        for (byte flag : flags) {
+            output.append(" ");
+            output.append(flag);
+        }
+
+        output.append(" ]");
+
+        return output.toString();
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * CoverageCache.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.datamining;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import myra.Config.ConfigKey;
+import myra.datamining.Attribute.Condition;
+
+/**
+ * Bounded cache of condition coverage bitsets. Conditions are looked up by
+ * their content (attribute, relation and values), so the fixed conditions of
+ * the nominal vertices of the construction graph are shared by all ants, and
+ * equal intervals produced by the dynamic discretisation of continuous
+ * attributes are only evaluated once. Bitsets are only reused for the same
+ * dataset while it is not modified.
+ *
+ * <p>
+ * The cache is thread-safe and evicts the least recently used bitsets when
+ * their total size exceeds the memory budget. Datasets are only weakly
+ * referenced, so the cache does not keep (e.g., bootstrap) datasets alive:
+ * the bitsets of a dataset are discarded once it is garbage collected.
+ * </p>
+ *
+ * @see Bitset#of(Dataset, Condition)
+ *
+ * @author Fernando Esteban Barril Otero
+ */
+public final class CoverageCache {
+    /**
+     * The config key for the memory budget of the cache (in megabytes).
+     */
+    public final static ConfigKey<Integer> CACHE_SIZE = new ConfigKey<>();
+
+    /**
+     * The config key for the coverage cache shared by the current run.
+     */
+    public final static ConfigKey<CoverageCache> COVERAGE_CACHE =
+            new ConfigKey<>();
+
+    /**
+     * Approximate memory overhead of each entry, in bytes.
+     */
+    private static final long OVERHEAD = 128;
+
+    /**
+     * The cached bitsets, in access order.
+     */
+    private final LinkedHashMap<Key, long[]> entries;
+
+    /**
+     * The keys whose dataset has been garbage collected.
+     */
+    private final ReferenceQueue<Dataset> collected;
+
+    /**
+     * The memory budget, in bytes.
+     */
+    private final long budget;
+
+    /**
+     * The memory used by the cached bitsets, in bytes.
+     */
+    private long memory;
+
+    /**
+     * The number of lookups answered by the cache.
+     */
+    private long hits;
+
+    /**
+     * The number of lookups that required computing the bitset.
+     */
+    private long misses;
+
+    /**
+     * The number of bitsets evicted.
+     */
+    private long evictions;
+
+    /**
+     * Creates a new coverage cache.
+     *
+     * @param budget
+     *            the memory budget, in bytes.
+     */
+    public CoverageCache(long budget) {
+        this.budget = budget;
+        entries = new LinkedHashMap<>(64, 0.75f, true);
+        collected = new ReferenceQueue<>();
+    }
+
+    /**
+     * Returns the bitset of the instances of the dataset that satisfy the
+     * specified condition. The bitset is computed if not cached; the returned
+     * array is shared and must not be modified.
+     *
+     * @param dataset
+     *            the current dataset.
+     * @param condition
+     *            the attribute condition.
+     *
+     * @return the bitset of the instances that satisfy the condition.
+     */
+    public long[] get(Dataset dataset, Condition condition) {
+        Key key = new Key(dataset, condition, collected);
+
+        synchronized (this) {
+            long[] bits = entries.get(key);
+
+            if (bits != null) {
+                hits++;
+                return bits;
+            }
+
+            misses++;
+        }
+
+        // computed outside the lock, so that ants evaluating different
+        // conditions do not wait for each other
+        long[] bits = Bitset.of(dataset, condition);
+        long size = size(bits);
+
+        if (size <= budget) {
+            synchronized (this) {
+                purge();
+                long[] previous = entries.put(key, bits);
+
+                if (previous == null) {
+                    memory += size;
+                    evict();
+                }
+            }
+        }
+
+        return bits;
+    }
+
+    /**
+     * Removes the bitsets of datasets that have been garbage collected.
+     */
+    private void purge() {
+        Object key;
+
+        while ((key = collected.poll()) != null) {
+            long[] bits = entries.remove(key);
+
+            if (bits != null) {
+                memory -= size(bits);
+            }
+        }
+    }
+
+    /**
+     * Removes the least recently used bitsets until the memory used is within
+     * the budget.
+     */
+    private void evict() {
+        Iterator<long[]> iterator = entries.values().iterator();
+
+        while (memory > budget && iterator.hasNext()) {
+            memory -= size(iterator.next());
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Returns the (approximate) memory used by a cached bitset.
+     *
+     * @param bits
+     *            the bitset.
+     *
+     * @return the memory used by the bitset, in bytes.
+     */
+    private static long size(long[] bits) {
+        return ((long) bits.length * Long.BYTES) + OVERHEAD;
+    }
+
+    /**
+     * Removes all bitsets from the cache. The counters are not reset.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        memory = 0;
+
+        while (collected.poll() != null) {
+            // discards references of removed keys
+        }
+    }
+
+    /**
+     * Returns the number of cached bitsets.
+     *
+     * @return the number of cached bitsets.
+     */
+    public synchronized int size() {
+        purge();
+        return entries.size();
+    }
+
+    /**
+     * Returns the (approximate) memory used by the cached bitsets.
+     *
+     * @return the memory used by the cached bitsets, in bytes.
+     */
+    public synchronized long memory() {
+        purge();
+        return memory;
+    }
+
+    /**
+     * Returns the number of lookups answered by the cache.
+     *
+     * @return the number of lookups answered by the cache.
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that required computing the bitset.
+     *
+     * @return the number of lookups that required computing the bitset.
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of bitsets evicted.
+     *
+     * @return the number of bitsets evicted.
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        long lookups = hits + misses;
+
+        return String.format("%d hits, %d misses (%.1f%% hit rate), "
+                + "%d evictions, %d entries (%.1f MB)",
+                             hits,
+                             misses,
+                             lookups == 0 ? 0.0 : (100.0 * hits) / lookups,
+                             evictions,
+                             entries.size(),
+                             memory / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Cache key: a snapshot of the condition content and the dataset state. The
+     * key is a weak reference to the dataset, which is enqueued when the
+     * dataset is garbage collected.
+     */
+    private static final class Key extends WeakReference<Dataset> {
+        /**
+         * The modification count of the dataset.
+         */
+        private final int modifications;
+
+        /**
+         * The attribute index.
+         */
+        private final int attribute;
+
+        /**
+         * The relation type.
+         */
+        private final short relation;
+
+        /**
+         * The value(s) of the condition.
+         */
+        private final double[] value;
+
+        /**
+         * The hash code of the key.
+         */
+        private final int hash;
+
+        /**
+         * Creates a new key.
+         *
+         * @param dataset
+         *            the current dataset.
+         * @param condition
+         *            the attribute condition.
+         * @param queue
+         *            the queue of collected datasets.
+         */
+        Key(Dataset dataset,
+            Condition condition,
+            ReferenceQueue<Dataset> queue) {
+            super(dataset, queue);
+            this.modifications = dataset.modifications();
+            this.attribute = condition.attribute;
+            this.relation = condition.relation;
+            // only the interval and set relations use more than one value
+            this.value = (relation == Attribute.IN_RANGE
+                    || relation == Attribute.ANY_OF) ? condition.value.clone()
+                            : new double[] { condition.value[0] };
+
+            int h = System.identityHashCode(dataset);
+            h = 31 * h + modifications;
+            h = 31 * h + attribute;
+            h = 31 * h + relation;
+            hash = 31 * h + Arrays.hashCode(value);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            if (this == o) {
+                // a key whose dataset was collected only equals itself
+                return true;
+            }
+
+            Key other = (Key) o;
+            Dataset dataset = get();
+
+            return hash == other.hash && dataset != null
+                    && dataset == other.get()
+                    && modifications == other.modifications
+                    && attribute == other.attribute
+                    && relation == other.relation
+                    && Arrays.equals(value, other.value);
+        }
+    }
+}
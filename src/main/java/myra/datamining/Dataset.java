@@ -28,6 +28,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 
+import myra.Config.ConfigKey;
 import myra.classification.Classifier;
 import myra.classification.Label;
 import myra.datamining.Hierarchy.Node;
@@ -39,6 +40,11 @@ import myra.ensemble.bagging.FeatureBagging;
  * @author Fernando Esteban Barril Otero
  */
 public final class Dataset {
+    /**
+     * The config key for the in-memory layout of the instances.
+     */
+    public final static ConfigKey<Storage.Type> STORAGE = new ConfigKey<>();
+
     /**
      * The index representing a missing value.
      */
@@ -75,10 +81,15 @@ public final class Dataset {
     private Attribute[] attributes;
 
     /**
-     * The instances of the dataset, represented as an array. Each instance has
-     * the length of <code>attributes.length</code>.
+     * The type of storage used to hold the instances.
+     */
+    private Storage.Type type;
+
+    /**
+     * The instances of the dataset. The storage is created when the first
+     * instance is added, since its layout depends on the attributes.
      */
-    private double[] instances;
+    private Storage storage;
 
     /**
      * Class frequency distribution (only valid for classification problems).
@@ -99,18 +110,51 @@ public final class Dataset {
      * Instance labels for hierarchical/multi-label problems.
      */
     private Label[] labels;
+
+    /**
+     * Indicates whether the dataset is frozen (no more instances can be
+     * added).
+     */
+    private boolean frozen;
     
     /**
      * Bagging mask
      */
     private double[] baggingMasks;
+
     /**
-     * Default constructor.
+     * The number of times instances have been added to or removed from the
+     * dataset.
+     */
+    private int modifications;
+
+    /**
+     * The bitsets of the instances of each class value, built on demand.
+     */
+    private volatile long[][] classes;
+
+    /**
+     * The sorted indexes of the continuous attributes, built on demand.
+     */
+    private volatile SortedIndex[] sorted;
+
+    /**
+     * Default constructor. The instances are stored using a row-major layout.
      */
     public Dataset() {
+        this(Storage.Type.ROW);
+    }
+
+    /**
+     * Creates a new dataset using the specified storage layout.
+     * 
+     * @param type
+     *            the type of storage used to hold the instances.
+     */
+    public Dataset(Storage.Type type) {
+        this.type = type;
         attributes = new Attribute[0];
         baggingMasks = new double[0];
-        instances = new double[0];
         distribution = new double[0];
         labels = new Label[0];
         mean = 0;
@@ -198,7 +242,7 @@ public final class Dataset {
      * @return the number of instances in the dataset.
      */
     public final int size() {
-        return (instances.length / attributes.length);
+        return storage == null ? 0 : storage.size();
     }
 
     /**
@@ -215,7 +259,7 @@ public final class Dataset {
         int count = 0;
 
         for (int i = 0; i < size(); i++) {
-            if (instances[(i * attributes.length) + classIndex()] == value) {
+            if (storage.value(i, classIndex()) == value) {
                 count++;
             }
         }
@@ -230,7 +274,7 @@ public final class Dataset {
      *            the attribute to add.
      */
     public void add(Attribute attribute) {
-        if (instances.length > 0) {
+        if (frozen || size() > 0) {
             throw new IllegalStateException("Dataset metadata cannot"
                     + " change after adding instances.");
         }
@@ -250,7 +294,7 @@ public final class Dataset {
      *            the attribute to be removed.
      */
     public void remove(Attribute attribute) {
-        if (instances.length > 0) {
+        if (frozen || size() > 0) {
             throw new IllegalStateException("Dataset metadata cannot"
                     + " change after adding instances.");
         }
@@ -282,6 +326,8 @@ public final class Dataset {
      *            the values of the instance to add.
      */
     public void add(String[] values) {
+        checkFrozen();
+
         if (values.length != attributes.length) {
             throw new IllegalArgumentException("Invalid instance length: "
                     + values.length + " (expected " + attributes.length + ")");
@@ -290,65 +336,126 @@ public final class Dataset {
         double[] instance = new double[attributes.length];
 
         for (int i = 0; i < attributes.length; i++) {
-            if (values[i].equals(MISSING_VALUE)) {
-                switch (attributes[i].getType()) {
-                case NOMINAL:
-                    instance[i] = MISSING_VALUE_INDEX;
-                    break;
-
-                case CONTINUOUS:
-                    instance[i] = Double.NaN;
-                    break;
-                }
-            } else if (attributes[i].getType() == CONTINUOUS) {
-                instance[i] = Double.parseDouble(values[i]);
-            } else if (attributes[i].getType() == NOMINAL) {
-                // are we dealing with a hierarchical problem?
-                if (i == classIndex() && hierarchy != null) {
-                    HashSet<String> labels = new HashSet<String>();
-
-                    for (String label : values[i].split(Hierarchy.SEPARATOR)) {
-                        labels.add(hierarchy.get(label).getLabel());
-
-                        for (Node ancestor : hierarchy.get(label)
-                                .getAncestors()) {
-                            labels.add(ancestor.getLabel());
-                        }
-                    }
+            instance[i] = toValue(i, values[i]);
+        }
 
-                    Label label = Label.toLabel(attributes[i], labels);
-                    instance[i] = label.hashCode();
+        add(instance);
+    }
 
-                    int length = this.labels.length;
-                    this.labels = Arrays.copyOf(this.labels, length + 1);
-                    this.labels[length] = label;
-                    // updates the class label frequency
-                    hierarchy.increment(label.active());
-                } else {
-                    int index = MISSING_VALUE_INDEX;
+    /**
+     * Adds an instance given in sparse form to the dataset. The values of the
+     * attributes not listed are implicitly zero, i.e., <code>0.0</code> for
+     * continuous attributes and the first value for nominal attributes.
+     * 
+     * @param indexes
+     *            the indexes of the attributes listed, in any order.
+     * @param values
+     *            the values of the attributes listed.
+     */
+    void add(int[] indexes, String[] values) {
+        checkFrozen();
 
-                    for (int j = 0; j < attributes[i].values().length; j++) {
-                        if (values[i].equals(attributes[i].value(j))) {
-                            index = j;
-                            break;
-                        }
-                    }
+        if (indexes.length != values.length) {
+            throw new IllegalArgumentException("Invalid sparse instance: "
+                    + indexes.length + " indexes and " + values.length
+                    + " values");
+        }
+
+        double[] instance = new double[attributes.length];
+        boolean target = false;
 
-                    // sanity check: did we find the value that we are looking
-                    // for or not?
-                    if (index == MISSING_VALUE_INDEX) {
-                        throw new IllegalArgumentException(String
-                                .format("Value for attribute %s not found: %s",
-                                        attributes[i].getName(),
-                                        values[i]));
+        for (int i = 0; i < indexes.length; i++) {
+            if (indexes[i] < 0 || indexes[i] >= attributes.length) {
+                throw new IllegalArgumentException("Invalid attribute index: "
+                        + indexes[i] + " (expected < " + attributes.length
+                        + ")");
+            }
+
+            instance[indexes[i]] = toValue(indexes[i], values[i]);
+            target |= (indexes[i] == classIndex());
+        }
+
+        if (!target && hierarchy != null) {
+            // the label of hierarchical problems must always be created
+            instance[classIndex()] =
+                    toValue(classIndex(), attributes[classIndex()].value(0));
+        }
+
+        add(instance);
+    }
+
+    /**
+     * Returns the internal representation of the value of an attribute. For
+     * hierarchical problems, the label of the instance being added is also
+     * recorded when the class value is converted.
+     * 
+     * @param i
+     *            the index of the attribute.
+     * @param value
+     *            the (string) value.
+     * 
+     * @return the internal representation of the value.
+     */
+    private double toValue(int i, String value) {
+        double converted = 0;
+
+        if (value.equals(MISSING_VALUE)) {
+            switch (attributes[i].getType()) {
+            case NOMINAL:
+                converted = MISSING_VALUE_INDEX;
+                break;
+
+            case CONTINUOUS:
+                converted = Double.NaN;
+                break;
+            }
+        } else if (attributes[i].getType() == CONTINUOUS) {
+            converted = Double.parseDouble(value);
+        } else if (attributes[i].getType() == NOMINAL) {
+            // are we dealing with a hierarchical problem?
+            if (i == classIndex() && hierarchy != null) {
+                HashSet<String> labels = new HashSet<String>();
+
+                for (String label : value.split(Hierarchy.SEPARATOR)) {
+                    labels.add(hierarchy.get(label).getLabel());
+
+                    for (Node ancestor : hierarchy.get(label)
+                            .getAncestors()) {
+                        labels.add(ancestor.getLabel());
                     }
+                }
+
+                Label label = Label.toLabel(attributes[i], labels);
+                converted = label.hashCode();
 
-                    instance[i] = index;
+                int length = size();
+
+                if (length == this.labels.length) {
+                    this.labels =
+                            Arrays.copyOf(this.labels,
+                                          Storage.grow(length, length + 1));
+                }
+
+                this.labels[length] = label;
+                // updates the class label frequency
+                hierarchy.increment(label.active());
+            } else {
+                int index = attributes[i].find(value);
+
+                // sanity check: did we find the value that we are looking
+                // for or not?
+                if (index == MISSING_VALUE_INDEX) {
+                    throw new IllegalArgumentException(String
+                            .format("Value for attribute %s not found: %s",
+                                    attributes[i].getName(),
+                                    value));
                 }
+
+                converted = index;
             }
         }
 
-        add(instance);
+        return converted;
     }
 
     /**
@@ -358,38 +465,199 @@ public final class Dataset {
      *            the values of the instance to add.
      */
     public void add(double[] values) {
+        checkFrozen();
+
         if (values.length != attributes.length) {
             throw new IllegalArgumentException("Invalid instance length: "
                     + values.length + " (expected " + attributes.length + ")");
         }
 
-        int offset = instances.length;
+        if (storage == null) {
+            storage = type.create(attributes);
+        }
+
+        storage.add(values);
+        update(storage.size() - 1);
+    }
+
+    /**
+     * Adds a copy of an instance of another dataset. Both datasets must share
+     * the same attributes.
+     * 
+     * @param source
+     *            the source dataset.
+     * @param index
+     *            the index of the instance in the source dataset.
+     */
+    void add(Dataset source, int index) {
+        checkFrozen();
+
+        if (storage == null) {
+            storage = type.create(attributes);
+        }
+
+        if (source.hierarchy != null) {
+            int length = size();
+
+            if (length == labels.length) {
+                labels = Arrays.copyOf(labels, Storage.grow(length, length + 1));
+            }
+
+            labels[length] = source.labels[index];
+        }
+
+        storage.add(source.storage, index);
+        update(storage.size() - 1);
+    }
+
+    /**
+     * Adds a copy of all instances of the specified storage. The storage must
+     * have the same attributes as the dataset.
+     * 
+     * @param source
+     *            the source storage.
+     */
+    void addAll(Storage source) {
+        checkFrozen();
+
+        if (storage == null) {
+            storage = type.create(attributes);
+        }
+
+        int offset = storage.size();
+        storage.addAll(source);
+
+        for (int i = offset; i < storage.size(); i++) {
+            update(i);
+        }
+    }
+
+    /**
+     * Sets the instances of the dataset from a pre-populated storage. The
+     * class statistics are computed from the storage and the dataset is
+     * frozen. This is used to back a dataset by an external storage.
+     * 
+     * @param storage
+     *            the storage holding the instances.
+     * @param labels
+     *            the instance labels (only valid for hierarchical problems).
+     */
+    void attach(Storage storage, Label[] labels) {
+        checkFrozen();
+
+        if (size() > 0) {
+            throw new IllegalStateException("Dataset is not empty.");
+        }
+
+        this.storage = storage;
+        modified();
+        int classIndex = classIndex();
+
+        if (hierarchy != null) {
+            this.labels = labels;
+
+            for (Label label : labels) {
+                hierarchy.increment(label.active());
+            }
+        } else if (attributes[classIndex].getType() == NOMINAL) {
+            distribution = new double[classLength()];
+
+            for (int i = 0; i < storage.size(); i++) {
+                distribution[(int) storage.value(i, classIndex)]++;
+            }
+        } else {
+            for (int i = 0; i < storage.size(); i++) {
+                mean += storage.value(i, classIndex);
+            }
+        }
+
+        frozen = true;
+    }
+
+    /**
+     * Makes sure that the dataset can hold at least the specified number of
+     * instances without growing.
+     * 
+     * @param capacity
+     *            the minimum number of instances.
+     */
+    void ensureCapacity(int capacity) {
+        checkFrozen();
+
+        if (storage == null) {
+            storage = type.create(attributes);
+        }
+
+        storage.ensureCapacity(capacity);
+    }
+
+    /**
+     * Releases any unused capacity and freezes the dataset. Once frozen,
+     * neither instances nor attributes can be added to the dataset.
+     */
+    void freeze() {
+        if (storage == null) {
+            storage = type.create(attributes);
+        }
+
+        storage.trim();
 
-        instances =
-                Arrays.copyOf(instances, instances.length + attributes.length);
+        if (hierarchy != null && labels.length > size()) {
+            labels = Arrays.copyOf(labels, size());
+        }
 
-        System.arraycopy(values, 0, instances, offset, values.length);
+        frozen = true;
+    }
 
+    /**
+     * Returns <code>true</code> if the dataset is frozen.
+     * 
+     * @return <code>true</code> if the dataset is frozen; <code>false</code>
+     *         otherwise.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Throws an <code>IllegalStateException</code> if the dataset is frozen.
+     */
+    private void checkFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("Dataset is frozen: instances"
+                    + " cannot be added.");
+        }
+    }
+
+    /**
+     * Updates the dataset statistics with the values of a new instance.
+     * 
+     * @param index
+     *            the index of the instance added.
+     */
+    private void update(int index) {
+        modified();
+        int classIndex = classIndex();
         // increments the class distribution
         // (if dealing with a classification problem)
-        if (attributes[classIndex()].getType() == NOMINAL
-                && hierarchy == null) {
+        if (attributes[classIndex].getType() == NOMINAL && hierarchy == null) {
             if (distribution.length == 0) {
                 distribution = new double[classLength()];
             }
 
-            distribution[(int) values[classIndex()]]++;
+            distribution[(int) storage.value(index, classIndex)]++;
         }
         // increments the mean
         // (if dealing with a regression problem)
-        else if (attributes[classIndex()].getType() == CONTINUOUS) {
-            mean += values[classIndex()];
+        else if (attributes[classIndex].getType() == CONTINUOUS) {
+            mean += storage.value(index, classIndex);
         }
 
-        for (int i = 0; i < values.length; i++) {
+        for (int i = 0; i < attributes.length; i++) {
             if (attributes[i].getType() == CONTINUOUS) {
-                attributes[i].lower(values[i]);
-                attributes[i].upper(values[i]);
+                double value = storage.value(index, i);
+                attributes[i].lower(value);
+                attributes[i].upper(value);
             }
         }
     }
@@ -403,18 +671,31 @@ public final class Dataset {
      * @return the values of the specified instance.
      */
     public double[] get(int index) {
-        double[] values = new double[attributes.length];
-        System.arraycopy(instances,
-                         index * values.length,
-                         values,
-                         0,
-                         values.length);
+        return storage.get(index);
+    }
 
-        return values;
+    /**
+     * Returns the indexes of the instances that have a non-zero value for the
+     * specified attribute, in ascending order. For nominal attributes, zero
+     * corresponds to the first value of the attribute. This information is
+     * only available when the dataset uses a {@link Storage.Type#SPARSE}
+     * storage; otherwise this method returns <code>null</code>. The returned
+     * array is shared with the storage and must not be modified.
+     * 
+     * @param attribute
+     *            the attribute index.
+     * 
+     * @return the indexes of the instances that have a non-zero value for the
+     *         attribute; <code>null</code> if the information is not
+     *         available.
+     */
+    public int[] nonZero(int attribute) {
+        return storage == null ? null : storage.nonZero(attribute);
     }
 
     /**
-     * Removes the specified instances from the dataset.
+     * Removes the specified instances from the dataset. The indexes must be
+     * sorted in ascending order.
      * 
      * @param indexes
      *            the array of indexes to remove.
@@ -422,11 +703,16 @@ public final class Dataset {
      * @return the size of the dataset after the removal of the instances.
      */
     public int remove(int... indexes) {
-        double[] resized = new double[instances.length
-                - (indexes.length * attributes.length)];
-
-        int current = 0;
-        int target = 0;
+        for (int i = 0; i < indexes.length; i++) {
+            if (indexes[i] < 0 || indexes[i] >= size()
+                    || (i > 0 && indexes[i] <= indexes[i - 1])) {
+                throw new IllegalArgumentException("Invalid instance index: "
+                        + indexes[i]);
+            }
+        }
+        // mapped storages are read-only: the instances are copied before
+        // any statistic is changed
+        storage = storage.writable();
 
         for (int removed : indexes) {
             if (attributes[classIndex()].getType() == NOMINAL) {
@@ -434,32 +720,92 @@ public final class Dataset {
                 distribution[(int) value(removed, classIndex())]--;
             } else if (attributes[classIndex()].getType() == CONTINUOUS) {
                 // updates the mean
-                mean -= distribution[(int) value(removed, classIndex())];
+                mean -= value(removed, classIndex());
             }
+        }
 
-            if (current == removed) {
-                current++;
-            } else {
-                int length = (removed - current) * attributes.length;
-                int source = current * attributes.length;
+        storage.remove(indexes);
+        modified();
 
-                System.arraycopy(instances, source, resized, target, length);
+        return size();
+    }
 
-                target += length;
-                current = removed + 1;
-            }
+    /**
+     * Records that instances have been added or removed, discarding any
+     * information derived from the previous instances.
+     */
+    private void modified() {
+        modifications++;
+        classes = null;
+        sorted = null;
+    }
+
+    /**
+     * Returns the number of times instances have been added to or removed
+     * from the dataset. Information derived from the instances (e.g., term
+     * coverage bitsets) is only valid while this number does not change.
+     * 
+     * @return the number of times instances have been added to or removed
+     *         from the dataset.
+     */
+    public int modifications() {
+        return modifications;
+    }
+
+    /**
+     * Returns the instances sorted by the values of the specified continuous
+     * attribute. The index of an attribute is built on the first call and
+     * reused until instances are added or removed.
+     * 
+     * @param attribute
+     *            the index of the continuous attribute.
+     * 
+     * @return the instances sorted by the values of the attribute.
+     */
+    public SortedIndex sortedIndex(int attribute) {
+        SortedIndex[] indexes = sorted;
+
+        if (indexes == null) {
+            indexes = new SortedIndex[attributes.length];
+            sorted = indexes;
         }
 
-        if (target != resized.length) {
-            int length = resized.length - target;
-            int source = current * attributes.length;
+        SortedIndex index = indexes[attribute];
 
-            System.arraycopy(instances, source, resized, target, length);
+        if (index == null) {
+            index = SortedIndex.create(this, attribute);
+            indexes[attribute] = index;
         }
 
-        this.instances = resized;
+        return index;
+    }
 
-        return size();
+    /**
+     * Returns the bitset of the instances of the specified class value. The
+     * bitsets of all class values are built on the first call.
+     * 
+     * @param value
+     *            the class value index.
+     * 
+     * @return the bitset of the instances of the specified class value.
+     * 
+     * @see Bitset
+     */
+    public long[] classBitset(int value) {
+        long[][] bitsets = classes;
+
+        if (bitsets == null) {
+            int classIndex = classIndex();
+            bitsets = new long[classLength()][Bitset.words(size())];
+
+            for (int i = 0; i < size(); i++) {
+                Bitset.set(bitsets[(int) storage.value(i, classIndex)], i);
+            }
+
+            classes = bitsets;
+        }
+
+        return bitsets[value];
     }
 
     /**
@@ -474,15 +820,15 @@ public final class Dataset {
      * 
      * @return the index of the majority class.
      */
-    public int findMajority(Instance[] instances, byte flag) {
+    public int findMajority(Coverage instances, byte flag) {
         int classIndex = classIndex();
         double[] frequencies =
                 new double[attributes[classIndex].values().length];
 
         for (int i = 0; i < size(); i++) {
-            if (instances[i].flag == flag) {
-                int index = (i * attributes.length) + classIndex;
-                frequencies[(int) this.instances[index]] += instances[i].weight;
+            if (instances.flag(i) == flag) {
+                frequencies[(int) storage.value(i, classIndex)] +=
+                        instances.weight(i);
             }
         }
 
@@ -620,7 +966,25 @@ public final class Dataset {
      * @return the attribute value of a given instance.
      */
     public double value(int instance, int attribute) {
-        return instances[(instance * attributes.length) + attribute];
+        return storage.value(instance, attribute);
+    }
+
+    /**
+     * Returns the type of storage used to hold the instances.
+     * 
+     * @return the type of storage used to hold the instances.
+     */
+    public Storage.Type getStorageType() {
+        return type;
+    }
+
+    /**
+     * Returns the number of bytes used to hold the instances' values.
+     * 
+     * @return the number of bytes used to hold the instances' values.
+     */
+    public long footprint() {
+        return storage == null ? 0 : storage.footprint();
     }
 
     /**
@@ -645,13 +1009,13 @@ public final class Dataset {
      * @return the number of available instances (<code>NOT_COVERED</code>
      *         instances).
      */
-    public static int markCovered(Instance[] covered) {
+    public static int markCovered(Coverage covered) {
         int available = 0;
 
-        for (int j = 0; j < covered.length; j++) {
-            if (covered[j].flag == RULE_COVERED) {
-                covered[j].flag = COVERED;
-            } else if (covered[j].flag == NOT_COVERED) {
+        for (int j = 0; j < covered.size(); j++) {
+            if (covered.flag(j) == RULE_COVERED) {
+                covered.flag(j, COVERED);
+            } else if (covered.flag(j) == NOT_COVERED) {
                 available++;
             }
         }
@@ -675,17 +1039,17 @@ public final class Dataset {
      * @return the number of correctly covered instances.
      */
     public static int markCorrect(Dataset dataset,
-                                  Instance[] covered,
+                                  Coverage covered,
                                   int predicted) {
         int marked = 0;
 
-        for (int j = 0; j < covered.length; j++) {
-            if (covered[j].flag == RULE_COVERED) {
+        for (int j = 0; j < covered.size(); j++) {
+            if (covered.flag(j) == RULE_COVERED) {
                 if (dataset.value(j, dataset.classIndex()) == predicted) {
-                    covered[j].flag = COVERED;
+                    covered.flag(j, COVERED);
                     marked++;
                 } else {
-                    covered[j].flag = NOT_COVERED;
+                    covered.flag(j, NOT_COVERED);
                 }
             }
         }
@@ -707,30 +1071,38 @@ public final class Dataset {
      * @return a copy of the dataset.
      */
     public static Dataset filter(Dataset dataset,
-                                 Instance[] covered,
+                                 Coverage covered,
                                  int flag) {
-        Dataset clone = new Dataset();
-        clone.attributes = dataset.attributes.clone();
-        clone.name = dataset.name;
+        int count = 0;
 
         for (int i = 0; i < dataset.size(); i++) {
-            if (covered[i].flag == flag) {
-                int start = clone.instances.length;
-                int length = dataset.attributes.length;
-
-                clone.instances =
-                        Arrays.copyOf(clone.instances,
-                                      start + clone.attributes.length);
-
-                System.arraycopy(dataset.instances,
-                                 (i * length),
-                                 clone.instances,
-                                 start,
-                                 length);
+            if (covered.flag(i) == flag) {
+                count++;
             }
         }
 
-        return clone;
+        DatasetBuilder builder = new DatasetBuilder(dataset, count);
+        builder.addAll(dataset, covered, flag);
+
+        return builder.build();
+    }
+
+    /**
+     * Returns a new (empty) dataset with the same metadata as the specified
+     * dataset.
+     * 
+     * @param dataset
+     *            the dataset to copy the metadata from.
+     * 
+     * @return a new (empty) dataset with the same metadata.
+     */
+    static Dataset header(Dataset dataset) {
+        Dataset header = new Dataset(dataset.type);
+        header.attributes = dataset.attributes.clone();
+        header.name = dataset.name;
+        header.hierarchy = dataset.hierarchy;
+
+        return header;
     }
 
     /**
@@ -778,130 +1150,4 @@ public final class Dataset {
 	    return this.baggingMasks;
 	return null;
     }
-
-    /**
-     * Struct-like class to hold the information about an instance.
-     */
-    public static final class Instance implements Cloneable {
-        /**
-         * The weight of the instance.
-         */
-        public double weight = 1.0;
-
-        /**
-         * The coverage flag of the instance.
-         */
-        public byte flag = NOT_COVERED;
-
-        /**
-         * Default constructor.
-         */
-        public Instance() {
-            this(1.0, NOT_COVERED);
-        }
-
-        /**
-         * Create a new <code>Instance</code>.
-         * 
-         * @param weight
-         *            the weight of the instance.
-         * @param flag
-         *            the covered flag of the instance.
-         */
-        public Instance(double weight, byte flag) {
-            this.weight = weight;
-            this.flag = flag;
-        }
-
-        /**
-         * Returns a new instance array.
-         * 
-         * @param size
-         *            the size of the array.
-         * 
-         * @return a new instance array.
-         */
-        public static Instance[] newArray(int size) {
-            Instance[] instances = new Instance[size];
-
-            for (int i = 0; i < size; i++) {
-                instances[i] = new Instance();
-            }
-
-            return instances;
-        }
-
-        /**
-         * Returns a string representation of the instances' flags.
-         * 
-         * @param instances
-         *            the array of instances.
-         * 
-         * @return a string representation of the instances' flags.
-         */
-        public static String toString(Instance[] instances) {
-            StringBuffer output = new StringBuffer();
-            output.append("[");
-
-            for (Instance instance : instances) {
-                output.append(" ");
-                output.append(instance.flag);
-            }
-
-            output.append(" ]");
-
-            return output.toString();
-        }
-
-        /**
-         * Returns a copy of the specified instance array.
-         * 
-         * @param instances
-         *            the instance array.
-         * 
-         * @return a copy of the specified instance array.
-         */
-        public static Instance[] copyOf(Instance[] instances) {
-            Instance[] copy = new Instance[instances.length];
-
-            for (int i = 0; i < copy.length; i++) {
-                copy[i] = new Instance(instances[i].weight, instances[i].flag);
-            }
-
-            return copy;
-        }
-
-        /**
-         * Sets the instances' flags to the specified flag.
-         * 
-         * @param instances
-         *            the instance array.
-         * @param flag
-         *            the flag to set.
-         */
-        public static void markAll(Instance[] instances, byte flag) {
-            for (int i = 0; i < instances.length; i++) {
-                instances[i].flag = flag;
-            }
-        }
-
-        /**
-         * Sets the <code>from</code> flags to the specified <code>to</code>
-         * flag.
-         * 
-         * @param instances
-         *            the instance array.
-         * @param from
-         *            the original flag.
-         * @param to
-         *            the flag to set.
-         */
-        public static void mark(Instance[] instances, byte from, byte to) {
-            for (int i = 0; i < instances.length; i++) {
-                if (instances[i].flag == from) {
-                    instances[i].flag = to;
-                }
-            }
-        }
-    }
-}
\ No newline at end of file
+}
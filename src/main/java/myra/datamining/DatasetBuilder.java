@@ -0,0 +1,215 @@
+/*
+ * DatasetBuilder.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.datamining;
+
+
+/**
+ * This class is used to populate a {@link Dataset} with instances. The
+ * underlying storage grows geometrically, so adding <i>n</i> instances takes
+ * <i>O(n)</i> time; a capacity hint can be used to avoid growing the storage
+ * altogether. The dataset returned by {@link #build()} has its unused capacity
+ * released and is frozen, i.e., no more instances can be added to it.
+ *
+ * @author Fernando Esteban Barril Otero
+ */
+public final class DatasetBuilder {
+    /**
+     * The dataset being populated.
+     */
+    private Dataset dataset;
+
+    /**
+     * Creates a new builder. The dataset created will have the same metadata
+     * (name, attributes, hierarchy and storage type) as the specified
+     * dataset, but none of its instances.
+     *
+     * @param header
+     *            the dataset to copy the metadata from.
+     */
+    public DatasetBuilder(Dataset header) {
+        this(header, 0);
+    }
+
+    /**
+     * Creates a new builder. The dataset created will have the same metadata
+     * (name, attributes, hierarchy and storage type) as the specified
+     * dataset, but none of its instances.
+     *
+     * @param header
+     *            the dataset to copy the metadata from.
+     * @param capacity
+     *            the expected number of instances.
+     */
+    public DatasetBuilder(Dataset header, int capacity) {
+        dataset = Dataset.header(header);
+        ensureCapacity(capacity);
+    }
+
+    /**
+     * Makes sure that the dataset can hold at least the specified number of
+     * instances without growing.
+     *
+     * @param capacity
+     *            the minimum number of instances.
+     */
+    public void ensureCapacity(int capacity) {
+        check();
+
+        if (capacity > 0) {
+            dataset.ensureCapacity(capacity);
+        }
+    }
+
+    /**
+     * Adds an instance to the dataset.
+     *
+     * @param values
+     *            the values of the instance to add.
+     */
+    public void add(String[] values) {
+        check();
+        dataset.add(values);
+    }
+
+    /**
+     * Adds an instance to the dataset.
+     *
+     * @param values
+     *            the values of the instance to add.
+     */
+    public void add(double[] values) {
+        check();
+        dataset.add(values);
+    }
+
+    /**
+     * Adds an instance given in sparse form to the dataset. The values of the
+     * attributes not listed are implicitly zero, i.e., <code>0.0</code> for
+     * continuous attributes and the first value for nominal attributes.
+     *
+     * @param indexes
+     *            the indexes of the attributes listed.
+     * @param values
+     *            the values of the attributes listed.
+     */
+    public void add(int[] indexes, String[] values) {
+        check();
+        dataset.add(indexes, values);
+    }
+
+    /**
+     * Adds a copy of an instance of another dataset. Both datasets must share
+     * the same attributes.
+     *
+     * @param source
+     *            the source dataset.
+     * @param index
+     *            the index of the instance in the source dataset.
+     */
+    public void add(Dataset source, int index) {
+        check();
+        dataset.add(source, index);
+    }
+
+    /**
+     * Adds a copy of all instances of another dataset. Both datasets must
+     * share the same attributes.
+     *
+     * @param source
+     *            the source dataset.
+     */
+    public void addAll(Dataset source) {
+        check();
+        dataset.ensureCapacity(dataset.size() + source.size());
+
+        for (int i = 0; i < source.size(); i++) {
+            dataset.add(source, i);
+        }
+    }
+
+    /**
+     * Adds a copy of the instances of another dataset associated with the
+     * specified flag. Both datasets must share the same attributes.
+     *
+     * @param source
+     *            the source dataset.
+     * @param covered
+     *            the instance array information.
+     * @param flag
+     *            the instances flag.
+     */
+    public void addAll(Dataset source, Coverage covered, int flag) {
+        check();
+
+        for (int i = 0; i < source.size(); i++) {
+            if (covered.flag(i) == flag) {
+                dataset.add(source, i);
+            }
+        }
+    }
+
+    /**
+     * Adds a copy of all instances of the specified storage. The storage must
+     * have the same attributes as the dataset.
+     *
+     * @param source
+     *            the source storage.
+     */
+    void addAll(Storage source) {
+        check();
+        dataset.addAll(source);
+    }
+
+    /**
+     * Returns the number of instances added so far.
+     *
+     * @return the number of instances added so far.
+     */
+    public int size() {
+        check();
+        return dataset.size();
+    }
+
+    /**
+     * Returns the dataset. The dataset is trimmed to its size and frozen;
+     * after this method is called, the builder cannot be used anymore.
+     *
+     * @return the dataset.
+     */
+    public Dataset build() {
+        check();
+
+        Dataset built = dataset;
+        built.freeze();
+        dataset = null;
+
+        return built;
+    }
+
+    /**
+     * Throws an <code>IllegalStateException</code> if the dataset has already
+     * been built.
+     */
+    private void check() {
+        if (dataset == null) {
+            throw new IllegalStateException("Dataset has already been built.");
+        }
+    }
+}
@@ -20,11 +20,11 @@
 package myra.datamining;
 
 import static myra.Config.CONFIG;
+import static myra.datamining.Dataset.RULE_COVERED;
 
 import myra.Config.ConfigKey;
 import myra.datamining.Attribute.Condition;
 import myra.datamining.Attribute.Type;
-import myra.datamining.Dataset.Instance;
 
 /**
  * The <code>IntervalBuilder</code> handles continuous attributes
@@ -73,7 +73,7 @@ public abstract class IntervalBuilder {
      *         specified attribute
      */
     public abstract Condition[] multiple(Dataset dataset,
-                                         Instance[] instances,
+                                         Coverage instances,
                                          int attribute);
 
     /**
@@ -91,7 +91,7 @@ public abstract class IntervalBuilder {
      *         specified attribute
      */
     public abstract Condition single(Dataset dataset,
-                                     Instance[] instances,
+                                     Coverage instances,
                                      int attribute);
 
     /**
@@ -120,46 +120,26 @@ public abstract class IntervalBuilder {
     }
 
     /**
-     * This class represents a (value,class) pair.
+     * Returns the number of instances of the sorted index that are flagged as
+     * {@link Dataset#RULE_COVERED}, which are the candidate values of the
+     * dynamic discretisation.
+     * 
+     * @param sorted
+     *            the sorted index of the attribute.
+     * @param instances
+     *            the covered instances flags.
+     * 
+     * @return the number of candidate values.
      */
-    public static class Pair implements Comparable<Pair> {
-        /**
-         * The value of the pair.
-         */
-        public double value;
+    protected static int covered(SortedIndex sorted, Coverage instances) {
+        int covered = 0;
 
-        /**
-         * The class value of the pair.
-         */
-        public double classValue;
-
-        /**
-         * The weight of the pair.
-         */
-        public double weight;
-
-        /**
-         * Compares this <code>Pair</code> with the specified <code>Pair</code>
-         * value. The sign of the integer value returned is the same as that of
-         * the integer that would be returned by the call:
-         * 
-         * <pre>
-         * new Double(this.value).compareTo(new Double(o.value))
-         * </pre>
-         * 
-         * @param o
-         *            the <code>Pair</code> to compare against.
-         */
-        public int compareTo(Pair o) {
-            return Double.compare(value, o.value);
+        for (int k = 0; k < sorted.size(); k++) {
+            if (instances.flag(sorted.instances[k]) == RULE_COVERED) {
+                covered++;
+            }
         }
 
-        @Override
-        public String toString() {
-            return String.format("(v=%.6f, c=%.0f, w=%.4f)",
-                                 value,
-                                 classValue,
-                                 weight);
-        }
+        return covered;
     }
 }
\ No newline at end of file
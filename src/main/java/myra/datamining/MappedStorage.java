@@ -0,0 +1,172 @@
+/*
+ * MappedStorage.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.datamining;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * Read-only column-major storage backed by (memory-mapped) buffers. Each
+ * column is a view over a region of a binary dataset file, so no copy of the
+ * values is made when the dataset is loaded. The values are copied into a
+ * {@link ColumnStorage} the first time instances are removed (see
+ * {@link #writable()}).
+ *
+ * @see BinaryReader
+ *
+ * @author Fernando Esteban Barril Otero
+ */
+final class MappedStorage extends Storage {
+    /**
+     * The number of bytes of each value of a column.
+     */
+    private final int[] width;
+
+    /**
+     * The columns of 8-byte (continuous) values.
+     */
+    private final DoubleBuffer[] doubles;
+
+    /**
+     * The columns of 4-byte values.
+     */
+    private final IntBuffer[] ints;
+
+    /**
+     * The columns of 2-byte values.
+     */
+    private final ShortBuffer[] shorts;
+
+    /**
+     * The columns of 1-byte values.
+     */
+    private final ByteBuffer[] bytes;
+
+    /**
+     * The number of bytes mapped.
+     */
+    private long mapped;
+
+    /**
+     * Creates a new mapped storage.
+     *
+     * @param attributes
+     *            the attributes of the dataset.
+     * @param size
+     *            the number of instances.
+     * @param columns
+     *            the buffers of each column.
+     */
+    MappedStorage(Attribute[] attributes, int size, ByteBuffer[] columns) {
+        super(attributes);
+        this.size = size;
+
+        width = new int[attributes.length];
+        doubles = new DoubleBuffer[attributes.length];
+        ints = new IntBuffer[attributes.length];
+        shorts = new ShortBuffer[attributes.length];
+        bytes = new ByteBuffer[attributes.length];
+
+        for (int i = 0; i < attributes.length; i++) {
+            width[i] = width(attributes, i);
+            mapped += columns[i].capacity();
+
+            switch (width[i]) {
+            case Double.BYTES:
+                doubles[i] = columns[i].asDoubleBuffer();
+                break;
+
+            case Integer.BYTES:
+                ints[i] = columns[i].asIntBuffer();
+                break;
+
+            case Short.BYTES:
+                shorts[i] = columns[i].asShortBuffer();
+                break;
+
+            default:
+                bytes[i] = columns[i];
+                break;
+            }
+        }
+    }
+
+    @Override
+    public double value(int instance, int attribute) {
+        switch (width[attribute]) {
+        case Double.BYTES:
+            return doubles[attribute].get(instance);
+
+        case Integer.BYTES:
+            return ints[attribute].get(instance);
+
+        case Short.BYTES:
+            return shorts[attribute].get(instance);
+
+        default:
+            return bytes[attribute].get(instance);
+        }
+    }
+
+    @Override
+    public void add(double[] values) {
+        throw new UnsupportedOperationException("Mapped storage is read-only");
+    }
+
+    @Override
+    public void ensureCapacity(int capacity) {
+        throw new UnsupportedOperationException("Mapped storage is read-only");
+    }
+
+    @Override
+    public void trim() {
+        // nothing to do, the storage is always trimmed
+    }
+
+    @Override
+    public void remove(int... indexes) {
+        throw new UnsupportedOperationException("Mapped storage is read-only");
+    }
+
+    /**
+     * Returns a {@link ColumnStorage} holding a copy of the instances, since
+     * mapped buffers cannot be modified.
+     *
+     * @return a {@link ColumnStorage} holding a copy of the instances.
+     */
+    @Override
+    public Storage writable() {
+        Storage copy = Type.COLUMN.create(attributes);
+        copy.addAll(this);
+        return copy;
+    }
+
+    @Override
+    public long footprint() {
+        return mapped;
+    }
+
+    @Override
+    public Type type() {
+        return Type.COLUMN;
+    }
+}
@@ -25,9 +25,9 @@ import static myra.datamining.Dataset.COVERED;
 import static myra.datamining.Dataset.NOT_COVERED;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 
-import myra.datamining.Dataset.Instance;
 
 /**
  * This class can be used to partition de data in-memory.
@@ -48,7 +48,7 @@ public class Partitioner {
     /**
      * The dataset partitions.
      */
-    private Instance[][] partitions;
+    private Coverage[] partitions;
 
     /**
      * Default constructor.
@@ -61,7 +61,7 @@ public class Partitioner {
     public Partitioner(Dataset dataset, int slices) {
         this.size = slices;
         this.dataset = dataset;
-        partitions = new Instance[slices][];
+        partitions = new Coverage[slices];
     }
 
     /**
@@ -84,8 +84,8 @@ public class Partitioner {
         }
 
         for (int i = 0; i < partitions.length; i++) {
-            partitions[i] = Instance.newArray(dataset.size());
-            Instance.markAll(partitions[i], COVERED);
+            partitions[i] = new Coverage(dataset.size());
+            partitions[i].markAll(COVERED);
         }
 
         int current = 0;
@@ -97,7 +97,7 @@ public class Partitioner {
                 for (int j = current; j < partitions.length; j++) {
                     int index = CONFIG.get(RANDOM_GENERATOR)
                             .nextInt(indexes.size());
-                    partitions[j][indexes.get(index)].flag = NOT_COVERED;
+                    partitions[j].flag(indexes.get(index), NOT_COVERED);
 
                     indexes.remove(index);
                     current = j;
@@ -137,31 +137,30 @@ public class Partitioner {
                     + " expected");
         }
 
-        Dataset[] split = new Dataset[2];
-        Instance[] instances = Instance.newArray(dataset.size());
-        Instance.markAll(instances, COVERED);
+        // the partition of each instance (-1 if not in any partition)
+        int[] owner = new int[dataset.size()];
+        Arrays.fill(owner, -1);
+        int[] count = new int[2];
 
-        for (int i = 0; i < training; i++) {
-            for (int j = 0; j < partitions[i].length; j++) {
-                if (partitions[i][j].flag == NOT_COVERED) {
-                    instances[j].flag = NOT_COVERED;
+        for (int i = 0; i < (training + validation); i++) {
+            for (int j = 0; j < partitions[i].size(); j++) {
+                if (partitions[i].flag(j) == NOT_COVERED) {
+                    owner[j] = i;
+                    count[i < training ? 0 : 1]++;
                 }
             }
         }
 
-        split[0] = Dataset.filter(dataset, instances, NOT_COVERED);
-        Instance.markAll(instances, COVERED);
+        DatasetBuilder[] builders =
+                { new DatasetBuilder(dataset, count[0]),
+                  new DatasetBuilder(dataset, count[1]) };
 
-        for (int i = training; i < (training + validation); i++) {
-            for (int j = 0; j < partitions[i].length; j++) {
-                if (partitions[i][j].flag == NOT_COVERED) {
-                    instances[j].flag = NOT_COVERED;
-                }
+        for (int j = 0; j < owner.length; j++) {
+            if (owner[j] != -1) {
+                builders[owner[j] < training ? 0 : 1].add(dataset, j);
             }
         }
 
-        split[1] = Dataset.filter(dataset, instances, NOT_COVERED);
-
-        return split;
+        return new Dataset[] { builders[0].build(), builders[1].build() };
     }
 }
\ No newline at end of file
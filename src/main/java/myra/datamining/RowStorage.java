@@ -0,0 +1,171 @@
+/*
+ * RowStorage.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.datamining;
+
+import java.util.Arrays;
+
+/**
+ * Row-major storage: the instances are represented as a single
+ * <code>double</code> array, where each instance has the length of
+ * <code>attributes.length</code>.
+ *
+ * @author Fernando Esteban Barril Otero
+ */
+final class RowStorage extends Storage {
+    /**
+     * The instances, represented as an array. Only the first
+     * <code>size * attributes.length</code> elements are in use, the remaining
+     * elements represent unused capacity.
+     */
+    private double[] instances;
+
+    /**
+     * Creates a new row-major storage.
+     *
+     * @param attributes
+     *            the attributes of the dataset.
+     */
+    RowStorage(Attribute[] attributes) {
+        super(attributes);
+        instances = new double[0];
+    }
+
+    @Override
+    public double value(int instance, int attribute) {
+        return instances[(instance * attributes.length) + attribute];
+    }
+
+    @Override
+    public double[] get(int index) {
+        double[] values = new double[attributes.length];
+        System.arraycopy(instances,
+                         index * values.length,
+                         values,
+                         0,
+                         values.length);
+
+        return values;
+    }
+
+    @Override
+    public void add(double[] values) {
+        if (size == capacity()) {
+            ensureCapacity(grow(capacity(), size + 1));
+        }
+
+        System.arraycopy(values,
+                         0,
+                         instances,
+                         size * attributes.length,
+                         values.length);
+        size++;
+    }
+
+    @Override
+    public void add(Storage source, int index) {
+        if (size == capacity()) {
+            ensureCapacity(grow(capacity(), size + 1));
+        }
+
+        int length = attributes.length;
+        int offset = size * length;
+
+        if (source instanceof RowStorage) {
+            System.arraycopy(((RowStorage) source).instances,
+                             (index * length),
+                             instances,
+                             offset,
+                             length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                instances[offset + i] = source.value(index, i);
+            }
+        }
+
+        size++;
+    }
+
+    @Override
+    public void ensureCapacity(int capacity) {
+        if (capacity > capacity()) {
+            instances = Arrays.copyOf(instances, capacity * attributes.length);
+        }
+    }
+
+    @Override
+    public void trim() {
+        if (size < capacity()) {
+            instances = Arrays.copyOf(instances, size * attributes.length);
+        }
+    }
+
+    /**
+     * Returns the number of instances that the storage can hold without
+     * growing.
+     *
+     * @return the number of instances that the storage can hold.
+     */
+    private int capacity() {
+        return instances.length / attributes.length;
+    }
+
+    @Override
+    public void remove(int... indexes) {
+        double[] resized = new double[(size - indexes.length)
+                * attributes.length];
+
+        int current = 0;
+        int target = 0;
+
+        for (int removed : indexes) {
+            if (current == removed) {
+                current++;
+            } else {
+                int length = (removed - current) * attributes.length;
+                int source = current * attributes.length;
+
+                System.arraycopy(instances, source, resized, target, length);
+
+                target += length;
+                current = removed + 1;
+            }
+        }
+
+        if (target != resized.length) {
+            int length = resized.length - target;
+            int source = current * attributes.length;
+
+            System.arraycopy(instances, source, resized, target, length);
+        }
+
+        instances = resized;
+        size -= indexes.length;
+    }
+
+    @Override
+    public long footprint() {
+        return (long) instances.length * Double.BYTES;
+    }
+
+    @Override
+    public Type type() {
+        return Type.ROW;
+    }
+}
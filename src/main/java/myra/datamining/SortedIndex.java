@@ -0,0 +1,136 @@
+/*
+ * SortedIndex.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.datamining;
+
+/**
+ * The instances of a dataset sorted by the values of a continuous attribute.
+ * Instances with a missing value are not included. The sort is stable, i.e.,
+ * instances with the same value appear in ascending index order, so walking
+ * the index and filtering by coverage gives the same sequence as sorting the
+ * covered instances.
+ *
+ * @see Dataset#sortedIndex(int)
+ *
+ * @author Fernando Esteban Barril Otero
+ */
+public final class SortedIndex {
+    /**
+     * The instance indexes in ascending order of value.
+     */
+    public final int[] instances;
+
+    /**
+     * The attribute values, in the same order as the instances.
+     */
+    public final double[] values;
+
+    /**
+     * Creates a new sorted index.
+     *
+     * @param instances
+     *            the instance indexes in ascending order of value.
+     * @param values
+     *            the attribute values.
+     */
+    private SortedIndex(int[] instances, double[] values) {
+        this.instances = instances;
+        this.values = values;
+    }
+
+    /**
+     * Returns the number of (non-missing) instances in the index.
+     *
+     * @return the number of instances in the index.
+     */
+    public int size() {
+        return instances.length;
+    }
+
+    /**
+     * Creates the sorted index of the specified attribute.
+     *
+     * @param dataset
+     *            the current dataset.
+     * @param attribute
+     *            the index of the continuous attribute.
+     *
+     * @return the sorted index of the attribute.
+     */
+    static SortedIndex create(Dataset dataset, int attribute) {
+        int[] instances = new int[dataset.size()];
+        double[] values = new double[dataset.size()];
+        int size = 0;
+
+        for (int i = 0; i < dataset.size(); i++) {
+            double v = dataset.value(i, attribute);
+
+            if (!Double.isNaN(v)) {
+                instances[size] = i;
+                values[size] = v;
+                size++;
+            }
+        }
+
+        int[] sortedInstances = new int[size];
+        double[] sortedValues = new double[size];
+
+        // bottom-up merge sort, alternating between the two buffers
+        int[] fromInstances = instances;
+        double[] fromValues = values;
+        int[] toInstances = new int[size];
+        double[] toValues = new double[size];
+
+        for (int width = 1; width < size; width *= 2) {
+            for (int low = 0; low < size; low += 2 * width) {
+                int middle = Math.min(low + width, size);
+                int high = Math.min(low + 2 * width, size);
+                int left = low;
+                int right = middle;
+
+                for (int k = low; k < high; k++) {
+                    // ties are taken from the left run to keep the sort stable
+                    if (left < middle && (right >= high || Double
+                            .compare(fromValues[left], fromValues[right]) <= 0)) {
+                        toInstances[k] = fromInstances[left];
+                        toValues[k] = fromValues[left];
+                        left++;
+                    } else {
+                        toInstances[k] = fromInstances[right];
+                        toValues[k] = fromValues[right];
+                        right++;
+                    }
+                }
+            }
+
+            int[] swapInstances = fromInstances;
+            fromInstances = toInstances;
+            toInstances = swapInstances;
+
+            double[] swapValues = fromValues;
+            fromValues = toValues;
+            toValues = swapValues;
+        }
+
+        System.arraycopy(fromInstances, 0, sortedInstances, 0, size);
+        System.arraycopy(fromValues, 0, sortedValues, 0, size);
+
+        return new SortedIndex(sortedInstances, sortedValues);
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * SparseStorage.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.datamining;
+
+import java.util.Arrays;
+
+/**
+ * Compressed sparse column storage. For each attribute, only the non-zero
+ * values are stored, together with the (ascending) indexes of the instances
+ * they belong to; any value not stored is implicitly zero, which corresponds
+ * to <code>0.0</code> for continuous attributes and to the first value of
+ * nominal attributes. Missing values are stored explicitly. The class
+ * attribute is always stored in a dense array.
+ *
+ * <p>
+ * Since instances are appended in order, the last entry of a column is
+ * checked before falling back to a binary search, so reading the values of
+ * the most recent instance takes constant time.
+ * </p>
+ *
+ * @author Fernando Esteban Barril Otero
+ */
+final class SparseStorage extends Storage {
+    /**
+     * The instance indexes of the non-zero values of each column.
+     */
+    private int[][] rows;
+
+    /**
+     * The non-zero values of each column.
+     */
+    private double[][] values;
+
+    /**
+     * The number of non-zero values of each column.
+     */
+    private int[] count;
+
+    /**
+     * The (dense) values of the class attribute.
+     */
+    private double[] target;
+
+    /**
+     * Creates a new sparse storage.
+     *
+     * @param attributes
+     *            the attributes of the dataset.
+     */
+    SparseStorage(Attribute[] attributes) {
+        super(attributes);
+
+        rows = new int[attributes.length - 1][0];
+        values = new double[attributes.length - 1][0];
+        count = new int[attributes.length - 1];
+        target = new double[0];
+    }
+
+    @Override
+    public double value(int instance, int attribute) {
+        if (attribute == count.length) {
+            return target[instance];
+        }
+
+        int n = count[attribute];
+
+        if (n == 0) {
+            return 0;
+        }
+
+        int[] r = rows[attribute];
+
+        if (r[n - 1] == instance) {
+            return values[attribute][n - 1];
+        } else if (r[n - 1] < instance) {
+            return 0;
+        }
+
+        int position = Arrays.binarySearch(r, 0, n, instance);
+        return position < 0 ? 0 : values[attribute][position];
+    }
+
+    @Override
+    public void add(double[] instance) {
+        ensureCapacity(size + 1);
+
+        for (int i = 0; i < count.length; i++) {
+            if (instance[i] != 0) {
+                append(i, size, instance[i]);
+            }
+        }
+
+        target[size] = instance[count.length];
+        size++;
+    }
+
+    @Override
+    public void addAll(Storage source) {
+        if (source instanceof SparseStorage) {
+            SparseStorage sparse = (SparseStorage) source;
+            ensureCapacity(size + sparse.size);
+
+            for (int i = 0; i < count.length; i++) {
+                int n = sparse.count[i];
+                reserve(i, count[i] + n);
+
+                for (int j = 0; j < n; j++) {
+                    rows[i][count[i] + j] = size + sparse.rows[i][j];
+                }
+
+                System.arraycopy(sparse.values[i], 0, values[i], count[i], n);
+                count[i] += n;
+            }
+
+            System.arraycopy(sparse.target, 0, target, size, sparse.size);
+            size += sparse.size;
+        } else {
+            super.addAll(source);
+        }
+    }
+
+    /**
+     * Appends a non-zero value to the specified column.
+     *
+     * @param attribute
+     *            the attribute index.
+     * @param instance
+     *            the instance index.
+     * @param value
+     *            the value.
+     */
+    private void append(int attribute, int instance, double value) {
+        int n = count[attribute];
+        reserve(attribute, n + 1);
+
+        rows[attribute][n] = instance;
+        values[attribute][n] = value;
+        count[attribute] = n + 1;
+    }
+
+    /**
+     * Makes sure that the specified column can hold at least the specified
+     * number of non-zero values.
+     *
+     * @param attribute
+     *            the attribute index.
+     * @param capacity
+     *            the minimum number of non-zero values.
+     */
+    private void reserve(int attribute, int capacity) {
+        if (capacity > rows[attribute].length) {
+            int length = grow(rows[attribute].length, capacity);
+            rows[attribute] = Arrays.copyOf(rows[attribute], length);
+            values[attribute] = Arrays.copyOf(values[attribute], length);
+        }
+    }
+
+    @Override
+    public void ensureCapacity(int capacity) {
+        if (capacity > target.length) {
+            target = Arrays.copyOf(target, grow(target.length, capacity));
+        }
+    }
+
+    @Override
+    public void trim() {
+        for (int i = 0; i < count.length; i++) {
+            if (rows[i].length > count[i]) {
+                rows[i] = Arrays.copyOf(rows[i], count[i]);
+                values[i] = Arrays.copyOf(values[i], count[i]);
+            }
+        }
+
+        if (target.length > size) {
+            target = Arrays.copyOf(target, size);
+        }
+    }
+
+    @Override
+    public void remove(int... indexes) {
+        for (int i = 0; i < count.length; i++) {
+            int[] r = rows[i];
+            double[] v = values[i];
+            // number of removed instances preceding the current one
+            int removed = 0;
+            int n = 0;
+
+            for (int j = 0; j < count[i]; j++) {
+                while (removed < indexes.length && indexes[removed] < r[j]) {
+                    removed++;
+                }
+
+                if (removed < indexes.length && indexes[removed] == r[j]) {
+                    continue;
+                }
+
+                r[n] = r[j] - removed;
+                v[n] = v[j];
+                n++;
+            }
+
+            count[i] = n;
+        }
+
+        int n = 0;
+
+        for (int i = 0, removed = 0; i < size; i++) {
+            if (removed < indexes.length && indexes[removed] == i) {
+                removed++;
+            } else {
+                target[n] = target[i];
+                n++;
+            }
+        }
+
+        size = n;
+    }
+
+    @Override
+    public int[] nonZero(int attribute) {
+        if (attribute == count.length) {
+            // the class attribute is dense
+            return null;
+        }
+
+        if (rows[attribute].length != count[attribute]) {
+            // trims the column, so the array can be returned directly;
+            // frozen storages are already trimmed
+            rows[attribute] = Arrays.copyOf(rows[attribute], count[attribute]);
+            values[attribute] =
+                    Arrays.copyOf(values[attribute], count[attribute]);
+        }
+
+        return rows[attribute];
+    }
+
+    @Override
+    public long footprint() {
+        long footprint = (long) target.length * Double.BYTES;
+
+        for (int i = 0; i < count.length; i++) {
+            footprint += (long) rows[i].length * (Integer.BYTES + Double.BYTES);
+        }
+
+        return footprint;
+    }
+
+    @Override
+    public Type type() {
+        return Type.SPARSE;
+    }
+}
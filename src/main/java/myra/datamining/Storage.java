@@ -0,0 +1,291 @@
+/*
+ * Storage.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.datamining;
+
+import static myra.datamining.Attribute.Type.CONTINUOUS;
+
+/**
+ * Base class for the in-memory representation of the instances of a
+ * {@link Dataset}. The storage only holds the (raw) attribute values of the
+ * instances; the dataset metadata and statistics are maintained by the
+ * <code>Dataset</code> itself.
+ *
+ * @see Dataset
+ *
+ * @author Fernando Esteban Barril Otero
+ */
+public abstract class Storage {
+    /**
+     * The attributes of the dataset.
+     */
+    protected final Attribute[] attributes;
+
+    /**
+     * The number of instances in the storage.
+     */
+    protected int size;
+
+    /**
+     * Creates a new storage.
+     *
+     * @param attributes
+     *            the attributes of the dataset.
+     */
+    protected Storage(Attribute[] attributes) {
+        this.attributes = attributes;
+        this.size = 0;
+    }
+
+    /**
+     * Returns the number of instances in the storage.
+     *
+     * @return the number of instances in the storage.
+     */
+    public final int size() {
+        return size;
+    }
+
+    /**
+     * Returns the attribute value of a given instance.
+     *
+     * @param instance
+     *            the instance index.
+     * @param attribute
+     *            the attribute index.
+     *
+     * @return the attribute value of a given instance.
+     */
+    public abstract double value(int instance, int attribute);
+
+    /**
+     * Returns the values of the specified instance.
+     *
+     * @param index
+     *            the index of the instance.
+     *
+     * @return the values of the specified instance.
+     */
+    public double[] get(int index) {
+        double[] values = new double[attributes.length];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = value(index, i);
+        }
+
+        return values;
+    }
+
+    /**
+     * Adds an instance to the storage.
+     *
+     * @param values
+     *            the values of the instance to add.
+     */
+    public abstract void add(double[] values);
+
+    /**
+     * Adds a copy of the specified instance of another storage. Both storages
+     * must have the same attributes.
+     *
+     * @param source
+     *            the source storage.
+     * @param index
+     *            the index of the instance in the source storage.
+     */
+    public void add(Storage source, int index) {
+        add(source.get(index));
+    }
+
+    /**
+     * Adds a copy of all instances of another storage. Both storages must
+     * have the same attributes.
+     *
+     * @param source
+     *            the source storage.
+     */
+    public void addAll(Storage source) {
+        ensureCapacity(size + source.size());
+
+        for (int i = 0; i < source.size(); i++) {
+            add(source, i);
+        }
+    }
+
+    /**
+     * Makes sure that the storage can hold at least the specified number of
+     * instances without growing.
+     *
+     * @param capacity
+     *            the minimum number of instances.
+     */
+    public abstract void ensureCapacity(int capacity);
+
+    /**
+     * Releases any unused capacity, so that the storage only holds
+     * <code>size()</code> instances.
+     */
+    public abstract void trim();
+
+    /**
+     * Removes the specified instances from the storage. The indexes must be
+     * sorted in ascending order.
+     *
+     * @param indexes
+     *            the array of indexes to remove.
+     */
+    public abstract void remove(int... indexes);
+
+    /**
+     * Returns a storage that can be modified holding the same instances. The
+     * default implementation returns this storage; read-only storages return
+     * a (modifiable) copy of their instances.
+     *
+     * @return a storage that can be modified holding the same instances.
+     */
+    public Storage writable() {
+        return this;
+    }
+
+    /**
+     * Returns the indexes of the instances that have a non-zero value for the
+     * specified attribute, in ascending order. Only sparse storages keep track
+     * of these; the default implementation returns <code>null</code>, meaning
+     * that every instance must be considered. The returned array is shared
+     * with the storage and must not be modified.
+     *
+     * @param attribute
+     *            the attribute index.
+     *
+     * @return the indexes of the instances that have a non-zero value for the
+     *         attribute; <code>null</code> if the storage does not keep track
+     *         of non-zero values.
+     */
+    public int[] nonZero(int attribute) {
+        return null;
+    }
+
+    /**
+     * Returns the number of bytes used to hold the instances' values. This is
+     * an estimate that does not take into account object headers.
+     *
+     * @return the number of bytes used to hold the instances' values.
+     */
+    public abstract long footprint();
+
+    /**
+     * Returns the type of the storage.
+     *
+     * @return the type of the storage.
+     */
+    public abstract Type type();
+
+    /**
+     * Returns the number of bytes used to represent a value of the specified
+     * attribute in a column-major layout. Continuous attributes use 8 bytes
+     * (<code>double</code>), the class attribute uses 4 bytes
+     * (<code>int</code>), since it might hold label codes of hierarchical
+     * problems, and the remaining nominal attributes use the narrowest integer
+     * type able to represent the indexes of their values.
+     *
+     * @param attributes
+     *            the attributes of the dataset.
+     * @param index
+     *            the index of the attribute.
+     *
+     * @return the number of bytes used to represent a value of the attribute.
+     */
+    static int width(Attribute[] attributes, int index) {
+        if (attributes[index].getType() == CONTINUOUS) {
+            return Double.BYTES;
+        } else if (index == attributes.length - 1) {
+            return Integer.BYTES;
+        } else if (attributes[index].length() <= Byte.MAX_VALUE) {
+            return Byte.BYTES;
+        } else if (attributes[index].length() <= Short.MAX_VALUE) {
+            return Short.BYTES;
+        }
+
+        return Integer.BYTES;
+    }
+
+    /**
+     * Returns the new capacity of an array that needs to hold at least
+     * <code>minimum</code> elements. The capacity grows geometrically, so the
+     * cost of adding <i>n</i> instances is amortised to <i>O(n)</i>.
+     *
+     * @param capacity
+     *            the current capacity.
+     * @param minimum
+     *            the minimum capacity required.
+     *
+     * @return the new capacity.
+     */
+    protected static int grow(int capacity, int minimum) {
+        int grown = capacity + (capacity >> 1) + 16;
+        // overflow-conscious: fall back to the minimum required
+        return (grown - minimum < 0) ? minimum : grown;
+    }
+
+    /**
+     * Enum of available storage layouts.
+     */
+    public static enum Type {
+        /**
+         * Row-major layout: all values of an instance are stored contiguously
+         * in a single <code>double</code> array.
+         */
+        ROW {
+            @Override
+            public Storage create(Attribute[] attributes) {
+                return new RowStorage(attributes);
+            }
+        },
+        /**
+         * Column-major layout: each attribute is stored in its own primitive
+         * array, using the narrowest type able to represent its values.
+         */
+        COLUMN {
+            @Override
+            public Storage create(Attribute[] attributes) {
+                return new ColumnStorage(attributes);
+            }
+        },
+        /**
+         * Sparse column-major layout: each attribute only stores its non-zero
+         * values and the indexes of the instances they belong to.
+         */
+        SPARSE {
+            @Override
+            public Storage create(Attribute[] attributes) {
+                return new SparseStorage(attributes);
+            }
+        };
+
+        /**
+         * Returns a new (empty) storage of this type.
+         *
+         * @param attributes
+         *            the attributes of the dataset.
+         *
+         * @return a new (empty) storage of this type.
+         */
+        public abstract Storage create(Attribute[] attributes);
+    }
+}
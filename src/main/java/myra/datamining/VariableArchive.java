@@ -27,7 +27,6 @@ import static myra.datamining.Algorithm.RANDOM_GENERATOR;
 import myra.Archive.DefaultArchive;
 import myra.Config.ConfigKey;
 import myra.Weighable;
-import myra.datamining.Dataset.Instance;
 
 /**
  * This class represents a local archive&mdash;i.e., a variable of a solution,
@@ -23,8 +23,10 @@ import static myra.Config.CONFIG;
 import static myra.datamining.Algorithm.RANDOM_GENERATOR;
 import static myra.rule.Graph.START_INDEX;
 
+import java.util.Arrays;
+
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Rule;
 import myra.rule.Graph.Entry;
 import myra.rule.Rule.Term;
@@ -43,7 +45,7 @@ public class BaggingArchiveRuleFactory extends ArchiveRuleFactory implements Rul
                        myra.rule.Graph graph,
                        Entry[] heuristic,
                        Dataset dataset,
-                       Instance[] instances) {
+                       Coverage instances) {
 
         if (!Graph.class.isInstance(graph)) {
             throw new IllegalArgumentException("Invalid graph class: "
@@ -74,7 +76,7 @@ public class BaggingArchiveRuleFactory extends ArchiveRuleFactory implements Rul
                       Graph graph,
                       Entry[] heuristic,
                       Dataset dataset,
-                      Instance[] instances) {
+                      Coverage instances) {
        // the rule being created (empty at the start)
        Rule rule = Rule.newInstance(graph.size() / 2);
        int previous = START_INDEX;
@@ -87,21 +89,22 @@ public class BaggingArchiveRuleFactory extends ArchiveRuleFactory implements Rul
 
        while (true) {
            double total = 0.0;
-           Entry[] neighbours = graph.matrix()[previous];
+           int[] neighbours = graph.neighbours(previous);
+           // vertices that are not neighbours have no probability
+           Arrays.fill(pheromone, 0.0);
 
            // calculates the probability of visiting vertex i by
            // multiplying the pheromone and heuristic information (only
            // compatible vertices are considered)
            // checking if the attribute is allowed based on the bagging mask
-           for (int i = 0; i < neighbours.length; i++) {
+           for (int p = 0; p < neighbours.length; p++) {
+               int i = neighbours[p];
                	//relying on the lazy evaluation of the or statement to cope with attribute values of -1 which refer to the start/end nodes
-               if (!incompatible[i] && neighbours[i] != null  && (graph.vertices()[i].attribute == -1 || baggingMask[graph.vertices()[i].attribute] == 1)) {
+               if (!incompatible[i] && (graph.vertices()[i].attribute == -1 || baggingMask[graph.vertices()[i].attribute] == 1)) {
                    pheromone[i] =
-                           neighbours[i].value(level) * heuristic[i].value(0);
+                           graph.valueAt(previous, p, level) * heuristic[i].value(0);
                  
                    total += pheromone[i];
-               } else {
-                   pheromone[i] = 0.0;
                }
            }
 
@@ -176,7 +179,7 @@ public class BaggingArchiveRuleFactory extends ArchiveRuleFactory implements Rul
    public Rule create(myra.rule.Graph graph,
                       Entry[] heuristic,
                       Dataset dataset,
-                      Instance[] instances) {
+                      Coverage instances) {
        return this.create(0, graph, heuristic, dataset, instances);
    }
 }
@@ -25,10 +25,13 @@ import static myra.rule.Graph.START_INDEX;
 import static myra.rule.Heuristic.DEFAULT_HEURISTIC;
 import static myra.rule.Heuristic.DYNAMIC_HEURISTIC;
 
+import java.util.Arrays;
+
 import myra.datamining.Dataset;
 import myra.datamining.IntervalBuilder;
 import myra.datamining.Attribute.Condition;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Bitset;
+import myra.datamining.Coverage;
 import myra.rule.Graph;
 import myra.rule.Graph.Entry;
 import myra.rule.Graph.Vertex;
@@ -65,10 +68,9 @@ public class BaggingLevelRuleFactory extends LevelRuleFactory{
                        Graph graph,
                        Entry[] heuristic,
                        Dataset dataset,
-                       Instance[] instances) {
+                       Coverage instances) {
         // the rule must cover at least MINIMUM_CASES
         final int minimum = CONFIG.get(IntervalBuilder.MINIMUM_CASES);
-        Term last = null;
 
         // the rule being created (empty at the start)
         Rule rule = Rule.newInstance(graph.size() / 2);
@@ -79,6 +81,9 @@ public class BaggingLevelRuleFactory extends LevelRuleFactory{
         boolean[] incompatible = new boolean[graph.size()];
         incompatible[START_INDEX] = true;
 
+        // scratch bitset used to evaluate candidate terms
+        long[] trial = new long[Bitset.words(dataset.size())];
+
 
         double[] baggingMask = dataset.getMask();
         // the rule creation process starts with an empty rule and adds new
@@ -90,7 +95,9 @@ public class BaggingLevelRuleFactory extends LevelRuleFactory{
 
             while (selected == -1) {
                 double total = 0.0;
-                Entry[] neighbours = graph.matrix()[previous];
+                int[] neighbours = graph.neighbours(previous);
+                // vertices that are not neighbours have no probability
+                Arrays.fill(pheromone, 0.0);
                 // the number of nominal neighbours
                 int nominal = 0;
 
@@ -98,9 +105,11 @@ public class BaggingLevelRuleFactory extends LevelRuleFactory{
                 // multiplying the pheromone and heuristic information (only
                 // compatible vertices are considered)
                 // checking if the attribute is allowed based on the bagging mask
-                for (int i = 0; i < neighbours.length; i++) {
-                    if (!incompatible[i] && neighbours[i] != null && baggingMask[graph.vertices()[i].attribute] == 1) {
-                        pheromone[i] = neighbours[i].value(level)
+                for (int p = 0; p < neighbours.length; p++) {
+                    int i = neighbours[p];
+
+                    if (!incompatible[i] && baggingMask[graph.vertices()[i].attribute] == 1) {
+                        pheromone[i] = graph.valueAt(previous, p, level)
                                 * heuristic[i].value(0);
 
                         total += pheromone[i];
@@ -108,8 +117,6 @@ public class BaggingLevelRuleFactory extends LevelRuleFactory{
                         if (graph.vertices()[i].condition != null) {
                             nominal++;
                         }
-                    } else {
-                        pheromone[i] = 0.0;
                     }
                 }
 
@@ -169,17 +176,19 @@ public class BaggingLevelRuleFactory extends LevelRuleFactory{
                     incompatible[selected] = true;
                     selected = -1;
                 } else {
-                    last = new Term(selected, condition);
-                    rule.push(last);
-
-                    Instance[] clone = Instance.copyOf(instances);
-                    int currentCovered = rule.apply(dataset, clone);
+                    // only the instances covered by the rule are tested
+                    // against the condition of the candidate term
+                    Term term = new Term(selected, condition);
+                    int currentCovered = rule.trial(dataset, term, trial);
 
                     // a term is only added to the rule if it makes the rule
                     // cover a different number of instances, satisfying the
                     // the minimum limit
                     if (ruleCovered != currentCovered
                             && currentCovered >= minimum) {
+                        rule.push(term);
+                        rule.apply(dataset, instances);
+
                         for (int i = 0; i < graph.size(); i++) {
                             if (!incompatible[i] && graph
                                     .vertices()[i].attribute == vertex.attribute) {
@@ -187,13 +196,8 @@ public class BaggingLevelRuleFactory extends LevelRuleFactory{
                             }
                         }
 
-                        // copy the covered instances information to the
-                        // original instances array
-                        System.arraycopy(clone, 0, instances, 0, clone.length);
-
                         previous = selected;
                         ruleCovered = currentCovered;
-                        last = null;
 
                         // recompute the heuristic information if we are
                         // using the dynamic heuristic
@@ -205,9 +209,7 @@ public class BaggingLevelRuleFactory extends LevelRuleFactory{
                                              incompatible);
                         }
                     } else {
-                        // removed the last added term and marks the selected
-                        // vertex as incompatible
-                        rule.pop();
+                        // marks the selected vertex as incompatible
                         incompatible[selected] = true;
                         selected = -1;
                     }
@@ -222,12 +224,6 @@ public class BaggingLevelRuleFactory extends LevelRuleFactory{
 
         rule.compact();
 
-        if (last != null) {
-            // determines the coverage information, since a term was added
-            // to the rule and later removed
-            rule.apply(dataset, instances);
-        }
-
         return rule;
     }
 }
\ No newline at end of file
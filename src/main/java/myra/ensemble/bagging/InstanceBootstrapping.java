@@ -24,6 +24,7 @@ import static myra.datamining.Algorithm.RANDOM_GENERATOR;
 
 import myra.Config.ConfigKey;
 import myra.datamining.Dataset;
+import myra.datamining.DatasetBuilder;
 
 
 /**
@@ -58,15 +59,14 @@ public class InstanceBootstrapping {
 	 * @return The sampled data set.
 	 */
 	public static Dataset bootstrappingWithRepeats(Dataset data) {
-		Dataset newdata = new Dataset();
-		newdata.setAttributes(data.attributes());
 		int length = data.size();
 		double percentage = CONFIG.get(DEFAULT_INSTANCE_BOOTSTRAPPING);
 		int sampleSize = (int) Math.max(Math.ceil(length * percentage),1);
+		DatasetBuilder newdata = new DatasetBuilder(data, sampleSize);
 		for (int i = 0; i < sampleSize; i++) {
-			newdata.add(data.get(CONFIG.get(RANDOM_GENERATOR).nextInt(length)));
+			newdata.add(data, CONFIG.get(RANDOM_GENERATOR).nextInt(length));
 		}
-		return newdata;
+		return newdata.build();
     }
 
 	/**
@@ -76,21 +76,20 @@ public class InstanceBootstrapping {
 	 * @return The sampled data set.
 	 */
 	public static Dataset bootstrapping(Dataset data) {
-		Dataset newdata = new Dataset();
-		newdata.setAttributes(data.attributes());
 		boolean[] used = new boolean[data.size()];
 		int length = data.size();
 		double percentage = CONFIG.get(DEFAULT_INSTANCE_BOOTSTRAPPING);
 		int sampleSize = (int) Math.max(Math.ceil(length * percentage),1);
+		DatasetBuilder newdata = new DatasetBuilder(data, sampleSize);
 		int random;
 		for (int i = 0; i < sampleSize; i++) {
 			do {
 			random = CONFIG.get(RANDOM_GENERATOR).nextInt(length);
 			} while (used[random]);
 
-			newdata.add(data.get(random));
+			newdata.add(data, random);
 			used[random] = true;
 		}
-		return newdata;
+		return newdata.build();
     }
 }
@@ -23,12 +23,11 @@ import static myra.datamining.Attribute.GREATER_THAN;
 import static myra.datamining.Attribute.LESS_THAN_OR_EQUAL_TO;
 import static myra.datamining.Dataset.RULE_COVERED;
 
-import java.util.Arrays;
-
 import myra.datamining.Dataset;
 import myra.datamining.IntervalBuilder;
+import myra.datamining.SortedIndex;
 import myra.datamining.Attribute.Condition;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * This class creates discrete intervals based on the standard deviation of the
@@ -41,9 +40,20 @@ import myra.datamining.Dataset.Instance;
 public class StandardDeviationSplit extends IntervalBuilder {
     @Override
     public Condition[] multiple(Dataset dataset,
-                                Instance[] instances,
+                                Coverage instances,
                                 int attribute) {
-        Pair[] candidates = new Pair[dataset.size()];
+        // the instances are visited in ascending order of value, so the
+        // candidates are created already sorted
+        SortedIndex sorted = dataset.sortedIndex(attribute);
+        final int length = covered(sorted, instances);
+
+        if (length == 0) {
+            // there are no candidate threshold values
+            return null;
+        }
+
+        double[] values = new double[length];
+        double[] weights = new double[length];
         Condition[] distribution = new Condition[2];
 
         for (int i = 0; i < distribution.length; i++) {
@@ -57,40 +67,28 @@ public class StandardDeviationSplit extends IntervalBuilder {
         int index = 0;
         double size = 0;
 
-        for (int i = 0; i < dataset.size(); i++) {
+        for (int k = 0; k < sorted.size(); k++) {
+            int i = sorted.instances[k];
+
             // the dynamc discretisation only considers the instances covered
             // by the current rule
-            if (instances[i].flag == RULE_COVERED) {
-                double v = dataset.value(i, attribute);
+            if (instances.flag(i) == RULE_COVERED) {
+                values[index] = sorted.values[k];
+                weights[index] = instances.weight(i);
 
-                if (!Double.isNaN(v)) {
-                    Pair pair = new Pair();
-                    pair.value = v;
-                    pair.classValue = dataset.value(i, dataset.classIndex());
-                    pair.weight = instances[i].weight;
-                    candidates[index] = pair;
+                distribution[1].frequency[0] += values[index];
+                distribution[1].frequency[1] += (values[index] * values[index]);
+                distribution[1].length += weights[index];
 
-                    distribution[1].frequency[0] += pair.value;
-                    distribution[1].frequency[1] += (pair.value * pair.value);
-                    distribution[1].length += pair.weight;
-
-                    index++;
-                }
+                index++;
             }
         }
 
-        if (index == 0) {
-            // there are no candidate threshold values
-            return null;
-        }
-
-        candidates = Arrays.copyOf(candidates, index);
-        Arrays.sort(candidates);
-
         Condition[] conditions =
-                create(candidates,
+                create(values,
+                       weights,
                        0,
-                       candidates.length,
+                       length,
                        distribution,
                        IntervalBuilder.minimumCases(dataset, size));
 
@@ -108,7 +106,7 @@ public class StandardDeviationSplit extends IntervalBuilder {
 
     @Override
     public Condition single(Dataset dataset,
-                            Instance[] instances,
+                            Coverage instances,
                             int attribute) {
         Condition[] conditions = multiple(dataset, instances, attribute);
         Condition best = null;
@@ -131,12 +129,14 @@ public class StandardDeviationSplit extends IntervalBuilder {
      * specified attribute that have provide the higher gain in relation to the
      * standard deviation of the target values.
      * 
-     * @param candidates
-     *            the array os candidate values.
+     * @param values
+     *            the array of candidate values, in ascending order.
+     * @param weights
+     *            the weight of each candidate.
      * @param start
-     *            the start index on the candidates array.
+     *            the start index on the candidate arrays.
      * @param end
-     *            the end index on the candidates array.
+     *            the end index on the candidate arrays.
      * @param distribution
      *            the distribution of values.
      * @param minimum
@@ -145,7 +145,8 @@ public class StandardDeviationSplit extends IntervalBuilder {
      * @return attribute conditions representing discrete intervals for the
      *         specified attribute.
      */
-    protected Condition[] create(Pair[] candidates,
+    protected Condition[] create(double[] values,
+                                 double[] weights,
                                  int start,
                                  int end,
                                  Condition[] distribution,
@@ -170,8 +171,8 @@ public class StandardDeviationSplit extends IntervalBuilder {
         }
 
         for (int i = (start + 1); i < end; i++) {
-            double weight = candidates[i - 1].weight;
-            double value = candidates[i - 1].value;
+            double weight = weights[i - 1];
+            double value = values[i - 1];
 
             distribution[0].length += weight;
             distribution[0].frequency[0] += value;
@@ -181,7 +182,7 @@ public class StandardDeviationSplit extends IntervalBuilder {
             distribution[1].frequency[0] -= value;
             distribution[1].frequency[1] -= (value * value);
 
-            if (candidates[i - 1].value < candidates[i].value) {
+            if (values[i - 1] < values[i]) {
                 if ((distribution[0].length >= minimum)
                         && (distribution[1].length >= minimum)) {
                     tries++;
@@ -217,10 +218,9 @@ public class StandardDeviationSplit extends IntervalBuilder {
                         conditions[0].entropy = (distribution[0].length / total)
                                 * distribution[0].entropy;
                         conditions[0].index = i - 1;
-                        conditions[0].threshold[0] = candidates[i - 1].value;
+                        conditions[0].threshold[0] = values[i - 1];
                         conditions[0].value[0] =
-                                (candidates[i - 1].value + candidates[i].value)
-                                        / 2.0;
+                                (values[i - 1] + values[i]) / 2.0;
                         // copies the distribution frequency
                         System.arraycopy(distribution[0].frequency,
                                          0,
@@ -234,10 +234,9 @@ public class StandardDeviationSplit extends IntervalBuilder {
                         conditions[1].entropy = (distribution[1].length / total)
                                 * distribution[1].entropy;
                         conditions[1].index = i - 1;
-                        conditions[1].threshold[0] = candidates[i - 1].value;
+                        conditions[1].threshold[0] = values[i - 1];
                         conditions[1].value[0] =
-                                (candidates[i - 1].value + candidates[i].value)
-                                        / 2.0;
+                                (values[i - 1] + values[i]) / 2.0;
                         // copies the distribution frequency
                         System.arraycopy(distribution[1].frequency,
                                          0,
@@ -23,7 +23,7 @@ import static myra.datamining.Dataset.COVERED;
 import static myra.datamining.Dataset.RULE_COVERED;
 
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.regression.Real;
 import myra.rule.Assignator;
 import myra.rule.Rule;
@@ -36,16 +36,16 @@ import myra.rule.Rule;
  */
 public class MeanAssignator implements Assignator {
     @Override
-    public int assign(Dataset dataset, Rule rule, Instance[] instances) {
+    public int assign(Dataset dataset, Rule rule, Coverage instances) {
         double total = 0;
         int count = 0;
         int available = 0;
 
-        for (int i = 0; i < instances.length; i++) {
-            if (instances[i].flag != COVERED) {
+        for (int i = 0; i < instances.size(); i++) {
+            if (instances.flag(i) != COVERED) {
                 available++;
 
-                if (instances[i].flag == RULE_COVERED) {
+                if (instances.flag(i) == RULE_COVERED) {
                     total += dataset.value(i, dataset.classIndex());
                     count++;
                 }
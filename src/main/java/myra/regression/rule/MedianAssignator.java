@@ -24,7 +24,7 @@ import static myra.datamining.Dataset.RULE_COVERED;
 import java.util.Arrays;
 
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.regression.Real;
 import myra.rule.Assignator;
 import myra.rule.Rule;
@@ -37,12 +37,12 @@ import myra.rule.Rule;
  */
 public class MedianAssignator implements Assignator {
     @Override
-    public int assign(Dataset dataset, Rule rule, Instance[] instances) {
-        double[] values = new double[instances.length];
+    public int assign(Dataset dataset, Rule rule, Coverage instances) {
+        double[] values = new double[instances.size()];
         int count = 0;
 
-        for (int i = 0; i < instances.length; i++) {
-            if (instances[i].flag == RULE_COVERED) {
+        for (int i = 0; i < instances.size(); i++) {
+            if (instances.flag(i) == RULE_COVERED) {
                 values[count] = dataset.value(i, dataset.classIndex());
                 count++;
             }
@@ -59,6 +59,6 @@ public class MedianAssignator implements Assignator {
 
         rule.setConsequent(new Real(median));
 
-        return instances.length - count;
+        return instances.size() - count;
     }
 }
\ No newline at end of file
@@ -19,12 +19,8 @@
 
 package myra.regression.rule;
 
-import static myra.datamining.Dataset.COVERED;
-import static myra.datamining.Dataset.NOT_COVERED;
-import static myra.datamining.Dataset.RULE_COVERED;
-
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.datamining.Prediction;
 import myra.regression.Real;
 import myra.rule.Rule;
@@ -58,21 +54,8 @@ public class RegressionRule extends Rule {
     }
 
     @Override
-    public int apply(Dataset dataset, Instance[] instances) {
-        int total = 0;
-
-        for (int i = 0; i < dataset.size(); i++) {
-            if (instances[i].flag != COVERED) {
-                if (covers(dataset, i)) {
-                    total++;
-                    instances[i].flag = RULE_COVERED;
-                } else {
-                    instances[i].flag = NOT_COVERED;
-                }
-            }
-        }
-
-        return total;
+    protected int apply(Dataset dataset, Coverage instances, long[] coverage) {
+        return instances.apply(coverage);
     }
 
     @Override
@@ -27,7 +27,7 @@ import myra.Config.ConfigKey;
 import myra.Cost;
 import myra.Cost.Maximise;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.regression.rule.RegressionRule;
 
 /**
@@ -49,21 +49,16 @@ import myra.regression.rule.RegressionRule;
  */
 public class RRMSECoverage extends RegressionRuleFunction {
     /**
-     * The config key for the <i>m</i> parameter.
+     * The config key for the <i>m</i> parameter. The default value is taken from
+     * F. Janssen and J. Furnkranz, "On the quest for optimal rule
+     * learning heuristics", Machine Learning 78, pp. 343-379, 2010.
      */
-    public static final ConfigKey<Double> ALPHA = new ConfigKey<Double>();
-
-    static {
-        // default alpha value
-        // see F. Janssen and J. Furnkranz, "On the quest for optimal rule
-        // learning heuristics", Machine Learning 78, pp. 343-379, 2010.
-        CONFIG.set(ALPHA, 0.59);
-    }
+    public static final ConfigKey<Double> ALPHA = new ConfigKey<Double>(0.59);
 
     @Override
     public Cost evaluate(Dataset dataset,
                          RegressionRule rule,
-                         Instance[] instances) {
+                         Coverage instances) {
         double predicted = rule.getConsequent().value();
 
         // (1) calculates the mean over all uncovered instances
@@ -72,8 +67,8 @@ public class RRMSECoverage extends RegressionRuleFunction {
         double mean = 0;
 
         for (int i = 0; i < dataset.size(); i++) {
-            if (instances[i].flag != COVERED) {
-                available += instances[i].weight;
+            if (instances.flag(i) != COVERED) {
+                available += instances.weight(i);
                 mean += dataset.value(i, dataset.classIndex());
             }
         }
@@ -87,13 +82,13 @@ public class RRMSECoverage extends RegressionRuleFunction {
         double coverage = 0;
 
         for (int i = 0; i < dataset.size(); i++) {
-            if (instances[i].flag == RULE_COVERED) {
+            if (instances.flag(i) == RULE_COVERED) {
                 double actual = dataset.value(i, dataset.classIndex());
 
                 lSE += Math.pow(actual - predicted, 2);
                 lDefault += Math.pow(actual - mean, 2);
 
-                coverage += instances[i].weight;
+                coverage += instances.weight(i);
             }
         }
 
@@ -21,7 +21,7 @@ package myra.regression.rule.function;
 
 import myra.Cost;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.regression.rule.RegressionRule;
 import myra.rule.Rule;
 import myra.rule.RuleFunction;
@@ -37,7 +37,7 @@ public abstract class RegressionRuleFunction extends RuleFunction {
     @Override
     public final Cost evaluate(Dataset dataset,
                                Rule rule,
-                               Instance[] instances) {
+                               Coverage instances) {
         return evaluate(dataset, (RegressionRule) rule, instances);
     }
 
@@ -55,5 +55,5 @@ public abstract class RegressionRuleFunction extends RuleFunction {
      */
     public abstract Cost evaluate(Dataset dataset,
                                   RegressionRule rule,
-                                  Instance[] instances);
+                                  Coverage instances);
 }
\ No newline at end of file
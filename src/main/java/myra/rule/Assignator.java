@@ -21,7 +21,7 @@ package myra.rule;
 
 import myra.Config.ConfigKey;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * The <code>Assignator</code> should be implemented by classes that are
@@ -48,5 +48,5 @@ public interface Assignator {
      * 
      * @return the number of uncovered instances.
      */
-    public int assign(Dataset dataset, Rule rule, Instance[] instances);
+    public int assign(Dataset dataset, Rule rule, Coverage instances);
 }
\ No newline at end of file
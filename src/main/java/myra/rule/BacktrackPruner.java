@@ -24,12 +24,14 @@ import static myra.rule.Assignator.ASSIGNATOR;
 
 import myra.Cost;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Rule.Term;
 
 /**
  * This class represents the "threshold-aware" prune procedure which removes the
- * last term of the rule until the rule quality improves.
+ * last term of the rule until the rule quality improves. The coverage of each
+ * candidate rule is taken from the coverage of the prefixes of the original
+ * rule, computed once.
  * 
  * @author Fernando Esteban Barril Otero
  */
@@ -37,7 +39,7 @@ public class BacktrackPruner extends Pruner {
     @Override
     public int prune(Dataset dataset,
                      Rule rule,
-                     Instance[] instances,
+                     Coverage instances,
                      RuleFunction function) {
         Assignator assignator = CONFIG.get(ASSIGNATOR);
         int available = assignator.assign(dataset, rule, instances);
@@ -45,9 +47,12 @@ public class BacktrackPruner extends Pruner {
         Cost best = function.evaluate(dataset, rule, instances);
         Term last = null;
 
+        PrefixCoverage prefixes = PrefixCoverage.get();
+        prefixes.compute(dataset, rule, instances, 0);
+
         while (rule.size() > 1) {
             last = rule.pop();
-            rule.apply(dataset, instances);
+            prefixes.apply(dataset, rule, instances, rule.size() - 1);
             int pruned = assignator.assign(dataset, rule, instances);
 
             Cost current = function.evaluate(dataset, rule, instances);
@@ -57,7 +62,7 @@ public class BacktrackPruner extends Pruner {
                 best = current;
             } else {
                 rule.push(last);
-                rule.apply(dataset, instances);
+                prefixes.apply(dataset, rule, instances, rule.size() - 1);
                 available = assignator.assign(dataset, rule, instances);
 
                 break;
@@ -22,6 +22,8 @@ package myra.rule;
 import static myra.datamining.Attribute.EQUAL_TO;
 
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.BiPredicate;
 
 import myra.datamining.Attribute;
 import myra.datamining.Dataset;
@@ -34,16 +36,64 @@ import myra.datamining.Attribute.Condition;
  * 
  * @author Fernando Esteban Barril Otero
  */
-public class Graph {
+public class Graph implements Cloneable {
     /**
      * The index of the (initial) start vertex.
      */
     public static final int START_INDEX = 0;
 
     /**
-     * The pheromone matrix.
+     * The pheromone values. Each row holds the values of the edges leaving a
+     * vertex, indexed by the position <code>p</code> of the target vertex in
+     * <code>neighbours[from]</code>: the initial value of the edge is stored
+     * at <code>pheromone[from][p]</code> and its value at level
+     * <code>k</code> at <code>pheromone[from][(k + 1) * width + p]</code>,
+     * where <code>width</code> is the number of neighbours of the vertex.
+     * Absent edges are not stored.
      */
-    protected Entry[][] matrix;
+    protected double[][] pheromone;
+
+    /**
+     * The indexes of the neighbours of each vertex (the edges of the graph),
+     * in ascending order.
+     */
+    protected int[][] neighbours;
+
+    /**
+     * The number of levels with a pheromone value.
+     */
+    protected int levels;
+
+    /**
+     * The number of evaporation steps requested (see
+     * {@link #evaporate(Evaporation)}).
+     */
+    private volatile int clock;
+
+    /**
+     * The evaporation step up to which the values of each row are up to date.
+     */
+    private AtomicIntegerArray stamp;
+
+    /**
+     * The lock of each row, held while pending evaporation steps are applied
+     * to the row. Rows are refreshed independently, so ants reading different
+     * rows do not wait for each other. Copies of the graph share the locks.
+     */
+    private Object[] locks;
+
+    /**
+     * Indicates whether each row of the pheromone matrix is shared with a copy
+     * of the graph (see {@link #copy()}). A shared row is never modified: it
+     * is replaced by a copy of the row the first time it needs to be
+     * modified.
+     */
+    private boolean[] shared;
+
+    /**
+     * The pending (lazy) evaporation procedure.
+     */
+    private Evaporation evaporation;
 
     /**
      * The vertices of the graph.
@@ -124,26 +174,49 @@ public class Graph {
             }
         }
 
-        // creates the pheromone matrix
-
-        matrix = new Entry[termsCount][termsCount];
-
-        for (int i = 0; i < termsCount; i++) {
-            Vertex current = vertices[i];
+        // creates the pheromone matrix: vertices are connected to all
+        // vertices of different attributes, except the start vertex
 
-            for (int j = 0; j < termsCount; j++) {
-                if (i != j && j > 0) {
-                    Vertex other = vertices[j];
+        createMatrix((i, j) -> i != j && j > 0
+                && vertices[i].attribute != vertices[j].attribute);
+    }
 
-                    if (current.attribute != other.attribute) {
-                        matrix[i][j] = new Entry();
-                    } else {
-                        matrix[i][j] = null;
-                    }
-                } else {
-                    matrix[i][j] = null;
+    /**
+     * Creates the pheromone matrix of the graph. The edge between two
+     * vertices is only created if accepted by the specified predicate. All
+     * edges start without a pheromone value.
+     * 
+     * @param edge
+     *            the predicate to decide whether there is an edge between two
+     *            vertices.
+     */
+    protected void createMatrix(BiPredicate<Integer, Integer> edge) {
+        int size = vertices.length;
+        pheromone = new double[size][];
+        neighbours = new int[size][];
+        levels = 0;
+        clock = 0;
+        stamp = new AtomicIntegerArray(size);
+        evaporation = null;
+        locks = new Object[size];
+        shared = new boolean[size];
+
+        int[] connected = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            int count = 0;
+
+            for (int j = 0; j < size; j++) {
+                if (edge.test(i, j)) {
+                    connected[count] = j;
+                    count++;
                 }
             }
+
+            neighbours[i] = Arrays.copyOf(connected, count);
+            pheromone[i] = new double[count];
+            locks[i] = new Object();
+            Arrays.fill(pheromone[i], Double.NaN);
         }
     }
 
@@ -157,12 +230,448 @@ public class Graph {
     }
 
     /**
-     * Returns the structure representing the pheromone matrix.
+     * Returns the indexes of the neighbours of the specified vertex, in
+     * ascending order. The returned array must not be modified.
+     * 
+     * @param from
+     *            the vertex index.
+     * 
+     * @return the indexes of the neighbours of the vertex.
+     */
+    public int[] neighbours(int from) {
+        return neighbours[from];
+    }
+
+    /**
+     * Checks whether there is an edge between the specified vertices.
+     * 
+     * @param from
+     *            the source vertex index.
+     * @param to
+     *            the target vertex index.
+     * 
+     * @return <code>true</code> if there is an edge between the vertices;
+     *         <code>false</code> otherwise.
+     */
+    public boolean contains(int from, int to) {
+        return Arrays.binarySearch(neighbours[from], to) >= 0;
+    }
+
+    /**
+     * Returns the position of the specified edge in the row of the source
+     * vertex.
+     * 
+     * @param from
+     *            the source vertex index.
+     * @param to
+     *            the target vertex index.
+     * 
+     * @return the position of the edge in the row of the source vertex.
+     * 
+     * @throws IllegalArgumentException
+     *             if there is no edge between the vertices.
+     */
+    private int position(int from, int to) {
+        int position = Arrays.binarySearch(neighbours[from], to);
+
+        if (position < 0) {
+            throw new IllegalArgumentException("Invalid edge: (" + from + ", "
+                    + to + ")");
+        }
+
+        return position;
+    }
+
+    /**
+     * Adds an edge between the specified vertices, if not present. The edge
+     * starts without a pheromone value.
+     * 
+     * @param from
+     *            the source vertex index.
+     * @param to
+     *            the target vertex index.
+     */
+    public void connect(int from, int to) {
+        int position = Arrays.binarySearch(neighbours[from], to);
+
+        if (position < 0) {
+            position = -(position + 1);
+            int width = neighbours[from].length;
+            int[] row = new int[width + 1];
+            System.arraycopy(neighbours[from], 0, row, 0, position);
+            row[position] = to;
+            System.arraycopy(neighbours[from],
+                             position,
+                             row,
+                             position + 1,
+                             width - position);
+
+            // inserts the slot of the edge in the initial values and in
+            // each level
+            double[] values = pheromone[from];
+            int count = width == 0 ? levels + 1 : values.length / width;
+            double[] expanded = new double[count * (width + 1)];
+
+            for (int k = 0; k < count; k++) {
+                int source = k * width;
+                int target = k * (width + 1);
+
+                System.arraycopy(values, source, expanded, target, position);
+                expanded[target + position] = Double.NaN;
+                System.arraycopy(values,
+                                 source + position,
+                                 expanded,
+                                 target + position + 1,
+                                 width - position);
+            }
+
+            neighbours[from] = row;
+            pheromone[from] = expanded;
+            shared[from] = false;
+        }
+    }
+
+    /**
+     * Returns the number of levels with a pheromone value. Levels above this
+     * number use the initial value of the edges.
+     * 
+     * @return the number of levels with a pheromone value.
+     */
+    public int levels() {
+        return levels;
+    }
+
+    /**
+     * Returns the pheromone value of an edge at the specified level. If there
+     * is no value at the specified level, returns the initial value of the
+     * edge.
+     * 
+     * @param from
+     *            the source vertex index.
+     * @param to
+     *            the target vertex index.
+     * @param level
+     *            the level.
+     * 
+     * @return the pheromone value of the edge at the specified level.
+     */
+    public double value(int from, int to, int level) {
+        int position = Arrays.binarySearch(neighbours[from], to);
+        return position < 0 ? Double.NaN : valueAt(from, position, level);
+    }
+
+    /**
+     * Returns the pheromone value of the edge at the specified position of
+     * the row of a vertex (see {@link #neighbours(int)}) at the specified
+     * level. If there is no value at the specified level, returns the initial
+     * value of the edge. This avoids searching for the edge when iterating
+     * over the neighbours of a vertex.
+     * 
+     * @param from
+     *            the source vertex index.
+     * @param position
+     *            the position of the target vertex in the neighbours of the
+     *            source vertex.
+     * @param level
+     *            the level.
+     * 
+     * @return the pheromone value of the edge at the specified level.
+     */
+    public double valueAt(int from, int position, int level) {
+        if (stamp.get(from) != clock) {
+            refresh(from);
+        }
+
+        double[] row = pheromone[from];
+        int index = (level + 1) * neighbours[from].length + position;
+        // the row length is also checked, since the row might have been
+        // reallocated by a concurrent update
+        return (level < levels && index < row.length) ? row[index]
+                : row[position];
+    }
+
+    /**
+     * Returns the initial pheromone value of an edge.
+     * 
+     * @param from
+     *            the source vertex index.
+     * @param to
+     *            the target vertex index.
+     * 
+     * @return the initial pheromone value of the edge.
+     */
+    public double initial(int from, int to) {
+        int position = Arrays.binarySearch(neighbours[from], to);
+        return position < 0 ? Double.NaN : pheromone[from][position];
+    }
+
+    /**
+     * Sets the initial pheromone value of an edge. The values of the levels
+     * already present are not modified.
+     * 
+     * @param from
+     *            the source vertex index.
+     * @param to
+     *            the target vertex index.
+     * @param value
+     *            the initial value.
+     * 
+     * @throws IllegalArgumentException
+     *             if there is no edge between the vertices.
+     */
+    public void setInitial(int from, int to, double value) {
+        own(from)[position(from, to)] = value;
+    }
+
+    /**
+     * Sets the pheromone value of an edge at the specified level. If the level
+     * is not present, levels are added to all edges, using their initial
+     * values.
+     * 
+     * @param from
+     *            the source vertex index.
+     * @param to
+     *            the target vertex index.
+     * @param level
+     *            the level.
+     * @param value
+     *            the value to set.
+     * 
+     * @throws IllegalArgumentException
+     *             if there is no edge between the vertices.
+     */
+    public void set(int from, int to, int level, double value) {
+        setAt(from, position(from, to), level, value);
+    }
+
+    /**
+     * Sets the pheromone value of the edge at the specified position of the
+     * row of a vertex (see {@link #neighbours(int)}) at the specified level.
+     * If the level is not present, levels are added to all edges, using their
+     * initial values.
+     * 
+     * @param from
+     *            the source vertex index.
+     * @param position
+     *            the position of the target vertex in the neighbours of the
+     *            source vertex.
+     * @param level
+     *            the level.
+     * @param value
+     *            the value to set.
+     */
+    public void setAt(int from, int position, int level, double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("Invalid pheromone value: "
+                    + value);
+        }
+
+        if (level >= levels) {
+            grow(level + 1);
+        }
+
+        own(from)[(level + 1) * neighbours[from].length + position] = value;
+    }
+
+    /**
+     * Resets an edge to the specified initial value, which is also its value
+     * at the first level. This is usually called for all edges of the graph
+     * after {@link #clear()}.
+     * 
+     * @param from
+     *            the source vertex index.
+     * @param to
+     *            the target vertex index.
+     * @param value
+     *            the initial value.
+     * 
+     * @throws IllegalArgumentException
+     *             if there is no edge between the vertices.
+     */
+    public void initialise(int from, int to, double value) {
+        int position = position(from, to);
+        own(from)[position] = value;
+        setAt(from, position, 0, value);
+    }
+
+    /**
+     * Removes all levels of the pheromone matrix, so all edges use their
+     * initial values.
+     */
+    public void clear() {
+        levels = 0;
+        clock = 0;
+        stamp = new AtomicIntegerArray(vertices.length);
+        evaporation = null;
+    }
+
+    /**
+     * Makes sure that the pheromone matrix has (at least) the specified number
+     * of levels. New levels are filled with the initial values of the edges.
      * 
-     * @return the structure representing the pheromone matrix.
+     * @param count
+     *            the number of levels.
      */
-    public Entry[][] matrix() {
-        return matrix;
+    public void grow(int count) {
+        if (count <= levels) {
+            return;
+        }
+
+        int size = vertices.length;
+
+        // pending evaporation steps do not apply to the new levels
+        for (int i = 0; i < size; i++) {
+            refresh(i);
+        }
+
+        for (int i = 0; i < size; i++) {
+            double[] row = pheromone[i];
+            int width = neighbours[i].length;
+
+            if (row.length < (count + 1) * width) {
+                // doubles the capacity to amortise the growth
+                int capacity = (row.length / width) - 1;
+                row = Arrays.copyOf(row,
+                                    (Math.max(count, 2 * capacity) + 1)
+                                            * width);
+            } else if (shared[i]) {
+                row = row.clone();
+            }
+
+            for (int k = levels; k < count; k++) {
+                System.arraycopy(row, 0, row, (k + 1) * width, width);
+            }
+
+            pheromone[i] = row;
+            shared[i] = false;
+        }
+
+        levels = count;
+    }
+
+    /**
+     * Returns the row of pheromone values of the specified vertex (see
+     * {@link #pheromone}), applying any pending evaporation step. The row
+     * contains at least {@link #levels()} levels after the initial values and
+     * it can be modified, since it is not shared with a copy of the graph.
+     * 
+     * @param from
+     *            the vertex index.
+     * 
+     * @return the row of pheromone values of the vertex.
+     */
+    public double[] row(int from) {
+        return own(from);
+    }
+
+    /**
+     * Returns the row of pheromone values of the specified vertex ready to be
+     * modified: pending evaporation steps are applied and, if the row is
+     * shared with a copy of the graph, the row is replaced by a copy.
+     * 
+     * @param from
+     *            the vertex index.
+     * 
+     * @return the row of pheromone values of the vertex.
+     */
+    private double[] own(int from) {
+        synchronized (locks[from]) {
+            refresh(from);
+
+            if (shared[from]) {
+                pheromone[from] = pheromone[from].clone();
+                shared[from] = false;
+            }
+
+            return pheromone[from];
+        }
+    }
+
+    /**
+     * Requests a (lazy) evaporation step. The step is only applied to a row of
+     * the pheromone matrix when the row is accessed, together with any other
+     * pending step.
+     * 
+     * @param evaporation
+     *            the evaporation procedure.
+     */
+    public void evaporate(Evaporation evaporation) {
+        this.evaporation = evaporation;
+        clock++;
+    }
+
+    /**
+     * Applies the pending evaporation steps to the specified row. Only the
+     * lock of the row is held, so other rows can be refreshed at the same
+     * time. A shared row is evaporated into a copy of the row, which then
+     * replaces it.
+     * 
+     * @param from
+     *            the vertex index.
+     */
+    private void refresh(int from) {
+        synchronized (locks[from]) {
+            int now = clock;
+            int last = stamp.get(from);
+
+            // the row might have been refreshed while waiting for the lock
+            if (last != now) {
+                int width = neighbours[from].length;
+                double[] row = shared[from] ? pheromone[from].clone()
+                        : pheromone[from];
+                evaporation.apply(row, width, (levels + 1) * width, last, now);
+
+                pheromone[from] = row;
+                shared[from] = false;
+                // publishes the evaporated values
+                stamp.set(from, now);
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of the graph. The pheromone values of the copy can be
+     * modified without affecting the values of the graph, so the copy can be
+     * updated while ants read the graph. Pending evaporation steps are copied
+     * and remain pending. Vertices are shared with the graph, since they are
+     * not modified by the pheromone update.
+     * 
+     * <p>
+     * The rows of the pheromone matrix are shared between the graph and the
+     * copy (copy-on-write): a row is only copied when it is first modified by
+     * either of them, so the cost of the copy is proportional to the number of
+     * rows and not to the number of pheromone values. Each row is shared
+     * holding only its lock, so ants can refresh the other rows of the graph
+     * meanwhile.
+     * </p>
+     * 
+     * @return a copy of the graph.
+     */
+    public Graph copy() {
+        try {
+            Graph copy = (Graph) super.clone();
+            copy.pheromone = new double[pheromone.length][];
+            copy.shared = new boolean[pheromone.length];
+            int[] stamps = new int[pheromone.length];
+
+            for (int i = 0; i < pheromone.length; i++) {
+                // the values and the stamp of the row must match
+                synchronized (locks[i]) {
+                    copy.pheromone[i] = pheromone[i];
+                    stamps[i] = stamp.get(i);
+                    shared[i] = true;
+                }
+            }
+
+            Arrays.fill(copy.shared, true);
+            // rows are replaced (not modified) when an edge is added
+            copy.neighbours = neighbours.clone();
+            copy.stamp = new AtomicIntegerArray(stamps);
+
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e.getMessage());
+        }
     }
 
     /**
@@ -222,32 +731,44 @@ public class Graph {
      *            the maximum level used during evaporation.
      */
     public void evaporate(double factor, int level) {
+        grow(level);
+
         for (int i = 0; i < vertices.length; i++) {
-            Entry[] neighbours = matrix[i];
-
-            for (int j = 0; j < neighbours.length; j++) {
-                if (neighbours[j] != null) {
-                    Entry entry = neighbours[j];
-                    int size = entry.size();
-
-                    if (size < level) {
-                        entry.set(level - 1, entry.initial());
-                    }
-
-                    for (int k = 0; k < level; k++) {
-                        if (k < size) {
-                            entry.set(k, entry.value(k) * factor);
-                        } else {
-                            entry.set(k, entry.initial() * factor);
-                        }
-                    }
-                }
+            double[] row = row(i);
+            int width = neighbours[i].length;
+
+            for (int j = width; j < (level + 1) * width; j++) {
+                row[j] *= factor;
             }
         }
     }
 
     /**
-     * This (struct-like) class represents an entry in the pheromone matrix.
+     * Interface of a (lazy) evaporation procedure.
+     */
+    public static interface Evaporation {
+        /**
+         * Applies the evaporation steps <code>(from, to]</code> to a row of the
+         * pheromone matrix.
+         * 
+         * @param row
+         *            the row of the pheromone matrix.
+         * @param start
+         *            the index of the first pheromone value of the row (the
+         *            initial values are not evaporated).
+         * @param end
+         *            the index after the last pheromone value of the row.
+         * @param from
+         *            the last step applied to the row.
+         * @param to
+         *            the last step to apply.
+         */
+        public void apply(double[] row, int start, int end, int from, int to);
+    }
+
+    /**
+     * This (struct-like) class represents a value with multiple levels, e.g.,
+     * the heuristic information of a vertex.
      * 
      * @author Fernando Esteban Barril Otero
      */
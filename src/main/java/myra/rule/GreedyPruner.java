@@ -24,12 +24,14 @@ import static myra.rule.Assignator.ASSIGNATOR;
 
 import myra.Cost;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Rule.Term;
 
 /**
  * This class represents a greedy prune procedure, which removes
- * one-term-at-a-time term of the rule until the rule quality decreases.
+ * one-term-at-a-time term of the rule until the rule quality decreases. The
+ * coverage of the rule without each term is obtained by combining the coverage
+ * of the prefix and suffix around the term, computed once per iteration.
  * 
  * @author Fernando Esteban Barril Otero
  */
@@ -37,21 +39,25 @@ public class GreedyPruner extends Pruner {
     @Override
     public int prune(Dataset dataset,
                      Rule rule,
-                     Instance[] instances,
+                     Coverage instances,
                      RuleFunction function) {
         Assignator assignator = CONFIG.get(ASSIGNATOR);
         assignator.assign(dataset, rule, instances);
 
         Cost best = function.evaluate(dataset, rule, instances);
+        PrefixCoverage prefixes = PrefixCoverage.get();
 
         while (rule.size() > 1) {
             Term[] terms = rule.terms();
             int irrelevant = -1;
 
-            for (int i = 0; i < terms.length; i++) {
+            prefixes.compute(dataset, rule, instances, 0);
+            prefixes.suffixes(dataset, rule);
+
+            for (int i = 0; i < rule.size(); i++) {
                 terms[i].setEnabeld(false);
 
-                rule.apply(dataset, instances);
+                prefixes.without(dataset, rule, instances, i);
                 assignator.assign(dataset, rule, instances);
 
                 Cost current = function.evaluate(dataset, rule, instances);
@@ -19,9 +19,14 @@
 
 package myra.rule;
 
+import static myra.Config.CONFIG;
+
+import java.util.function.IntConsumer;
+
 import myra.Config.ConfigKey;
+import myra.ParallelScheduler;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Graph.Entry;
 
 /**
@@ -43,6 +48,13 @@ public interface Heuristic {
     public final static ConfigKey<Boolean> DYNAMIC_HEURISTIC =
             new ConfigKey<Boolean>();
 
+    /**
+     * The config key for the number of threads used to compute the heuristic
+     * information of different attributes in parallel.
+     */
+    public final static ConfigKey<Integer> PARALLEL_HEURISTIC =
+            new ConfigKey<Integer>();
+
     /**
      * Computes the heuristic information.
      * 
@@ -55,7 +67,7 @@ public interface Heuristic {
      * 
      * @return an array with the heuristic values for each vertex of the graph.
      */
-    public Entry[] compute(Graph graph, Dataset dataset, Instance[] instances);
+    public Entry[] compute(Graph graph, Dataset dataset, Coverage instances);
 
     /**
      * Computes the heuristic information.
@@ -73,7 +85,7 @@ public interface Heuristic {
      */
     public Entry[] compute(Graph graph,
                            Dataset dataset,
-                           Instance[] instances,
+                           Coverage instances,
                            boolean[] used);
 
     /**
@@ -92,7 +104,7 @@ public interface Heuristic {
      */
     public Entry[] compute(Graph graph,
                            Dataset dataset,
-                           Instance[] instances,
+                           Coverage instances,
                            int target);
 
     /**
@@ -113,7 +125,7 @@ public interface Heuristic {
      */
     public Entry[] compute(Graph graph,
                            Dataset dataset,
-                           Instance[] instances,
+                           Coverage instances,
                            boolean[] used,
                            int target);
 
@@ -127,14 +139,14 @@ public interface Heuristic {
         @Override
         public Entry[] compute(Graph graph,
                                Dataset dataset,
-                               Instance[] instances) {
+                               Coverage instances) {
             return compute(graph, dataset, instances, new boolean[0]);
         }
 
         @Override
         public Entry[] compute(Graph graph,
                                Dataset dataset,
-                               Instance[] instances,
+                               Coverage instances,
                                boolean[] used) {
             Entry[] heuristic = Entry.initialise(new Entry[graph.size()]);
 
@@ -151,7 +163,7 @@ public interface Heuristic {
         @Override
         public Entry[] compute(Graph graph,
                                Dataset dataset,
-                               Instance[] instances,
+                               Coverage instances,
                                int target) {
             return compute(graph, dataset, instances, new boolean[0], target);
         }
@@ -159,10 +171,25 @@ public interface Heuristic {
         @Override
         public Entry[] compute(Graph graph,
                                Dataset dataset,
-                               Instance[] instances,
+                               Coverage instances,
                                boolean[] used,
                                int target) {
             return compute(graph, dataset, instances, used);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Executes the specified action for each attribute index. The attributes
+     * are processed in parallel when {@link #PARALLEL_HEURISTIC} is set, so
+     * the action must be thread-safe for different attributes.
+     * 
+     * @param size
+     *            the number of attributes.
+     * @param action
+     *            the action to execute for each attribute index.
+     */
+    public static void forEachAttribute(int size, IntConsumer action) {
+        ParallelScheduler.forEach(CONFIG.isPresent(PARALLEL_HEURISTIC)
+                ? CONFIG.get(PARALLEL_HEURISTIC) : 1, size, 1, action);
+    }
+}
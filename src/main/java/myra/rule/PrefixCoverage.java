@@ -0,0 +1,323 @@
+/*
+ * PrefixCoverage.java
+ * (this file is part of MYRA)
+ * 
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.rule;
+
+import java.util.Arrays;
+
+import myra.datamining.Bitset;
+import myra.datamining.Coverage;
+import myra.datamining.Dataset;
+import myra.rule.Rule.Term;
+
+/**
+ * This class computes the coverage of all prefixes (and suffixes) of the
+ * antecedent of a rule in a single pass, which is the basis of the pruning
+ * procedures. The coverage of each prefix is derived from the coverage of the
+ * previous one, so the condition of a term is only tested against the
+ * instances covered by the terms before it.
+ * 
+ * <p>
+ * Coverages are stored in reusable bitsets, one instance per thread (see
+ * {@link #get()}), so pruning a rule does not allocate memory once the buffers
+ * are large enough. Bitsets only include instances not flagged as
+ * {@link Dataset#COVERED}.
+ * </p>
+ * 
+ * @author Fernando Esteban Barril Otero
+ */
+public final class PrefixCoverage {
+    /**
+     * The instance of each thread.
+     */
+    private static final ThreadLocal<PrefixCoverage> LOCAL =
+            ThreadLocal.withInitial(PrefixCoverage::new);
+
+    /**
+     * The coverage of the prefixes: <code>prefix[j]</code> is the coverage of
+     * the (enabled) terms <code>[start, j)</code>, so
+     * <code>prefix[start]</code> contains all available instances.
+     */
+    private long[][] prefix;
+
+    /**
+     * The coverage of the suffixes: <code>suffix[j]</code> is the coverage of
+     * the (enabled) terms <code>[j, size)</code>.
+     */
+    private long[][] suffix;
+
+    /**
+     * The number of instances of each prefix.
+     */
+    private int[] total;
+
+    /**
+     * The number of words of each bitset.
+     */
+    private int words;
+
+    /**
+     * The number of terms of the rule.
+     */
+    private int size;
+
+    /**
+     * The index of the first term considered.
+     */
+    private int start;
+
+    /**
+     * Creates a new (empty) <code>PrefixCoverage</code>.
+     */
+    private PrefixCoverage() {
+        prefix = new long[0][];
+        suffix = new long[0][];
+        total = new int[0];
+    }
+
+    /**
+     * Returns the <code>PrefixCoverage</code> instance of the current thread.
+     * 
+     * @return the <code>PrefixCoverage</code> instance of the current thread.
+     */
+    public static PrefixCoverage get() {
+        return LOCAL.get();
+    }
+
+    /**
+     * Computes the coverage of the prefixes of the rule antecedent.
+     * 
+     * @param dataset
+     *            the current dataset.
+     * @param rule
+     *            the rule.
+     * @param instances
+     *            the covered instances flag.
+     * @param start
+     *            the index of the first term considered; previous terms are
+     *            ignored.
+     */
+    public void compute(Dataset dataset,
+                        Rule rule,
+                        Coverage instances,
+                        int start) {
+        this.size = rule.size();
+        this.start = start;
+        ensure(size + 1, Bitset.words(dataset.size()));
+
+        // available instances
+        long[] available = prefix[start];
+        long[] covered = instances.coveredBitset();
+        Bitset.fill(available, dataset.size());
+
+        for (int w = 0; w < available.length; w++) {
+            available[w] &= ~covered[w];
+        }
+
+        total[start] = Bitset.cardinality(available);
+
+        Term[] terms = rule.terms();
+
+        for (int j = start; j < size; j++) {
+            if (terms[j].isEnabeld()) {
+                total[j + 1] = Bitset.filter(dataset,
+                                             terms[j].condition(),
+                                             prefix[j],
+                                             prefix[j + 1]);
+            } else {
+                System.arraycopy(prefix[j],
+                                 0,
+                                 prefix[j + 1],
+                                 0,
+                                 prefix[j].length);
+                total[j + 1] = total[j];
+            }
+        }
+    }
+
+    /**
+     * Computes the coverage of the suffixes of the rule antecedent. This
+     * method must be called after {@link #compute(Dataset, Rule, Coverage, int)}
+     * for the same rule.
+     * 
+     * @param dataset
+     *            the current dataset.
+     * @param rule
+     *            the rule.
+     */
+    public void suffixes(Dataset dataset, Rule rule) {
+        System.arraycopy(prefix[start],
+                         0,
+                         suffix[size],
+                         0,
+                         prefix[start].length);
+
+        Term[] terms = rule.terms();
+
+        for (int j = size - 1; j >= start; j--) {
+            if (terms[j].isEnabeld()) {
+                Bitset.filter(dataset,
+                              terms[j].condition(),
+                              suffix[j + 1],
+                              suffix[j]);
+            } else {
+                System.arraycopy(suffix[j + 1],
+                                 0,
+                                 suffix[j],
+                                 0,
+                                 suffix[j + 1].length);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of instances covered by the terms
+     * <code>[start, j]</code>.
+     * 
+     * @param j
+     *            the index of the last term of the prefix;
+     *            <code>start - 1</code> represents the empty prefix.
+     * 
+     * @return the number of instances covered by the prefix.
+     */
+    public int total(int j) {
+        return total[j + 1];
+    }
+
+    /**
+     * Computes the class distribution of the instances covered by the terms
+     * <code>[start, j]</code>.
+     * 
+     * @param dataset
+     *            the current dataset.
+     * @param j
+     *            the index of the last term of the prefix;
+     *            <code>start - 1</code> represents the empty prefix.
+     * @param distribution
+     *            the array to store the number of covered instances of each
+     *            class.
+     */
+    public void distribution(Dataset dataset, int j, int[] distribution) {
+        for (int i = 0; i < distribution.length; i++) {
+            distribution[i] = Bitset.andCardinality(prefix[j + 1],
+                                                    dataset.classBitset(i));
+        }
+    }
+
+    /**
+     * Flags the instances covered by the terms <code>[start, j]</code> as
+     * {@link Dataset#RULE_COVERED}, without computing the rule statistics.
+     * The coverage is stored in the bitset of the rule, so the rule can be
+     * extended using {@link Rule#trial(Dataset, Term, long[])} once its
+     * antecedent matches the prefix.
+     * 
+     * @param rule
+     *            the rule.
+     * @param instances
+     *            the covered instances flag.
+     * @param j
+     *            the index of the last term of the prefix.
+     * 
+     * @return the number of instances covered by the prefix.
+     */
+    public int mark(Rule rule, Coverage instances, int j) {
+        long[] coverage = rule.bitset(words);
+        System.arraycopy(prefix[j + 1], 0, coverage, 0, words);
+        return instances.apply(coverage);
+    }
+
+    /**
+     * Applies the rule using the coverage of the terms <code>[start, j]</code>
+     * (e.g., after removing the terms after <code>j</code>).
+     * 
+     * @param dataset
+     *            the current dataset.
+     * @param rule
+     *            the rule.
+     * @param instances
+     *            the covered instances flag.
+     * @param j
+     *            the index of the last term of the prefix.
+     * 
+     * @return the number of covered instances by the rule.
+     */
+    public int apply(Dataset dataset, Rule rule, Coverage instances, int j) {
+        long[] coverage = rule.bitset(words);
+        System.arraycopy(prefix[j + 1], 0, coverage, 0, words);
+        return rule.apply(dataset, instances, coverage);
+    }
+
+    /**
+     * Applies the rule using the coverage of all terms except term
+     * <code>j</code>. This method requires the suffixes to be computed (see
+     * {@link #suffixes(Dataset, Rule)}).
+     * 
+     * @param dataset
+     *            the current dataset.
+     * @param rule
+     *            the rule.
+     * @param instances
+     *            the covered instances flag.
+     * @param j
+     *            the index of the term to ignore.
+     * 
+     * @return the number of covered instances by the rule.
+     */
+    public int without(Dataset dataset, Rule rule, Coverage instances, int j) {
+        long[] before = prefix[j];
+        long[] after = suffix[j + 1];
+        long[] coverage = rule.bitset(words);
+
+        for (int w = 0; w < words; w++) {
+            coverage[w] = before[w] & after[w];
+        }
+
+        return rule.apply(dataset, instances, coverage);
+    }
+
+    /**
+     * Makes sure that the buffers can store the specified number of bitsets.
+     * 
+     * @param count
+     *            the number of bitsets.
+     * @param words
+     *            the number of words of each bitset.
+     */
+    private void ensure(int count, int words) {
+        if (this.words != words) {
+            prefix = new long[0][];
+            suffix = new long[0][];
+            this.words = words;
+        }
+
+        if (prefix.length < count) {
+            int length = Math.max(count, 2 * prefix.length);
+            int previous = prefix.length;
+
+            prefix = Arrays.copyOf(prefix, length);
+            suffix = Arrays.copyOf(suffix, length);
+            total = Arrays.copyOf(total, length);
+
+            for (int i = previous; i < length; i++) {
+                prefix[i] = new long[words];
+                suffix[i] = new long[words];
+            }
+        }
+    }
+}
@@ -25,7 +25,7 @@ import static myra.rule.RuleFunction.DEFAULT_FUNCTION;
 
 import myra.Config.ConfigKey;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * The <code>Pruner</code> should be implemented by classes that are responsible
@@ -54,7 +54,7 @@ public abstract class Pruner {
      * 
      * @return the number of uncovered instances remaining.
      */
-    public int prune(Dataset dataset, Rule rule, Instance[] instances) {
+    public int prune(Dataset dataset, Rule rule, Coverage instances) {
         return prune(dataset, rule, instances, CONFIG.get(DEFAULT_FUNCTION));
     }
 
@@ -74,7 +74,7 @@ public abstract class Pruner {
      */
     public abstract int prune(Dataset dataset,
                               Rule rule,
-                              Instance[] instances,
+                              Coverage instances,
                               RuleFunction function);
 
     /**
@@ -84,7 +84,7 @@ public abstract class Pruner {
         @Override
         public int prune(Dataset dataset,
                          Rule rule,
-                         Instance[] instances,
+                         Coverage instances,
                          RuleFunction function) {
             Assignator assignator = CONFIG.get(ASSIGNATOR);
             return assignator.assign(dataset, rule, instances);
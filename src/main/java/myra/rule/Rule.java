@@ -20,6 +20,7 @@
 package myra.rule;
 
 import static myra.Config.CONFIG;
+import static myra.datamining.CoverageCache.COVERAGE_CACHE;
 
 import java.util.Arrays;
 
@@ -28,8 +29,10 @@ import myra.Cost;
 import myra.Weighable;
 import myra.datamining.Attribute;
 import myra.datamining.Attribute.Condition;
+import myra.datamining.Bitset;
+import myra.datamining.CoverageCache;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.datamining.Prediction;
 import myra.util.ObjectFactory;
 
@@ -75,6 +78,11 @@ public abstract class Rule implements Weighable<Rule> {
      */
     private double weight;
 
+    /**
+     * Bitset used to compute the coverage of the rule.
+     */
+    private long[] bitset;
+
     /**
      * Default constructor.
      */
@@ -273,6 +281,75 @@ public abstract class Rule implements Weighable<Rule> {
         return covered;
     }
 
+    /**
+     * Returns the bitset of the instances of the dataset that satisfy the
+     * antecedent of the rule, computed as the intersection of the coverage
+     * bitsets of its (enabled) terms. The bitset is reused between calls, so
+     * it is only valid until the next call to this method.
+     * 
+     * @param dataset
+     *            the current dataset.
+     * 
+     * @return the bitset of the instances that satisfy the antecedent of the
+     *         rule.
+     * 
+     * @see Bitset
+     */
+    protected long[] coverage(Dataset dataset) {
+        long[] coverage = bitset(Bitset.words(dataset.size()));
+        Bitset.fill(coverage, dataset.size());
+
+        for (int i = 0; i < size; i++) {
+            if (terms[i].isEnabeld()) {
+                Bitset.and(coverage, terms[i].coverage(dataset));
+            }
+        }
+
+        return coverage;
+    }
+
+    /**
+     * Returns the bitset used to compute the coverage of the rule, allocating
+     * it if needed. {@link PrefixCoverage} stores the coverage of the pruned
+     * antecedent in this bitset, so it remains valid for
+     * {@link #trial(Dataset, Term, long[])} after pruning.
+     * 
+     * @param words
+     *            the number of words of the bitset.
+     * 
+     * @return the bitset used to compute the coverage of the rule.
+     */
+    long[] bitset(int words) {
+        if (bitset == null || bitset.length != words) {
+            bitset = new long[words];
+        }
+
+        return bitset;
+    }
+
+    /**
+     * Computes the coverage of the rule extended with the specified term,
+     * without modifying the rule or the coverage state. Adding a term can only
+     * reduce the coverage of the rule, so the condition of the term is only
+     * tested against the instances flagged as {@link Dataset#RULE_COVERED} by
+     * the last call to {@link #apply(Dataset, Coverage)} (or to the
+     * {@link PrefixCoverage} methods used by the pruners), which must have
+     * been made with the current antecedent of the rule.
+     * 
+     * @param dataset
+     *            the current dataset.
+     * @param term
+     *            the candidate term.
+     * @param result
+     *            the bitset to store the instances covered by the extended
+     *            rule (it must have the same length as the dataset bitsets).
+     * 
+     * @return the number of instances covered by the extended rule.
+     */
+    public int trial(Dataset dataset, Term term, long[] result) {
+        return Bitset.filter(dataset, term.condition(), bitset, result);
+    }
+
     /**
      * Returns the number of terms in the antecedent of the rule.
      * 
@@ -312,7 +389,30 @@ public abstract class Rule implements Weighable<Rule> {
      * 
      * @return the number of covered instances by the rule.
      */
-    public abstract int apply(Dataset dataset, Instance[] instances);
+    public int apply(Dataset dataset, Coverage instances) {
+        return apply(dataset, instances, coverage(dataset));
+    }
+
+    /**
+     * Applies the rule using a precomputed bitset of the instances that
+     * satisfy its antecedent (e.g., computed by {@link PrefixCoverage}) and
+     * returns the number of covered instances. Only instances that have not
+     * been previously covered are considered.
+     * 
+     * @param dataset
+     *            the current dataset.
+     * @param instances
+     *            the covered instances flag.
+     * @param coverage
+     *            the bitset of the instances that satisfy the antecedent of
+     *            the rule; on return, it contains only the instances covered
+     *            by the rule.
+     * 
+     * @return the number of covered instances by the rule.
+     */
+    protected abstract int apply(Dataset dataset,
+                                 Coverage instances,
+                                 long[] coverage);
 
     /**
      * Sets the predicted value.
@@ -434,6 +534,8 @@ public abstract class Rule implements Weighable<Rule> {
                 for (int k = 0; k < c.value.length; k++) {
                     c.value[k] = c.threshold[k];
                 }
+
+                terms[i].coverage = null;
             }
         }
     }
@@ -508,6 +610,23 @@ public abstract class Rule implements Weighable<Rule> {
          */
         private boolean enabeld;
 
+        /**
+         * The bitset of the instances that satisfy the condition;
+         * <code>null</code> if it has not been computed.
+         */
+        private long[] coverage;
+
+        /**
+         * The dataset used to compute the coverage bitset.
+         */
+        private Dataset dataset;
+
+        /**
+         * The modification count of the dataset when the coverage bitset was
+         * computed.
+         */
+        private int modifications;
+
         /**
          * Creates a <code>Term</code>.
          * 
@@ -550,6 +669,32 @@ public abstract class Rule implements Weighable<Rule> {
             return condition;
         }
 
+        /**
+         * Returns the bitset of the instances of the dataset that satisfy the
+         * condition of the term. The bitset is computed once and reused while
+         * the dataset is not modified; when a {@link CoverageCache} is
+         * available, the bitset is shared with all terms that have an
+         * equivalent condition.
+         * 
+         * @param dataset
+         *            the current dataset.
+         * 
+         * @return the bitset of the instances that satisfy the condition of
+         *         the term.
+         */
+        long[] coverage(Dataset dataset) {
+            if (coverage == null || this.dataset != dataset
+                    || modifications != dataset.modifications()) {
+                coverage = CONFIG.isPresent(COVERAGE_CACHE)
+                        ? CONFIG.get(COVERAGE_CACHE).get(dataset, condition)
+                        : Bitset.of(dataset, condition);
+                this.dataset = dataset;
+                modifications = dataset.modifications();
+            }
+
+            return coverage;
+        }
+
         /**
          * Returns <code>true</code> if the term is enabled.
          * 
@@ -564,7 +709,7 @@ public abstract class Rule implements Weighable<Rule> {
          * Sets the <code>enabled</code> flag. Note that setting the flag to
          * <code>false</code> does not remove the term from the antecedent, only
          * prevents its evaluation in
-         * {@link Rule#apply(Dataset, Dataset.Instance[])}. When the method
+         * {@link Rule#apply(Dataset, Coverage)}. When the method
          * {@link Rule#compact()} is called, any term that has the flag set to
          * <code>false</code> will be removed from the antecedent.
          * 
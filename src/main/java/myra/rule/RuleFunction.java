@@ -21,7 +21,7 @@ package myra.rule;
 
 import myra.Config.ConfigKey;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.Cost;
 
 /**
@@ -50,5 +50,5 @@ public abstract class RuleFunction {
      */
     public abstract Cost evaluate(Dataset dataset,
                                   Rule rule,
-                                  Instance[] instances);
+                                  Coverage instances);
 }
\ No newline at end of file
@@ -28,7 +28,7 @@ import myra.AbstractWeighable;
 import myra.Config;
 import myra.Cost;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.datamining.Model;
 import myra.datamining.Prediction;
 
@@ -179,11 +179,11 @@ public class RuleList extends AbstractWeighable<RuleList> implements Model {
      * @param dataset
      *            the current dataset.
      *
-     * @see Rule#apply(Dataset, Dataset.Instance[])
+     * @see Rule#apply(Dataset, Coverage)
      */
     public void apply(Dataset dataset) {
-        Instance[] instances = Instance.newArray(dataset.size());
-        Instance.markAll(instances, NOT_COVERED);
+        Coverage instances = new Coverage(dataset.size());
+        instances.markAll(NOT_COVERED);
 
         for (int i = 0; i < rules.length; i++) {
             if (rules[i].isEnabled()) {
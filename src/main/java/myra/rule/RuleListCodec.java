@@ -0,0 +1,267 @@
+/*
+ * RuleListCodec.java
+ * (this file is part of MYRA)
+ * 
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.rule;
+
+import static myra.Config.CONFIG;
+import static myra.datamining.Attribute.EQUAL_TO;
+import static myra.datamining.Attribute.GREATER_THAN;
+import static myra.datamining.Attribute.GREATER_THAN_OR_EQUAL_TO;
+import static myra.datamining.Attribute.IN_RANGE;
+import static myra.datamining.Attribute.LESS_THAN;
+import static myra.datamining.Attribute.LESS_THAN_OR_EQUAL_TO;
+import static myra.datamining.Dataset.NOT_COVERED;
+import static myra.rule.Assignator.ASSIGNATOR;
+import static myra.rule.ListMeasure.DEFAULT_MEASURE;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import myra.PeerScheduler.Codec;
+import myra.datamining.Attribute.Condition;
+import myra.datamining.Coverage;
+import myra.datamining.Dataset;
+import myra.rule.Graph.Vertex;
+import myra.rule.Rule.Term;
+
+/**
+ * Codec of (ordered) lists of rules. Only the terms of each rule are encoded:
+ * the consequent of the rules and the quality of the list are computed again
+ * by the receiver on its own dataset, in the same way as a list created by an
+ * ant. Therefore, the sender and the receiver must use the same training
+ * data.
+ * 
+ * <p>
+ * Messages come from other processes, so they are validated against the
+ * construction graph before any rule is created: the number of rules and
+ * terms are bounded, each term must use a vertex of the graph with a
+ * condition on the attribute of the vertex, and the relation must be one
+ * that an ant could have created. An invalid (or truncated) message is
+ * rejected with an <code>IOException</code>.
+ * </p>
+ * 
+ * @author Fernando Esteban Barril Otero
+ */
+public class RuleListCodec implements Codec<RuleList> {
+    /**
+     * The construction graph.
+     */
+    private final Graph graph;
+
+    /**
+     * The current dataset.
+     */
+    private final Dataset dataset;
+
+    /**
+     * Creates a new <code>RuleListCodec</code>.
+     * 
+     * @param graph
+     *            the construction graph of the received lists.
+     * @param dataset
+     *            the current dataset.
+     */
+    public RuleListCodec(Graph graph, Dataset dataset) {
+        this.graph = graph;
+        this.dataset = dataset;
+    }
+
+    @Override
+    public void write(RuleList list, DataOutput out) throws IOException {
+        Rule[] rules = list.rules();
+        out.writeInt(list.getIteration());
+        out.writeInt(rules.length);
+
+        for (Rule rule : rules) {
+            Term[] terms = rule.terms();
+            out.writeInt(terms.length);
+
+            for (Term term : terms) {
+                out.writeInt(term.index());
+                Condition condition = term.condition();
+                out.writeBoolean(condition != null);
+
+                if (condition != null) {
+                    out.writeInt(condition.attribute);
+                    out.writeShort(condition.relation);
+                    out.writeInt(condition.value.length);
+
+                    for (int i = 0; i < condition.value.length; i++) {
+                        out.writeDouble(condition.value[i]);
+                        out.writeDouble(condition.threshold[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public RuleList read(DataInput in) throws IOException {
+        RuleList list = new RuleList();
+        list.setIteration(in.readInt());
+
+        Coverage instances = new Coverage(dataset.size());
+        instances.markAll(NOT_COVERED);
+
+        int size = in.readInt();
+
+        // a list has at least the default rule, and every other rule covers
+        // at least one instance
+        if (size < 1 || size > dataset.size() + 1) {
+            throw new IOException("Invalid number of rules: " + size);
+        }
+
+        // the class attribute is not used by the terms
+        final int attributes = dataset.attributes().length - 1;
+        Vertex[] vertices = graph.vertices();
+
+        for (int i = 0; i < size; i++) {
+            int length = in.readInt();
+
+            if (length < 0 || length > attributes) {
+                throw new IOException("Invalid number of terms: " + length);
+            }
+
+            Rule rule = Rule.newInstance(length);
+            boolean[] used = new boolean[attributes];
+
+            for (int j = 0; j < length; j++) {
+                int index = in.readInt();
+
+                if (index <= Graph.START_INDEX || index >= vertices.length) {
+                    throw new IOException("Invalid vertex index: " + index);
+                }
+
+                Vertex vertex = vertices[index];
+
+                if (used[vertex.attribute]) {
+                    throw new IOException("Repeated attribute: "
+                            + vertex.attribute);
+                }
+
+                used[vertex.attribute] = true;
+
+                if (!in.readBoolean()) {
+                    throw new IOException("Missing condition of vertex: "
+                            + index);
+                }
+
+                Condition condition = read(in, vertex);
+
+                if (vertex.condition != null) {
+                    // nominal terms use the condition of the vertex, as the
+                    // terms created by the ants
+                    if (condition.relation != EQUAL_TO
+                            || condition.value[0] != vertex.condition.value[0]) {
+                        throw new IOException("Invalid condition of vertex: "
+                                + index);
+                    }
+
+                    condition = vertex.condition;
+                }
+
+                rule.add(index, condition);
+            }
+
+            // as in the construction of a list, the default rule covers all
+            // instances when there are no instances left
+            if (rule.isEmpty() && instances.count(NOT_COVERED) == 0) {
+                instances.markAll(NOT_COVERED);
+            }
+
+            rule.apply(dataset, instances);
+            CONFIG.get(ASSIGNATOR).assign(dataset, rule, instances);
+            list.add(rule);
+
+            Dataset.markCovered(instances);
+        }
+
+        list.setQuality(CONFIG.get(DEFAULT_MEASURE).evaluate(dataset, list));
+
+        return list;
+    }
+
+    /**
+     * Reads the condition of a term using the specified vertex.
+     * 
+     * @param in
+     *            the input of the message.
+     * @param vertex
+     *            the vertex of the term.
+     * 
+     * @return the condition read.
+     * 
+     * @throws IOException
+     *             if the condition is invalid or an I/O error occurs.
+     */
+    private Condition read(DataInput in, Vertex vertex) throws IOException {
+        Condition condition = new Condition();
+        condition.attribute = in.readInt();
+        condition.relation = in.readShort();
+
+        if (condition.attribute != vertex.attribute) {
+            throw new IOException("Invalid attribute index: "
+                    + condition.attribute + " (expected " + vertex.attribute
+                    + ")");
+        }
+
+        // the number of values needed by the relation
+        int needed;
+
+        switch (condition.relation) {
+        case EQUAL_TO:
+        case LESS_THAN_OR_EQUAL_TO:
+        case GREATER_THAN:
+        case LESS_THAN:
+        case GREATER_THAN_OR_EQUAL_TO:
+            needed = 1;
+            break;
+
+        case IN_RANGE:
+            needed = 2;
+            break;
+
+        default:
+            throw new IOException("Invalid relation: " + condition.relation);
+        }
+
+        // nominal vertices have an equality condition, continuous vertices
+        // have an interval
+        if ((vertex.condition != null) != (condition.relation == EQUAL_TO)) {
+            throw new IOException("Invalid relation: " + condition.relation);
+        }
+
+        int values = in.readInt();
+
+        if (values < needed || values > 2) {
+            throw new IOException("Invalid condition length: " + values);
+        }
+
+        condition.value = new double[values];
+        condition.threshold = new double[values];
+
+        for (int k = 0; k < values; k++) {
+            condition.value[k] = in.readDouble();
+            condition.threshold[k] = in.readDouble();
+        }
+
+        return condition;
+    }
+}
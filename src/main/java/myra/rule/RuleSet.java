@@ -27,7 +27,7 @@ import myra.classification.Label;
 import myra.classification.rule.ClassificationRule;
 import myra.classification.rule.unordered.ConflictResolution;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.datamining.Prediction;
 
 /**
@@ -53,8 +53,8 @@ public class RuleSet extends RuleList {
      */
     @Override
     public void apply(Dataset dataset) {
-        Instance[] instances = Instance.newArray(dataset.size());
-        Instance.markAll(instances, NOT_COVERED);
+        Coverage instances = new Coverage(dataset.size());
+        instances.markAll(NOT_COVERED);
 
         for (int i = 0; i < rules.length; i++) {
             if (rules[i].isEnabled()) {
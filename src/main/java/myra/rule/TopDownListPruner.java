@@ -27,7 +27,7 @@ import static myra.rule.ListMeasure.DEFAULT_MEASURE;
 
 import myra.Cost;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Rule.Term;
 
 /**
@@ -85,8 +85,8 @@ public class TopDownListPruner implements ListPruner {
      *            the index of the current rule being updated.
      */
     private void update(Dataset dataset, RuleList list, int index) {
-        Instance[] instances = Instance.newArray(dataset.size());
-        Instance.markAll(instances, NOT_COVERED);
+        Coverage instances = new Coverage(dataset.size());
+        instances.markAll(NOT_COVERED);
 
         for (int i = 0; i < list.rules.length; i++) {
             // we consider rules below the current one even if they are
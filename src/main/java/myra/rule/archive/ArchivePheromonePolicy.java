@@ -22,7 +22,6 @@ package myra.rule.archive;
 import myra.rule.Rule;
 import myra.rule.Rule.Term;
 import myra.rule.RuleList;
-import myra.rule.archive.Graph.Vertex;
 import myra.rule.irl.PheromonePolicy;
 import myra.rule.pittsburgh.LevelPheromonePolicy;
 
@@ -49,8 +48,7 @@ public class ArchivePheromonePolicy extends LevelPheromonePolicy
 
             for (int j = 0; j < rule.size(); j++) {
                 Term term = rule.terms()[j];
-                Vertex vertex = g.vertices()[term.index()];
-                vertex.update(level, term.condition(), delta);
+                g.update(term.index(), level, term.condition(), delta);
             }
 
             level++;
@@ -23,9 +23,11 @@ import static myra.Config.CONFIG;
 import static myra.datamining.Algorithm.RANDOM_GENERATOR;
 import static myra.rule.Graph.START_INDEX;
 
+import java.util.Arrays;
+
 import myra.classification.rule.SinglePassPruner;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Graph.Entry;
 import myra.rule.Rule;
 import myra.rule.Rule.Term;
@@ -47,7 +49,7 @@ public class ArchiveRuleFactory extends LevelRuleFactory
                        myra.rule.Graph graph,
                        Entry[] heuristic,
                        Dataset dataset,
-                       Instance[] instances) {
+                       Coverage instances) {
 
         if (!Graph.class.isInstance(graph)) {
             throw new IllegalArgumentException("Invalid graph class: "
@@ -78,7 +80,7 @@ public class ArchiveRuleFactory extends LevelRuleFactory
                        Graph graph,
                        Entry[] heuristic,
                        Dataset dataset,
-                       Instance[] instances) {
+                       Coverage instances) {
         // the rule being created (empty at the start)
         Rule rule = Rule.newInstance(graph.size() / 2);
         int previous = START_INDEX;
@@ -89,19 +91,21 @@ public class ArchiveRuleFactory extends LevelRuleFactory
 
         while (true) {
             double total = 0.0;
-            Entry[] neighbours = graph.matrix()[previous];
+            int[] neighbours = graph.neighbours(previous);
+            // vertices that are not neighbours have no probability
+            Arrays.fill(pheromone, 0.0);
 
             // calculates the probability of visiting vertex i by
             // multiplying the pheromone and heuristic information (only
             // compatible vertices are considered)
-            for (int i = 0; i < neighbours.length; i++) {
-                if (!incompatible[i] && neighbours[i] != null) {
+            for (int p = 0; p < neighbours.length; p++) {
+                int i = neighbours[p];
+
+                if (!incompatible[i]) {
                     pheromone[i] =
-                            neighbours[i].value(level) * heuristic[i].value(0);
+                            graph.valueAt(previous, p, level) * heuristic[i].value(0);
 
                     total += pheromone[i];
-                } else {
-                    pheromone[i] = 0.0;
                 }
             }
 
@@ -179,7 +183,7 @@ public class ArchiveRuleFactory extends LevelRuleFactory
     public Rule create(myra.rule.Graph graph,
                        Entry[] heuristic,
                        Dataset dataset,
-                       Instance[] instances) {
+                       Coverage instances) {
         return this.create(0, graph, heuristic, dataset, instances);
     }
 }
\ No newline at end of file
@@ -42,6 +42,14 @@ public class Graph extends myra.rule.Graph {
      */
     public static final int END_INDEX = 1;
 
+    /**
+     * Indicates whether each vertex is shared with a copy of the graph (see
+     * {@link #copy()}). A shared vertex is replaced by a copy of the vertex the
+     * first time its archive is updated. This is <code>null</code> until the
+     * graph is first copied.
+     */
+    private boolean[] shared;
+
     /**
      * Default constructor. Subclasses are responsible for initialising the
      * properties of the graph.
@@ -112,25 +120,11 @@ public class Graph extends myra.rule.Graph {
             }
         }
 
-        // creates the pheromone matrix
-
-        matrix = new Entry[vertices.length][vertices.length];
-
-        for (int i = 0; i < matrix.length; i++) {
-            for (int j = 0; j < matrix[i].length; j++) {
-                if (i == END_INDEX) {
-                    matrix[i][j] = null;
-                } else if (i == START_INDEX && j == END_INDEX) {
-                    matrix[i][j] = null;
-                } else if (i != j && j > 0) {
-                    matrix[i][j] = new Entry();
-                } else {
-                    matrix[i][j] = null;
-                }
-            }
-        }
+        // creates the pheromone matrix: the end vertex has no outgoing
+        // edges and the start vertex is not connected to the end vertex
 
-        matrix[START_INDEX][END_INDEX] = null;
+        createMatrix((i, j) -> i != END_INDEX
+                && !(i == START_INDEX && j == END_INDEX) && i != j && j > 0);
     }
 
     /**
@@ -142,6 +136,51 @@ public class Graph extends myra.rule.Graph {
         return (Vertex[]) vertices;
     }
 
+    /**
+     * Updates the archive of a vertex. If the vertex is shared with a copy of
+     * the graph, it is replaced by a copy of the vertex before the update.
+     * 
+     * @param index
+     *            the vertex index.
+     * @param level
+     *            the current archive level.
+     * @param condition
+     *            the condition.
+     * @param quality
+     *            the quality of the condition.
+     */
+    public void update(int index,
+                       int level,
+                       Condition condition,
+                       double quality) {
+        if (shared != null && shared[index]) {
+            vertices[index] = ((Vertex) vertices[index]).copy();
+            shared[index] = false;
+        }
+
+        ((Vertex) vertices[index]).update(level, condition, quality);
+    }
+
+    /**
+     * Returns a copy of the graph. The vertices are shared with the copy until
+     * their archives are updated (see
+     * {@link #update(int, int, Condition, double)}), so only the vertices
+     * modified by the pheromone update are copied.
+     * 
+     * @return a copy of the graph.
+     */
+    @Override
+    public Graph copy() {
+        Graph copy = (Graph) super.copy();
+        copy.vertices = vertices.clone();
+
+        shared = new boolean[vertices.length];
+        Arrays.fill(shared, true);
+        copy.shared = shared.clone();
+
+        return copy;
+    }
+
     /**
      * This (struct-like) class represents a vertex of the construction graph.
      * 
@@ -172,6 +211,24 @@ public class Graph extends myra.rule.Graph {
             this.initial = initial;
         }
 
+        /**
+         * Returns a copy of the vertex, with a copy of its archive.
+         * 
+         * @return a copy of the vertex.
+         */
+        Vertex copy() {
+            Vertex copy = new Vertex(initial);
+            copy.attribute = attribute;
+            copy.condition = condition;
+            copy.archive = new Variable[archive.length];
+
+            for (int i = 0; i < archive.length; i++) {
+                copy.archive[i] = archive[i].clone();
+            }
+
+            return copy;
+        }
+
         /**
          * Samples a new condition using the archive.
          * 
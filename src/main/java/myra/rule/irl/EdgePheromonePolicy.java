@@ -22,7 +22,6 @@ package myra.rule.irl;
 import static myra.rule.Graph.START_INDEX;
 import myra.rule.Graph;
 import myra.rule.Rule;
-import myra.rule.Graph.Entry;
 import myra.rule.Rule.Term;
 
 /**
@@ -45,23 +44,14 @@ public final class EdgePheromonePolicy implements PheromonePolicy {
      *            the construction graph to be initialised.
      */
     public void initialise(Graph graph) {
-        Entry[][] matrix = graph.matrix();
+        graph.clear();
 
-        for (int i = 0; i < matrix.length; i++) {
-            int count = 0;
+        for (int i = 0; i < graph.size(); i++) {
+            int[] neighbours = graph.neighbours(i);
+            double initial = 1.0 / neighbours.length;
 
-            for (int j = 0; j < matrix[i].length; j++) {
-                if (matrix[i][j] != null) {
-                    count++;
-                }
-            }
-
-            double initial = 1.0 / count;
-
-            for (int j = 0; j < matrix[i].length; j++) {
-                if (matrix[i][j] != null) {
-                    matrix[i][j] = new Entry(initial, initial);
-                }
+            for (int j : neighbours) {
+                graph.initialise(i, j, initial);
             }
         }
     }
@@ -78,36 +68,32 @@ public final class EdgePheromonePolicy implements PheromonePolicy {
      */
     public void update(Graph graph, Rule rule) {
         Term[] terms = rule.terms();
-        Entry[][] matrix = graph.matrix();
-
         final double q = rule.getQuality().raw();
         int from = START_INDEX;
 
         for (int i = 0; i < terms.length; i++) {
-            Entry entry = matrix[from][terms[i].index()];
-            double value = entry.value(0);
-            entry.set(0, value + (value * q));
+            int to = terms[i].index();
+            double value = graph.value(from, to, 0);
+            graph.set(from, to, 0, value + (value * q));
 
-            from = terms[i].index();
+            from = to;
         }
 
         // normalises the pheromone values (it has the effect of
         // evaporation for edges that have not being updated)
 
-        for (int i = 0; i < matrix.length; i++) {
+        for (int i = 0; i < graph.size(); i++) {
+            double[] row = graph.row(i);
+            int width = graph.neighbours(i).length;
             double total = 0.0;
 
-            for (int j = 0; j < matrix[i].length; j++) {
-                if (matrix[i][j] != null) {
-                    total += matrix[i][j].value(0);
-                }
+            // the values of the first level follow the initial values
+            for (int j = width; j < 2 * width; j++) {
+                total += row[j];
             }
 
-            for (int j = 0; j < matrix[i].length; j++) {
-                if (matrix[i][j] != null) {
-                    double value = matrix[i][j].value(0);
-                    matrix[i][j].set(0, value / total);
-                }
+            for (int j = width; j < 2 * width; j++) {
+                row[j] /= total;
             }
         }
     }
@@ -31,7 +31,7 @@ import static myra.rule.irl.RuleFactory.DEFAULT_FACTORY;
 import myra.Archive;
 import myra.IterativeActivity;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Graph;
 import myra.rule.Graph.Entry;
 import myra.rule.Rule;
@@ -47,7 +47,7 @@ public class FindRuleActivity extends IterativeActivity<Rule> {
      * Instance flag array indicating the instances to be used during the
      * construction procedure.
      */
-    private Instance[] instances;
+    private Coverage instances;
 
     /**
      * The current dataset.
@@ -80,7 +80,7 @@ public class FindRuleActivity extends IterativeActivity<Rule> {
      *            the current dataset.
      */
     public FindRuleActivity(Graph graph,
-                            Instance[] instances,
+                            Coverage instances,
                             Dataset training) {
         this.graph = graph;
         this.instances = instances;
@@ -91,7 +91,7 @@ public class FindRuleActivity extends IterativeActivity<Rule> {
     public Rule create() {
         // the instances array will be modified by the create and prune,
         // so we need to work on a copy to avoid concurrency problems
-        Instance[] clone = Instance.copyOf(instances);
+        Coverage clone = instances.copy();
 
         Rule rule = CONFIG.get(DEFAULT_FACTORY)
                 .create(graph, heuristic, dataset, clone);
@@ -116,8 +116,8 @@ public class FindRuleActivity extends IterativeActivity<Rule> {
         // instance array where each NOT_COVERED value is
         // replaced by a RULE_COVERED value
 
-        Instance[] clone = Instance.copyOf(instances);
-        Instance.mark(clone, NOT_COVERED, RULE_COVERED);
+        Coverage clone = instances.copy();
+        clone.mark(NOT_COVERED, RULE_COVERED);
 
         heuristic =
                 CONFIG.get(DEFAULT_HEURISTIC).compute(graph, dataset, clone);
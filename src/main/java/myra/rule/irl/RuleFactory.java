@@ -21,7 +21,7 @@ package myra.rule.irl;
 
 import myra.Config.ConfigKey;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Graph;
 import myra.rule.Graph.Entry;
 import myra.rule.Rule;
@@ -56,5 +56,5 @@ public interface RuleFactory {
     public Rule create(Graph graph,
                        Entry[] heuristic,
                        Dataset dataset,
-                       Instance[] instances);
+                       Coverage instances);
 }
\ No newline at end of file
@@ -23,10 +23,11 @@ import static myra.Config.CONFIG;
 import static myra.datamining.Dataset.NOT_COVERED;
 import static myra.rule.Assignator.ASSIGNATOR;
 
+import myra.Budget;
 import myra.Config.ConfigKey;
 import myra.datamining.Dataset;
 import myra.datamining.Model;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.Scheduler;
 import myra.rule.Graph;
 import myra.rule.Rule;
@@ -74,15 +75,17 @@ public class SequentialCovering {
      */
     public Model train(Dataset dataset, Graph graph) {
         final int uncovered = CONFIG.get(UNCOVERED);
-        Instance[] instances = Instance.newArray(dataset.size());
-        Instance.markAll(instances, NOT_COVERED);
+        Coverage instances = new Coverage(dataset.size());
+        instances.markAll(NOT_COVERED);
 
         RuleList discovered = new RuleList();
         int available = dataset.size();
 
         Scheduler<Rule> scheduler = Scheduler.newInstance(1);
 
-        while (available >= uncovered) {
+        // when the budget expires, the remaining instances are covered by
+        // the default rule
+        while (available >= uncovered && !Budget.expired()) {
             FindRuleActivity activity =
                     new FindRuleActivity(graph, instances, dataset);
 
@@ -107,7 +110,7 @@ public class SequentialCovering {
             // adds a default rule to the list
 
             if (available == 0) {
-                Instance.markAll(instances, NOT_COVERED);
+                instances.markAll(NOT_COVERED);
             }
 
             Rule rule = Rule.newInstance();
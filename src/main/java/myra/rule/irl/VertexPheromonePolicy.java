@@ -22,7 +22,6 @@ package myra.rule.irl;
 import static myra.rule.Graph.START_INDEX;
 import myra.rule.Graph;
 import myra.rule.Rule;
-import myra.rule.Graph.Entry;
 import myra.rule.Rule.Term;
 
 /**
@@ -45,12 +44,16 @@ public final class VertexPheromonePolicy implements PheromonePolicy {
      *            the construction graph to be initialised.
      */
     public void initialise(Graph graph) {
-        Entry[][] matrix = graph.matrix();
-        matrix[START_INDEX][0] = new Entry(0.0, 0.0);
+        // the pheromone of a vertex is stored in the (self-created) edge to
+        // the first vertex
+        graph.clear();
+        graph.connect(START_INDEX, 0);
+        graph.initialise(START_INDEX, 0, 0.0);
         double initial = 1.0 / graph.size();
 
         for (int i = 1; i < graph.size(); i++) {
-            matrix[i][0] = new Entry(initial, initial);
+            graph.connect(i, 0);
+            graph.initialise(i, 0, initial);
         }
     }
 
@@ -66,12 +69,11 @@ public final class VertexPheromonePolicy implements PheromonePolicy {
      */
     public void update(Graph graph, Rule rule) {
         Term[] terms = rule.terms();
-        Entry[][] matrix = graph.matrix();
         final double q = rule.getQuality().raw();
 
         for (int i = 0; i < terms.length; i++) {
-            double value = matrix[terms[i].index()][0].value(0);
-            matrix[terms[i].index()][0].set(0, value + (value * q));
+            double value = graph.value(terms[i].index(), 0, 0);
+            graph.set(terms[i].index(), 0, 0, value + (value * q));
         }
 
         // Normalises the pheromone values (it has the effect of
@@ -79,13 +81,13 @@ public final class VertexPheromonePolicy implements PheromonePolicy {
 
         double total = 0.0;
 
-        for (int i = 1; i < matrix.length; i++) {
-            total += matrix[i][0].value(0);
+        for (int i = 1; i < graph.size(); i++) {
+            total += graph.value(i, 0, 0);
         }
 
-        for (int i = 1; i < matrix.length; i++) {
-            double value = matrix[i][0].value(0);
-            matrix[i][0].set(0, value / total);
+        for (int i = 1; i < graph.size(); i++) {
+            double value = graph.value(i, 0, 0);
+            graph.set(i, 0, 0, value / total);
         }
     }
 }
\ No newline at end of file
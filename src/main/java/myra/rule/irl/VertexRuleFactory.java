@@ -28,7 +28,8 @@ import static myra.rule.Heuristic.DYNAMIC_HEURISTIC;
 import myra.datamining.Dataset;
 import myra.datamining.IntervalBuilder;
 import myra.datamining.Attribute.Condition;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Bitset;
+import myra.datamining.Coverage;
 import myra.rule.Graph;
 import myra.rule.Graph.Entry;
 import myra.rule.Graph.Vertex;
@@ -61,10 +62,9 @@ public class VertexRuleFactory implements RuleFactory {
     public Rule create(Graph graph,
                        Entry[] heuristic,
                        Dataset dataset,
-                       Instance[] instances) {
+                       Coverage instances) {
         // the rule must cover at least MINIMUM_CASES
         final int minimum = CONFIG.get(IntervalBuilder.MINIMUM_CASES);
-        Term last = null;
 
         // the rule being created (empty at the start)
         Rule rule = Rule.newInstance(graph.size() / 2);
@@ -74,7 +74,8 @@ public class VertexRuleFactory implements RuleFactory {
         boolean[] incompatible = new boolean[graph.size()];
         incompatible[START_INDEX] = true;
 
-        Entry[][] matrix = graph.matrix();
+        // scratch bitset used to evaluate candidate terms
+        long[] trial = new long[Bitset.words(dataset.size())];
 
         // the rule creation process starts with an empty rule and adds new
         // terms to the antecedent while the number of covered cases is greater
@@ -88,12 +89,12 @@ public class VertexRuleFactory implements RuleFactory {
                 // calculates the probability of visiting vertex i by
                 // multipliying the pheromone and heuristic information (only
                 // compatible vertices are considered)
-                for (int i = 0; i < matrix.length; i++) {
+                for (int i = 0; i < graph.size(); i++) {
                     if (!incompatible[i]) {
                         // always using index 0 since pheromones are stored
                         // on the vertices
-                        pheromone[i] =
-                                matrix[i][0].value(0) * heuristic[i].value(0);
+                        pheromone[i] = graph.value(i, 0, 0)
+                                * heuristic[i].value(0);
 
                         total += pheromone[i];
                     } else {
@@ -150,17 +151,19 @@ public class VertexRuleFactory implements RuleFactory {
                     incompatible[selected] = true;
                     selected = -1;
                 } else {
-                    last = new Term(selected, condition);
-                    rule.push(last);
-
-                    Instance[] clone = Instance.copyOf(instances);
-                    int currentCovered = rule.apply(dataset, clone);
+                    // only the instances covered by the rule are tested
+                    // against the condition of the candidate term
+                    Term term = new Term(selected, condition);
+                    int currentCovered = rule.trial(dataset, term, trial);
 
                     // a term is only added to the rule if it makes the rule
                     // cover a different number of instances, satisfying the
                     // the minimum limit
-                    if (rule.isEmpty() || (ruleCovered != currentCovered
-                            && currentCovered >= minimum)) {
+                    if (ruleCovered != currentCovered
+                            && currentCovered >= minimum) {
+                        rule.push(term);
+                        rule.apply(dataset, instances);
+
                         for (int i = 0; i < graph.size(); i++) {
                             if (!incompatible[i] && graph
                                     .vertices()[i].attribute == vertex.attribute) {
@@ -168,12 +171,7 @@ public class VertexRuleFactory implements RuleFactory {
                             }
                         }
 
-                        // copy the coverend instances information to the
-                        // original instances array
-                        System.arraycopy(clone, 0, instances, 0, clone.length);
-
                         ruleCovered = currentCovered;
-                        last = null;
 
                         // recompute the heuristic infortation if we are
                         // using the dynamic heuristic
@@ -185,9 +183,7 @@ public class VertexRuleFactory implements RuleFactory {
                                              incompatible);
                         }
                     } else {
-                        // removed the last added term and marks the selected
-                        // vertex as incompatible
-                        rule.pop();
+                        // marks the selected vertex as incompatible
                         incompatible[selected] = true;
 
                         selected = -1;
@@ -203,12 +199,6 @@ public class VertexRuleFactory implements RuleFactory {
 
         rule.compact();
 
-        if (last != null) {
-            // determines the coverage information, since a term was added
-            // to the rule and later removed
-            rule.apply(dataset, instances);
-        }
-
         return rule;
     }
 }
\ No newline at end of file
@@ -29,10 +29,11 @@ import static myra.rule.ListPruner.DEFAULT_LIST_PRUNER;
 import static myra.rule.Pruner.DEFAULT_PRUNER;
 
 import myra.Archive;
+import myra.ConcurrentActivity;
 import myra.Config.ConfigKey;
 import myra.IterativeActivity;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Graph;
 import myra.rule.Graph.Entry;
 import myra.rule.Rule;
@@ -42,9 +43,17 @@ import myra.rule.RuleList;
  * The <code>FindRuleListActivity</code> is responsible for evolving a complete
  * list of rules using an ACO-based procedure.
  * 
+ * <p>
+ * In concurrent mode, the pheromone policy is applied to a copy of the
+ * construction graph, which then replaces the graph used by the ants. The
+ * copy shares the pheromone rows and vertices of the graph, and only those
+ * modified by the policy are copied (see {@link Graph#copy()}).
+ * </p>
+ * 
  * @author Fernando Esteban Barril Otero
  */
-public class FindRuleListActivity extends IterativeActivity<RuleList> {
+public class FindRuleListActivity extends IterativeActivity<RuleList>
+        implements ConcurrentActivity<RuleList> {
     /**
      * The config key for the percentage of uncovered instances allowed.
      */
@@ -56,9 +65,15 @@ public class FindRuleListActivity extends IterativeActivity<RuleList> {
     private Dataset dataset;
 
     /**
-     * The construction graph.
+     * The construction graph. In concurrent mode, the graph is replaced (not
+     * modified) by the update.
+     */
+    private volatile Graph graph;
+
+    /**
+     * Indicates whether solutions are created while the activity is updated.
      */
-    private Graph graph;
+    private boolean concurrent;
 
     /**
      * The ACO pheromone policy.
@@ -133,9 +148,14 @@ public class FindRuleListActivity extends IterativeActivity<RuleList> {
 
     @Override
     public RuleList create() {
-        Instance[] instances = Instance.newArray(dataset.size());
-        Instance.markAll(instances, NOT_COVERED);
-        Entry[] heuristic = Entry.deepClone(INITIAL_HEURISTIC);
+        // the same graph is used for the whole list, even if the graph is
+        // replaced in the meantime
+        final Graph graph = this.graph;
+        Coverage instances = new Coverage(dataset.size());
+        instances.markAll(NOT_COVERED);
+        // rule factories do not modify the heuristic values, so the initial
+        // heuristic is shared by all ants
+        Entry[] heuristic = INITIAL_HEURISTIC;
 
         RuleList list = new RuleList();
         list.setIteration(iteration);
@@ -150,12 +170,12 @@ public class FindRuleListActivity extends IterativeActivity<RuleList> {
                 // instance array where each NOT_COVERED value is
                 // replaced by a RULE_COVERED value
 
-                Instance.mark(instances, NOT_COVERED, RULE_COVERED);
+                instances.mark(NOT_COVERED, RULE_COVERED);
 
                 heuristic = CONFIG.get(DEFAULT_HEURISTIC)
                         .compute(graph, dataset, instances);
 
-                Instance.mark(instances, RULE_COVERED, NOT_COVERED);
+                instances.mark(RULE_COVERED, NOT_COVERED);
             }
 
             // creates a rule for the current level
@@ -180,7 +200,7 @@ public class FindRuleListActivity extends IterativeActivity<RuleList> {
 
         if (!list.hasDefault()) {
             if (available == 0) {
-                Instance.markAll(instances, NOT_COVERED);
+                instances.markAll(NOT_COVERED);
             }
 
             Rule rule = Rule.newInstance();
@@ -206,8 +226,8 @@ public class FindRuleListActivity extends IterativeActivity<RuleList> {
 
         // (initial) heuristic of the whole dataset
 
-        Instance[] instances = Instance.newArray(dataset.size());
-        Instance.markAll(instances, RULE_COVERED);
+        Coverage instances = new Coverage(dataset.size());
+        instances.markAll(RULE_COVERED);
 
         INITIAL_HEURISTIC = CONFIG.get(DEFAULT_HEURISTIC)
                 .compute(graph, dataset, instances);
@@ -217,7 +237,9 @@ public class FindRuleListActivity extends IterativeActivity<RuleList> {
     public boolean terminate() {
         if (stagnation > CONFIG.get(STAGNATION)) {
             if (reset) {
-                policy.initialise(graph);
+                Graph next = writable();
+                policy.initialise(next);
+                graph = next;
                 stagnation = 0;
                 reset = false;
             } else {
@@ -231,6 +253,24 @@ public class FindRuleListActivity extends IterativeActivity<RuleList> {
     @Override
     public void update(Archive<RuleList> archive) {
         super.update(archive);
-        policy.update(graph, archive.highest());
+
+        Graph next = writable();
+        policy.update(next, archive.highest());
+        graph = next;
+    }
+
+    @Override
+    public void setConcurrent(boolean concurrent) {
+        this.concurrent = concurrent;
+    }
+
+    /**
+     * Returns the graph to be modified by the pheromone policy: a copy of the
+     * graph in concurrent mode; otherwise the graph itself.
+     * 
+     * @return the graph to be modified by the pheromone policy.
+     */
+    private Graph writable() {
+        return concurrent ? graph.copy() : graph;
     }
 }
\ No newline at end of file
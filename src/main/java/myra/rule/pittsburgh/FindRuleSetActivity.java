@@ -34,7 +34,7 @@ import myra.Config.ConfigKey;
 import myra.IterativeActivity;
 import myra.classification.Label;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Graph;
 import myra.rule.Graph.Entry;
 import myra.rule.Rule;
@@ -138,9 +138,11 @@ public class FindRuleSetActivity extends IterativeActivity<RuleList> {
 
     @Override
     public RuleSet create() {
-        Instance[] instances = Instance.newArray(dataset.size());
-        Instance.markAll(instances, NOT_COVERED);
-        Entry[] heuristic = Entry.deepClone(INITIAL_HEURISTIC);
+        Coverage instances = new Coverage(dataset.size());
+        instances.markAll(NOT_COVERED);
+        // rule factories do not modify the heuristic values, so the initial
+        // heuristic is shared by all ants
+        Entry[] heuristic = INITIAL_HEURISTIC;
 
         RuleSet set = new RuleSet();
         set.setIteration(iteration);
@@ -155,12 +157,12 @@ public class FindRuleSetActivity extends IterativeActivity<RuleList> {
                 // instance array where each NOT_COVERED value is
                 // replaced by a RULE_COVERED value
 
-                Instance.mark(instances, NOT_COVERED, RULE_COVERED);
+                instances.mark(NOT_COVERED, RULE_COVERED);
 
                 heuristic = CONFIG.get(DEFAULT_HEURISTIC)
                         .compute(graph, dataset, instances);
 
-                Instance.mark(instances, RULE_COVERED, NOT_COVERED);
+                instances.mark(RULE_COVERED, NOT_COVERED);
             }
 
             // creates a rule for the current level
@@ -186,7 +188,7 @@ public class FindRuleSetActivity extends IterativeActivity<RuleList> {
 
         if (!set.hasDefault()) {
             if (available == 0) {
-                Instance.markAll(instances, NOT_COVERED);
+                instances.markAll(NOT_COVERED);
             }
 
             Rule rule = Rule.newInstance();
@@ -212,8 +214,8 @@ public class FindRuleSetActivity extends IterativeActivity<RuleList> {
 
         // (initial) heuristic of the whole dataset
 
-        Instance[] instances = Instance.newArray(dataset.size());
-        Instance.markAll(instances, RULE_COVERED);
+        Coverage instances = new Coverage(dataset.size());
+        instances.markAll(RULE_COVERED);
 
         INITIAL_HEURISTIC = CONFIG.get(DEFAULT_HEURISTIC)
                 .compute(graph, dataset, instances);
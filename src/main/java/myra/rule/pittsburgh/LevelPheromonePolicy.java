@@ -22,10 +22,12 @@ package myra.rule.pittsburgh;
 import static myra.Config.CONFIG;
 import static myra.rule.Graph.START_INDEX;
 
+import java.util.Arrays;
+
 import myra.Config.ConfigKey;
 import myra.Cost;
+import myra.ParallelScheduler;
 import myra.rule.Graph;
-import myra.rule.Graph.Entry;
 import myra.rule.Rule;
 import myra.rule.RuleList;
 
@@ -58,11 +60,24 @@ public class LevelPheromonePolicy {
      */
     public final static ConfigKey<Double> P_BEST = new ConfigKey<Double>();
 
+    /**
+     * The config key to enable the lazy evaporation of pheromone values, where
+     * evaporation steps are only applied to a row of the pheromone matrix
+     * when the row is used.
+     */
+    public final static ConfigKey<Boolean> LAZY_EVAPORATION =
+            new ConfigKey<Boolean>();
+
     /**
      * The default initial pheromone value.
      */
     public final static double INITIAL_PHEROMONE = 10.0;
 
+    /**
+     * The minimum number of pheromone values evaporated by a parallel task.
+     */
+    private final static int GRAIN = 65536;
+
     /**
      * The quality of the global best solution.
      */
@@ -78,6 +93,11 @@ public class LevelPheromonePolicy {
      */
     private double tMin;
 
+    /**
+     * The lazy evaporation procedure.
+     */
+    private LazyEvaporation lazy;
+
     /**
      * Default constructor.
      */
@@ -85,6 +105,7 @@ public class LevelPheromonePolicy {
         global = null;
         tMax = 0.0;
         tMin = 0.0;
+        lazy = new LazyEvaporation();
     }
 
     /**
@@ -94,14 +115,14 @@ public class LevelPheromonePolicy {
      *            the construction graph to be initialised.
      */
     public void initialise(Graph graph) {
-        Entry[][] matrix = graph.matrix();
+        graph.clear();
+        // a new history is used, since the previous one might still be used
+        // by a copy of the graph (see Graph#copy())
+        lazy = new LazyEvaporation();
 
         for (int i = 0; i < graph.size(); i++) {
-            for (int j = 0; j < graph.size(); j++) {
-                if (matrix[i][j] != null) {
-                    matrix[i][j] =
-                            new Entry(INITIAL_PHEROMONE, INITIAL_PHEROMONE);
-                }
+            for (int j : graph.neighbours(i)) {
+                graph.initialise(i, j, INITIAL_PHEROMONE);
             }
         }
     }
@@ -138,47 +159,33 @@ public class LevelPheromonePolicy {
             }
         }
 
-        // evaporates the pheromone values
-
-        double truncMax = precision(tMax);
-        double truncMin = precision(tMin);
-
-        for (int i = 0; i < graph.size(); i++) {
-            Entry[] neighbours = graph.matrix()[i];
-
-            for (int j = 0; j < neighbours.length; j++) {
-                if (neighbours[j] != null) {
-                    Entry entry = neighbours[j];
-                    int length = entry.size();
-
-                    if (length < size) {
-                        // grows the entry values array
-                        entry.set(size - 1, entry.initial());
-                    }
-
-                    int dimension = Math.max(size, length);
-
-                    for (int k = 0; k < dimension; k++) {
-                        double value = 0.0;
-
-                        if (k < length) {
-                            value = entry.value(k) * factor;
-                        } else {
-                            value = entry.initial() * factor;
-                        }
-
-                        double truncValue = precision(value);
-
-                        if (truncValue > truncMax) {
-                            entry.set(k, tMax);
-                        } else if (truncValue < truncMin) {
-                            entry.set(k, tMin);
-                        } else {
-                            entry.set(k, value);
-                        }
-                    }
-                }
-            }
+        final Limits limits = new Limits(factor, tMax, tMin);
+        final double truncMax = limits.truncMax;
+        // all rows are grown before the evaporation, new levels start with
+        // the initial pheromone value
+        graph.grow(size);
+
+        if (CONFIG.isPresent(LAZY_EVAPORATION)) {
+            // the evaporation is only applied when a row is used
+            lazy.add(limits);
+            graph.evaporate(lazy);
+        } else {
+            // evaporates the pheromone values (rows are independent, so they
+            // can be evaporated in parallel)
+            final int levels = graph.levels();
+
+            ParallelScheduler.forEach(graph.size(),
+                                      Math.max(1,
+                                               GRAIN / (graph.size()
+                                                       * Math.max(1, levels))),
+                                      i -> {
+                                          int width =
+                                                  graph.neighbours(i).length;
+                                          evaporate(graph.row(i),
+                                                    width,
+                                                    (levels + 1) * width,
+                                                    limits);
+                                      });
         }
 
         // updates the pheromone of the edges
@@ -191,22 +198,44 @@ public class LevelPheromonePolicy {
             int from = START_INDEX;
 
             for (int j = 0; j < rule.size(); j++) {
-                Entry entry = graph.matrix()[from][rule.terms()[j].index()];
-                double value = entry.value(level) + delta;
+                int to = rule.terms()[j].index();
+                double value = graph.value(from, to, level) + delta;
 
                 if (precision(value) > truncMax) {
-                    entry.set(level, tMax);
+                    graph.set(from, to, level, tMax);
                 } else {
-                    entry.set(level, value);
+                    graph.set(from, to, level, value);
                 }
 
-                from = rule.terms()[j].index();
+                from = to;
             }
 
             level++;
         }
     }
 
+    /**
+     * Evaporates the pheromone values of a row of the pheromone matrix.
+     * 
+     * @param row
+     *            the row of the pheromone matrix.
+     * @param start
+     *            the index of the first pheromone value of the row (the
+     *            initial values are not evaporated).
+     * @param end
+     *            the index after the last pheromone value of the row.
+     * @param limits
+     *            the evaporation factor and MAX-MIN limits.
+     */
+    private static void evaporate(double[] row,
+                                  int start,
+                                  int end,
+                                  Limits limits) {
+        for (int j = start; j < end; j++) {
+            row[j] = limits.evaporate(row[j]);
+        }
+    }
+
     /**
      * Checks if the pheromone values in the specified graph have converged.
      * Only the connections present in the <code>RuleList</code> instance are
@@ -230,22 +259,19 @@ public class LevelPheromonePolicy {
             int from = 0;
 
             for (int j = 0; j < rule.size(); j++) {
-                Entry[] neighbours = graph.matrix()[from];
-                int available = 0;
+                int[] neighbours = graph.neighbours(from);
+                int available = neighbours.length;
                 int maxCount = 0;
                 int minCount = 0;
 
-                for (int k = 0; k < neighbours.length; k++) {
-                    if (neighbours[k] != null) {
-                        available++;
-                        double truncValue =
-                                precision(neighbours[k].value(level));
+                for (int k = 0; k < available; k++) {
+                    double truncValue =
+                            precision(graph.valueAt(from, k, level));
 
-                        if (truncValue == truncMax) {
-                            maxCount++;
-                        } else if (truncValue == truncMin) {
-                            minCount++;
-                        }
+                    if (truncValue == truncMax) {
+                        maxCount++;
+                    } else if (truncValue == truncMin) {
+                        minCount++;
                     }
                 }
 
@@ -288,7 +314,180 @@ public class LevelPheromonePolicy {
      * 
      * @return the truncated value.
      */
-    private double precision(double value) {
+    private static double precision(double value) {
         return ((int) (value * 100)) / 100.0;
     }
-}
\ No newline at end of file
+
+    /**
+     * This (struct-like) class represents the evaporation factor and MAX-MIN
+     * limits used in an evaporation step.
+     */
+    private static class Limits {
+        /**
+         * The evaporation factor.
+         */
+        final double factor;
+
+        /**
+         * The MAX-MIN upper pheromone limit.
+         */
+        final double tMax;
+
+        /**
+         * The MAX-MIN lower pheromone limit.
+         */
+        final double tMin;
+
+        /**
+         * The truncated MAX-MIN upper pheromone limit.
+         */
+        final double truncMax;
+
+        /**
+         * The truncated MAX-MIN lower pheromone limit.
+         */
+        final double truncMin;
+
+        /**
+         * The first evaporation step that uses these limits (only used by the
+         * lazy evaporation).
+         */
+        int first;
+
+        /**
+         * Creates a new <code>Limits</code> instance.
+         * 
+         * @param factor
+         *            the evaporation factor.
+         * @param tMax
+         *            the MAX-MIN upper pheromone limit.
+         * @param tMin
+         *            the MAX-MIN lower pheromone limit.
+         */
+        Limits(double factor, double tMax, double tMin) {
+            this.factor = factor;
+            this.tMax = tMax;
+            this.tMin = tMin;
+            truncMax = precision(tMax);
+            truncMin = precision(tMin);
+        }
+
+        /**
+         * Returns the value after one evaporation step.
+         * 
+         * @param value
+         *            the pheromone value.
+         * 
+         * @return the value after one evaporation step.
+         */
+        double evaporate(double value) {
+            value = value * factor;
+            double truncValue = precision(value);
+
+            if (truncValue > truncMax) {
+                return tMax;
+            } else if (truncValue < truncMin) {
+                return tMin;
+            }
+
+            return value;
+        }
+
+        /**
+         * Checks whether the specified limits are the same as these limits.
+         * 
+         * @param other
+         *            the limits to compare.
+         * 
+         * @return <code>true</code> if the limits are the same;
+         *         <code>false</code> otherwise.
+         */
+        boolean same(Limits other) {
+            return factor == other.factor && tMax == other.tMax
+                    && tMin == other.tMin;
+        }
+    }
+
+    /**
+     * Lazy evaporation procedure. It keeps the history of the limits used in
+     * each evaporation step, so pending steps are applied exactly as if the
+     * evaporation had been performed in every iteration.
+     * 
+     * <p>
+     * The history is replaced (not modified) when a step with new limits is
+     * added, so rows of a copy of the graph can be evaporated while steps are
+     * added for the graph being updated. The limits only change when a new
+     * best solution is found, therefore the history is rarely replaced.
+     * </p>
+     */
+    private static class LazyEvaporation implements Graph.Evaporation {
+        /**
+         * The limits of the evaporation steps, in the order that they were
+         * used.
+         */
+        private volatile Limits[] history = new Limits[0];
+
+        /**
+         * The number of evaporation steps.
+         */
+        private int steps;
+
+        /**
+         * Adds an evaporation step.
+         * 
+         * @param limits
+         *            the limits used in the step.
+         */
+        void add(Limits limits) {
+            steps++;
+            int size = history.length;
+
+            if (size == 0 || !history[size - 1].same(limits)) {
+                Limits[] extended = Arrays.copyOf(history, size + 1);
+                limits.first = steps;
+                extended[size] = limits;
+                // publishes the new history
+                history = extended;
+            }
+        }
+
+        @Override
+        public void apply(double[] row, int start, int end, int from, int to) {
+            Limits[] history = this.history;
+            int size = history.length;
+            // finds the limits of the first pending step (history is
+            // ordered by the first step)
+            int index = size - 1;
+
+            while (index > 0 && history[index].first > from + 1) {
+                index--;
+            }
+
+            for (; index < size && history[index].first <= to; index++) {
+                Limits limits = history[index];
+                int first = Math.max(from + 1, limits.first);
+                int last = (index + 1 < size)
+                        ? Math.min(to, history[index + 1].first - 1) : to;
+                int count = last - first + 1;
+
+                for (int j = start; j < end; j++) {
+                    double value = row[j];
+
+                    for (int n = 0; n < count; n++) {
+                        double evaporated = limits.evaporate(value);
+
+                        if (evaporated == value) {
+                            // fixed point: remaining steps with the same
+                            // limits do not change the value
+                            break;
+                        }
+
+                        value = evaporated;
+                    }
+
+                    row[j] = value;
+                }
+            }
+        }
+    }
+}
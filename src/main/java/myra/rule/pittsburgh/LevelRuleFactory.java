@@ -25,9 +25,11 @@ import static myra.rule.Graph.START_INDEX;
 import static myra.rule.Heuristic.DEFAULT_HEURISTIC;
 import static myra.rule.Heuristic.DYNAMIC_HEURISTIC;
 
+import myra.Roulette;
 import myra.datamining.Attribute.Condition;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Bitset;
+import myra.datamining.Coverage;
 import myra.datamining.IntervalBuilder;
 import myra.rule.Graph;
 import myra.rule.Graph.Entry;
@@ -63,52 +65,57 @@ public class LevelRuleFactory {
                        Graph graph,
                        Entry[] heuristic,
                        Dataset dataset,
-                       Instance[] instances) {
+                       Coverage instances) {
         // the rule must cover at least MINIMUM_CASES
         final int minimum = CONFIG.get(IntervalBuilder.MINIMUM_CASES);
-        Term last = null;
 
         // the rule being created (empty at the start)
         Rule rule = Rule.newInstance(graph.size() / 2);
         int ruleCovered = rule.apply(dataset, instances);
         int previous = START_INDEX;
 
-        double[] pheromone = new double[graph.size()];
+        Roulette roulette = new Roulette(graph.size());
         boolean[] incompatible = new boolean[graph.size()];
         incompatible[START_INDEX] = true;
 
+        // scratch bitset used to evaluate candidate terms
+        long[] trial = new long[Bitset.words(dataset.size())];
+
         // the rule creation process starts with an empty rule and adds new
         // terms to the antecedent while the number of covered cases is greater
         // than the minimum allowed and the diversity of the covered instances
         // is greater than 1
         while (ruleCovered > minimum && rule.isDiverse()) {
             int selected = -1;
+            // the number of nominal neighbours
+            int nominal = 0;
 
-            while (selected == -1) {
-                double total = 0.0;
-                Entry[] neighbours = graph.matrix()[previous];
-                // the number of nominal neighbours
-                int nominal = 0;
-
-                // calculates the probability of visiting vertex i by
-                // multiplying the pheromone and heuristic information (only
-                // compatible vertices are considered)
-                for (int i = 0; i < neighbours.length; i++) {
-                    if (!incompatible[i] && neighbours[i] != null) {
-                        pheromone[i] = neighbours[i].value(level)
-                                * heuristic[i].value(0);
-
-                        total += pheromone[i];
-
-                        if (graph.vertices()[i].condition != null) {
-                            nominal++;
-                        }
-                    } else {
-                        pheromone[i] = 0.0;
+            // calculates the probability of visiting vertex i by
+            // multiplying the pheromone and heuristic information (only
+            // compatible vertices are considered); vertices that are not
+            // neighbours have no probability
+            roulette.clear();
+
+            int[] neighbours = graph.neighbours(previous);
+
+            for (int p = 0; p < neighbours.length; p++) {
+                int i = neighbours[p];
+
+                if (!incompatible[i]) {
+                    roulette.put(i,
+                                 graph.valueAt(previous, p, level)
+                                         * heuristic[i].value(0));
+
+                    if (graph.vertices()[i].condition != null) {
+                        nominal++;
                     }
                 }
+            }
+
+            roulette.build();
 
-                if (total == 0.0) {
+            while (selected == -1) {
+                if (roulette.total() == 0.0) {
                     // there are no compatible vertices, the creation process
                     // is stopped
                     break;
@@ -120,33 +127,9 @@ public class LevelRuleFactory {
                     break;
                 }
 
-                // prepares the roulette by accumulation the probabilities,
-                // from 0 to 1
-                double cumulative = 0.0;
-
-                for (int i = 0; i < pheromone.length; i++) {
-                    if (pheromone[i] > 0) {
-                        pheromone[i] = cumulative + (pheromone[i] / total);
-                        cumulative = pheromone[i];
-                    }
-                }
-
-                for (int i = (pheromone.length - 1); i >= 0; i--) {
-                    if (pheromone[i] > 0) {
-                        pheromone[i] = 1.0;
-                        break;
-                    }
-                }
-
                 // roulette selection
-                double slot = CONFIG.get(RANDOM_GENERATOR).nextDouble();
-
-                for (int i = 0; i < pheromone.length; i++) {
-                    if (slot < pheromone[i]) {
-                        selected = i;
-                        break;
-                    }
-                }
+                selected = roulette
+                        .select(CONFIG.get(RANDOM_GENERATOR).nextDouble());
 
                 Vertex vertex = graph.vertices()[selected];
                 Condition condition = vertex.condition;
@@ -162,19 +145,22 @@ public class LevelRuleFactory {
                     // the discretisation may not be able to produce an
                     // interval for the selected attribute
                     incompatible[selected] = true;
+                    roulette.set(selected, 0.0);
                     selected = -1;
                 } else {
-                    last = new Term(selected, condition);
-                    rule.push(last);
-
-                    Instance[] clone = Instance.copyOf(instances);
-                    int currentCovered = rule.apply(dataset, clone);
+                    // only the instances covered by the rule are tested
+                    // against the condition of the candidate term
+                    Term term = new Term(selected, condition);
+                    int currentCovered = rule.trial(dataset, term, trial);
 
                     // a term is only added to the rule if it makes the rule
                     // cover a different number of instances, satisfying the
                     // the minimum limit
                     if (ruleCovered != currentCovered
                             && currentCovered >= minimum) {
+                        rule.push(term);
+                        rule.apply(dataset, instances);
+
                         for (int i = 0; i < graph.size(); i++) {
                             if (!incompatible[i] && graph
                                     .vertices()[i].attribute == vertex.attribute) {
@@ -182,13 +168,8 @@ public class LevelRuleFactory {
                             }
                         }
 
-                        // copy the covered instances information to the
-                        // original instances array
-                        System.arraycopy(clone, 0, instances, 0, clone.length);
-
                         previous = selected;
                         ruleCovered = currentCovered;
-                        last = null;
 
                         // recompute the heuristic information if we are
                         // using the dynamic heuristic
@@ -200,10 +181,14 @@ public class LevelRuleFactory {
                                              incompatible);
                         }
                     } else {
-                        // removed the last added term and marks the selected
-                        // vertex as incompatible
-                        rule.pop();
+                        // marks the selected vertex as incompatible
                         incompatible[selected] = true;
+                        roulette.set(selected, 0.0);
+
+                        if (vertex.condition != null) {
+                            nominal--;
+                        }
+
                         selected = -1;
                     }
                 }
@@ -217,12 +202,6 @@ public class LevelRuleFactory {
 
         rule.compact();
 
-        if (last != null) {
-            // determines the coverage information, since a term was added
-            // to the rule and later removed
-            rule.apply(dataset, instances);
-        }
-
         return rule;
     }
 }
\ No newline at end of file
@@ -24,7 +24,7 @@ import static myra.rule.shell.command.Load.INSTANCES;
 
 import myra.classification.rule.Parser;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Rule;
 import myra.rule.shell.Command;
 import myra.rule.shell.Memory;
@@ -41,7 +41,7 @@ public class Cover implements Command {
     @Override
     public void execute(Memory memory, String... arguments) {
         Dataset dataset = memory.get(DATASET);
-        Instance[] instances = memory.get(INSTANCES);
+        Coverage instances = memory.get(INSTANCES);
 
         if (dataset == null || instances == null) {
             System.out.println("No dataset loaded.");
@@ -30,7 +30,7 @@ import myra.datamining.Attribute;
 import myra.datamining.Dataset;
 import myra.datamining.IntervalBuilder;
 import myra.datamining.Attribute.Condition;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.Rule;
 import myra.rule.shell.Command;
 import myra.rule.shell.Memory;
@@ -52,7 +52,7 @@ public class Interval implements Command {
         CONFIG.set(Rule.DEFAULT_RULE, ClassificationRule.class);
 
         Dataset dataset = memory.get(DATASET);
-        Instance[] instances = memory.get(INSTANCES);
+        Coverage instances = memory.get(INSTANCES);
         Attribute attribute = dataset.findAttribute(arguments[0]);
 
         Rule rule = Rule.newInstance();
@@ -72,7 +72,7 @@ public class Interval implements Command {
                     .format("[%.6f] %s", c.entropy, c.toString(dataset)));
         }
 
-        Instance.mark(instances, Dataset.RULE_COVERED, Dataset.NOT_COVERED);
+        instances.mark(Dataset.RULE_COVERED, Dataset.NOT_COVERED);
     }
 
     @Override
@@ -25,7 +25,7 @@ import java.io.IOException;
 
 import myra.datamining.ARFFReader;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.shell.Command;
 import myra.rule.shell.Memory;
 import myra.rule.shell.Memory.Location;
@@ -42,10 +42,10 @@ public class Load implements Command {
     public static final Location<Dataset> DATASET = new Location<Dataset>();
 
     /**
-     * Memory location for the instances array.
+     * Memory location for the instances coverage.
      */
-    public static final Location<Instance[]> INSTANCES =
-            new Location<Instance[]>();
+    public static final Location<Coverage> INSTANCES =
+            new Location<Coverage>();
 
     @Override
     public void execute(Memory memory, String... arguments) {
@@ -54,8 +54,8 @@ public class Load implements Command {
             Dataset dataset = reader.read(arguments[0]);
             memory.put(DATASET, dataset);
 
-            Instance[] instances = Instance.newArray(dataset.size());
-            Instance.markAll(instances, NOT_COVERED);
+            Coverage instances = new Coverage(dataset.size());
+            instances.markAll(NOT_COVERED);
             memory.put(INSTANCES, instances);
 
             System.out.println("Available instances: " + dataset.size());
@@ -23,8 +23,10 @@ import static myra.datamining.Dataset.NOT_COVERED;
 import static myra.rule.shell.command.Load.DATASET;
 import static myra.rule.shell.command.Load.INSTANCES;
 
+import java.util.Arrays;
+
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.shell.Command;
 import myra.rule.shell.Memory;
 
@@ -39,7 +41,7 @@ public class Remove implements Command {
     @Override
     public void execute(Memory memory, String... arguments) {
         Dataset dataset = memory.get(DATASET);
-        Instance[] instances = memory.get(INSTANCES);
+        Coverage instances = memory.get(INSTANCES);
 
         if (dataset == null || instances == null) {
             System.out.println("Dataset not loaded.");
@@ -49,12 +51,14 @@ public class Remove implements Command {
             for (int i = 0; i < arguments.length; i++) {
                 indexes[i] = Integer.parseInt(arguments[i]);
             }
+            // the dataset requires the indexes in ascending order
+            Arrays.sort(indexes);
 
             System.out
                     .println("Available instances: " + dataset.remove(indexes));
 
-            instances = Instance.newArray(dataset.size());
-            Instance.markAll(instances, NOT_COVERED);
+            instances = new Coverage(dataset.size());
+            instances.markAll(NOT_COVERED);
             memory.put(INSTANCES, instances);
         }
     }
@@ -22,7 +22,7 @@ package myra.rule.shell.command;
 import static myra.datamining.Dataset.NOT_COVERED;
 import static myra.rule.shell.command.Load.INSTANCES;
 
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.rule.shell.Command;
 import myra.rule.shell.Memory;
 
@@ -35,13 +35,13 @@ import myra.rule.shell.Memory;
 public class Reset implements Command {
     @Override
     public void execute(Memory memory, String... arguments) {
-        Instance[] instances = memory.get(INSTANCES);
+        Coverage instances = memory.get(INSTANCES);
 
         if (instances == null) {
             System.out.println("No dataset loaded.");
         } else {
-            Instance.markAll(instances, NOT_COVERED);
-            System.out.println("Available instances: " + instances.length);
+            instances.markAll(NOT_COVERED);
+            System.out.println("Available instances: " + instances.size());
         }
     }
 
@@ -0,0 +1,219 @@
+/*
+ * StreamRandom.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.util;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Random number generator that draws numbers from the stream bound to the
+ * current thread. The scheduler binds a separate stream to each ant, derived
+ * from the seed of the run, the iteration and the index of the ant (see
+ * {@link #stream(long, int, int)}), so the numbers used by an ant do not depend
+ * on the thread that creates it. Threads without a bound stream (e.g., the
+ * main thread of the algorithm) use the root stream, created from the seed.
+ *
+ * <p>
+ * Streams are not shared between threads, therefore ants do not contend on
+ * the state of the generator.
+ * </p>
+ *
+ * @author Fernando Esteban Barril Otero
+ */
+public class StreamRandom extends Random {
+    /**
+     * Serialization UID.
+     */
+    private static final long serialVersionUID = 5294305389418563722L;
+
+    /**
+     * The stream bound to each thread.
+     */
+    private static final ThreadLocal<SplittableRandom> STREAM =
+            new ThreadLocal<>();
+
+    /**
+     * The odd constant used to spread the stream coordinates (the golden
+     * ratio, as in SplitMix64).
+     */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /**
+     * The root stream, used by threads without a bound stream.
+     */
+    private final SplittableRandom root;
+
+    /**
+     * Creates a new <code>StreamRandom</code>.
+     *
+     * @param seed
+     *            the seed of the root stream.
+     */
+    public StreamRandom(long seed) {
+        super(seed);
+        root = new SplittableRandom(seed);
+    }
+
+    /**
+     * Returns the stream of the specified ant.
+     *
+     * @param seed
+     *            the seed of the scheduler run.
+     * @param iteration
+     *            the iteration of the scheduler.
+     * @param ant
+     *            the index of the ant in the colony.
+     *
+     * @return the stream of the specified ant.
+     */
+    public static SplittableRandom stream(long seed, int iteration, int ant) {
+        long z = mix(seed + GOLDEN_GAMMA * (iteration + 1L));
+        return new SplittableRandom(mix(z + GOLDEN_GAMMA * (ant + 1L)));
+    }
+
+    /**
+     * Binds the specified stream to the current thread.
+     *
+     * @param stream
+     *            the stream to bind; <code>null</code> to use the root stream.
+     *
+     * @return the stream previously bound to the current thread;
+     *         <code>null</code> if there was none.
+     */
+    public static SplittableRandom bind(SplittableRandom stream) {
+        SplittableRandom previous = STREAM.get();
+
+        if (stream == null) {
+            STREAM.remove();
+        } else {
+            STREAM.set(stream);
+        }
+
+        return previous;
+    }
+
+    /**
+     * The SplitMix64 finalizer.
+     *
+     * @param z
+     *            the value to mix.
+     *
+     * @return the mixed value.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns the next 32 bits of the stream of the current thread.
+     *
+     * @return the next 32 bits of the stream.
+     */
+    private int nextBits() {
+        SplittableRandom stream = STREAM.get();
+
+        if (stream == null) {
+            synchronized (root) {
+                return root.nextInt();
+            }
+        }
+
+        return stream.nextInt();
+    }
+
+    @Override
+    protected int next(int bits) {
+        return nextBits() >>> (32 - bits);
+    }
+
+    @Override
+    public int nextInt() {
+        return nextBits();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        SplittableRandom stream = STREAM.get();
+
+        if (stream == null) {
+            synchronized (root) {
+                return root.nextInt(bound);
+            }
+        }
+
+        return stream.nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        SplittableRandom stream = STREAM.get();
+
+        if (stream == null) {
+            synchronized (root) {
+                return root.nextLong();
+            }
+        }
+
+        return stream.nextLong();
+    }
+
+    @Override
+    public double nextDouble() {
+        SplittableRandom stream = STREAM.get();
+
+        if (stream == null) {
+            synchronized (root) {
+                return root.nextDouble();
+            }
+        }
+
+        return stream.nextDouble();
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        SplittableRandom stream = STREAM.get();
+
+        if (stream == null) {
+            synchronized (root) {
+                return root.nextBoolean();
+            }
+        }
+
+        return stream.nextBoolean();
+    }
+
+    @Override
+    public double nextGaussian() {
+        // polar method; the second value is not cached, since the cache
+        // would be shared by all streams
+        double v1, v2, s;
+
+        do {
+            v1 = 2 * nextDouble() - 1;
+            v2 = 2 * nextDouble() - 1;
+            s = v1 * v1 + v2 * v2;
+        } while (s >= 1 || s == 0);
+
+        return v1 * Math.sqrt(-2 * Math.log(s) / s);
+    }
+}
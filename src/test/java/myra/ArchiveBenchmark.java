@@ -0,0 +1,146 @@
+/*
+ * ArchiveBenchmark.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import myra.Archive.ConcurrentArchive;
+import myra.Archive.DefaultArchive;
+import myra.Archive.SynchronizedArchive;
+import myra.DefaultArchiveTest.WInteger;
+
+/**
+ * Contention benchmark of the solution archives. Each thread adds random
+ * solutions to a shared archive, as the workers of the
+ * {@link AsynchronousScheduler} do at the end of each walk; the archive is
+ * read once all threads finished. It compares {@link SynchronizedArchive}
+ * against {@link ConcurrentArchive} (with one stripe per thread) for 8 to 64
+ * threads.
+ *
+ * <p>
+ * This is not a unit test; run it with:
+ * </p>
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes myra.ArchiveBenchmark
+ * </pre>
+ *
+ * @author Fernando Esteban Barril Otero
+ */
+public class ArchiveBenchmark {
+    /**
+     * The capacity of the archives.
+     */
+    private static final int CAPACITY = 60;
+
+    /**
+     * Number of solutions added by each thread.
+     */
+    private static final int SOLUTIONS = 200000;
+
+    /**
+     * Adds the solutions to the archive using the specified number of
+     * threads.
+     *
+     * @param archive
+     *            the archive.
+     * @param solutions
+     *            the solutions of each thread.
+     *
+     * @return the elapsed time in nanoseconds.
+     *
+     * @throws InterruptedException
+     *             if the benchmark is interrupted.
+     */
+    private static long run(final Archive<WInteger> archive,
+                            final WInteger[][] solutions)
+            throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[solutions.length];
+
+        for (int i = 0; i < threads.length; i++) {
+            final WInteger[] local = solutions[i];
+
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+
+                for (WInteger solution : local) {
+                    archive.add(solution);
+                }
+            });
+            threads[i].start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // includes the merge of the stripes of the concurrent archive
+        archive.highest();
+
+        return System.nanoTime() - begin;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Random random = new Random(SOLUTIONS);
+
+        for (int threads = 8; threads <= 64; threads *= 2) {
+            WInteger[][] solutions = new WInteger[threads][SOLUTIONS];
+
+            for (int i = 0; i < threads; i++) {
+                for (int j = 0; j < SOLUTIONS; j++) {
+                    solutions[i][j] = new WInteger(random.nextInt());
+                }
+            }
+
+            for (int round = 0; round < 3; round++) {
+                Archive<WInteger> synchronised =
+                        new SynchronizedArchive<>(new DefaultArchive<WInteger>(CAPACITY));
+                long lock = run(synchronised, solutions);
+
+                Archive<WInteger> concurrent =
+                        new ConcurrentArchive<>(CAPACITY, threads);
+                long striped = run(concurrent, solutions);
+
+                if (synchronised.highest().intValue() != concurrent.highest()
+                        .intValue()
+                        || synchronised.lowest().intValue() != concurrent
+                                .lowest().intValue()) {
+                    throw new IllegalStateException("Archives differ");
+                }
+
+                System.out.printf("%d threads, %d solutions: synchronized "
+                        + "%.1f ms, concurrent %.1f ms%n",
+                                  threads,
+                                  threads * SOLUTIONS,
+                                  lock / 1e6,
+                                  striped / 1e6);
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * AsynchronousSchedulerTest.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra;
+
+import static myra.ParallelScheduler.DISPATCH_STATISTICS;
+import static myra.Scheduler.COLONY_SIZE;
+import static myra.Scheduler.PARALLEL;
+
+import java.io.InputStreamReader;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+import myra.DefaultArchiveTest.WInteger;
+import myra.ParallelScheduler.Statistics;
+import myra.algorithm.AntTreeMiner;
+import myra.algorithm.PittsburghContinuousAntMiner;
+import myra.algorithm.PittsburghMixedAttributeAntMiner;
+import myra.datamining.ARFFReader;
+import myra.datamining.Algorithm;
+import myra.datamining.Dataset;
+import myra.datamining.Model;
+
+/**
+ * <code>AsynchronousScheduler</code> class test.
+ * 
+ * @author Fernando Esteban Barril Otero
+ */
+public class AsynchronousSchedulerTest extends TestCase {
+    /**
+     * Tests that solutions are not created while the activity is updated.
+     */
+    public void testUpdate() {
+        final AtomicInteger creating = new AtomicInteger();
+        final AtomicInteger overlaps = new AtomicInteger();
+        final AtomicInteger updates = new AtomicInteger();
+
+        Config config = new Config();
+        config.set(COLONY_SIZE, 5);
+        config.set(PARALLEL, 4);
+        config.set(AsynchronousScheduler.STEADY_STATE, 3);
+
+        Config previous = Config.bind(config);
+
+        try {
+            AsynchronousScheduler<WInteger> scheduler =
+                    new AsynchronousScheduler<>(new IterativeActivity<WInteger>() {
+                        @Override
+                        public WInteger create() {
+                            creating.incrementAndGet();
+
+                            try {
+                                // gives the other workers a chance to update
+                                Thread.yield();
+                                return new WInteger(creating.get());
+                            } finally {
+                                creating.decrementAndGet();
+                            }
+                        }
+
+                        @Override
+                        public void update(Archive<WInteger> archive) {
+                            super.update(archive);
+
+                            if (creating.get() != 0) {
+                                overlaps.incrementAndGet();
+                            }
+
+                            Thread.yield();
+                            updates.incrementAndGet();
+                        }
+
+                        @Override
+                        public boolean terminate() {
+                            return updates.get() == 200;
+                        }
+                    }, 3);
+
+            scheduler.run();
+        } finally {
+            Config.bind(previous);
+        }
+
+        assertEquals(200, updates.get());
+        assertEquals(0, overlaps.get());
+    }
+
+    /**
+     * Tests that solutions are created while a concurrent activity is
+     * updated.
+     */
+    public void testConcurrentUpdate() throws Exception {
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger updates = new AtomicInteger();
+        final AtomicInteger overlaps = new AtomicInteger();
+        final AtomicBoolean enabled = new AtomicBoolean();
+
+        Config config = new Config();
+        config.set(COLONY_SIZE, 5);
+        config.set(PARALLEL, 4);
+        config.set(AsynchronousScheduler.STEADY_STATE, 1);
+
+        Config previous = Config.bind(config);
+
+        class Concurrent extends IterativeActivity<WInteger>
+                implements ConcurrentActivity<WInteger> {
+            /**
+             * Released when a solution is created during an update.
+             */
+            volatile CountDownLatch creating = new CountDownLatch(0);
+
+            @Override
+            public WInteger create() {
+                WInteger solution = new WInteger(created.incrementAndGet());
+                creating.countDown();
+                return solution;
+            }
+
+            @Override
+            public void update(Archive<WInteger> archive) {
+                super.update(archive);
+                int before = created.get();
+
+                try {
+                    // waits for a solution created during the update
+                    creating = new CountDownLatch(1);
+
+                    if (creating.await(10, TimeUnit.SECONDS)
+                            && created.get() > before) {
+                        overlaps.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+
+                updates.incrementAndGet();
+            }
+
+            @Override
+            public boolean terminate() {
+                return updates.get() == 20;
+            }
+
+            @Override
+            public void setConcurrent(boolean concurrent) {
+                enabled.set(concurrent);
+            }
+        }
+
+        Concurrent activity = new Concurrent();
+
+        try {
+            new AsynchronousScheduler<>(activity, 1).run();
+        } finally {
+            Config.bind(previous);
+        }
+
+        assertEquals(20, updates.get());
+        // every update overlapped with the creation of a solution
+        assertEquals(20, overlaps.get());
+        // the concurrent mode is disabled at the end of the run
+        assertFalse(enabled.get());
+    }
+
+    /**
+     * Trains an algorithm in steady-state mode.
+     * 
+     * @param algorithm
+     *            the algorithm to train.
+     * @param args
+     *            the command-line arguments of the training.
+     * 
+     * @return the statistics of the training.
+     */
+    private Statistics train(Algorithm algorithm, String... args)
+            throws Exception {
+        ARFFReader reader = new ARFFReader();
+        Dataset dataset = reader.read(new InputStreamReader(getClass()
+                .getResourceAsStream("/weather.arff")));
+
+        Statistics statistics = new Statistics();
+        Config config = new Config(algorithm.configure(args));
+        config.set(DISPATCH_STATISTICS, statistics);
+
+        Model model = algorithm.train(config, dataset);
+
+        assertNotNull(model);
+        assertTrue(statistics.iterations() > 0);
+
+        return statistics;
+    }
+
+    /**
+     * Tests a concurrent steady-state search of decision trees, where the
+     * update adds entries to the pheromone matrix.
+     */
+    public void testTree() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            train(new AntTreeMiner(),
+                  "--parallel",
+                  "4",
+                  "--steady-state",
+                  "2",
+                  "-i",
+                  "50",
+                  "-s",
+                  String.valueOf(i));
+        }
+    }
+
+    /**
+     * Tests a concurrent steady-state search of lists of rules, where the
+     * update evaporates the pheromone values lazily.
+     */
+    public void testRuleList() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            train(new PittsburghContinuousAntMiner(),
+                  "--parallel",
+                  "4",
+                  "--steady-state",
+                  "-i",
+                  "50",
+                  "-s",
+                  String.valueOf(i));
+        }
+    }
+
+    /**
+     * Tests a concurrent steady-state search of lists of rules, where the
+     * update modifies the archives of the vertices of the graph.
+     */
+    public void testMixedAttribute() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            train(new PittsburghMixedAttributeAntMiner(),
+                  "--parallel",
+                  "4",
+                  "--steady-state",
+                  "1",
+                  "-i",
+                  "50",
+                  "-s",
+                  String.valueOf(i));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * BudgetTest.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra;
+
+import static myra.Budget.BUDGET;
+import static myra.Budget.MAX_EVALUATIONS;
+import static myra.Budget.TIME_LIMIT;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Fernando Esteban Barril Otero
+ */
+public class BudgetTest extends TestCase {
+    public void testEvaluations() {
+        Config config = new Config();
+        config.set(MAX_EVALUATIONS, 3);
+        config.set(BUDGET, Budget.of(config));
+
+        Config previous = Config.bind(config);
+
+        try {
+            for (int i = 0; i < 3; i++) {
+                assertFalse(Budget.expired());
+                Budget.evaluated();
+            }
+
+            assertTrue(Budget.expired());
+        } finally {
+            Config.bind(previous);
+        }
+    }
+
+    public void testTime() throws Exception {
+        Config config = new Config();
+        assertNull(Budget.of(config));
+
+        config.set(TIME_LIMIT, 0.5);
+        Budget budget = Budget.of(config);
+
+        assertFalse(budget.isExpired());
+        Thread.sleep(600);
+        assertTrue(budget.isExpired());
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * ConcurrentArchiveTest.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.TestCase;
+import myra.Archive.ConcurrentArchive;
+import myra.Archive.DefaultArchive;
+import myra.DefaultArchiveTest.WInteger;
+
+/**
+ * <code>ConcurrentArchive</code> class test.
+ * 
+ * @author Fernando Esteban Barril Otero
+ */
+public class ConcurrentArchiveTest extends TestCase {
+    /**
+     * Tests the addition of elements to the archive from multiple threads,
+     * with fewer stripes than threads.
+     */
+    public void testAdd() throws Exception {
+        final Archive<WInteger> archive = new ConcurrentArchive<>(5, 2);
+        Thread[] threads = new Thread[4];
+
+        for (int i = 0; i < threads.length; i++) {
+            final int offset = i;
+
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 100; j++) {
+                    archive.add(new WInteger(j * threads.length + offset));
+                }
+            });
+            threads[i].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(5, archive.size());
+        assertEquals(399, archive.highest().intValue());
+        assertEquals(395, archive.lowest().intValue());
+
+        archive.clear();
+        assertEquals(0, archive.size());
+    }
+
+    /**
+     * Tests that solutions are drained while other threads add solutions,
+     * without losing any of them.
+     */
+    public void testDrain() throws Exception {
+        final int solutions = 10000;
+        final ConcurrentArchive<WInteger> archive =
+                new ConcurrentArchive<>(solutions, 4);
+        Thread[] threads = new Thread[4];
+
+        for (int i = 0; i < threads.length; i++) {
+            final int offset = i;
+
+            threads[i] = new Thread(() -> {
+                for (int j = offset; j < solutions; j += threads.length) {
+                    archive.add(new WInteger(j));
+                }
+            });
+            threads[i].start();
+        }
+
+        Set<Integer> drained = new HashSet<>();
+        int count = 0;
+        boolean running = true;
+
+        while (running) {
+            running = false;
+
+            for (Thread thread : threads) {
+                running |= thread.isAlive();
+            }
+
+            DefaultArchive<WInteger> target = new DefaultArchive<>(solutions);
+            count += archive.drain(target);
+
+            // the archive stores the solutions in a Weighable array
+            Object[] top = target.topN(target.size());
+
+            for (Object solution : top) {
+                assertTrue(drained.add(((WInteger) solution).intValue()));
+            }
+        }
+
+        assertEquals(solutions, count);
+        assertEquals(solutions, drained.size());
+        assertEquals(0, archive.size());
+    }
+}
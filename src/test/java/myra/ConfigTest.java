@@ -0,0 +1,81 @@
+/*
+ * ConfigTest.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra;
+
+import static myra.Config.CONFIG;
+
+import junit.framework.TestCase;
+import myra.Config.ConfigKey;
+
+/**
+ * @author Fernando Esteban Barril Otero
+ */
+public class ConfigTest extends TestCase {
+    /**
+     * The key for the test.
+     */
+    private static final ConfigKey<Integer> KEY = new ConfigKey<>();
+
+    public void testBind() throws Exception {
+        final Config config = new Config();
+        config.set(KEY, 1);
+
+        Config previous = Config.bind(config);
+
+        try {
+            assertEquals(1, CONFIG.get(KEY).intValue());
+
+            // a thread without a binding does not see the values
+            final boolean[] present = new boolean[1];
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    present[0] = CONFIG.isPresent(KEY);
+                }
+            });
+            thread.start();
+            thread.join();
+
+            assertFalse(present[0]);
+        } finally {
+            Config.bind(previous);
+        }
+
+        assertFalse(CONFIG.isPresent(KEY));
+    }
+
+    public void testSnapshot() {
+        Config config = new Config();
+        config.set(KEY, 1);
+
+        Config snapshot = config.snapshot();
+        config.set(KEY, 2);
+
+        assertTrue(snapshot.isFrozen());
+        assertEquals(1, snapshot.get(KEY).intValue());
+
+        try {
+            snapshot.set(KEY, 3);
+            fail("Snapshot must be immutable");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * IslandSchedulerTest.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra;
+
+import static myra.IslandScheduler.MIGRATION_INTERVAL;
+import static myra.IslandScheduler.MIGRATION_TOPOLOGY;
+import static myra.Scheduler.COLONY_SIZE;
+import static myra.Scheduler.PARALLEL;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+import myra.DefaultArchiveTest.WInteger;
+import myra.IslandScheduler.Topology;
+
+/**
+ * <code>IslandScheduler</code> class test.
+ * 
+ * @author Fernando Esteban Barril Otero
+ */
+public class IslandSchedulerTest extends TestCase {
+    /**
+     * The number of islands.
+     */
+    private static final int ISLANDS = 3;
+
+    /**
+     * The archive capacity of the islands. Immigrants that do not fit in the
+     * archive are discarded, so it must hold the solutions that a fast island
+     * sends while another island is not running.
+     */
+    private static final int CAPACITY = 1000;
+
+    /**
+     * The iterations limit of an island, never reached in the tests.
+     */
+    private static final int LIMIT = 1000000;
+
+    /**
+     * Activity of an island. The solutions of island <i>i</i> have values
+     * <code>i * LIMIT + iteration</code>, so the island that created a
+     * solution is known. An island only sends its own solutions, and it keeps
+     * running until it received a solution from each of its neighbours.
+     */
+    private static class IslandActivity extends IterativeActivity<WInteger> {
+        /**
+         * The index of the island.
+         */
+        final int index;
+
+        /**
+         * The number of neighbours of the island.
+         */
+        final int neighbours;
+
+        /**
+         * The islands that sent solutions to this island.
+         */
+        final Set<Integer> senders = new TreeSet<>();
+
+        /**
+         * The iteration that fails, or <code>-1</code>.
+         */
+        final int failure;
+
+        /**
+         * The best solution created by the island.
+         */
+        WInteger own;
+
+        IslandActivity(int index, int neighbours, int failure) {
+            this.index = index;
+            this.neighbours = neighbours;
+            this.failure = failure;
+        }
+
+        @Override
+        public WInteger create() {
+            if (iteration == failure) {
+                throw new IllegalStateException("island " + index);
+            }
+
+            return new WInteger(index * LIMIT + iteration);
+        }
+
+        @Override
+        public void update(Archive<WInteger> archive) {
+            // the archive array is created as Weighable[]
+            for (Object o : ((Archive<?>) archive).topN(archive.size())) {
+                int origin = ((WInteger) o).intValue() / LIMIT;
+
+                if (origin != index) {
+                    senders.add(origin);
+                }
+            }
+
+            if (own == null || iteration > own.intValue() % LIMIT) {
+                own = new WInteger(index * LIMIT + iteration);
+            }
+
+            super.update(archive);
+        }
+
+        @Override
+        public boolean terminate() {
+            return iteration >= LIMIT
+                    || (iteration >= 5 && failure == -1
+                            && senders.size() == neighbours);
+        }
+
+        /**
+         * Returns the best solution created by the island, so that immigrants
+         * are not sent again.
+         */
+        @Override
+        public WInteger getBest() {
+            return own;
+        }
+    }
+
+    /**
+     * Runs the islands with the specified topology.
+     * 
+     * @param topology
+     *            the migration topology.
+     * @param neighbours
+     *            the number of neighbours of each island.
+     * @param failure
+     *            the iteration at which the second island fails, or
+     *            <code>-1</code>.
+     * 
+     * @return the activities of the islands.
+     */
+    private ArrayList<IslandActivity> run(Topology topology,
+                                          final int neighbours,
+                                          final int failure) {
+        final ArrayList<IslandActivity> activities = new ArrayList<>();
+        Config config = new Config();
+        config.set(COLONY_SIZE, 2);
+        config.set(MIGRATION_INTERVAL, 1);
+        config.set(MIGRATION_TOPOLOGY, topology);
+
+        Config previous = Config.bind(config);
+
+        try {
+            IslandScheduler<WInteger> scheduler =
+                    new IslandScheduler<>(() -> {
+                        int index = activities.size();
+                        IslandActivity activity = new IslandActivity(index,
+                                neighbours,
+                                index == 1 ? failure : -1);
+                        activities.add(activity);
+                        return activity;
+                    }, CAPACITY, ISLANDS);
+
+            try {
+                scheduler.run();
+            } finally {
+                // all islands finished, even if one of them failed
+                assertTrue(ParallelScheduler.pool(ISLANDS)
+                        .awaitQuiescence(10, TimeUnit.SECONDS));
+            }
+
+            int best = -1;
+
+            for (IslandActivity activity : activities) {
+                best = Math.max(best, activity.own.intValue());
+            }
+
+            assertEquals(best, scheduler.getBest().intValue());
+        } finally {
+            Config.bind(previous);
+        }
+
+        return activities;
+    }
+
+    public void testRing() {
+        ArrayList<IslandActivity> activities = run(Topology.RING, 1, -1);
+
+        for (IslandActivity activity : activities) {
+            // only the previous island sends solutions
+            assertEquals(1, activity.senders.size());
+            assertTrue(activity.senders
+                    .contains((activity.index + ISLANDS - 1) % ISLANDS));
+        }
+    }
+
+    public void testAll() {
+        ArrayList<IslandActivity> activities =
+                run(Topology.ALL, ISLANDS - 1, -1);
+
+        for (IslandActivity activity : activities) {
+            assertEquals(ISLANDS - 1, activity.senders.size());
+            assertFalse(activity.senders.contains(activity.index));
+        }
+    }
+
+    public void testFailure() {
+        try {
+            run(Topology.RING, 1, 3);
+            fail("Exception not propagated");
+        } catch (IllegalStateException e) {
+            // exceptions thrown by another thread are wrapped in an
+            // exception of the same type, once for each thread crossed
+            Throwable cause = e;
+
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+
+            assertEquals("island 1", cause.getMessage());
+        }
+    }
+
+    public void testParallel() {
+        Config config = new Config();
+        config.set(PARALLEL, 2);
+
+        Config previous = Config.bind(config);
+
+        try {
+            new IslandScheduler<WInteger>(() -> new IslandActivity(0, 0, -1),
+                                          CAPACITY,
+                                          ISLANDS);
+            fail("Parallel colonies accepted");
+        } catch (IllegalArgumentException e) {
+            // expected
+        } finally {
+            Config.bind(previous);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * ParallelSchedulerTest.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra;
+
+import static myra.Config.CONFIG;
+import static myra.ParallelScheduler.DISPATCH_STATISTICS;
+import static myra.Scheduler.COLONY_SIZE;
+import static myra.Scheduler.PARALLEL;
+import static myra.datamining.Algorithm.RANDOM_GENERATOR;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import junit.framework.TestCase;
+import myra.DefaultArchiveTest.WInteger;
+import myra.ParallelScheduler.Statistics;
+import myra.util.StreamRandom;
+
+/**
+ * <code>ParallelScheduler</code> class test.
+ * 
+ * @author Fernando Esteban Barril Otero
+ */
+public class ParallelSchedulerTest extends TestCase {
+    /**
+     * Returns the number of nested ranges being processed by the current
+     * thread. The first half of a split range is always processed by the
+     * thread that split it, so its indexes are processed at depth 2.
+     * 
+     * @return the number of nested ranges being processed.
+     */
+    private static int depth() {
+        int depth = 0;
+
+        for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
+            if (e.getClassName().endsWith("ParallelScheduler$Range")
+                    && e.getMethodName().equals("compute")) {
+                depth++;
+            }
+        }
+
+        return depth;
+    }
+
+    /**
+     * Processes a range and returns the maximum depth of its indexes, checking
+     * that each index is processed exactly once.
+     * 
+     * @param parallelism
+     *            the number of threads.
+     * @param size
+     *            the number of indexes.
+     * @param grain
+     *            the minimum number of indexes of a batch.
+     * 
+     * @return the maximum depth of the indexes.
+     */
+    private int range(int parallelism, int size, int grain) {
+        final AtomicIntegerArray visited = new AtomicIntegerArray(size);
+        final int[] depth = new int[size];
+
+        ParallelScheduler.forEach(parallelism, size, grain, i -> {
+            visited.incrementAndGet(i);
+            depth[i] = depth();
+        });
+
+        int max = 0;
+
+        for (int i = 0; i < size; i++) {
+            assertEquals(1, visited.get(i));
+            max = Math.max(max, depth[i]);
+        }
+
+        return max;
+    }
+
+    public void testRange() {
+        // below two batches: processed by the calling thread
+        assertEquals(0, range(4, 15, 8));
+        assertEquals(0, range(1, 1000, 8));
+        assertEquals(0, range(4, 0, 8));
+        // at two batches: split once in halves of grain indexes
+        assertEquals(2, range(2, 16, 8));
+        // the threshold is never smaller than the grain
+        assertEquals(2, range(8, 16, 8));
+        // split in (at least) four batches
+        assertEquals(3, range(4, 64, 8));
+    }
+
+    public void testRangeConfig() {
+        final Config config = new Config();
+        Config previous = Config.bind(config);
+
+        try {
+            final boolean[] bound = new boolean[1000];
+
+            ParallelScheduler.forEach(4, bound.length, 10, i -> {
+                bound[i] = Config.current() == config;
+            });
+
+            for (boolean b : bound) {
+                assertTrue(b);
+            }
+        } finally {
+            Config.bind(previous);
+        }
+    }
+
+    public void testRangeException() {
+        for (int parallelism : new int[] { 1, 4 }) {
+            final Config config = new Config();
+            Config previous = Config.bind(config);
+
+            try {
+                ParallelScheduler.forEach(parallelism, 1000, 10, i -> {
+                    if (i == 537) {
+                        throw new IllegalStateException("index " + i);
+                    }
+                });
+
+                fail("Exception not propagated");
+            } catch (IllegalStateException e) {
+                // exceptions thrown by another thread are wrapped in an
+                // exception of the same type, once for each thread crossed
+                Throwable cause = e;
+
+                while (cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+
+                assertEquals("index 537", cause.getMessage());
+                // the configuration of the calling thread is not changed
+                assertSame(config, Config.current());
+            } finally {
+                Config.bind(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs a scheduler and returns the solutions of each iteration.
+     * 
+     * @param scheduler
+     *            the scheduler to run.
+     * @param parallel
+     *            the number of threads; <code>0</code> for a sequential
+     *            scheduler.
+     * @param statistics
+     *            the dispatch statistics.
+     * 
+     * @return the solutions of each iteration.
+     */
+    private ArrayList<String> run(Scheduler<WInteger> scheduler,
+                                  int parallel,
+                                  Statistics statistics) {
+        final ArrayList<String> iterations = new ArrayList<>();
+        Config config = new Config();
+        config.set(COLONY_SIZE, 25);
+        config.set(RANDOM_GENERATOR, new StreamRandom(7));
+        config.set(DISPATCH_STATISTICS, statistics);
+
+        if (parallel > 0) {
+            config.set(PARALLEL, parallel);
+        }
+
+        Config previous = Config.bind(config);
+
+        try {
+            scheduler.setCapacity(25);
+            scheduler.setActivity(new IterativeActivity<WInteger>() {
+                @Override
+                public WInteger create() {
+                    return new WInteger(CONFIG.get(RANDOM_GENERATOR)
+                            .nextInt(1000));
+                }
+
+                @Override
+                public void update(Archive<WInteger> archive) {
+                    super.update(archive);
+                    iterations.add(archive.size() + " "
+                            + archive.highest().intValue() + " "
+                            + archive.lowest().intValue());
+                }
+
+                @Override
+                public boolean terminate() {
+                    return iterations.size() == 4;
+                }
+            });
+
+            scheduler.run();
+        } finally {
+            Config.bind(previous);
+        }
+
+        return iterations;
+    }
+
+    public void testBatch() {
+        Statistics statistics = new Statistics();
+        ArrayList<String> parallel =
+                run(new ParallelScheduler<WInteger>(25), 3, statistics);
+        ArrayList<String> sequential =
+                run(new Scheduler<WInteger>(25), 0, new Statistics());
+
+        // each ant uses its own stream, so the solutions do not depend on
+        // the thread that created them
+        assertEquals(4, parallel.size());
+        assertEquals(sequential, parallel);
+
+        assertEquals(4, statistics.iterations());
+        assertTrue(statistics.toString().startsWith("4 iterations, 100 ants"));
+        assertTrue(statistics.overhead() >= 0);
+    }
+
+    public void testStatistics() {
+        Statistics statistics = new Statistics();
+        assertEquals(0, statistics.iterations());
+        assertEquals(0.0, statistics.overhead());
+        assertEquals(1.0, statistics.speedup(Statistics.CREATE));
+
+        statistics.create(10, 1000, 3000, 800);
+        statistics.create(10, 1000, 1000, 1200);
+
+        assertEquals(2, statistics.iterations());
+        // the overhead is never negative
+        assertEquals(100.0, statistics.overhead());
+        assertEquals(2.0, statistics.speedup(Statistics.CREATE));
+
+        statistics.add(Statistics.UPDATE, 100, 300);
+
+        assertEquals(2, statistics.iterations());
+        assertEquals(3.0, statistics.speedup(Statistics.UPDATE));
+
+        statistics.steady(30, 3, 2000, 6000);
+
+        assertEquals(5, statistics.iterations());
+        assertEquals(2.5, statistics.speedup(Statistics.CREATE));
+        assertEquals(40.0, statistics.overhead());
+
+        String summary = statistics.toString();
+        assertTrue(summary.startsWith("5 iterations, 50 ants"));
+        assertTrue(summary.contains(String.format("update %.1f us per"
+                + " iteration (%.2fx speedup)", 0.1, 3.0)));
+        assertTrue(summary.contains(String.format("%.1f us dispatch overhead",
+                                                  0.04)));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * PeerSchedulerTest.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra;
+
+import static myra.AsynchronousScheduler.STEADY_STATE;
+import static myra.Scheduler.PARALLEL;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+
+import junit.framework.TestCase;
+import myra.Config.ConfigKey;
+import myra.DefaultArchiveTest.WInteger;
+
+/**
+ * <code>PeerScheduler</code> class test.
+ * 
+ * @author Fernando Esteban Barril Otero
+ */
+public class PeerSchedulerTest extends TestCase {
+    /**
+     * Activity that is never run by the tests.
+     */
+    private static class IdleActivity implements Activity<WInteger> {
+        @Override
+        public WInteger create() {
+            return new WInteger(0);
+        }
+
+        @Override
+        public boolean search(Archive<WInteger> archive) {
+            return false;
+        }
+
+        @Override
+        public void initialise() {
+        }
+
+        @Override
+        public boolean terminate() {
+            return true;
+        }
+
+        @Override
+        public void update(Archive<WInteger> archive) {
+        }
+    }
+
+    /**
+     * Codec that does not exchange solutions.
+     */
+    private static class IdleCodec implements PeerScheduler.Codec<WInteger> {
+        @Override
+        public void write(WInteger solution, DataOutput out) {
+        }
+
+        @Override
+        public WInteger read(DataInput in) {
+            return new WInteger(0);
+        }
+    }
+
+    /**
+     * Checks that a scheduler cannot be created with the specified option.
+     * 
+     * @param key
+     *            the config key of the option.
+     */
+    private void assertUnsupported(ConfigKey<Integer> key) {
+        Config config = new Config();
+        config.set(key, 2);
+
+        Config previous = Config.bind(config);
+
+        try {
+            new PeerScheduler<WInteger>(new IdleActivity(),
+                                        1,
+                                        new IdleCodec());
+            fail("Single-threaded colony expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        } finally {
+            Config.bind(previous);
+        }
+    }
+
+    public void testParallel() {
+        assertUnsupported(PARALLEL);
+    }
+
+    public void testSteadyState() {
+        assertUnsupported(STEADY_STATE);
+    }
+}
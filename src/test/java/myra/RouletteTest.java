@@ -0,0 +1,67 @@
+/*
+ * RouletteTest.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Fernando Esteban Barril Otero
+ */
+public class RouletteTest extends TestCase {
+    public void testSelect() {
+        Roulette roulette = new Roulette(5);
+        roulette.put(1, 1.0);
+        roulette.put(3, 3.0);
+        roulette.build();
+
+        assertEquals(4.0, roulette.total());
+        assertEquals(1, roulette.select(0.0));
+        assertEquals(1, roulette.select(0.24));
+        assertEquals(3, roulette.select(0.25));
+        assertEquals(3, roulette.select(0.99999));
+
+        roulette.set(3, 0.0);
+        assertEquals(1.0, roulette.total());
+        assertEquals(1, roulette.select(0.99999));
+
+        roulette.set(1, 0.0);
+        assertEquals(0.0, roulette.total());
+        assertEquals(-1, roulette.select(0.5));
+    }
+
+    public void testZeroWeights() {
+        Roulette roulette = new Roulette(7);
+
+        for (int i = 0; i < roulette.size(); i++) {
+            roulette.put(i, 0.1 * (i + 1));
+        }
+
+        roulette.build();
+
+        // removes all but the first item
+        for (int i = 1; i < roulette.size(); i++) {
+            roulette.set(i, 0.0);
+        }
+
+        for (double slot = 0.0; slot < 1.0; slot += 0.01) {
+            assertEquals(0, roulette.select(slot));
+        }
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * ClassificationRuleTest.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.classification.rule;
+
+import static myra.Config.CONFIG;
+import static myra.datamining.Attribute.EQUAL_TO;
+import static myra.datamining.Attribute.GREATER_THAN;
+import static myra.datamining.Attribute.LESS_THAN_OR_EQUAL_TO;
+import static myra.datamining.Attribute.Type.CONTINUOUS;
+import static myra.datamining.Attribute.Type.NOMINAL;
+import static myra.datamining.Dataset.COVERED;
+import static myra.datamining.Dataset.MISSING_VALUE_INDEX;
+import static myra.datamining.Dataset.NOT_COVERED;
+import static myra.datamining.Dataset.RULE_COVERED;
+import static myra.datamining.IntervalBuilder.MINIMUM_CASES;
+import static myra.rule.Assignator.ASSIGNATOR;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import myra.classification.rule.function.Accuracy;
+import myra.datamining.Attribute;
+import myra.datamining.Attribute.Condition;
+import myra.datamining.Bitset;
+import myra.datamining.Coverage;
+import myra.datamining.Dataset;
+import myra.rule.BacktrackPruner;
+import myra.rule.GreedyPruner;
+import myra.rule.PrefixCoverage;
+import myra.rule.Pruner;
+import myra.rule.Rule.Term;
+
+/**
+ * @author Fernando Esteban Barril Otero
+ */
+public class ClassificationRuleTest extends TestCase {
+    /**
+     * The dataset for the test.
+     */
+    private Dataset dataset;
+
+    /**
+     * The random number generator.
+     */
+    private Random random;
+
+    @Override
+    protected void setUp() throws Exception {
+        random = new Random(1);
+        dataset = new Dataset();
+        dataset.add(new Attribute(CONTINUOUS, "a"));
+
+        Attribute b = new Attribute(NOMINAL, "b");
+        b.add("x");
+        b.add("y");
+        b.add("z");
+        dataset.add(b);
+
+        Attribute target = new Attribute(NOMINAL, "class");
+        target.add("yes");
+        target.add("no");
+        dataset.add(target);
+
+        // more than one word of instances, and a partial last word
+        for (int i = 0; i < 301; i++) {
+            dataset.add(new double[] { random.nextInt(100),
+                    random.nextDouble() < 0.1 ? MISSING_VALUE_INDEX
+                            : random.nextInt(3),
+                    random.nextInt(2) });
+        }
+    }
+
+    /**
+     * Returns a random rule with up to three terms.
+     *
+     * @return a random rule.
+     */
+    private ClassificationRule rule() {
+        ClassificationRule rule = new ClassificationRule();
+        int size = random.nextInt(4);
+
+        for (int i = 0; i < size; i++) {
+            Condition condition = new Condition();
+
+            if (random.nextBoolean()) {
+                condition.attribute = 0;
+                condition.relation = random.nextBoolean()
+                        ? LESS_THAN_OR_EQUAL_TO : GREATER_THAN;
+                condition.value[0] = random.nextInt(100);
+            } else {
+                condition.attribute = 1;
+                condition.relation = EQUAL_TO;
+                condition.value[0] = random.nextInt(3);
+            }
+
+            rule.add(i, condition);
+        }
+
+        return rule;
+    }
+
+    /**
+     * Asserts that applying the rule gives the same result as testing each
+     * instance individually.
+     *
+     * @param rule
+     *            the rule to apply.
+     * @param instances
+     *            the coverage state.
+     */
+    private void check(ClassificationRule rule, Coverage instances) {
+        Coverage expected = instances.copy();
+        int[] covered = new int[dataset.classLength()];
+        int[] uncovered = new int[dataset.classLength()];
+        int total = 0;
+
+        for (int i = 0; i < dataset.size(); i++) {
+            if (expected.flag(i) != COVERED) {
+                int value = (int) dataset.value(i, dataset.classIndex());
+
+                if (rule.covers(dataset, i)) {
+                    expected.flag(i, RULE_COVERED);
+                    covered[value]++;
+                    total++;
+                } else {
+                    expected.flag(i, NOT_COVERED);
+                    uncovered[value]++;
+                }
+            }
+        }
+
+        assertEquals(total, rule.apply(dataset, instances));
+
+        for (int i = 0; i < dataset.size(); i++) {
+            assertEquals(expected.flag(i), instances.flag(i));
+        }
+
+        for (int i = 0; i < covered.length; i++) {
+            assertEquals(covered[i], rule.covered()[i]);
+            assertEquals(uncovered[i], rule.uncovered()[i]);
+        }
+    }
+
+    public void testApply() {
+        for (int i = 0; i < 100; i++) {
+            ClassificationRule rule = rule();
+            Coverage instances = new Coverage(dataset.size());
+
+            for (int j = 0; j < dataset.size(); j++) {
+                if (random.nextInt(4) == 0) {
+                    instances.flag(j, COVERED);
+                } else if (random.nextBoolean()) {
+                    instances.flag(j, RULE_COVERED);
+                }
+            }
+
+            check(rule, instances);
+
+            // removing the last term must restore the previous coverage
+            if (!rule.isEmpty()) {
+                rule.pop();
+                check(rule, instances);
+            }
+        }
+    }
+
+    public void testTrial() {
+        long[] trial = new long[Bitset.words(dataset.size())];
+
+        for (int i = 0; i < 100; i++) {
+            ClassificationRule rule = rule();
+
+            while (rule.isEmpty()) {
+                rule = rule();
+            }
+
+            Coverage instances = new Coverage(dataset.size());
+
+            for (int j = 0; j < dataset.size(); j++) {
+                if (random.nextInt(4) == 0) {
+                    instances.flag(j, COVERED);
+                }
+            }
+
+            // the trial of the last term must match the coverage of the
+            // complete rule
+            Term term = rule.pop();
+            rule.apply(dataset, instances);
+            int covered = rule.trial(dataset, term, trial);
+
+            rule.push(term);
+            assertEquals(rule.apply(dataset, instances), covered);
+
+            for (int j = 0; j < dataset.size(); j++) {
+                assertEquals(instances.flag(j) == RULE_COVERED,
+                             Bitset.get(trial, j));
+            }
+        }
+    }
+
+    public void testTrialAfterPruning() {
+        CONFIG.set(ASSIGNATOR, new MajorityAssignator());
+        CONFIG.set(MINIMUM_CASES, 2);
+
+        Pruner[] pruners = { new BacktrackPruner(),
+                             new GreedyPruner(),
+                             new SinglePassPruner() };
+        long[] trial = new long[Bitset.words(dataset.size())];
+
+        for (int i = 0; i < 100; i++) {
+            for (Pruner pruner : pruners) {
+                ClassificationRule rule = rule();
+                Coverage instances = new Coverage(dataset.size());
+
+                for (int j = 0; j < dataset.size(); j++) {
+                    if (random.nextInt(4) == 0) {
+                        instances.flag(j, COVERED);
+                    }
+                }
+
+                rule.apply(dataset, instances);
+                pruner.prune(dataset, rule, instances, new Accuracy());
+
+                ClassificationRule other = rule();
+
+                while (other.isEmpty()) {
+                    other = rule();
+                }
+
+                // the trial must use the coverage of the pruned rule
+                Term term = other.pop();
+                int covered = rule.trial(dataset, term, trial);
+
+                rule.push(term);
+                assertEquals(rule.apply(dataset, instances), covered);
+
+                for (int j = 0; j < dataset.size(); j++) {
+                    assertEquals(instances.flag(j) == RULE_COVERED,
+                                 Bitset.get(trial, j));
+                }
+            }
+        }
+    }
+
+    public void testModifiedDataset() {
+        ClassificationRule rule = rule();
+
+        while (rule.isEmpty()) {
+            rule = rule();
+        }
+
+        check(rule, new Coverage(dataset.size()));
+
+        dataset.remove(0, 10, 100, 200);
+        check(rule, new Coverage(dataset.size()));
+    }
+
+    /**
+     * Asserts that two rules have the same coverage.
+     *
+     * @param expected
+     *            the expected rule.
+     * @param actual
+     *            the actual rule.
+     * @param a
+     *            the coverage state of the expected rule.
+     * @param b
+     *            the coverage state of the actual rule.
+     */
+    private void same(ClassificationRule expected,
+                      ClassificationRule actual,
+                      Coverage a,
+                      Coverage b) {
+        for (int i = 0; i < dataset.size(); i++) {
+            assertEquals(a.flag(i), b.flag(i));
+        }
+
+        for (int i = 0; i < dataset.classLength(); i++) {
+            assertEquals(expected.covered()[i], actual.covered()[i]);
+            assertEquals(expected.uncovered()[i], actual.uncovered()[i]);
+        }
+    }
+
+    public void testPrefixCoverage() {
+        PrefixCoverage prefixes = PrefixCoverage.get();
+
+        for (int i = 0; i < 100; i++) {
+            ClassificationRule rule = rule();
+            Coverage instances = new Coverage(dataset.size());
+
+            for (int j = 0; j < dataset.size(); j++) {
+                if (random.nextInt(4) == 0) {
+                    instances.flag(j, COVERED);
+                }
+            }
+
+            Term[] terms = rule.terms();
+            prefixes.compute(dataset, rule, instances, 0);
+            prefixes.suffixes(dataset, rule);
+
+            for (int j = 0; j < rule.size(); j++) {
+                // prefix [0, j]
+                ClassificationRule prefix = new ClassificationRule();
+
+                for (int k = 0; k <= j; k++) {
+                    prefix.add(terms[k]);
+                }
+
+                Coverage expected = instances.copy();
+                int total = prefix.apply(dataset, expected);
+                assertEquals(total, prefixes.total(j));
+
+                Coverage actual = instances.copy();
+                ClassificationRule other = new ClassificationRule();
+                assertEquals(total,
+                             prefixes.apply(dataset, other, actual, j));
+                same(prefix, other, expected, actual);
+
+                // rule without term j
+                terms[j].setEnabeld(false);
+                expected = instances.copy();
+                total = rule.apply(dataset, expected);
+                terms[j].setEnabeld(true);
+
+                actual = instances.copy();
+                assertEquals(total,
+                             prefixes.without(dataset, other, actual, j));
+                same(rule, other, expected, actual);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * HeuristicBenchmark.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2018 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.classification.rule;
+
+import static myra.Config.CONFIG;
+import static myra.datamining.Attribute.Type.CONTINUOUS;
+import static myra.datamining.Attribute.Type.NOMINAL;
+import static myra.datamining.Dataset.RULE_COVERED;
+import static myra.datamining.IntervalBuilder.DEFAULT_BUILDER;
+import static myra.datamining.IntervalBuilder.MAXIMUM_LIMIT;
+import static myra.datamining.IntervalBuilder.MINIMUM_CASES;
+import static myra.rule.Heuristic.PARALLEL_HEURISTIC;
+
+import java.util.Random;
+
+import myra.classification.attribute.BoundarySplit;
+import myra.classification.attribute.MDLSplit;
+import myra.datamining.Attribute;
+import myra.datamining.Coverage;
+import myra.datamining.Dataset;
+import myra.rule.Graph;
+import myra.rule.Graph.Entry;
+
+/**
+ * Benchmark of the computation of the heuristic information on a wide
+ * dataset, using an increasing number of threads to process the attributes
+ * (see {@link myra.rule.Heuristic#PARALLEL_HEURISTIC}).
+ *
+ * <p>
+ * This is not a unit test; run it with:
+ * </p>
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes myra.classification.rule.HeuristicBenchmark
+ * </pre>
+ *
+ * @author Fernando Esteban Barril Otero
+ */
+public class HeuristicBenchmark {
+    /**
+     * Number of attributes of the synthetic dataset.
+     */
+    private static final int ATTRIBUTES = 500;
+
+    /**
+     * Number of instances of the synthetic dataset.
+     */
+    private static final int SIZE = 5000;
+
+    /**
+     * Number of heuristic computations.
+     */
+    private static final int COMPUTATIONS = 5;
+
+    public static void main(String[] args) {
+        CONFIG.set(DEFAULT_BUILDER, new MDLSplit(new BoundarySplit()));
+        CONFIG.set(MINIMUM_CASES, 10);
+        CONFIG.set(MAXIMUM_LIMIT, 25);
+
+        Random random = new Random(SIZE);
+        Dataset dataset = new Dataset();
+
+        for (int i = 0; i < ATTRIBUTES; i++) {
+            dataset.add(new Attribute(CONTINUOUS, "c" + i));
+        }
+
+        Attribute target = new Attribute(NOMINAL, "class");
+        target.add("yes");
+        target.add("no");
+        target.add("maybe");
+        dataset.add(target);
+
+        for (int i = 0; i < SIZE; i++) {
+            double[] values = new double[ATTRIBUTES + 1];
+
+            for (int j = 0; j < ATTRIBUTES; j++) {
+                values[j] = random.nextDouble();
+            }
+
+            values[ATTRIBUTES] = (values[0] + values[1] > 1) ? 0
+                    : (values[2] < 0.3 ? 1 : 2);
+            dataset.add(values);
+        }
+
+        Graph graph = new Graph(dataset);
+        Coverage instances = new Coverage(SIZE);
+        instances.markAll(RULE_COVERED);
+
+        EntropyHeuristic heuristic = new EntropyHeuristic();
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            CONFIG.set(PARALLEL_HEURISTIC, threads);
+            // warm-up
+            Entry[] entries = heuristic.compute(graph, dataset, instances);
+
+            long start = System.nanoTime();
+
+            for (int i = 0; i < COMPUTATIONS; i++) {
+                entries = heuristic.compute(graph, dataset, instances);
+            }
+
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("%d attributes, %d instances, %d threads: "
+                    + "%.2f ms per computation (checksum %.6f)%n",
+                              ATTRIBUTES,
+                              SIZE,
+                              threads,
+                              elapsed / 1e6 / COMPUTATIONS,
+                              entries[graph.indexOf(0, -1)].value(0));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * RuleBenchmark.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2018 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.classification.rule;
+
+import static myra.datamining.Attribute.EQUAL_TO;
+import static myra.datamining.Attribute.LESS_THAN_OR_EQUAL_TO;
+import static myra.datamining.Attribute.Type.CONTINUOUS;
+import static myra.datamining.Attribute.Type.NOMINAL;
+import static myra.datamining.Dataset.COVERED;
+
+import java.util.Random;
+
+import myra.datamining.Attribute;
+import myra.datamining.Attribute.Condition;
+import myra.datamining.Coverage;
+import myra.datamining.Dataset;
+import myra.datamining.Storage;
+
+/**
+ * Benchmark of rule evaluation on a large dataset. It compares
+ * {@link ClassificationRule#apply(Dataset, Coverage)}, which intersects the
+ * term coverage bitsets, against testing every term on every instance, while
+ * repeatedly removing and adding back the last term of the rule (as the
+ * pruners do).
+ *
+ * <p>
+ * This is not a unit test; run it with:
+ * </p>
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes myra.classification.rule.RuleBenchmark
+ * </pre>
+ *
+ * @author Fernando Esteban Barril Otero
+ */
+public class RuleBenchmark {
+    /**
+     * Number of instances of the synthetic dataset.
+     */
+    private static final int SIZE = 1000000;
+
+    /**
+     * Number of rule evaluations.
+     */
+    private static final int EVALUATIONS = 50;
+
+    /**
+     * Evaluates the rule testing every term on every instance.
+     *
+     * @param dataset
+     *            the current dataset.
+     * @param rule
+     *            the rule to evaluate.
+     * @param instances
+     *            the coverage state.
+     *
+     * @return the number of covered instances.
+     */
+    private static int scan(Dataset dataset, ClassificationRule rule,
+                            Coverage instances) {
+        int total = 0;
+        int[] covered = new int[dataset.classLength()];
+
+        for (int i = 0; i < dataset.size(); i++) {
+            if (instances.flag(i) != COVERED && rule.covers(dataset, i)) {
+                covered[(int) dataset.value(i, dataset.classIndex())]++;
+                total++;
+            }
+        }
+
+        return total;
+    }
+
+    public static void main(String[] args) {
+        Random random = new Random(SIZE);
+        Dataset dataset = new Dataset(Storage.Type.COLUMN);
+
+        for (int i = 0; i < 4; i++) {
+            dataset.add(new Attribute(CONTINUOUS, "c" + i));
+        }
+
+        Attribute nominal = new Attribute(NOMINAL, "n");
+        nominal.add("a");
+        nominal.add("b");
+        dataset.add(nominal);
+
+        Attribute target = new Attribute(NOMINAL, "class");
+        target.add("yes");
+        target.add("no");
+        target.add("maybe");
+        dataset.add(target);
+
+        for (int i = 0; i < SIZE; i++) {
+            dataset.add(new double[] { random.nextDouble(),
+                    random.nextDouble(), random.nextDouble(),
+                    random.nextDouble(), random.nextInt(2),
+                    random.nextInt(3) });
+        }
+
+        ClassificationRule rule = new ClassificationRule();
+
+        for (int i = 0; i < 3; i++) {
+            Condition condition = new Condition();
+            condition.attribute = i;
+            condition.relation = LESS_THAN_OR_EQUAL_TO;
+            condition.value[0] = 0.8;
+            rule.add(i, condition);
+        }
+
+        Condition condition = new Condition();
+        condition.attribute = 4;
+        condition.relation = EQUAL_TO;
+        condition.value[0] = 1;
+        rule.add(3, condition);
+
+        Coverage instances = new Coverage(SIZE);
+
+        for (int i = 0; i < SIZE; i += 7) {
+            instances.flag(i, COVERED);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            long checksum = 0;
+            long start = System.nanoTime();
+
+            for (int i = 0; i < EVALUATIONS; i++) {
+                checksum += scan(dataset, rule, instances);
+                rule.push(rule.pop());
+            }
+
+            long scan = System.nanoTime() - start;
+            start = System.nanoTime();
+
+            for (int i = 0; i < EVALUATIONS; i++) {
+                checksum -= rule.apply(dataset, instances);
+                rule.push(rule.pop());
+            }
+
+            long bitset = System.nanoTime() - start;
+
+            System.out.printf("%d instances, %d terms: scan %.2f ms, "
+                    + "bitset %.2f ms per evaluation (checksum %d)%n",
+                              SIZE,
+                              rule.size(),
+                              scan / 1e6 / EVALUATIONS,
+                              bitset / 1e6 / EVALUATIONS,
+                              checksum);
+        }
+    }
+}
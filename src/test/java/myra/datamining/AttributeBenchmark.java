@@ -0,0 +1,172 @@
+/*
+ * AttributeBenchmark.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2018 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.datamining;
+
+import java.io.StringReader;
+import java.util.Random;
+
+/**
+ * Benchmark of nominal value lookups on high-cardinality attributes. It
+ * compares the {@link Attribute#find(String)} hash lookup against a linear
+ * scan over the attribute values, and measures the time to load a dataset
+ * with 10,000-value nominal attributes.
+ *
+ * <p>
+ * This is not a unit test; run it with:
+ * </p>
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes myra.datamining.AttributeBenchmark
+ * </pre>
+ *
+ * @author Fernando Esteban Barril Otero
+ */
+public class AttributeBenchmark {
+    /**
+     * Number of values of the nominal attributes.
+     */
+    private static final int CARDINALITY = 10000;
+
+    /**
+     * Number of lookups performed.
+     */
+    private static final int LOOKUPS = 1000000;
+
+    /**
+     * Number of instances of the synthetic dataset.
+     */
+    private static final int SIZE = 200000;
+
+    /**
+     * Number of nominal attributes of the synthetic dataset.
+     */
+    private static final int NOMINAL = 5;
+
+    /**
+     * Returns the index of the value using a linear scan.
+     *
+     * @param attribute
+     *            the attribute.
+     * @param value
+     *            the value to look up.
+     *
+     * @return the index of the value.
+     */
+    private static int scan(Attribute attribute, String value) {
+        for (int i = 0; i < attribute.values().length; i++) {
+            if (value.equals(attribute.value(i))) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the content of a synthetic ARFF file.
+     *
+     * @return the content of a synthetic ARFF file.
+     */
+    private static String generate() {
+        Random random = new Random(SIZE);
+        StringBuilder arff = new StringBuilder();
+        arff.append("@relation benchmark\n");
+
+        StringBuilder domain = new StringBuilder();
+
+        for (int i = 0; i < CARDINALITY; i++) {
+            domain.append(i == 0 ? "" : ",").append("P").append(i);
+        }
+
+        for (int i = 0; i < NOMINAL; i++) {
+            arff.append("@attribute n" + i + " {" + domain + "}\n");
+        }
+
+        arff.append("@attribute class {yes,no}\n@data\n");
+
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < NOMINAL; j++) {
+                arff.append('P').append(random.nextInt(CARDINALITY))
+                        .append(',');
+            }
+
+            arff.append(random.nextBoolean() ? "yes" : "no").append('\n');
+        }
+
+        return arff.toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Attribute attribute = new Attribute(Attribute.Type.NOMINAL, "product");
+
+        for (int i = 0; i < CARDINALITY; i++) {
+            attribute.add("P" + i);
+        }
+
+        Random random = new Random(0);
+        String[] queries = new String[LOOKUPS];
+
+        for (int i = 0; i < LOOKUPS; i++) {
+            queries[i] = "P" + random.nextInt(CARDINALITY);
+        }
+
+        for (int round = 0; round < 2; round++) {
+            long checksum = 0;
+            long start = System.nanoTime();
+
+            for (String query : queries) {
+                checksum += attribute.find(query);
+            }
+
+            long hash = System.nanoTime() - start;
+            start = System.nanoTime();
+
+            // the linear scan is much slower, so only a fraction of the
+            // lookups is timed
+            for (int i = 0; i < LOOKUPS / 100; i++) {
+                checksum -= scan(attribute, queries[i]);
+            }
+
+            long linear = (System.nanoTime() - start) * 100;
+
+            System.out.printf("%d-value lookup: hash %.1f ns, linear %.1f ns "
+                    + "(checksum %d)%n",
+                              CARDINALITY,
+                              hash / (double) LOOKUPS,
+                              linear / (double) LOOKUPS,
+                              checksum);
+        }
+
+        String content = generate();
+
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            Dataset dataset = new ARFFReader().read(new StringReader(content));
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("Load %d instances (%d x %d-value attributes):"
+                    + " %.1f ms%n",
+                              dataset.size(),
+                              NOMINAL,
+                              CARDINALITY,
+                              elapsed / 1e6);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * CoverageCacheTest.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.datamining;
+
+import static myra.datamining.Attribute.LESS_THAN_OR_EQUAL_TO;
+import static myra.datamining.Attribute.Type.CONTINUOUS;
+import static myra.datamining.Attribute.Type.NOMINAL;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+import myra.datamining.Attribute.Condition;
+
+/**
+ * @author Fernando Esteban Barril Otero
+ */
+public class CoverageCacheTest extends TestCase {
+    /**
+     * The dataset for the test.
+     */
+    private Dataset dataset;
+
+    @Override
+    protected void setUp() throws Exception {
+        dataset = new Dataset();
+        dataset.add(new Attribute(CONTINUOUS, "a"));
+
+        Attribute target = new Attribute(NOMINAL, "class");
+        target.add("yes");
+        target.add("no");
+        dataset.add(target);
+
+        for (int i = 0; i < 100; i++) {
+            dataset.add(new double[] { i, i % 2 });
+        }
+    }
+
+    /**
+     * Returns the condition <code>a &lt;= value</code>.
+     *
+     * @param value
+     *            the threshold value.
+     *
+     * @return the condition <code>a &lt;= value</code>.
+     */
+    private Condition condition(double value) {
+        Condition condition = new Condition();
+        condition.attribute = 0;
+        condition.relation = LESS_THAN_OR_EQUAL_TO;
+        condition.value[0] = value;
+        return condition;
+    }
+
+    public void testLookup() {
+        CoverageCache cache = new CoverageCache(1024 * 1024);
+
+        long[] bits = cache.get(dataset, condition(9));
+        assertEquals(10, Bitset.cardinality(bits));
+        assertEquals(0, cache.hits());
+        assertEquals(1, cache.misses());
+
+        // an equivalent condition (different object) is a hit
+        assertSame(bits, cache.get(dataset, condition(9)));
+        assertEquals(1, cache.hits());
+
+        cache.get(dataset, condition(19));
+        assertEquals(2, cache.misses());
+        assertEquals(2, cache.size());
+    }
+
+    public void testEviction() {
+        long[] bits = Bitset.of(dataset, condition(0));
+        // room for two bitsets only
+        CoverageCache cache = new CoverageCache(2 * (bits.length * 8 + 128));
+
+        cache.get(dataset, condition(0));
+        cache.get(dataset, condition(1));
+        // refreshes condition(0), so condition(1) is the eldest
+        cache.get(dataset, condition(0));
+        cache.get(dataset, condition(2));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictions());
+
+        cache.get(dataset, condition(0));
+        assertEquals(2, cache.hits());
+        cache.get(dataset, condition(1));
+        assertEquals(4, cache.misses());
+    }
+
+    public void testModifiedDataset() {
+        CoverageCache cache = new CoverageCache(1024 * 1024);
+        long[] bits = cache.get(dataset, condition(9)).clone();
+
+        dataset.remove(0);
+
+        long[] current = cache.get(dataset, condition(9));
+        assertEquals(2, cache.misses());
+        assertFalse(Arrays.equals(bits, current));
+        assertEquals(9, Bitset.cardinality(current));
+    }
+
+    public void testCollectedDataset() throws Exception {
+        CoverageCache cache = new CoverageCache(1024 * 1024);
+        cache.get(dataset, condition(9));
+        assertEquals(1, cache.size());
+
+        dataset = null;
+
+        for (int i = 0; i < 50 && cache.size() > 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        // the cache must not keep the dataset reachable
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.memory());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * DatasetBuilderBenchmark.java
+ * (this file is part of MYRA)
+ * 
+ * Copyright 2008-2018 Fernando Esteban Barril Otero
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.datamining;
+
+import java.io.StringReader;
+import java.util.Random;
+
+/**
+ * Load-time benchmark of the {@link ARFFReader} and {@link DatasetBuilder}. It
+ * reads synthetic datasets of increasing size; the time per instance should
+ * remain (roughly) constant, since the cost of loading <i>n</i> instances is
+ * linear.
+ * 
+ * <p>
+ * This is not a unit test; run it with:
+ * </p>
+ * 
+ * <pre>
+ * java -cp target/classes:target/test-classes myra.datamining.DatasetBuilderBenchmark
+ * </pre>
+ * 
+ * @author Fernando Esteban Barril Otero
+ */
+public class DatasetBuilderBenchmark {
+    /**
+     * Number of continuous attributes of the synthetic datasets.
+     */
+    private static final int CONTINUOUS = 10;
+
+    /**
+     * Number of nominal attributes of the synthetic datasets.
+     */
+    private static final int NOMINAL = 10;
+
+    /**
+     * Returns the content of a synthetic ARFF file.
+     * 
+     * @param size
+     *            the number of instances.
+     * 
+     * @return the content of a synthetic ARFF file.
+     */
+    private static String generate(int size) {
+        Random random = new Random(size);
+        StringBuilder arff = new StringBuilder();
+        arff.append("@relation benchmark\n");
+
+        for (int i = 0; i < CONTINUOUS; i++) {
+            arff.append("@attribute c" + i + " numeric\n");
+        }
+
+        for (int i = 0; i < NOMINAL; i++) {
+            arff.append("@attribute n" + i + " {a,b,c,d}\n");
+        }
+
+        arff.append("@attribute class {yes,no}\n@data\n");
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < CONTINUOUS; j++) {
+                arff.append(random.nextInt(1000) / 10.0).append(',');
+            }
+
+            for (int j = 0; j < NOMINAL; j++) {
+                arff.append((char) ('a' + random.nextInt(4))).append(',');
+            }
+
+            arff.append(random.nextBoolean() ? "yes" : "no").append('\n');
+        }
+
+        return arff.toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%10s %8s %12s %12s%n",
+                          "instances",
+                          "storage",
+                          "time (ms)",
+                          "ns/instance");
+
+        for (Storage.Type type : Storage.Type.values()) {
+            // warm-up
+            new ARFFReader(type).read(new StringReader(generate(50000)));
+
+            for (int size = 125000; size <= 2000000; size *= 2) {
+                String content = generate(size);
+
+                long start = System.nanoTime();
+                Dataset dataset =
+                        new ARFFReader(type).read(new StringReader(content));
+                long elapsed = System.nanoTime() - start;
+
+                if (dataset.size() != size) {
+                    throw new IllegalStateException("Invalid size: "
+                            + dataset.size());
+                }
+
+                System.out.printf("%10d %8s %12.1f %12.1f%n",
+                                  size,
+                                  type.name().toLowerCase(),
+                                  elapsed / 1e6,
+                                  elapsed / (double) size);
+            }
+        }
+    }
+}
@@ -19,12 +19,23 @@
 
 package myra.io;
 
+import java.io.File;
+import java.io.FileWriter;
 import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Random;
 
 import junit.framework.TestCase;
 import myra.datamining.ARFFReader;
 import myra.datamining.Attribute;
+import myra.datamining.BinaryReader;
+import myra.datamining.BinaryWriter;
 import myra.datamining.Dataset;
+import myra.datamining.DatasetBuilder;
+import myra.datamining.SortedIndex;
+import myra.datamining.Storage;
 
 /**
  * <code>Dataset</code> class test.
@@ -103,4 +114,286 @@ public class DatasetTest extends TestCase {
         assertEquals(65.0, a.lower());
         assertEquals(96.0, a.upper());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that the column-major storage holds the same values as the
+     * row-major storage.
+     */
+    public void testColumnStorage() throws Exception {
+        ARFFReader reader = new ARFFReader(Storage.Type.COLUMN);
+        Dataset column = reader.read(new InputStreamReader(getClass()
+                .getResourceAsStream("/weather.arff")));
+
+        assertEquals(Storage.Type.COLUMN, column.getStorageType());
+        assertEquals(cDataset.size(), column.size());
+
+        for (int i = 0; i < cDataset.size(); i++) {
+            for (int j = 0; j < cDataset.attributes().length; j++) {
+                assertEquals(cDataset.value(i, j), column.value(i, j));
+            }
+        }
+
+        assertTrue(column.footprint() < cDataset.footprint());
+
+        column.remove(0, 5);
+        cDataset.remove(0, 5);
+
+        assertEquals(12, column.size());
+
+        for (int i = 0; i < cDataset.size(); i++) {
+            for (int j = 0; j < cDataset.attributes().length; j++) {
+                assertEquals(cDataset.value(i, j), column.value(i, j));
+            }
+        }
+    }
+
+    /**
+     * Tests the creation of a dataset using a builder.
+     */
+    public void testBuilder() {
+        assertTrue(cDataset.isFrozen());
+
+        DatasetBuilder builder = new DatasetBuilder(cDataset, 2);
+        builder.addAll(cDataset);
+        builder.add(cDataset, 0);
+
+        Dataset copy = builder.build();
+
+        assertTrue(copy.isFrozen());
+        assertEquals(15, copy.size());
+        assertEquals(10, copy.distribution(0));
+        assertEquals(5, copy.distribution(1));
+
+        for (int j = 0; j < cDataset.attributes().length; j++) {
+            assertEquals(cDataset.value(0, j), copy.value(14, j));
+        }
+
+        try {
+            copy.add(cDataset.get(0));
+            fail("Frozen dataset");
+        } catch (IllegalStateException e) {
+            // we are expecting an exception
+        }
+    }
+
+    /**
+     * Tests writing and reading a dataset in binary format.
+     */
+    public void testBinary() throws Exception {
+        for (Dataset dataset : new Dataset[] { cDataset, rDataset }) {
+            File file = File.createTempFile("myra", ".bin");
+            file.deleteOnExit();
+
+            new BinaryWriter().write(dataset, file.getAbsolutePath());
+            assertTrue(BinaryReader.isBinary(file.getAbsolutePath()));
+
+            Dataset binary = new BinaryReader().read(file.getAbsolutePath());
+
+            assertTrue(binary.isFrozen());
+            assertEquals(dataset.getName(), binary.getName());
+            assertEquals(dataset.size(), binary.size());
+            assertEquals(dataset.attributes().length,
+                         binary.attributes().length);
+
+            for (int j = 0; j < dataset.attributes().length; j++) {
+                Attribute a = dataset.getAttribute(j);
+                Attribute b = binary.getAttribute(j);
+
+                assertEquals(a.getName(), b.getName());
+                assertEquals(a.getType(), b.getType());
+                assertEquals(a.length(), b.length());
+                assertEquals(a.lower(), b.lower());
+                assertEquals(a.upper(), b.upper());
+
+                for (int i = 0; i < dataset.size(); i++) {
+                    assertEquals(dataset.value(i, j), binary.value(i, j));
+                }
+            }
+
+            assertEquals(dataset.mean(), binary.mean());
+        }
+
+        File file = File.createTempFile("myra", ".bin");
+        file.deleteOnExit();
+
+        new BinaryWriter().write(cDataset, file.getAbsolutePath());
+        Dataset binary = new BinaryReader().read(file.getAbsolutePath());
+
+        assertEquals(9, binary.distribution(0));
+        assertEquals(5, binary.distribution(1));
+    }
+
+    /**
+     * Tests removing instances from a dataset loaded from the binary format.
+     */
+    public void testBinaryRemove() throws Exception {
+        File file = File.createTempFile("myra", ".bin");
+        file.deleteOnExit();
+
+        new BinaryWriter().write(cDataset, file.getAbsolutePath());
+        Dataset binary = new BinaryReader().read(file.getAbsolutePath());
+
+        try {
+            binary.remove(3, 1);
+            fail("Indexes not in ascending order");
+        } catch (IllegalArgumentException e) {
+            // the dataset must not be modified
+            assertEquals(14, binary.size());
+            assertEquals(9, binary.distribution(0));
+            assertEquals(5, binary.distribution(1));
+        }
+
+        assertEquals(12, binary.remove(0, 13));
+        cDataset.remove(0, 13);
+
+        assertEquals(cDataset.distribution(0), binary.distribution(0));
+        assertEquals(cDataset.distribution(1), binary.distribution(1));
+
+        for (int i = 0; i < cDataset.size(); i++) {
+            for (int j = 0; j < cDataset.attributes().length; j++) {
+                assertEquals(cDataset.value(i, j), binary.value(i, j));
+            }
+        }
+
+        new BinaryWriter().write(rDataset, file.getAbsolutePath());
+        binary = new BinaryReader().read(file.getAbsolutePath());
+        binary.remove(2);
+        rDataset.remove(2);
+
+        assertEquals(rDataset.mean(), binary.mean(), 1e-9);
+    }
+
+    /**
+     * Tests that the parallel reader creates the same dataset as the
+     * sequential one.
+     */
+    public void testParallelRead() throws Exception {
+        File file = File.createTempFile("myra", ".arff");
+        file.deleteOnExit();
+
+        String[] outlook = { "sunny", "overcast", "rainy" };
+        Random random = new Random(0);
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("@relation parallel");
+            writer.println("@attribute outlook {sunny, overcast, rainy}");
+            writer.println("@attribute temperature numeric");
+            writer.println("@attribute humidity real");
+            writer.println("@attribute play {yes, no}");
+            writer.println("@data");
+            // enough instances to span multiple chunks
+            for (int i = 0; i < 100000; i++) {
+                if (i % 1000 == 0) {
+                    writer.println("% comment");
+                }
+
+                writer.println(outlook[random.nextInt(3)] + ", "
+                        + (i % 7 == 0 ? "?" : random.nextInt(100)) + ","
+                        + random.nextDouble() * 1e-3 + " , "
+                        + (random.nextBoolean() ? "yes" : "no"));
+            }
+        }
+
+        Dataset sequential = new ARFFReader(Storage.Type.ROW, 1).read(file);
+        Dataset parallel = new ARFFReader(Storage.Type.ROW, 4).read(file);
+
+        assertEquals("parallel", parallel.getName());
+        assertEquals(100000, parallel.size());
+        assertEquals(sequential.size(), parallel.size());
+        assertEquals(sequential.distribution(0), parallel.distribution(0));
+        assertEquals(sequential.distribution(1), parallel.distribution(1));
+
+        for (int j = 0; j < sequential.attributes().length; j++) {
+            assertEquals(sequential.getAttribute(j).lower(),
+                         parallel.getAttribute(j).lower());
+            assertEquals(sequential.getAttribute(j).upper(),
+                         parallel.getAttribute(j).upper());
+
+            for (int i = 0; i < sequential.size(); i++) {
+                assertEquals(sequential.value(i, j), parallel.value(i, j));
+            }
+        }
+    }
+
+    /**
+     * Tests reading instances in sparse form.
+     */
+    public void testSparse() throws Exception {
+        String header = "@relation sparse\n"
+                + "@attribute a numeric\n"
+                + "@attribute b {x, y, z}\n"
+                + "@attribute c numeric\n"
+                + "@attribute class {yes, no}\n"
+                + "@data\n";
+        String dense = header
+                + "0, x, 1.5, yes\n"
+                + "2, z, 0, no\n"
+                + "0, x, 0, no\n"
+                + "?, y, 3, yes\n";
+        String sparse = header
+                + "{2 1.5}\n"
+                + "{0 2, 1 z, 3 no}\n"
+                + "{3 no}\n"
+                + "{0 ?, 1 y, 2 3}\n";
+
+        Dataset expected = new ARFFReader(Storage.Type.ROW)
+                .read(new StringReader(dense));
+
+        for (Storage.Type type : Storage.Type.values()) {
+            Dataset dataset =
+                    new ARFFReader(type).read(new StringReader(sparse));
+
+            assertEquals(expected.size(), dataset.size());
+            assertEquals(expected.distribution(0), dataset.distribution(0));
+
+            for (int i = 0; i < expected.size(); i++) {
+                for (int j = 0; j < expected.attributes().length; j++) {
+                    assertEquals(expected.value(i, j), dataset.value(i, j));
+                }
+            }
+        }
+
+        Dataset dataset = new ARFFReader(Storage.Type.SPARSE)
+                .read(new StringReader(sparse));
+
+        assertEquals(Storage.Type.SPARSE, dataset.getStorageType());
+        assertTrue(Arrays.equals(new int[] { 1, 3 }, dataset.nonZero(0)));
+        assertTrue(Arrays.equals(new int[] { 1, 3 }, dataset.nonZero(1)));
+        // the storage is trimmed, so the array is not copied on each call
+        assertSame(dataset.nonZero(0), dataset.nonZero(0));
+        assertNull(expected.nonZero(0));
+
+        dataset = new ARFFReader(Storage.Type.SPARSE)
+                .read(new StringReader(dense));
+        dataset.remove(0);
+
+        assertEquals(3, dataset.size());
+        assertTrue(Arrays.equals(new int[] { 2 }, dataset.nonZero(2)));
+        assertEquals(3.0, dataset.value(2, 2));
+        assertTrue(Double.isNaN(dataset.value(2, 0)));
+    }
+
+    /**
+     * Tests the sorted index of a continuous attribute.
+     */
+    public void testSortedIndex() throws Exception {
+        Dataset dataset = new ARFFReader()
+                .read(new StringReader("@relation sorted\n"
+                        + "@attribute a numeric\n"
+                        + "@attribute class {yes, no}\n"
+                        + "@data\n"
+                        + "3, yes\n2, no\n?, no\n3, no\n-1, yes\n2, yes\n"));
+
+        SortedIndex index = dataset.sortedIndex(0);
+
+        // missing values are excluded and ties keep the instance order
+        assertTrue(Arrays.equals(new int[] { 4, 1, 5, 0, 3 }, index.instances));
+        assertTrue(Arrays.equals(new double[] { -1, 2, 2, 3, 3 },
+                                 index.values));
+        assertSame(index, dataset.sortedIndex(0));
+
+        dataset.remove(4);
+        assertTrue(Arrays.equals(new int[] { 1, 4, 0, 3 },
+                                 dataset.sortedIndex(0).instances));
+    }
+}
@@ -24,7 +24,7 @@ import java.io.InputStreamReader;
 import junit.framework.TestCase;
 import myra.datamining.ARFFReader;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 
 /**
  * <code>MedianAssignatorTest</code> class test.
@@ -40,7 +40,7 @@ public class MedianAssignatorTest extends TestCase {
                     .getResourceAsStream("/temperature.arff")));
 
             RegressionRule rule = new RegressionRule();
-            Instance[] instances = Instance.newArray(dataset.size());
+            Coverage instances = new Coverage(dataset.size());
             rule.apply(dataset, instances);
 
             MedianAssignator assignator = new MedianAssignator();
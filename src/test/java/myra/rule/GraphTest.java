@@ -26,7 +26,6 @@ import java.io.InputStreamReader;
 import junit.framework.TestCase;
 import myra.datamining.ARFFReader;
 import myra.datamining.Dataset;
-import myra.rule.Graph.Entry;
 
 /**
  * @author Fernando Esteban Barril Otero
@@ -47,31 +46,155 @@ public class GraphTest extends TestCase {
     }
 
     public void testMatrix() {
-        Entry[][] matrix = graph.matrix();
-
-        assertEquals(0, matrix[0][1].size());
-
-        assertEquals(NaN, matrix[0][1].value(0));
-        assertEquals(NaN, matrix[0][1].value(1));
-        assertEquals(NaN, matrix[0][1].value(2));
-        assertEquals(NaN, matrix[0][1].value(3));
-
-        matrix[0][1].setInitial(10.0);
-        assertEquals(10.0, matrix[0][1].value(0));
-        assertEquals(10.0, matrix[0][1].value(1));
-        assertEquals(10.0, matrix[0][1].value(2));
-        assertEquals(10.0, matrix[0][1].value(3));
-
-        matrix[0][1].set(2, 5.0);
-        assertEquals(10.0, matrix[0][1].value(0));
-        assertEquals(10.0, matrix[0][1].value(1));
-        assertEquals(5.0, matrix[0][1].value(2));
-        assertEquals(10.0, matrix[0][1].value(3));
-
-        matrix[0][1].set(1, 1.0);
-        assertEquals(10.0, matrix[0][1].value(0));
-        assertEquals(1.0, matrix[0][1].value(1));
-        assertEquals(5.0, matrix[0][1].value(2));
-        assertEquals(10.0, matrix[0][1].value(3));
+        assertEquals(0, graph.levels());
+
+        assertEquals(NaN, graph.value(0, 1, 0));
+        assertEquals(NaN, graph.value(0, 1, 1));
+        assertEquals(NaN, graph.value(0, 1, 2));
+        assertEquals(NaN, graph.value(0, 1, 3));
+
+        graph.setInitial(0, 1, 10.0);
+        assertEquals(10.0, graph.value(0, 1, 0));
+        assertEquals(10.0, graph.value(0, 1, 1));
+        assertEquals(10.0, graph.value(0, 1, 2));
+        assertEquals(10.0, graph.value(0, 1, 3));
+
+        graph.set(0, 1, 2, 5.0);
+        assertEquals(10.0, graph.value(0, 1, 0));
+        assertEquals(10.0, graph.value(0, 1, 1));
+        assertEquals(5.0, graph.value(0, 1, 2));
+        assertEquals(10.0, graph.value(0, 1, 3));
+
+        graph.set(0, 1, 1, 1.0);
+        assertEquals(10.0, graph.value(0, 1, 0));
+        assertEquals(1.0, graph.value(0, 1, 1));
+        assertEquals(5.0, graph.value(0, 1, 2));
+        assertEquals(10.0, graph.value(0, 1, 3));
+    }
+
+    public void testLazyEvaporation() {
+        for (int i = 0; i < graph.size(); i++) {
+            for (int j : graph.neighbours(i)) {
+                graph.initialise(i, j, 10.0);
+            }
+        }
+
+        // halves the values of each pending step
+        Graph.Evaporation half = (row, start, end, from, to) -> {
+            for (int j = start; j < end; j++) {
+                for (int n = from; n < to; n++) {
+                    row[j] /= 2.0;
+                }
+            }
+        };
+
+        graph.evaporate(half);
+        graph.evaporate(half);
+        assertEquals(2.5, graph.value(0, 1, 0));
+
+        // new levels are not affected by previous steps
+        graph.grow(2);
+        assertEquals(2.5, graph.value(0, 2, 0));
+        assertEquals(10.0, graph.value(0, 2, 1));
+
+        graph.evaporate(half);
+        graph.set(0, 1, 1, 8.0);
+        assertEquals(8.0, graph.value(0, 1, 1));
+        assertEquals(1.25, graph.value(0, 1, 0));
+        assertEquals(5.0, graph.value(0, 2, 1));
+
+        int to = graph.neighbours(1)[0];
+        assertEquals(1.25, graph.value(1, to, 0));
+        assertEquals(5.0, graph.value(1, to, 1));
+    }
+
+    public void testConcurrentRefresh() throws Exception {
+        for (int i = 0; i < graph.size(); i++) {
+            for (int j : graph.neighbours(i)) {
+                graph.initialise(i, j, 10.0);
+            }
+        }
+
+        Graph.Evaporation half = (row, start, end, from, to) -> {
+            for (int j = start; j < end; j++) {
+                for (int n = from; n < to; n++) {
+                    row[j] /= 2.0;
+                }
+            }
+        };
+
+        graph.evaporate(half);
+        graph.evaporate(half);
+
+        // each row must be evaporated exactly once, regardless of the
+        // number of threads reading it
+        Thread[] threads = new Thread[8];
+
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < graph.size(); i++) {
+                    for (int p = 0; p < graph.neighbours(i).length; p++) {
+                        graph.valueAt(i, p, 0);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int i = 0; i < graph.size(); i++) {
+            for (int p = 0; p < graph.neighbours(i).length; p++) {
+                assertEquals(2.5, graph.valueAt(i, p, 0));
+            }
+        }
+    }
+
+    public void testCopy() {
+        for (int i = 0; i < graph.size(); i++) {
+            for (int j : graph.neighbours(i)) {
+                graph.initialise(i, j, 10.0);
+            }
+        }
+
+        Graph.Evaporation half = (row, start, end, from, to) -> {
+            for (int j = start; j < end; j++) {
+                for (int n = from; n < to; n++) {
+                    row[j] /= 2.0;
+                }
+            }
+        };
+
+        graph.evaporate(half);
+        Graph copy = graph.copy();
+
+        // the pending step is applied to both graphs, in any order, since
+        // the rows are shared until modified
+        assertEquals(5.0, copy.value(0, 1, 0));
+        assertEquals(5.0, graph.value(0, 1, 0));
+
+        int to = graph.neighbours(1)[0];
+        assertEquals(5.0, graph.value(1, to, 0));
+        assertEquals(5.0, copy.value(1, to, 0));
+
+        // the copy is modified independently of the graph
+        copy.set(0, 1, 0, 8.0);
+        copy.grow(2);
+        copy.evaporate(half);
+
+        assertEquals(4.0, copy.value(0, 1, 0));
+        assertEquals(5.0, copy.value(0, 1, 1));
+        assertEquals(2, copy.levels());
+
+        assertEquals(5.0, graph.value(0, 1, 0));
+        assertEquals(10.0, graph.value(0, 1, 1));
+        assertEquals(1, graph.levels());
+        assertSame(graph.vertices(), copy.vertices());
+
+        // modifying the graph does not affect the copy
+        graph.setInitial(0, 1, 1.0);
+        assertEquals(10.0, copy.initial(0, 1));
     }
-}
\ No newline at end of file
+}
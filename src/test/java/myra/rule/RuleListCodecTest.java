@@ -0,0 +1,286 @@
+/*
+ * RuleListCodecTest.java
+ * (this file is part of MYRA)
+ * 
+ * Copyright 2008-2016 Fernando Esteban Barril Otero
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.rule;
+
+import static myra.Config.CONFIG;
+import static myra.datamining.Attribute.EQUAL_TO;
+import static myra.datamining.Attribute.IN_RANGE;
+import static myra.datamining.Attribute.LESS_THAN_OR_EQUAL_TO;
+import static myra.datamining.Attribute.Type.CONTINUOUS;
+import static myra.datamining.Attribute.Type.NOMINAL;
+import static myra.datamining.Dataset.NOT_COVERED;
+import static myra.rule.Assignator.ASSIGNATOR;
+import static myra.rule.ListMeasure.DEFAULT_MEASURE;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+import myra.classification.rule.ClassificationRule;
+import myra.classification.rule.MajorityAssignator;
+import myra.classification.rule.PessimisticAccuracy;
+import myra.datamining.Attribute;
+import myra.datamining.Attribute.Condition;
+import myra.datamining.Coverage;
+import myra.datamining.Dataset;
+
+/**
+ * <code>RuleListCodec</code> class test.
+ * 
+ * @author Fernando Esteban Barril Otero
+ */
+public class RuleListCodecTest extends TestCase {
+    /**
+     * The dataset of the tests.
+     */
+    private Dataset dataset;
+
+    /**
+     * The codec of the tests. The vertices of its graph are the start vertex
+     * (<code>0</code>), <code>a</code> (<code>1</code>), <code>b = x</code>
+     * (<code>2</code>) and <code>b = y</code> (<code>3</code>).
+     */
+    private RuleListCodec codec;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        CONFIG.set(Rule.DEFAULT_RULE, ClassificationRule.class);
+        CONFIG.set(ASSIGNATOR, new MajorityAssignator());
+        CONFIG.set(DEFAULT_MEASURE, new PessimisticAccuracy());
+
+        dataset = new Dataset();
+        dataset.add(new Attribute(CONTINUOUS, "a"));
+
+        Attribute b = new Attribute(NOMINAL, "b");
+        b.add("x");
+        b.add("y");
+        dataset.add(b);
+
+        Attribute target = new Attribute(NOMINAL, "class");
+        target.add("yes");
+        target.add("no");
+        dataset.add(target);
+
+        for (int i = 0; i < 100; i++) {
+            dataset.add(new double[] { i, i % 2,
+                    (i < 40 || i % 10 == 0) ? 0 : 1 });
+        }
+
+        codec = new RuleListCodec(new Graph(dataset), dataset);
+    }
+
+    public void testRoundTrip() throws IOException {
+        Coverage instances = new Coverage(dataset.size());
+        instances.markAll(NOT_COVERED);
+
+        Condition condition = new Condition();
+        condition.attribute = 0;
+        condition.relation = LESS_THAN_OR_EQUAL_TO;
+        condition.value[0] = 39;
+
+        RuleList list = new RuleList();
+        list.setIteration(7);
+
+        Rule rule = Rule.newInstance();
+        rule.add(1, condition);
+        rule.apply(dataset, instances);
+        CONFIG.get(ASSIGNATOR).assign(dataset, rule, instances);
+        list.add(rule);
+        Dataset.markCovered(instances);
+
+        Condition x = new Condition();
+        x.attribute = 1;
+        x.relation = EQUAL_TO;
+        x.value[0] = 0;
+
+        Rule nominal = Rule.newInstance();
+        nominal.add(2, x);
+        nominal.apply(dataset, instances);
+        CONFIG.get(ASSIGNATOR).assign(dataset, nominal, instances);
+        list.add(nominal);
+        Dataset.markCovered(instances);
+
+        Rule empty = Rule.newInstance();
+        empty.apply(dataset, instances);
+        CONFIG.get(ASSIGNATOR).assign(dataset, empty, instances);
+        list.add(empty);
+
+        list.setQuality(CONFIG.get(DEFAULT_MEASURE).evaluate(dataset, list));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codec.write(list, new DataOutputStream(bytes));
+
+        RuleList copy = codec.read(new DataInputStream(
+                new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(7, copy.getIteration());
+        assertEquals(list.size(), copy.size());
+        assertEquals(list.toString(dataset), copy.toString(dataset));
+        assertEquals(0, list.getQuality().compareTo(copy.getQuality()));
+
+        // every truncated message is rejected
+        byte[] message = bytes.toByteArray();
+
+        for (int i = 0; i < message.length; i++) {
+            try {
+                codec.read(new DataInputStream(new ByteArrayInputStream(Arrays
+                        .copyOf(message, i))));
+                fail("Truncated message accepted: " + i + " bytes");
+            } catch (IOException e) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * Writes the header of a message and the number of terms of its first
+     * rule.
+     * 
+     * @param bytes
+     *            the buffer of the message.
+     * @param rules
+     *            the number of rules.
+     * @param terms
+     *            the number of terms of the first rule.
+     * 
+     * @return the output of the message.
+     */
+    private DataOutputStream header(ByteArrayOutputStream bytes,
+                                    int rules,
+                                    int terms) throws IOException {
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeInt(rules);
+        out.writeInt(terms);
+        return out;
+    }
+
+    /**
+     * Writes a term of a message.
+     */
+    private void term(DataOutputStream out,
+                      int vertex,
+                      int attribute,
+                      int relation,
+                      double... values) throws IOException {
+        out.writeInt(vertex);
+        out.writeBoolean(true);
+        out.writeInt(attribute);
+        out.writeShort(relation);
+        out.writeInt(values.length);
+
+        for (double value : values) {
+            out.writeDouble(value);
+            out.writeDouble(value);
+        }
+    }
+
+    /**
+     * Checks that the specified message is rejected.
+     */
+    private void assertInvalid(ByteArrayOutputStream bytes, String message) {
+        try {
+            codec.read(new DataInputStream(new ByteArrayInputStream(bytes
+                    .toByteArray())));
+            fail("Invalid message accepted");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(message));
+        }
+    }
+
+    public void testInvalid() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        header(bytes, Integer.MAX_VALUE, 0);
+        assertInvalid(bytes, "Invalid number of rules");
+
+        bytes = new ByteArrayOutputStream();
+        header(bytes, 0, 0);
+        assertInvalid(bytes, "Invalid number of rules");
+
+        bytes = new ByteArrayOutputStream();
+        header(bytes, 1, Integer.MAX_VALUE);
+        assertInvalid(bytes, "Invalid number of terms");
+
+        bytes = new ByteArrayOutputStream();
+        header(bytes, 1, -1);
+        assertInvalid(bytes, "Invalid number of terms");
+
+        // vertices outside the graph, and the start vertex
+        for (int vertex : new int[] { -1, 0, 4, Integer.MAX_VALUE }) {
+            bytes = new ByteArrayOutputStream();
+            term(header(bytes, 1, 1), vertex, 0, LESS_THAN_OR_EQUAL_TO, 39);
+            assertInvalid(bytes, "Invalid vertex index");
+        }
+
+        // condition of a different attribute
+        bytes = new ByteArrayOutputStream();
+        term(header(bytes, 1, 1), 1, 1, LESS_THAN_OR_EQUAL_TO, 39);
+        assertInvalid(bytes, "Invalid attribute index");
+
+        // unknown relation
+        bytes = new ByteArrayOutputStream();
+        term(header(bytes, 1, 1), 1, 0, 99, 39);
+        assertInvalid(bytes, "Invalid relation");
+
+        // interval relation on a nominal vertex
+        bytes = new ByteArrayOutputStream();
+        term(header(bytes, 1, 1), 2, 1, LESS_THAN_OR_EQUAL_TO, 0);
+        assertInvalid(bytes, "Invalid relation");
+
+        // value of a different vertex
+        bytes = new ByteArrayOutputStream();
+        term(header(bytes, 1, 1), 2, 1, EQUAL_TO, 1);
+        assertInvalid(bytes, "Invalid condition of vertex");
+
+        // missing values
+        bytes = new ByteArrayOutputStream();
+        term(header(bytes, 1, 1), 1, 0, IN_RANGE, 39);
+        assertInvalid(bytes, "Invalid condition length");
+
+        bytes = new ByteArrayOutputStream();
+        DataOutputStream out = header(bytes, 1, 1);
+        out.writeInt(1);
+        out.writeBoolean(true);
+        out.writeInt(0);
+        out.writeShort(LESS_THAN_OR_EQUAL_TO);
+        out.writeInt(Integer.MAX_VALUE);
+        assertInvalid(bytes, "Invalid condition length");
+
+        // the same attribute twice
+        bytes = new ByteArrayOutputStream();
+        out = header(bytes, 1, 2);
+        term(out, 2, 1, EQUAL_TO, 0);
+        term(out, 3, 1, EQUAL_TO, 1);
+        assertInvalid(bytes, "Repeated attribute");
+
+        // missing condition
+        bytes = new ByteArrayOutputStream();
+        out = header(bytes, 1, 1);
+        out.writeInt(1);
+        out.writeBoolean(false);
+        assertInvalid(bytes, "Missing condition");
+    }
+}
@@ -31,7 +31,7 @@ import myra.Archive;
 import myra.classification.rule.ClassificationRule;
 import myra.datamining.ARFFReader;
 import myra.datamining.Dataset;
-import myra.datamining.Dataset.Instance;
+import myra.datamining.Coverage;
 import myra.datamining.VariableArchive;
 import myra.rule.Graph.Entry;
 import myra.rule.Heuristic;
@@ -63,20 +63,16 @@ public class ArchiveRuleFactoryTest extends TestCase {
                 .getResourceAsStream("/weather.arff")));
 
         graph = new Graph(dataset);
-        Entry[][] matrix = graph.matrix();
-
         for (int i = 0; i < graph.size(); i++) {
-            for (int j = 0; j < graph.size(); j++) {
-                if (matrix[i][j] != null) {
-                    matrix[i][j] = new Entry(1.0, 1.0);
-                }
+            for (int j : graph.neighbours(i)) {
+                graph.initialise(i, j, 1.0);
             }
         }
     }
 
     public void testCreate() {
-        Instance[] instances = Instance.newArray(dataset.size());
-        Instance.markAll(instances, NOT_COVERED);
+        Coverage instances = new Coverage(dataset.size());
+        instances.markAll(NOT_COVERED);
 
         Entry[] heuristic =
                 new Heuristic.None().compute(graph, dataset, instances);
@@ -58,4 +58,24 @@ public class GraphTest extends TestCase {
         Graph.Vertex vertex = graph.vertices()[2];
         assertNotNull(vertex.initial.sample(dataset));
     }
+
+    public void testCopy() {
+        Graph graph = new Graph(dataset);
+        Graph copy = graph.copy();
+
+        // vertices are shared until updated
+        assertSame(graph.vertices()[2], copy.vertices()[2]);
+
+        copy.update(2, 0, graph.vertices()[2].condition(0, dataset), 1.0);
+
+        assertNotSame(graph.vertices()[2], copy.vertices()[2]);
+        assertEquals(1, copy.vertices()[2].archive.length);
+        assertEquals(0, graph.vertices()[2].archive.length);
+        assertSame(graph.vertices()[3], copy.vertices()[3]);
+
+        // the copy's vertex is no longer shared
+        Graph.Vertex vertex = copy.vertices()[2];
+        copy.update(2, 0, vertex.condition(0, dataset), 1.0);
+        assertSame(vertex, copy.vertices()[2]);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,227 @@
+/*
+ * LevelPheromonePolicyTest.java
+ * (this file is part of MYRA)
+ * 
+ * Copyright 2008-2018 Fernando Esteban Barril Otero
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.rule.pittsburgh;
+
+import static myra.rule.Rule.DEFAULT_RULE;
+import static myra.rule.pittsburgh.LevelPheromonePolicy.EVAPORATION_FACTOR;
+import static myra.rule.pittsburgh.LevelPheromonePolicy.LAZY_EVAPORATION;
+import static myra.rule.pittsburgh.LevelPheromonePolicy.P_BEST;
+
+import java.io.InputStreamReader;
+
+import junit.framework.TestCase;
+import myra.Config;
+import myra.Cost;
+import myra.classification.rule.ClassificationRule;
+import myra.datamining.ARFFReader;
+import myra.datamining.Dataset;
+import myra.rule.Graph;
+import myra.rule.Rule;
+import myra.rule.RuleList;
+
+/**
+ * <code>LevelPheromonePolicy</code> class test.
+ * 
+ * @author Fernando Esteban Barril Otero
+ */
+public class LevelPheromonePolicyTest extends TestCase {
+    /**
+     * The paths of the rules used in the updates. Only the vertices of these
+     * paths are updated, the remaining rows of the pheromone matrix are only
+     * evaporated.
+     */
+    private static final int[][] PATHS = { { 1, 4 }, { 6 }, { 2, 5, 7 } };
+
+    /**
+     * The dataset for the test.
+     */
+    private Dataset dataset;
+
+    @Override
+    protected void setUp() throws Exception {
+        ARFFReader reader = new ARFFReader();
+        dataset = reader.read(new InputStreamReader(getClass()
+                .getResourceAsStream("/weather.arff")));
+    }
+
+    /**
+     * Returns a new configuration of the test.
+     * 
+     * @param lazy
+     *            indicates whether the evaporation is lazy.
+     * 
+     * @return a new configuration of the test.
+     */
+    private Config config(boolean lazy) {
+        Config config = new Config();
+        config.set(DEFAULT_RULE, ClassificationRule.class);
+        config.set(EVAPORATION_FACTOR, 0.9);
+        config.set(P_BEST, 0.05);
+
+        if (lazy) {
+            config.set(LAZY_EVAPORATION, Boolean.TRUE);
+        }
+
+        return config;
+    }
+
+    /**
+     * Returns the list of rules used in the specified iteration. The number of
+     * rules increases over the iterations, so new levels are added to the
+     * pheromone matrix; the quality only improves in a few iterations, which
+     * change the MAX-MIN limits.
+     * 
+     * @param iteration
+     *            the iteration.
+     * 
+     * @return the list of rules used in the iteration.
+     */
+    private RuleList list(int iteration) {
+        int size = iteration < 10 ? 1 : (iteration < 30 ? 2 : 3);
+        RuleList list = new RuleList();
+
+        for (int i = 0; i < size; i++) {
+            Rule rule = Rule.newInstance();
+
+            for (int vertex : PATHS[i]) {
+                rule.add(vertex, null);
+            }
+
+            list.add(rule);
+        }
+
+        // the default rule
+        list.add(Rule.newInstance());
+
+        double quality;
+
+        switch (iteration) {
+        case 0:
+            quality = 0.3;
+            break;
+        case 3:
+            quality = 0.4;
+            break;
+        case 4:
+            quality = 0.5;
+            break;
+        case 20:
+            quality = 0.7;
+            break;
+        case 45:
+            quality = 0.9;
+            break;
+        default:
+            quality = 0.2;
+        }
+
+        list.setQuality(new Cost.Maximise(quality));
+
+        return list;
+    }
+
+    /**
+     * Asserts that the pheromone values of the specified rows are the same in
+     * both graphs.
+     * 
+     * @param eager
+     *            the graph evaporated in every iteration.
+     * @param lazy
+     *            the graph evaporated lazily.
+     * @param rows
+     *            the rows to compare.
+     */
+    private void assertRows(Graph eager, Graph lazy, int... rows) {
+        assertEquals(eager.levels(), lazy.levels());
+
+        for (int i : rows) {
+            for (int j : eager.neighbours(i)) {
+                for (int k = 0; k < eager.levels(); k++) {
+                    assertEquals("(" + i + ", " + j + ", " + k + ")",
+                                 eager.value(i, j, k),
+                                 lazy.value(i, j, k),
+                                 0.0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that the lazy evaporation results in the same pheromone values as
+     * the evaporation of all values in each iteration.
+     */
+    public void testLazyEvaporation() {
+        Config eagerConfig = config(false);
+        Config lazyConfig = config(true);
+
+        Graph eager = new Graph(dataset);
+        Graph lazy = new Graph(dataset);
+        LevelPheromonePolicy eagerPolicy = new LevelPheromonePolicy();
+        LevelPheromonePolicy lazyPolicy = new LevelPheromonePolicy();
+
+        Config previous = Config.bind(eagerConfig);
+
+        try {
+            eagerPolicy.initialise(eager);
+            Config.bind(lazyConfig);
+            lazyPolicy.initialise(lazy);
+
+            int[] all = new int[eager.size()];
+
+            for (int i = 0; i < all.length; i++) {
+                all[i] = i;
+            }
+
+            for (int iteration = 0; iteration < 60; iteration++) {
+                Config.bind(eagerConfig);
+                eagerPolicy.update(eager, list(iteration));
+                Config.bind(lazyConfig);
+                lazyPolicy.update(lazy, list(iteration));
+
+                assertEquals(eagerPolicy.max(), lazyPolicy.max());
+                assertEquals(eagerPolicy.min(), lazyPolicy.min());
+
+                if (iteration == 15 || iteration == 35) {
+                    // the rows of the paths are refreshed, the other rows
+                    // keep their pending steps
+                    assertRows(eager, lazy, 0, 1, 2, 4, 5);
+                }
+
+                if (iteration == 40) {
+                    // new levels are not affected by the pending steps
+                    eager.grow(5);
+                    lazy.grow(5);
+                }
+            }
+
+            // rows 3 (outlook = rain) and 6 (windy = true) were never used as
+            // the source of an edge, so all their steps were pending
+            assertRows(eager, lazy, all);
+
+            // the values of unused edges reached the lower limit
+            assertEquals(eagerPolicy.min(), lazy.value(3, 4, 0), 0.0);
+            // the level added by grow was evaporated after it was added
+            assertTrue(lazy.value(3, 4, 4) < LevelPheromonePolicy
+                    .INITIAL_PHEROMONE);
+        } finally {
+            Config.bind(previous);
+        }
+    }
+}
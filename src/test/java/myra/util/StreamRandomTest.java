@@ -0,0 +1,60 @@
+/*
+ * StreamRandomTest.java
+ * (this file is part of MYRA)
+ *
+ * Copyright 2008-2015 Fernando Esteban Barril Otero
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package myra.util;
+
+import java.util.SplittableRandom;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Fernando Esteban Barril Otero
+ */
+public class StreamRandomTest extends TestCase {
+    public void testStream() {
+        StreamRandom random = new StreamRandom(1);
+        StreamRandom expected = new StreamRandom(1);
+
+        SplittableRandom previous =
+                StreamRandom.bind(StreamRandom.stream(1, 2, 3));
+        double[] values = new double[10];
+
+        try {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = random.nextDouble();
+            }
+        } finally {
+            StreamRandom.bind(previous);
+        }
+
+        // the same coordinates give the same numbers
+        SplittableRandom stream = StreamRandom.stream(1, 2, 3);
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(stream.nextDouble(), values[i]);
+        }
+
+        // the bound stream does not consume numbers from the root stream
+        assertEquals(expected.nextDouble(), random.nextDouble());
+
+        // different ants use different streams
+        assertFalse(StreamRandom.stream(1, 2, 4).nextLong() == StreamRandom
+                .stream(1, 2, 3).nextLong());
+    }
+}